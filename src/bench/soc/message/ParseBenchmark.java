@@ -0,0 +1,287 @@
+/**
+ * Java Settlers - An online multiplayer version of the game Settlers of Catan
+ * This file Copyright (C) 2026 agent <agent@local>
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * The maintainer of this program can be reached at jsettlers@nand.net
+ **/
+package soc.message;
+
+import java.util.NoSuchElementException;
+import java.util.StringTokenizer;
+
+import soc.game.SOCPlayingPiece;
+
+/**
+ * Message parsing microbenchmark for {@link SOCMessageParser}, compared to
+ * the {@link StringTokenizer} and {@link Integer#parseInt(String)} parsing which it replaced in 2.0.00.
+ * Standalone class, not used by the client or server: It's in {@code src/bench}, which isn't part of the jars.
+ * To compile, run {@code ant compile-bench}.
+ *<P>
+ * Parses a mix of frequent game messages ({@link SOCPutPiece}, {@link SOCPlayerElement}, {@link SOCDiceResult},
+ * etc) as {@link SOCMessage#toMsg(String)} and their {@code parseDataStr} methods do: The message type,
+ * then the game name and int fields.  Prints the elapsed time and messages per second for each parser,
+ * and for the complete {@code toMsg} which also constructs each message object.
+ * The first rounds warm up the JIT.
+ *<P>
+ * Before timing, checks that both parsers give the same results for the messages, and that
+ * {@link SOCMessageParser#nextInt()} accepts and rejects the same int fields as {@code Integer.parseInt}.
+ *<P>
+ * Usage: {@code java -cp target/classes:target/bench-classes soc.message.ParseBenchmark [messages [rounds]]}
+ * (default 1000000 messages, 5 rounds).
+ *
+ * @author agent &lt;agent@local&gt;
+ * @since 2.0.00
+ */
+public class ParseBenchmark
+{
+    /** Number of warmup rounds before the timed ones */
+    private static final int WARMUP_ROUNDS = 3;
+
+    /**
+     * Int fields to check {@link SOCMessageParser#nextInt()} against {@link Integer#parseInt(String)},
+     * including signs, limits, overflow, and non-ASCII digits.
+     */
+    private static final String[] INT_FIELDS =
+    {
+        "0", "7", "-7", "+7", "007", "-0", "+0", "2147483647", "-2147483648", "2147483648", "-2147483649",
+        "99999999999", "+", "-", "--1", "+-1", "1-", "1x", "0x1f", " 1", "1 ",
+        "\u0663", "-\u0661\u0662", "1\u0662", "\uFF11\uFF12", "\u00B2"  // Unicode digits, superscript 2
+    };
+
+    /**
+     * Run the benchmark and print results to {@link System#out}.
+     * @param args  Optional: Number of messages per round, number of timed rounds
+     */
+    public static void main(String[] args)
+    {
+        int messages = 1000000, rounds = 5;
+        if (args.length > 0)
+            messages = Integer.parseInt(args[0]);
+        if (args.length > 1)
+            rounds = Integer.parseInt(args[1]);
+
+        final String[] corpus =
+        {
+            SOCPutPiece.toCmd("practice game", 2, SOCPlayingPiece.SETTLEMENT, 0x67),
+            SOCPlayerElement.toCmd("practice game", 1, SOCPlayerElement.GAIN, SOCPlayerElement.SHEEP, 1),
+            SOCPlayerElement.toCmd("practice game", 3, SOCPlayerElement.LOSE, SOCPlayerElement.ORE, 2),
+            SOCDiceResult.toCmd("practice game", 8),
+            SOCGameState.toCmd("practice game", 20),
+            SOCTurn.toCmd("practice game", 3),
+            SOCResourceCount.toCmd("practice game", 0, 7),
+            SOCMoveRobber.toCmd("practice game", 1, -0x9b)
+        };
+
+        if (! checkParsers(corpus))
+        {
+            System.out.println("Parsers disagree; not timing them.");
+            System.exit(1);
+        }
+
+        for (int r = 0; r < WARMUP_ROUNDS; ++r)
+        {
+            runTokenizer(corpus, messages / 4);
+            runParser(corpus, messages / 4);
+            runToMsg(corpus, messages / 4);
+        }
+
+        System.out.println("Messages per round: " + messages);
+        for (int r = 1; r <= rounds; ++r)
+        {
+            long t0 = System.nanoTime();
+            runTokenizer(corpus, messages);
+            final long tokNanos = System.nanoTime() - t0;
+
+            t0 = System.nanoTime();
+            runParser(corpus, messages);
+            final long parNanos = System.nanoTime() - t0;
+
+            t0 = System.nanoTime();
+            runToMsg(corpus, messages);
+            final long msgNanos = System.nanoTime() - t0;
+
+            System.out.println("Round " + r + ": "
+                + "StringTokenizer " + formatResult(tokNanos, messages)
+                + "; SOCMessageParser " + formatResult(parNanos, messages)
+                + String.format("; speedup %.2fx", ((double) tokNanos) / parNanos)
+                + "; SOCMessage.toMsg " + formatResult(msgNanos, messages));
+        }
+    }
+
+    /**
+     * Format one parser's result.
+     * @param nanos  Elapsed time
+     * @param messages  Number of messages
+     * @return  Elapsed milliseconds and messages per second
+     */
+    private static String formatResult(final long nanos, final int messages)
+    {
+        return String.format("%d ms (%.0f msgs/sec)", nanos / 1000000L, (messages * 1e9) / nanos);
+    }
+
+    /**
+     * Check that both parsers give the same results for the corpus, and that {@link SOCMessageParser#nextInt()}
+     * matches {@link Integer#parseInt(String)} for each of {@link #INT_FIELDS}. Prints any differences.
+     * @param corpus  Messages to parse
+     * @return  true if no differences were found
+     */
+    private static boolean checkParsers(final String[] corpus)
+    {
+        boolean ok = true;
+        for (int i = 0; i < corpus.length; ++i)
+        {
+            final long tok = parseTokenizer(corpus[i]), par = parseParser(corpus[i]);
+            if (tok != par)
+            {
+                System.out.println("Parse results differ for " + corpus[i] + ": " + tok + ", " + par);
+                ok = false;
+            }
+        }
+
+        for (int i = 0; i < INT_FIELDS.length; ++i)
+        {
+            final String field = INT_FIELDS[i];
+            String expected, actual;
+            try
+            {
+                expected = Integer.toString(Integer.parseInt(field));
+            }
+            catch (NumberFormatException e)
+            {
+                expected = "NumberFormatException";
+            }
+
+            try
+            {
+                actual = Integer.toString(new SOCMessageParser(field + ",5", SOCMessage.sep2_char).nextInt());
+            }
+            catch (NumberFormatException e)
+            {
+                actual = "NumberFormatException";
+            }
+
+            if (! expected.equals(actual))
+            {
+                System.out.println("nextInt differs from Integer.parseInt for \"" + field + "\": "
+                    + actual + ", expected " + expected);
+                ok = false;
+            }
+        }
+
+        return ok;
+    }
+
+    /**
+     * Parse {@code messages} messages from the corpus with {@link #parseTokenizer(String)}.
+     * @param corpus  Messages to parse, used in rotation
+     * @param messages  Number of messages to parse
+     * @return  Sum of the results, so the JIT can't skip the work
+     */
+    private static long runTokenizer(final String[] corpus, final int messages)
+    {
+        long sum = 0;
+        for (int i = 0; i < messages; ++i)
+            sum += parseTokenizer(corpus[i % corpus.length]);
+        return sum;
+    }
+
+    /**
+     * Parse {@code messages} messages from the corpus with {@link #parseParser(String)}.
+     * @param corpus  Messages to parse, used in rotation
+     * @param messages  Number of messages to parse
+     * @return  Sum of the results, so the JIT can't skip the work
+     */
+    private static long runParser(final String[] corpus, final int messages)
+    {
+        long sum = 0;
+        for (int i = 0; i < messages; ++i)
+            sum += parseParser(corpus[i % corpus.length]);
+        return sum;
+    }
+
+    /**
+     * Parse {@code messages} messages from the corpus with {@link SOCMessage#toMsg(String)}.
+     * @param corpus  Messages to parse, used in rotation
+     * @param messages  Number of messages to parse
+     * @return  Sum of the message types, so the JIT can't skip the work
+     */
+    private static long runToMsg(final String[] corpus, final int messages)
+    {
+        long sum = 0;
+        for (int i = 0; i < messages; ++i)
+            sum += SOCMessage.toMsg(corpus[i % corpus.length]).getType();
+        return sum;
+    }
+
+    /**
+     * Parse a message's type, game name, and int fields the way 1.1.xx did, with {@link StringTokenizer}s
+     * for the type and data and then the data's fields, and {@link Integer#parseInt(String)}.
+     * @param s  Message to parse
+     * @return  A checksum of the parsed fields, or -1 if malformed
+     */
+    private static long parseTokenizer(final String s)
+    {
+        try
+        {
+            final StringTokenizer st = new StringTokenizer(s, SOCMessage.sep);
+            long sum = Integer.parseInt(st.nextToken());
+            final StringTokenizer dt = new StringTokenizer(st.nextToken(), SOCMessage.sep2);
+            sum = (sum * 31) + dt.nextToken().length();  // game name
+            while (dt.hasMoreTokens())
+                sum = (sum * 31) + Integer.parseInt(dt.nextToken());
+
+            return sum;
+        }
+        catch (NoSuchElementException e)
+        {
+            return -1;
+        }
+        catch (NumberFormatException e)
+        {
+            return -1;
+        }
+    }
+
+    /**
+     * Parse a message's type, game name, and int fields with {@link SOCMessageParser}s,
+     * as {@link SOCMessage#toMsg(String)} and the {@code parseDataStr} methods now do.
+     * @param s  Message to parse
+     * @return  A checksum of the parsed fields, or -1 if malformed
+     */
+    private static long parseParser(final String s)
+    {
+        try
+        {
+            final SOCMessageParser mp = new SOCMessageParser(s, SOCMessage.sep_char);
+            long sum = mp.nextInt();
+            final SOCMessageParser dp = new SOCMessageParser(mp.next(), SOCMessage.sep2_char);
+            sum = (sum * 31) + dp.next().length();  // game name
+            while (dp.hasNext())
+                sum = (sum * 31) + dp.nextInt();
+
+            return sum;
+        }
+        catch (NoSuchElementException e)
+        {
+            return -1;
+        }
+        catch (NumberFormatException e)
+        {
+            return -1;
+        }
+    }
+
+}
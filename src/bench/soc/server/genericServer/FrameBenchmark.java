@@ -0,0 +1,236 @@
+/**
+ * Java Settlers - An online multiplayer version of the game Settlers of Catan
+ * This file Copyright (C) 2026 agent <agent@local>
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * The maintainer of this program can be reached at jsettlers@nand.net
+ **/
+package soc.server.genericServer;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Vector;
+
+import soc.game.SOCPlayingPiece;
+import soc.message.SOCDiceResult;
+import soc.message.SOCGameState;
+import soc.message.SOCGameTextMsg;
+import soc.message.SOCMoveRobber;
+import soc.message.SOCPlayerElement;
+import soc.message.SOCPotentialSettlements;
+import soc.message.SOCPutPiece;
+import soc.message.SOCResourceCount;
+import soc.message.SOCTurn;
+
+/**
+ * Frame encode and decode microbenchmark for {@link MessageFrameCodec}'s text and compact formats.
+ * Standalone class, not used by the client or server: It's in {@code src/bench}, which isn't part of the jars.
+ * To compile, run {@code ant compile-bench}.
+ *<P>
+ * Compact frames are encoded from each message's {@code toCmd} text and decoded back to that text,
+ * so they save network bytes but not CPU: This measures how much CPU they cost compared to text frames.
+ * The server encodes each message once per format no matter how many members of a game it's sent to
+ * (see {@link EncodedMessage}), and each client decodes only the messages it receives.
+ *<P>
+ * Uses a mix of frequent game messages ({@link SOCPutPiece}, {@link SOCPlayerElement}, {@link SOCDiceResult}, etc),
+ * plus a chat message and a potential-settlements list. Prints the total text and compact frame sizes,
+ * then the elapsed time and messages per second to encode and decode each format.
+ * The first rounds warm up the JIT.
+ *<P>
+ * Before timing, checks that each compact frame decodes to its exact message text.
+ *<P>
+ * Usage: {@code java -cp target/classes:target/bench-classes soc.server.genericServer.FrameBenchmark [messages [rounds]]}
+ * (default 1000000 messages, 5 rounds).
+ *
+ * @author agent &lt;agent@local&gt;
+ * @since 2.0.00
+ */
+public class FrameBenchmark
+{
+    /** Number of warmup rounds before the timed ones */
+    private static final int WARMUP_ROUNDS = 3;
+
+    /**
+     * Run the benchmark and print results to {@link System#out}.
+     * @param args  Optional: Number of messages per round, number of timed rounds
+     * @throws IOException  if a frame can't be encoded or decoded; shouldn't happen
+     */
+    public static void main(String[] args)
+        throws IOException
+    {
+        int messages = 1000000, rounds = 5;
+        if (args.length > 0)
+            messages = Integer.parseInt(args[0]);
+        if (args.length > 1)
+            rounds = Integer.parseInt(args[1]);
+
+        final Vector<Integer> psList = new Vector<Integer>();
+        for (int node = 0x23; node <= 0xcb; node += 6)
+            psList.addElement(Integer.valueOf(node));
+
+        final String[] corpus =
+        {
+            SOCPutPiece.toCmd("practice game", 2, SOCPlayingPiece.SETTLEMENT, 0x67),
+            SOCPlayerElement.toCmd("practice game", 1, SOCPlayerElement.GAIN, SOCPlayerElement.SHEEP, 1),
+            SOCPlayerElement.toCmd("practice game", 3, SOCPlayerElement.LOSE, SOCPlayerElement.ORE, 2),
+            SOCDiceResult.toCmd("practice game", 8),
+            SOCGameState.toCmd("practice game", 20),
+            SOCTurn.toCmd("practice game", 3),
+            SOCResourceCount.toCmd("practice game", 0, 7),
+            SOCMoveRobber.toCmd("practice game", 1, -0x9b),
+            SOCGameTextMsg.toCmd("practice game", "robot 3", "Does anyone have wheat for clay?"),
+            SOCPotentialSettlements.toCmd("practice game", 2, psList)
+        };
+
+        // Encode once, to check and size the frames and to have frames to decode
+        final byte[][] textFrames = new byte[corpus.length][], compactFrames = new byte[corpus.length][];
+        long textBytes = 0, compactBytes = 0;
+        for (int i = 0; i < corpus.length; ++i)
+        {
+            final String str = corpus[i];
+            textFrames[i] = MessageFrameCodec.encodeUTF(str).array();
+            compactFrames[i] = MessageFrameCodec.encodeCompactFrame(str, textFrames[i].length);
+            if (compactFrames[i] == null)
+                compactFrames[i] = textFrames[i];  // not shorter; EncodedMessage would send text
+
+            final String decoded = decodeFrame(compactFrames[i]);
+            if (! str.equals(decoded))
+            {
+                System.out.println("Compact frame decodes to \"" + decoded + "\", expected \"" + str + "\"");
+                System.exit(1);
+            }
+
+            textBytes += textFrames[i].length;
+            compactBytes += compactFrames[i].length;
+        }
+
+        System.out.println("Frame bytes for the " + corpus.length + " messages: text " + textBytes
+            + ", compact " + compactBytes
+            + String.format(" (%.0f%%)", (100.0 * compactBytes) / textBytes));
+
+        for (int r = 0; r < WARMUP_ROUNDS; ++r)
+        {
+            runEncodeText(corpus, messages / 4);
+            runEncodeCompact(corpus, messages / 4);
+            runDecode(textFrames, messages / 4);
+            runDecode(compactFrames, messages / 4);
+        }
+
+        System.out.println("Messages per round: " + messages);
+        for (int r = 1; r <= rounds; ++r)
+        {
+            long t0 = System.nanoTime();
+            runEncodeText(corpus, messages);
+            final long encTextNanos = System.nanoTime() - t0;
+
+            t0 = System.nanoTime();
+            runEncodeCompact(corpus, messages);
+            final long encCompactNanos = System.nanoTime() - t0;
+
+            t0 = System.nanoTime();
+            runDecode(textFrames, messages);
+            final long decTextNanos = System.nanoTime() - t0;
+
+            t0 = System.nanoTime();
+            runDecode(compactFrames, messages);
+            final long decCompactNanos = System.nanoTime() - t0;
+
+            System.out.println("Round " + r + ": encode text " + formatResult(encTextNanos, messages)
+                + ", compact " + formatResult(encCompactNanos, messages)
+                + "; decode text " + formatResult(decTextNanos, messages)
+                + ", compact " + formatResult(decCompactNanos, messages));
+        }
+    }
+
+    /**
+     * Format one result.
+     * @param nanos  Elapsed time
+     * @param messages  Number of messages
+     * @return  Elapsed milliseconds and messages per second
+     */
+    private static String formatResult(final long nanos, final int messages)
+    {
+        return String.format("%d ms (%.0f msgs/sec)", nanos / 1000000L, (messages * 1e9) / nanos);
+    }
+
+    /**
+     * Decode one complete frame, as a client's reader would.
+     * @param frame  Frame including its 2-byte length prefix
+     * @return  The message string
+     * @throws IOException  if the frame is malformed
+     */
+    private static String decodeFrame(final byte[] frame)
+        throws IOException
+    {
+        final ByteBuffer buf = ByteBuffer.wrap(frame);
+        final int len = buf.getShort() & 0xFFFF;
+
+        return MessageFrameCodec.decodeFrame(buf, len);
+    }
+
+    /**
+     * Encode {@code messages} messages from the corpus as text frames.
+     * @param corpus  Messages to encode, used in rotation
+     * @param messages  Number of messages to encode
+     * @return  Total frame length, so the JIT can't skip the work
+     * @throws IOException  if a message is too long; shouldn't happen
+     */
+    private static long runEncodeText(final String[] corpus, final int messages)
+        throws IOException
+    {
+        long sum = 0;
+        for (int i = 0; i < messages; ++i)
+            sum += MessageFrameCodec.encodeUTF(corpus[i % corpus.length]).limit();
+        return sum;
+    }
+
+    /**
+     * Encode {@code messages} messages from the corpus as compact frames, the way {@link EncodedMessage} does:
+     * Calculate the text frame length, then encode the compact frame if it'd be shorter.
+     * @param corpus  Messages to encode, used in rotation
+     * @param messages  Number of messages to encode
+     * @return  Total frame length, so the JIT can't skip the work
+     */
+    private static long runEncodeCompact(final String[] corpus, final int messages)
+    {
+        long sum = 0;
+        for (int i = 0; i < messages; ++i)
+        {
+            final String str = corpus[i % corpus.length];
+            final byte[] frame = MessageFrameCodec.encodeCompactFrame
+                (str, 2 + MessageFrameCodec.utfLength(str, 0, str.length()));
+            if (frame != null)
+                sum += frame.length;
+        }
+        return sum;
+    }
+
+    /**
+     * Decode {@code messages} frames.
+     * @param frames  Frames to decode, used in rotation
+     * @param messages  Number of frames to decode
+     * @return  Total message length, so the JIT can't skip the work
+     * @throws IOException  if a frame is malformed; shouldn't happen
+     */
+    private static long runDecode(final byte[][] frames, final int messages)
+        throws IOException
+    {
+        long sum = 0;
+        for (int i = 0; i < messages; ++i)
+            sum += decodeFrame(frames[i % frames.length]).length();
+        return sum;
+    }
+
+}
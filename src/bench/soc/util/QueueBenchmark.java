@@ -0,0 +1,198 @@
+/**
+ * Java Settlers - An online multiplayer version of the game Settlers of Catan
+ * This file Copyright (C) 2026 agent <agent@local>
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * The maintainer of this program can be reached at jsettlers@nand.net
+ **/
+package soc.util;
+
+import java.util.Vector;
+
+/**
+ * Producer/consumer throughput microbenchmark for {@link CappedQueue}, compared to
+ * the synchronized {@code Vector} with {@code wait/notifyAll} which it used before 2.0.00.
+ * Standalone class, not used by the client or server: It's in {@code src/bench}, which isn't part of the jars.
+ * To compile, run {@code ant compile-bench}.
+ *<P>
+ * For each producer count, starts that many producer threads which together put
+ * {@code messages} objects, and one consumer thread which gets them all; prints the elapsed time
+ * and messages per second for each queue type. The first rounds warm up the JIT.
+ *<P>
+ * Usage: {@code java -cp target/classes:target/bench-classes soc.util.QueueBenchmark [messages [producers ...]]}
+ * (default 200000 messages, 1 2 4 8 producers).
+ * When producers outpace the consumer, the {@code Vector}'s backlog grows, and each get
+ * then costs more because it shifts the whole backlog; so the {@code Vector}'s time grows faster
+ * than linearly with the number of messages.
+ *
+ * @author agent &lt;agent@local&gt;
+ * @since 2.0.00
+ */
+public class QueueBenchmark
+{
+    /** Number of warmup rounds before the timed ones */
+    private static final int WARMUP_ROUNDS = 2;
+
+    /**
+     * Run the benchmark and print results to {@link System#out}.
+     * @param args  Optional: Number of messages, then producer thread counts
+     * @throws InterruptedException if interrupted while waiting for the threads
+     */
+    public static void main(String[] args)
+        throws InterruptedException
+    {
+        int messages = 200000;
+        int[] producerCounts = { 1, 2, 4, 8 };
+        if (args.length > 0)
+            messages = Integer.parseInt(args[0]);
+        if (args.length > 1)
+        {
+            producerCounts = new int[args.length - 1];
+            for (int i = 1; i < args.length; ++i)
+                producerCounts[i - 1] = Integer.parseInt(args[i]);
+        }
+
+        for (int r = 0; r < WARMUP_ROUNDS; ++r)
+        {
+            run(new VectorQueue(), 2, messages / 4);
+            run(new CappedQueueAdapter(), 2, messages / 4);
+        }
+
+        System.out.println("Messages: " + messages);
+        for (int i = 0; i < producerCounts.length; ++i)
+        {
+            final int np = producerCounts[i];
+            final long vecNanos = run(new VectorQueue(), np, messages);
+            final long lfNanos = run(new CappedQueueAdapter(), np, messages);
+            System.out.println(np + " producers: "
+                + "synchronized Vector " + formatResult(vecNanos, messages)
+                + "; CappedQueue " + formatResult(lfNanos, messages)
+                + String.format("; speedup %.2fx", ((double) vecNanos) / lfNanos));
+        }
+    }
+
+    /**
+     * Format one queue type's result.
+     * @param nanos  Elapsed time
+     * @param messages  Number of messages
+     * @return  Elapsed milliseconds and messages per second
+     */
+    private static String formatResult(final long nanos, final int messages)
+    {
+        return String.format("%d ms (%.0f msgs/sec)", nanos / 1000000L, (messages * 1e9) / nanos);
+    }
+
+    /**
+     * Put {@code messages} objects from {@code np} producer threads, and get them from 1 consumer thread.
+     * @param q  Queue to test
+     * @param np  Number of producer threads
+     * @param messages  Total number of messages
+     * @return  Elapsed nanoseconds from starting the threads until the consumer has all the messages
+     * @throws InterruptedException if interrupted while waiting for the threads
+     */
+    private static long run(final BenchQueue q, final int np, final int messages)
+        throws InterruptedException
+    {
+        final Integer item = Integer.valueOf(1);
+        final int perProducer = messages / np;
+        final int total = perProducer * np;
+
+        final Thread consumer = new Thread()
+        {
+            public void run()
+            {
+                for (int i = 0; i < total; ++i)
+                    q.get();
+            }
+        };
+        final Thread[] producers = new Thread[np];
+        for (int p = 0; p < np; ++p)
+            producers[p] = new Thread()
+            {
+                public void run()
+                {
+                    for (int i = 0; i < perProducer; ++i)
+                        q.put(item);
+                }
+            };
+
+        final long t0 = System.nanoTime();
+        consumer.start();
+        for (int p = 0; p < np; ++p)
+            producers[p].start();
+        for (int p = 0; p < np; ++p)
+            producers[p].join();
+        consumer.join();
+
+        return System.nanoTime() - t0;
+    }
+
+    /** Queue operations used by the benchmark */
+    private interface BenchQueue
+    {
+        void put(Integer o);
+        Integer get();
+    }
+
+    /** Benchmarks {@link CappedQueue}, with no size limit so that producers aren't cut off. */
+    private static final class CappedQueueAdapter implements BenchQueue
+    {
+        private final CappedQueue<Integer> q = new CappedQueue<Integer>(Integer.MAX_VALUE);
+
+        public void put(Integer o)
+        {
+            try
+            {
+                q.put(o);
+            }
+            catch (CutoffExceededException e) {}
+        }
+
+        public Integer get()
+        {
+            return q.get();
+        }
+    }
+
+    /**
+     * Baseline: The synchronized {@code Vector} with {@code wait/notifyAll}
+     * used by {@link CappedQueue} and {@link Queue} before 2.0.00.
+     */
+    private static final class VectorQueue implements BenchQueue
+    {
+        private final Vector<Integer> vec = new Vector<Integer>();
+
+        public synchronized void put(Integer o)
+        {
+            vec.addElement(o);
+            notifyAll();
+        }
+
+        public synchronized Integer get()
+        {
+            while (vec.isEmpty())
+            {
+                try
+                {
+                    wait();
+                }
+                catch (InterruptedException e) {}
+            }
+
+            return vec.remove(0);
+        }
+    }
+
+}
@@ -45,6 +45,7 @@ import soc.game.SOCVillage;
 import soc.message.*;
 import soc.robot.SOCRobotClient;
 import soc.server.genericServer.LocalStringConnection;
+import soc.server.genericServer.MessageFrameCodec;
 import soc.util.Version;
 
 import java.io.DataInputStream;
@@ -195,7 +196,7 @@ public class SOCDisplaylessPlayerClient implements Runnable
             {
                 String s;
                 if (sLocal == null)
-                    s = in.readUTF();
+                    s = MessageFrameCodec.readFrame(in);
                 else
                     s = sLocal.readNext();
                 treat(SOCMessage.toMsg(s));
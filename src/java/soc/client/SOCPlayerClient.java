@@ -91,6 +91,7 @@ import soc.message.*;
 import soc.server.SOCServer;
 import soc.server.genericServer.LocalStringConnection;
 import soc.server.genericServer.LocalStringServerSocket;
+import soc.server.genericServer.MessageFrameCodec;
 import soc.server.genericServer.StringConnection;
 
 import soc.util.I18n;
@@ -5830,9 +5831,11 @@ public class SOCPlayerClient
                 connected = true;
                 (reader = new Thread(new NetReadTask(client, this))).start();
                 // send VERSION right away (1.1.06 and later)
-                // Version msg includes locale in 2.0.00 and later clients; older 1.1.xx servers will ignore that token.
+                // Version msg includes locale and features in 2.0.00 and later clients;
+                // older 1.1.xx servers will ignore those tokens.
                 putNet(SOCVersion.toCmd
-                    (Version.versionNumber(), Version.version(), Version.buildnum(), client.cliLocale.toString()));
+                    (Version.versionNumber(), Version.version(), Version.buildnum(), client.cliLocale.toString(),
+                     SOCVersion.FEAT_COMPACT_FRAMES));
             }
             catch (Exception e)
             {
@@ -6051,7 +6054,7 @@ public class SOCPlayerClient
                 {
                     while (net.isConnected())
                     {
-                        String s = net.in.readUTF();
+                        String s = MessageFrameCodec.readFrame(net.in);
                         client.treater.treat(SOCMessage.toMsg(s), false);
                     }
                 }
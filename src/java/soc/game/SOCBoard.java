@@ -46,6 +46,9 @@ import java.util.Vector;
  *<P>
  * To identify nearby nodes, edges, hexes, etc, use the methods
  * with names such as {@link #getAdjacentHexesToNode(int)}.
+ * In frequently-called code, the {@code adj*} methods such as {@link #adjNodeToNode(int, int)}
+ * give the same results from precomputed tables shared by all boards with the same geometry,
+ * without allocating.
  *<P>
  * Other methods to examine the board: {@link SOCGame#getPlayersOnHex(int)},
  * {@link SOCGame#putPiece(SOCPlayingPiece)}, etc.
@@ -62,7 +65,8 @@ import java.util.Vector;
  *      {@link #getAdjacentHexToEdge(int, int)}
  *    </td>
  *    <td><!-- Hex adjac to node -->
- *      {@link #getAdjacentHexesToNode(int)}
+ *      {@link #getAdjacentHexesToNode(int)} <br>
+ *      {@link #adjHexesToNodeCount(int)}, {@link #adjHexToNode(int, int)}
  *    </td>
  *</TR>
  *<TR><td> Edge </td>
@@ -70,7 +74,8 @@ import java.util.Vector;
  *      -
  *    </td>
  *    <td><!-- Edge adjac to edge -->
- *      {@link #getAdjacentEdgesToEdge(int)}
+ *      {@link #getAdjacentEdgesToEdge(int)} <br>
+ *      {@link #adjEdgesToEdgeCount(int)}, {@link #adjEdgeToEdge(int, int)}
  *    </td>
  *    <td><!-- Edge adjac to node -->
  *      {@link #getAdjacentEdgeToNode(int, int)} <br>
@@ -78,7 +83,8 @@ import java.util.Vector;
  *      {@link #getAdjacentEdgesToNode(int)} <br>
  *      {@link #getAdjacentEdgesToNode_arr(int)} <br>
  *      {@link #getEdgeBetweenAdjacentNodes(int, int)} <br>
- *      {@link #isEdgeAdjacentToNode(int, int)}
+ *      {@link #isEdgeAdjacentToNode(int, int)} <br>
+ *      {@link #adjEdgeToNode(int, int)}
  *    </td>
  *</TR>
  *<TR><td> Node </td>
@@ -89,7 +95,8 @@ import java.util.Vector;
  *    <td><!-- Node adjac to edge -->
  *      {@link #getAdjacentNodesToEdge(int)} <br>
  *      {@link #getAdjacentNodesToEdge_arr(int)} <br>
- *      {@link #getAdjacentNodeFarEndOfEdge(int, int)}
+ *      {@link #getAdjacentNodeFarEndOfEdge(int, int)} <br>
+ *      {@link #adjNodeToEdge(int, int)}
  *    </td>
  *    <td><!-- Node adjac to node -->
  *      {@link #getAdjacentNodeToNode(int, int)} <br>
@@ -97,7 +104,8 @@ import java.util.Vector;
  *      {@link #getAdjacentNodesToNode(int)} <br>
  *      {@link #getAdjacentNodesToNode_arr(int)} <br>
  *      {@link #isNodeAdjacentToNode(int, int)} <br>
- *      {@link #isNode2AwayFromNode(int, int)}
+ *      {@link #isNode2AwayFromNode(int, int)} <br>
+ *      {@link #adjNodeToNode(int, int)}
  *    </td>
  *</TR>
  *<TR><td>Other methods:</td> <td> Hex </td><td> Edge </td><td> Node </td></TR>
@@ -442,6 +450,15 @@ public class SOCBoard implements Serializable, Cloneable
      */
     private int minNode, minEdge, maxEdge;
 
+    /**
+     * Shared precomputed adjacency tables for this board's geometry, used by
+     * {@link #adjNodeToNode(int, int)} and the other {@code adj*} methods;
+     * null until first needed, or after {@link #setBoardBounds(int, int)}.
+     * @see #getAdjacencyTables()
+     * @since 2.0.00
+     */
+    private transient SOCBoardAdjacency adjacency;
+
     /**
      * The encoding format of board coordinates,
      * or {@link #BOARD_ENCODING_ORIGINAL} (default, original).
@@ -827,6 +844,26 @@ public class SOCBoard implements Serializable, Cloneable
      */
     protected Vector<SOCCity> cities;
 
+    /**
+     * Index of the settlement or city at each node coordinate, or null; updated by
+     * {@link #putPiece(SOCPlayingPiece)} and {@link #removePiece(SOCPlayingPiece)}
+     * along with {@link #settlements} and {@link #cities}, for {@link #settlementAtNode(int)}.
+     * Null until the first piece is placed; grown if needed by {@link #setPieceIndex(SOCPlayingPiece[], int, SOCPlayingPiece)}.
+     * Negative coordinates aren't indexed.
+     * @see #edgeRoads
+     * @since 2.0.00
+     */
+    private SOCPlayingPiece[] nodePieces;
+
+    /**
+     * Index of the road or ship at each edge coordinate, or null;
+     * updated along with {@link #roads}, for {@link #roadAtEdge(int)}.
+     * Elements are all {@link SOCRoad}s; the array type is {@code SOCPlayingPiece[]}
+     * to share index methods with {@link #nodePieces}.
+     * @since 2.0.00
+     */
+    private SOCPlayingPiece[] edgeRoads;
+
     /**
      * random number generator
      */
@@ -2315,22 +2352,72 @@ public class SOCBoard implements Serializable, Cloneable
         case SOCPlayingPiece.SHIP:  // fall through to ROAD
         case SOCPlayingPiece.ROAD:
             roads.addElement((SOCRoad)pp);
+            edgeRoads = setPieceIndex(edgeRoads, pp.getCoordinates(), pp);
 
             break;
 
         case SOCPlayingPiece.SETTLEMENT:
             settlements.addElement((SOCSettlement)pp);
+            nodePieces = setPieceIndex(nodePieces, pp.getCoordinates(), pp);
 
             break;
 
         case SOCPlayingPiece.CITY:
             cities.addElement((SOCCity)pp);
+            nodePieces = setPieceIndex(nodePieces, pp.getCoordinates(), pp);
 
             break;
 
         }
     }
 
+    /**
+     * Set one coordinate's piece in {@link #nodePieces} or {@link #edgeRoads},
+     * creating or growing the index array if needed.
+     * @param index  Index array, or null if not yet created
+     * @param coord  Coordinate; if negative, isn't indexed
+     * @param pp  Piece to place at {@code coord}, or null to clear it
+     * @return  {@code index}, or a larger copy of it; null only if {@code index} was null and {@code pp} is null
+     * @since 2.0.00
+     */
+    private final SOCPlayingPiece[] setPieceIndex
+        (SOCPlayingPiece[] index, final int coord, final SOCPlayingPiece pp)
+    {
+        if (coord < 0)
+            return index;
+
+        if ((index == null) || (coord >= index.length))
+        {
+            if (pp == null)
+                return index;  // nothing to clear
+
+            final int len = Math.max
+                (coord + 1, (boardEncodingFormat == BOARD_ENCODING_LARGE) ? ((boardHeight + 1) << 8) : 0x100);
+            final SOCPlayingPiece[] grown = new SOCPlayingPiece[len];
+            if (index != null)
+                System.arraycopy(index, 0, grown, 0, index.length);
+            index = grown;
+        }
+
+        index[coord] = pp;
+        return index;
+    }
+
+    /**
+     * If {@code piece} is the piece indexed at its coordinate in {@link #nodePieces} or {@link #edgeRoads},
+     * clear that index entry.  Another piece there, such as a city replacing a settlement, is left indexed.
+     * @param index  Index array, or null
+     * @param piece  Piece being removed; compared with {@link SOCPlayingPiece#equals(Object)}
+     * @since 2.0.00
+     */
+    private static final void clearPieceIndex(final SOCPlayingPiece[] index, final SOCPlayingPiece piece)
+    {
+        final int coord = piece.getCoordinates();
+        if ((index != null) && (coord >= 0) && (coord < index.length)
+            && (index[coord] != null) && index[coord].equals(piece))
+            index[coord] = null;
+    }
+
     /**
      * remove a piece from the board.
      *<P>
@@ -2351,14 +2438,17 @@ public class SOCBoard implements Serializable, Cloneable
         case SOCPlayingPiece.SHIP:  // fall through to ROAD
         case SOCPlayingPiece.ROAD:
             roads.removeElement(piece);
+            clearPieceIndex(edgeRoads, piece);
             break;
 
         case SOCPlayingPiece.SETTLEMENT:
             settlements.removeElement(piece);
+            clearPieceIndex(nodePieces, piece);
             break;
 
         case SOCPlayingPiece.CITY:
             cities.removeElement(piece);
+            clearPieceIndex(nodePieces, piece);
             break;
         }
     }
@@ -2421,6 +2511,162 @@ public class SOCBoard implements Serializable, Cloneable
     {
         boardHeight = boardH;
         boardWidth = boardW;
+        adjacency = null;
+    }
+
+    /**
+     * Get this board geometry's shared adjacency tables, finding or building them if not yet done.
+     * @return  Tables for this board; not null
+     * @since 2.0.00
+     */
+    private final SOCBoardAdjacency getAdjacencyTables()
+    {
+        SOCBoardAdjacency adj = adjacency;
+        if (adj == null)
+        {
+            adj = SOCBoardAdjacency.forBoard(this, minNode, minEdge, maxEdge);
+            adjacency = adj;
+        }
+
+        return adj;
+    }
+
+    /**
+     * Given a node, get the valid adjacent node in a given direction, if any,
+     * from precomputed tables without allocating.
+     * Same results as {@link #getAdjacentNodeToNode(int, int)}; use in frequently-called code.
+     * @param nodeCoord  Node coordinate to go from; not checked for validity.
+     * @param nodeDir  0 for northwest or southwest; 1 for northeast or southeast;
+     *     2 for north or south
+     * @return  The adjacent node in that direction, or -9 if none (if off the board)
+     * @throws IllegalArgumentException if <tt>nodeDir</tt> is less than 0 or greater than 2
+     * @since 2.0.00
+     */
+    public final int adjNodeToNode(final int nodeCoord, final int nodeDir)
+        throws IllegalArgumentException
+    {
+        if ((nodeDir < 0) || (nodeDir > 2))
+            throw new IllegalArgumentException("nodeDir: " + nodeDir);
+
+        final SOCBoardAdjacency adj = getAdjacencyTables();
+        final int id = adj.idOf(nodeCoord);
+        return (id != -1) ? adj.nodeToNode(id, nodeDir) : getAdjacentNodeToNode(nodeCoord, nodeDir);
+    }
+
+    /**
+     * Given a node, get the valid adjacent edge in a given direction, if any,
+     * from precomputed tables without allocating.
+     * Same results as {@link #getAdjacentEdgeToNode(int, int)}; use in frequently-called code.
+     * @param nodeCoord  Node coordinate to go from; not checked for validity.
+     * @param nodeDir  0 for northwest or southwest; 1 for northeast or southeast;
+     *     2 for north or south
+     * @return  The adjacent edge in that direction, or -9 if none (if off the board)
+     * @throws IllegalArgumentException if <tt>nodeDir</tt> is less than 0 or greater than 2
+     * @since 2.0.00
+     */
+    public final int adjEdgeToNode(final int nodeCoord, final int nodeDir)
+        throws IllegalArgumentException
+    {
+        if ((nodeDir < 0) || (nodeDir > 2))
+            throw new IllegalArgumentException("nodeDir: " + nodeDir);
+
+        final SOCBoardAdjacency adj = getAdjacencyTables();
+        final int id = adj.idOf(nodeCoord);
+        return (id != -1) ? adj.edgeToNode(id, nodeDir) : getAdjacentEdgeToNode(nodeCoord, nodeDir);
+    }
+
+    /**
+     * Get one of the 2 nodes at the ends of an edge, from precomputed tables without allocating.
+     * Same results as {@link #getAdjacentNodesToEdge_arr(int)}; use in frequently-called code.
+     * Does not check against the board's node range, so nodes in the water (off the land board) may be returned.
+     * @param edgeCoord  Edge coordinate; not checked for validity
+     * @param i  0 or 1, the index into {@link #getAdjacentNodesToEdge_arr(int)}'s array
+     * @return  The node coordinate
+     * @throws ArrayIndexOutOfBoundsException if <tt>i</tt> is not 0 or 1
+     * @since 2.0.00
+     */
+    public final int adjNodeToEdge(final int edgeCoord, final int i)
+        throws ArrayIndexOutOfBoundsException
+    {
+        if ((i < 0) || (i > 1))
+            throw new ArrayIndexOutOfBoundsException(i);
+
+        final SOCBoardAdjacency adj = getAdjacencyTables();
+        final int id = adj.idOf(edgeCoord);
+        return (id != -1) ? adj.nodeToEdge(id, i) : getAdjacentNodesToEdge_arr(edgeCoord)[i];
+    }
+
+    /**
+     * Get the number of valid edges adjacent to this edge, from precomputed tables without allocating.
+     * To get each edge, call {@link #adjEdgeToEdge(int, int)}.
+     * @param edgeCoord  Edge coordinate; for the 6-player encoding, use 0, not -1, for edge 0x00.
+     *    Not checked for validity.
+     * @return  The number of edges, same as the size of {@link #getAdjacentEdgesToEdge(int)}'s Vector
+     * @since 2.0.00
+     */
+    public final int adjEdgesToEdgeCount(final int edgeCoord)
+    {
+        final SOCBoardAdjacency adj = getAdjacencyTables();
+        final int id = adj.idOf(edgeCoord);
+        return (id != -1) ? adj.edgesToEdgeCount(id) : getAdjacentEdgesToEdge(edgeCoord).size();
+    }
+
+    /**
+     * Get one of the valid edges adjacent to this edge, from precomputed tables without allocating.
+     * @param edgeCoord  Edge coordinate; for the 6-player encoding, use 0, not -1, for edge 0x00.
+     *    Not checked for validity.
+     * @param i  Index, from 0 to {@link #adjEdgesToEdgeCount(int)} - 1
+     * @return  The edge coordinate, same as element <tt>i</tt> of {@link #getAdjacentEdgesToEdge(int)}'s Vector
+     * @throws ArrayIndexOutOfBoundsException if <tt>i</tt> is out of range
+     * @since 2.0.00
+     */
+    public final int adjEdgeToEdge(final int edgeCoord, final int i)
+        throws ArrayIndexOutOfBoundsException
+    {
+        final SOCBoardAdjacency adj = getAdjacencyTables();
+        final int id = adj.idOf(edgeCoord);
+        if (id == -1)
+            return getAdjacentEdgesToEdge(edgeCoord).get(i).intValue();
+        if ((i < 0) || (i >= adj.edgesToEdgeCount(id)))
+            throw new ArrayIndexOutOfBoundsException(i);
+
+        return adj.edgeToEdge(id, i);
+    }
+
+    /**
+     * Get the number of valid hexes adjacent to this node, from precomputed tables without allocating.
+     * To get each hex, call {@link #adjHexToNode(int, int)}.
+     * @param nodeCoord  Node coordinate.  Is not checked for validity.
+     * @return  The number of hexes, same as the size of {@link #getAdjacentHexesToNode(int)}'s Vector
+     * @since 2.0.00
+     */
+    public final int adjHexesToNodeCount(final int nodeCoord)
+    {
+        final SOCBoardAdjacency adj = getAdjacencyTables();
+        final int id = adj.idOf(nodeCoord);
+        return (id != -1) ? adj.hexesToNodeCount(id) : getAdjacentHexesToNode(nodeCoord).size();
+    }
+
+    /**
+     * Get one of the valid hexes adjacent to this node, from precomputed tables without allocating.
+     * These hexes may contain land or water.
+     * @param nodeCoord  Node coordinate.  Is not checked for validity.
+     * @param i  Index, from 0 to {@link #adjHexesToNodeCount(int)} - 1
+     * @return  The hex coordinate, same as element <tt>i</tt> of {@link #getAdjacentHexesToNode(int)}'s Vector
+     * @throws ArrayIndexOutOfBoundsException if <tt>i</tt> is out of range
+     * @since 2.0.00
+     */
+    public final int adjHexToNode(final int nodeCoord, final int i)
+        throws ArrayIndexOutOfBoundsException
+    {
+        final SOCBoardAdjacency adj = getAdjacencyTables();
+        final int id = adj.idOf(nodeCoord);
+        if (id == -1)
+            return getAdjacentHexesToNode(nodeCoord).get(i).intValue();
+        if ((i < 0) || (i >= adj.hexesToNodeCount(id)))
+            throw new ArrayIndexOutOfBoundsException(i);
+
+        return adj.hexToNode(id, i);
     }
 
     /**
@@ -3403,12 +3649,21 @@ public class SOCBoard implements Serializable, Cloneable
 
     /**
      * If there's a settlement or city at this node, find it.
+     *<P>
+     * Before v2.0.00 this searched the board's settlements and cities;
+     * it's now a constant-time lookup in an index kept by {@link #putPiece(SOCPlayingPiece)}.
      * 
      * @param nodeCoord Location coordinate (as returned by SOCBoardPanel.findNode)
      * @return  Settlement or city at <tt>nodeCoord</tt>, or null
      */
     public SOCPlayingPiece settlementAtNode(final int nodeCoord)
     {
+        if (nodeCoord >= 0)
+        {
+            final SOCPlayingPiece[] index = nodePieces;
+            return ((index != null) && (nodeCoord < index.length)) ? index[nodeCoord] : null;
+        }
+
         for (SOCSettlement p : settlements)
         {
             if (nodeCoord == p.getCoordinates())
@@ -3435,9 +3690,18 @@ public class SOCBoard implements Serializable, Cloneable
      * @return road or ship, or null.  Use {@link SOCPlayingPiece#getType()}
      *   or {@link SOCRoad#isRoadNotShip()} to determine the returned piece type.
      *   At most one road or ship can be placed at any one edge. 
+     *<P>
+     * Before v2.0.00 this searched the board's roads;
+     * it's now a constant-time lookup in an index kept by {@link #putPiece(SOCPlayingPiece)}.
      */
     public SOCRoad roadAtEdge(int edgeCoord)
     {
+        if (edgeCoord >= 0)
+        {
+            final SOCPlayingPiece[] index = edgeRoads;
+            return ((index != null) && (edgeCoord < index.length)) ? (SOCRoad) index[edgeCoord] : null;
+        }
+
         for (SOCRoad p : roads)
         {
             if (edgeCoord == p.getCoordinates())
@@ -0,0 +1,261 @@
+/**
+ * Java Settlers - An online multiplayer version of the game Settlers of Catan
+ * This file Copyright (C) 2026 agent <agent@local>
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * The maintainer of this program can be reached at jsettlers@nand.net
+ **/
+package soc.game;
+
+import java.util.HashMap;
+import java.util.Vector;
+
+/**
+ * Precomputed node, edge and hex adjacency tables for one board geometry,
+ * used by {@link SOCBoard}'s table-based adjacency methods such as
+ * {@link SOCBoard#adjNodeToNode(int, int)}.
+ *<P>
+ * The tables are flat {@code int[]} arrays indexed by a dense id calculated from each coordinate:
+ * For the classic boards, the id is the coordinate (0 to 0xFF); for {@link SOCBoardLarge},
+ * it's {@code r * (boardWidth + 1) + c}. Fixed-size adjacencies (3 nodes or edges per node,
+ * 2 nodes per edge) are stored in direction order, -9 if none; variable-size adjacencies
+ * (edges to an edge, hexes to a node) are stored compressed-sparse-row style,
+ * with a start-index array. Each table entry is calculated once by the board's own
+ * adjacency methods, so the results are the same.
+ *<P>
+ * Geometry doesn't depend on the board's layout, only its encoding format, bounds and coordinate ranges;
+ * all boards with the same geometry share one immutable instance, from {@link #forBoard(SOCBoard, int, int, int)}.
+ *
+ * @author agent &lt;agent@local&gt;
+ * @since 2.0.00
+ */
+final class SOCBoardAdjacency
+{
+    /** Shared instances, keyed by board type, encoding format, bounds, and node and edge ranges */
+    private static final HashMap<String, SOCBoardAdjacency> cache = new HashMap<String, SOCBoardAdjacency>();
+
+    /** Is this geometry for {@link SOCBoardLarge}'s (r, c) coordinates? */
+    private final boolean isLarge;
+
+    /** Number of ids per row if {@link #isLarge}; number of rows. Otherwise 1 row of 0x100 ids. */
+    private final int cols, rows;
+
+    /** Adjacent nodes to each node id, 3 per node in direction order as in {@link SOCBoard#getAdjacentNodeToNode(int, int)} */
+    private final int[] nodeNodes;
+
+    /** Adjacent edges to each node id, 3 per node in direction order as in {@link SOCBoard#getAdjacentEdgeToNode(int, int)} */
+    private final int[] nodeEdges;
+
+    /** Adjacent nodes to each edge id, 2 per edge as in {@link SOCBoard#getAdjacentNodesToEdge_arr(int)} */
+    private final int[] edgeNodes;
+
+    /** Adjacent edges to edge id {@code i} are {@link #edgeEdges}[edgeEdgesStart[i] to edgeEdgesStart[i+1] - 1] */
+    private final int[] edgeEdgesStart, edgeEdges;
+
+    /** Adjacent hexes to node id {@code i} are {@link #nodeHexes}[nodeHexesStart[i] to nodeHexesStart[i+1] - 1] */
+    private final int[] nodeHexesStart, nodeHexes;
+
+    /**
+     * Get the shared adjacency tables for a board's geometry, building them if this is the first board with it.
+     * @param board  Board whose coordinate ranges and bounds are already set
+     * @param minNode  Board's minimum node coordinate, if used by its encoding
+     * @param minEdge  Board's minimum edge coordinate, if used by its encoding
+     * @param maxEdge  Board's maximum edge coordinate, if used by its encoding
+     * @return  Tables for {@code board}'s geometry
+     */
+    static SOCBoardAdjacency forBoard
+        (final SOCBoard board, final int minNode, final int minEdge, final int maxEdge)
+    {
+        final String key = ((board instanceof SOCBoardLarge) ? "L" : "C") + board.getBoardEncodingFormat()
+            + ',' + board.getBoardHeight() + ',' + board.getBoardWidth()
+            + ',' + minNode + ',' + minEdge + ',' + maxEdge;
+        synchronized (cache)
+        {
+            SOCBoardAdjacency adj = cache.get(key);
+            if (adj == null)
+            {
+                adj = new SOCBoardAdjacency(board);
+                cache.put(key, adj);
+            }
+
+            return adj;
+        }
+    }
+
+    /**
+     * Build the tables by calling {@code board}'s adjacency methods for each id's coordinate.
+     * @param board  Board with this geometry
+     */
+    private SOCBoardAdjacency(final SOCBoard board)
+    {
+        isLarge = (board instanceof SOCBoardLarge);
+        if (isLarge)
+        {
+            rows = board.getBoardHeight() + 1;
+            cols = board.getBoardWidth() + 1;
+        } else {
+            rows = 1;
+            cols = 0x100;
+        }
+
+        final int n = rows * cols;
+        nodeNodes = new int[3 * n];
+        nodeEdges = new int[3 * n];
+        edgeNodes = new int[2 * n];
+        edgeEdgesStart = new int[n + 1];
+        nodeHexesStart = new int[n + 1];
+
+        final Vector<Integer> edgeEdgesList = new Vector<Integer>(4 * n),
+            nodeHexesList = new Vector<Integer>(3 * n);
+        for (int id = 0; id < n; ++id)
+        {
+            final int coord = coordOf(id);
+
+            for (int dir = 0; dir < 3; ++dir)
+            {
+                nodeNodes[3 * id + dir] = board.getAdjacentNodeToNode(coord, dir);
+                nodeEdges[3 * id + dir] = board.getAdjacentEdgeToNode(coord, dir);
+            }
+
+            final int[] en = board.getAdjacentNodesToEdge_arr(coord);
+            edgeNodes[2 * id] = en[0];
+            edgeNodes[2 * id + 1] = en[1];
+
+            edgeEdgesStart[id] = edgeEdgesList.size();
+            edgeEdgesList.addAll(board.getAdjacentEdgesToEdge(coord));
+
+            nodeHexesStart[id] = nodeHexesList.size();
+            nodeHexesList.addAll(board.getAdjacentHexesToNode(coord));
+        }
+        edgeEdgesStart[n] = edgeEdgesList.size();
+        nodeHexesStart[n] = nodeHexesList.size();
+
+        edgeEdges = new int[edgeEdgesList.size()];
+        for (int i = 0; i < edgeEdges.length; ++i)
+            edgeEdges[i] = edgeEdgesList.get(i).intValue();
+        nodeHexes = new int[nodeHexesList.size()];
+        for (int i = 0; i < nodeHexes.length; ++i)
+            nodeHexes[i] = nodeHexesList.get(i).intValue();
+    }
+
+    /**
+     * Get the dense id of a node, edge or hex coordinate.
+     * @param coord  Coordinate
+     * @return  Id, or -1 if {@code coord} is outside the tables' range
+     */
+    int idOf(final int coord)
+    {
+        if (coord < 0)
+            return -1;
+
+        if (! isLarge)
+            return (coord < cols) ? coord : -1;
+
+        final int r = coord >> 8, c = coord & 0xFF;
+        if ((r >= rows) || (c >= cols))
+            return -1;
+
+        return (r * cols) + c;
+    }
+
+    /**
+     * Get the coordinate of a dense id.
+     * @param id  Id from {@link #idOf(int)}
+     * @return  Coordinate
+     */
+    private int coordOf(final int id)
+    {
+        if (! isLarge)
+            return id;
+
+        return ((id / cols) << 8) | (id % cols);
+    }
+
+    /**
+     * Adjacent node to a node, same as {@link SOCBoard#getAdjacentNodeToNode(int, int)}.
+     * @param id  Node's id from {@link #idOf(int)}; not -1
+     * @param dir  Direction, 0 to 2
+     * @return  Node coordinate, or -9 if none
+     */
+    int nodeToNode(final int id, final int dir)
+    {
+        return nodeNodes[(3 * id) + dir];
+    }
+
+    /**
+     * Adjacent edge to a node, same as {@link SOCBoard#getAdjacentEdgeToNode(int, int)}.
+     * @param id  Node's id from {@link #idOf(int)}; not -1
+     * @param dir  Direction, 0 to 2
+     * @return  Edge coordinate, or -9 if none
+     */
+    int edgeToNode(final int id, final int dir)
+    {
+        return nodeEdges[(3 * id) + dir];
+    }
+
+    /**
+     * Adjacent node to an edge, same as {@link SOCBoard#getAdjacentNodesToEdge_arr(int)}.
+     * @param id  Edge's id from {@link #idOf(int)}; not -1
+     * @param i  0 or 1
+     * @return  Node coordinate
+     */
+    int nodeToEdge(final int id, final int i)
+    {
+        return edgeNodes[(2 * id) + i];
+    }
+
+    /**
+     * Number of adjacent edges to an edge, same as the size of {@link SOCBoard#getAdjacentEdgesToEdge(int)}.
+     * @param id  Edge's id from {@link #idOf(int)}; not -1
+     * @return  Number of edges
+     */
+    int edgesToEdgeCount(final int id)
+    {
+        return edgeEdgesStart[id + 1] - edgeEdgesStart[id];
+    }
+
+    /**
+     * One adjacent edge to an edge, same as element {@code i} of {@link SOCBoard#getAdjacentEdgesToEdge(int)}.
+     * @param id  Edge's id from {@link #idOf(int)}; not -1
+     * @param i  Index, 0 to {@link #edgesToEdgeCount(int)} - 1
+     * @return  Edge coordinate
+     */
+    int edgeToEdge(final int id, final int i)
+    {
+        return edgeEdges[edgeEdgesStart[id] + i];
+    }
+
+    /**
+     * Number of adjacent hexes to a node, same as the size of {@link SOCBoard#getAdjacentHexesToNode(int)}.
+     * @param id  Node's id from {@link #idOf(int)}; not -1
+     * @return  Number of hexes
+     */
+    int hexesToNodeCount(final int id)
+    {
+        return nodeHexesStart[id + 1] - nodeHexesStart[id];
+    }
+
+    /**
+     * One adjacent hex to a node, same as element {@code i} of {@link SOCBoard#getAdjacentHexesToNode(int)}.
+     * @param id  Node's id from {@link #idOf(int)}; not -1
+     * @param i  Index, 0 to {@link #hexesToNodeCount(int)} - 1
+     * @return  Hex coordinate
+     */
+    int hexToNode(final int id, final int i)
+    {
+        return nodeHexes[nodeHexesStart[id] + i];
+    }
+
+}
@@ -31,6 +31,8 @@ public class SOCDevCard
     extends SOCInventoryItem implements SOCDevCardConstants  // SOCInventoryItem implies Cloneable
 {
 
+    private static final long serialVersionUID = 2000L;
+
     /**
      * If true, {@link #getItemName(SOCGame, boolean, SOCStringManager)} can just use the
      * {@link SOCInventoryItem#strKey strKey} or {@link SOCInventoryItem#aStrKey aStrKey}
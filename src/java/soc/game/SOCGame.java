@@ -1012,10 +1012,11 @@ public class SOCGame implements Serializable, Cloneable
      * The server can set this field to 0 to tell itself to end a turn soon, but
      * otherwise the value should be a recent time.
      *<P>
-     * At the end of a game, the server may increase this value by
-     * 90 minutes ({@link soc.server.SOCGameListAtServer#GAME_EXPIRE_MINUTES})
-     * in order to remove it from the {@link soc.server.SOCGameTimeoutChecker}
-     * run loop.
+     * The server's {@link soc.server.SOCGameTimeoutChecker} checks the game's turn
+     * when this time plus {@link soc.server.SOCServer#ROBOT_FORCE_ENDTURN_SECONDS} comes due,
+     * re-reading the field then; changes don't need to notify it,
+     * except that setting it to 0 should call {@link soc.server.SOCGameTimeoutChecker#recheckTurnSoon(SOCGame)}.
+     * It stops checking once the game is over.
      *
      * @since 1.1.11
      */
@@ -7941,7 +7942,10 @@ public class SOCGame implements Serializable, Cloneable
      * @since 2.0.00
      */
     public static class RollResult
+        implements Serializable
     {
+        private static final long serialVersionUID = 2000L;
+
         /**
          * The dice numbers rolled, each 1 to 6.
          */
@@ -20,8 +20,10 @@
  **/
 package soc.game;
 
+import java.io.Serializable;
 import java.util.Vector;
 
+import soc.util.IntBitSet;
 import soc.util.IntPair;
 
 /**
@@ -30,12 +32,22 @@ import soc.util.IntPair;
  * @author $author$
  */
 public class SOCLRPathData
+    implements Serializable
 {
+    private static final long serialVersionUID = 2000L;
+
     private int beginningCoord;
     private int endCoord;
     private int length;
     private Vector<IntPair> nodePairs;
 
+    /**
+     * Edge coordinates of {@link #nodePairs}, for quick checks in {@link #sharesEdgeWith(IntBitSet, SOCBoard)},
+     * or null if not yet calculated. Treat as read-only once set.
+     * @since 2.0.00
+     */
+    private IntBitSet edges;
+
     /**
      * Creates a new SOCLRPathData object.
      *
@@ -52,6 +64,46 @@ public class SOCLRPathData
         nodePairs = pairs;
     }
 
+    /**
+     * Creates a new SOCLRPathData object whose path's edge coordinates are already known.
+     *
+     * @param start  Path's starting node coordinate
+     * @param end  Path's ending node coordinate
+     * @param len  Path length
+     * @param pairs  Path's node pairs, one per road or ship
+     * @param edges  Edge coordinates of {@code pairs}; caller won't change this set afterwards
+     * @since 2.0.00
+     */
+    SOCLRPathData(int start, int end, int len, Vector<IntPair> pairs, IntBitSet edges)
+    {
+        this(start, end, len, pairs);
+        this.edges = edges;
+    }
+
+    /**
+     * Does this path share any edge (road or ship) with a set of edges?
+     * Same result as comparing {@link #getNodePairs()} to those edges' node pairs,
+     * without creating any pairs.
+     *
+     * @param otherEdges  Edge coordinates to check
+     * @param board  Board, to find the edges of {@link #getNodePairs()} if not given to the constructor
+     * @return true if any edge of this path is in {@code otherEdges}
+     * @since 2.0.00
+     */
+    boolean sharesEdgeWith(final IntBitSet otherEdges, final SOCBoard board)
+    {
+        IntBitSet e = edges;
+        if (e == null)
+        {
+            e = new IntBitSet(0x100);
+            for (IntPair np : nodePairs)
+                e.add(board.getEdgeBetweenAdjacentNodes(np.getA(), np.getB()));
+            edges = e;
+        }
+
+        return e.intersects(otherEdges);
+    }
+
     /**
      * DOCUMENT ME!
      *
@@ -20,6 +20,8 @@
  **/
 package soc.game;
 
+import java.io.Serializable;
+
 import soc.disableDebug.D;
 
 
@@ -33,7 +35,10 @@ import soc.disableDebug.D;
  * @author  Robert S. Thomas
  */
 public class SOCOldLRStats
+    implements Serializable
 {
+    private static final long serialVersionUID = 2000L;
+
     int[] lrLengths;
     SOCPlayer playerWithLR;
 
@@ -0,0 +1,304 @@
+/**
+ * Java Settlers - An online multiplayer version of the game Settlers of Catan
+ * This file Copyright (C) 2026 agent <agent@local>
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * The maintainer of this program can be reached at jsettlers@nand.net
+ **/
+package soc.game;
+
+/**
+ * Static methods for an immutable resource set packed into one {@code long},
+ * for search code such as the robot's building speed estimates which would
+ * otherwise copy thousands of {@link SOCResourceSet}s per decision.
+ * Arithmetic, comparison and hashing are a few primitive operations, with no allocation.
+ *<P>
+ * Each resource type from {@link SOCResourceConstants#CLAY} to {@link SOCResourceConstants#UNKNOWN}
+ * has a 10-bit field: 9 bits for the amount, 0 to {@link #MAX_AMOUNT}, and a guard bit
+ * which is always 0 in a valid packed set and lets {@link #gte(long, long)} and
+ * {@link #subtract(long, long)} compare all 6 fields at once.
+ * Negative amounts can't be packed; use {@link SOCResourceSet} for those.
+ *<P>
+ * Convert with {@link #pack(SOCResourceSet)} and {@link #toResourceSet(long)}.
+ * Because a packed set is a primitive, it can be compared with {@code ==}.
+ *
+ * @author agent &lt;agent@local&gt;
+ * @since 2.0.00
+ */
+public final class SOCPackedResourceSet
+{
+    /** Packed resource set with zero of each resource type */
+    public static final long EMPTY_SET = 0L;
+
+    /** Largest amount of one resource type which can be packed */
+    public static final int MAX_AMOUNT = 0x1FF;
+
+    /** Bits per resource type's field, including its guard bit */
+    private static final int FIELD_BITS = 10;
+
+    /** Each field's guard bit, the high bit of the field */
+    private static final long GUARDS;
+    static
+    {
+        long g = 0L;
+        for (int rtype = SOCResourceConstants.CLAY; rtype <= SOCResourceConstants.UNKNOWN; ++rtype)
+            g |= ((long) (MAX_AMOUNT + 1)) << shift(rtype);
+        GUARDS = g;
+    }
+
+    /** Static methods only; not instantiated */
+    private SOCPackedResourceSet() {}
+
+    /**
+     * Bit position of a resource type's field.
+     * @param rtype  Resource type, {@link SOCResourceConstants#CLAY} to {@link SOCResourceConstants#UNKNOWN}
+     * @return  The field's lowest bit number
+     */
+    private static final int shift(final int rtype)
+    {
+        return (rtype - SOCResourceConstants.CLAY) * FIELD_BITS;
+    }
+
+    /**
+     * Pack one resource amount into its field.
+     * @param amt  Amount, 0 to {@link #MAX_AMOUNT}
+     * @param rtype  Resource type, {@link SOCResourceConstants#CLAY} to {@link SOCResourceConstants#UNKNOWN}
+     * @return  The packed set with only {@code amt} of {@code rtype}
+     * @throws IllegalArgumentException if {@code amt} is out of range
+     */
+    private static final long field(final int amt, final int rtype)
+        throws IllegalArgumentException
+    {
+        if ((amt < 0) || (amt > MAX_AMOUNT))
+            throw new IllegalArgumentException("amount out of range: " + amt);
+
+        return ((long) amt) << shift(rtype);
+    }
+
+    /**
+     * Make a packed resource set.
+     * @param cl  number of clay resources
+     * @param or  number of ore resources
+     * @param sh  number of sheep resources
+     * @param wh  number of wheat resources
+     * @param wo  number of wood resources
+     * @param uk  number of unknown resources
+     * @return  The packed set
+     * @throws IllegalArgumentException if any amount is &lt; 0 or &gt; {@link #MAX_AMOUNT}
+     */
+    public static long pack(int cl, int or, int sh, int wh, int wo, int uk)
+        throws IllegalArgumentException
+    {
+        return field(cl, SOCResourceConstants.CLAY) | field(or, SOCResourceConstants.ORE)
+            | field(sh, SOCResourceConstants.SHEEP) | field(wh, SOCResourceConstants.WHEAT)
+            | field(wo, SOCResourceConstants.WOOD) | field(uk, SOCResourceConstants.UNKNOWN);
+    }
+
+    /**
+     * Pack a resource set, including its {@link SOCResourceConstants#UNKNOWN} amount.
+     * @param rs  Resource set to pack
+     * @return  The packed set
+     * @throws IllegalArgumentException if any amount is &lt; 0 or &gt; {@link #MAX_AMOUNT}
+     * @see #packKnown(SOCResourceSet)
+     */
+    public static long pack(final SOCResourceSet rs)
+        throws IllegalArgumentException
+    {
+        return packKnown(rs) | field(rs.getAmount(SOCResourceConstants.UNKNOWN), SOCResourceConstants.UNKNOWN);
+    }
+
+    /**
+     * Pack a resource set's known types, {@link SOCResourceConstants#CLAY} to {@link SOCResourceConstants#WOOD},
+     * ignoring its {@link SOCResourceConstants#UNKNOWN} amount.
+     * @param rs  Resource set to pack
+     * @return  The packed set, with 0 unknown
+     * @throws IllegalArgumentException if any known amount is &lt; 0 or &gt; {@link #MAX_AMOUNT}
+     * @see #pack(SOCResourceSet)
+     */
+    public static long packKnown(final SOCResourceSet rs)
+        throws IllegalArgumentException
+    {
+        long p = 0L;
+        for (int rtype = SOCResourceConstants.CLAY; rtype <= SOCResourceConstants.WOOD; ++rtype)
+            p |= field(rs.getAmount(rtype), rtype);
+
+        return p;
+    }
+
+    /**
+     * Unpack into a new resource set.
+     * @param p  Packed set
+     * @return  A new {@link SOCResourceSet} with the same amounts
+     */
+    public static SOCResourceSet toResourceSet(final long p)
+    {
+        return new SOCResourceSet
+            (getAmount(p, SOCResourceConstants.CLAY), getAmount(p, SOCResourceConstants.ORE),
+             getAmount(p, SOCResourceConstants.SHEEP), getAmount(p, SOCResourceConstants.WHEAT),
+             getAmount(p, SOCResourceConstants.WOOD), getAmount(p, SOCResourceConstants.UNKNOWN));
+    }
+
+    /**
+     * How many resources of this type are contained in the packed set?
+     * @param p  Packed set
+     * @param rtype  the type of resource, like {@link SOCResourceConstants#CLAY}
+     * @return the number of a kind of resource
+     */
+    public static int getAmount(final long p, final int rtype)
+    {
+        return (int) (p >>> shift(rtype)) & MAX_AMOUNT;
+    }
+
+    /**
+     * Get the total number of resources in the packed set, including unknown types.
+     * @param p  Packed set
+     * @return the total number of resources
+     */
+    public static int getTotal(final long p)
+    {
+        int sum = 0;
+        for (int rtype = SOCResourceConstants.CLAY; rtype <= SOCResourceConstants.UNKNOWN; ++rtype)
+            sum += getAmount(p, rtype);
+
+        return sum;
+    }
+
+    /**
+     * Add an amount to a resource.
+     * @param p  Packed set
+     * @param amt  the amount; if negative, subtracts, and the result must not be negative
+     * @param rtype  the type of resource, like {@link SOCResourceConstants#CLAY}
+     * @return  The packed set with {@code amt} added
+     * @throws IllegalArgumentException if the new amount is &lt; 0 or &gt; {@link #MAX_AMOUNT}
+     */
+    public static long add(final long p, final int amt, final int rtype)
+        throws IllegalArgumentException
+    {
+        final int newAmt = getAmount(p, rtype) + amt;
+        return (p & ~(((long) MAX_AMOUNT) << shift(rtype))) | field(newAmt, rtype);
+    }
+
+    /**
+     * Subtract an amount from a resource.  Unlike {@link SOCResourceSet#subtract(int, int)},
+     * the set must contain at least {@code amt} of that type; any shortfall isn't taken from unknown.
+     * @param p  Packed set
+     * @param amt  the amount, at most {@link #getAmount(long, int) getAmount(p, rtype)}
+     * @param rtype  the type of resource, like {@link SOCResourceConstants#CLAY}
+     * @return  The packed set with {@code amt} subtracted
+     * @throws IllegalArgumentException if the new amount is &lt; 0 or &gt; {@link #MAX_AMOUNT}
+     */
+    public static long subtract(final long p, final int amt, final int rtype)
+        throws IllegalArgumentException
+    {
+        return add(p, -amt, rtype);
+    }
+
+    /**
+     * Add two packed sets' amounts.
+     * @param a  Packed set
+     * @param b  Packed set to add to {@code a}
+     * @return  The sum
+     * @throws IllegalArgumentException if any type's sum is &gt; {@link #MAX_AMOUNT}
+     */
+    public static long add(final long a, final long b)
+        throws IllegalArgumentException
+    {
+        final long sum = a + b;
+        if ((sum & GUARDS) != 0L)
+            throw new IllegalArgumentException("amount out of range");
+
+        return sum;
+    }
+
+    /**
+     * Subtract set B from set A.  As in {@link SOCResourceSet#subtract(SOCResourceSet)},
+     * if any type's amount would go below 0, it's 0 instead.
+     * @param a  Packed set
+     * @param b  Packed set to subtract from {@code a}
+     * @return  The difference
+     */
+    public static long subtract(final long a, final long b)
+    {
+        // Each field's guard bit stays set only if a's amount >= b's;
+        // turn those guards into a mask of their fields' amount bits.
+        final long diff = (a | GUARDS) - b;
+        final long g = diff & GUARDS;
+        return diff & (g - (g >>> (FIELD_BITS - 1)));
+    }
+
+    /**
+     * Are set A's resources each greater than or equal to set B's?
+     * Same result as {@link SOCResourceSet#gte(SOCResourceSet, SOCResourceSet)}.
+     * @param a   set A
+     * @param b   set B
+     * @return true if each resource type in set A is &gt;= each resource type in set B
+     */
+    public static boolean gte(final long a, final long b)
+    {
+        return (((a | GUARDS) - b) & GUARDS) == GUARDS;
+    }
+
+    /**
+     * Are set A's resources each less than or equal to set B's?
+     * Same result as {@link SOCResourceSet#lte(SOCResourceSet, SOCResourceSet)}.
+     * @param a   set A
+     * @param b   set B
+     * @return true if each resource type in set A is &lt;= each resource type in set B
+     */
+    public static boolean lte(final long a, final long b)
+    {
+        return gte(b, a);
+    }
+
+    /**
+     * Is {@code sub} in this set?  Same as {@link #gte(long, long) gte(p, sub)}.
+     * @param p  Packed set
+     * @param sub  the sub set
+     * @return true if sub is in {@code p}
+     */
+    public static boolean contains(final long p, final long sub)
+    {
+        return gte(p, sub);
+    }
+
+    /**
+     * A hashcode for a packed set, for use in hash tables keyed by int.
+     * Equal sets have equal hashcodes.
+     * @param p  Packed set
+     * @return a hashcode for this data
+     */
+    public static int hashCode(final long p)
+    {
+        final long h = p * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+
+    /**
+     * Human-readable form of the packed set, same format as {@link SOCResourceSet#toString()}:
+     * "clay=5|ore=1|sheep=0|wheat=0|wood=3|unknown=0"
+     * @param p  Packed set
+     * @return a human readable longer form of the set
+     */
+    public static String toString(final long p)
+    {
+        return "clay=" + getAmount(p, SOCResourceConstants.CLAY)
+            + "|ore=" + getAmount(p, SOCResourceConstants.ORE)
+            + "|sheep=" + getAmount(p, SOCResourceConstants.SHEEP)
+            + "|wheat=" + getAmount(p, SOCResourceConstants.WHEAT)
+            + "|wood=" + getAmount(p, SOCResourceConstants.WOOD)
+            + "|unknown=" + getAmount(p, SOCResourceConstants.UNKNOWN);
+    }
+
+}
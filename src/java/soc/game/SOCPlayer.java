@@ -24,6 +24,7 @@ package soc.game;
 import soc.disableDebug.D;
 
 import soc.message.SOCMessage;
+import soc.util.IntBitSet;
 import soc.util.IntPair;
 import soc.util.NodeLenVis;
 
@@ -31,12 +32,13 @@ import java.io.Serializable;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.Enumeration;
 import java.util.HashSet;
 import java.util.Hashtable;
-import java.util.Iterator;
 import java.util.List;
 import java.util.Map;  // for javadoc
+import java.util.Set;
 import java.util.Stack;
 import java.util.Vector;
 
@@ -175,6 +177,23 @@ public class SOCPlayer implements SOCDevCardConstants, Serializable, Cloneable
      */
     private Vector<SOCLRPathData> lrPaths;
 
+    /**
+     * Nodes where this player's roads or ships, or settlements or cities of any player,
+     * have changed since the last {@link #calcLongestRoad2()}. That call will search again
+     * for paths through roads connected to these nodes, and keep the rest of {@link #lrPaths}.
+     * Null if all paths must be searched, as at the start of the game or after {@link #setLRPaths(Vector)}.
+     * @since 2.0.00
+     */
+    private IntBitSet lrDirtyNodes;
+
+    /**
+     * For testing: If true, each {@link #calcLongestRoad2()} also does the original full search
+     * for longest road paths and throws an exception if the results differ.
+     * Slow; don't set in normal use. Initialized from java system property {@code jsettlers.debug.lrcheck}.
+     * @since 2.0.00
+     */
+    public static boolean lrCrossCheck = Boolean.getBoolean("jsettlers.debug.lrcheck");
+
     /**
      * how many of each resource this player has
      */
@@ -309,8 +328,12 @@ public class SOCPlayer implements SOCDevCardConstants, Serializable, Cloneable
      * If {@link SOCGame#hasSeaBoard}, empty until {@link SOCBoard#makeNewBoard(Map)}
      * and {@link SOCGame#startGame()}, because the board layout and legal settlements
      * vary from game to game.
+     *<P>
+     * Before v2.0.00 this and the other legal and potential sets were {@code HashSet<Integer>}s.
+     * They're now {@link IntBitSet}s sized by {@link #coordSetCapacity(SOCBoard)}, which are quicker
+     * to check and to copy for the robots' lookahead in {@link #SOCPlayer(SOCPlayer)}.
      */
-    private HashSet<Integer> legalRoads;
+    private IntBitSet legalRoads;
 
     /**
      * a set of nodes where it is legal to place a
@@ -318,8 +341,7 @@ public class SOCPlayer implements SOCDevCardConstants, Serializable, Cloneable
      * can ever be placed there.
      * Placing a settlement will clear its node and adjacent nodes.
      *<P>
-     * Key = node coordinate, as {@link Integer}.
-     * If {@link HashSet#contains(Object) legalSettlements.contains(new Integer(nodeCoord))},
+     * If {@link IntBitSet#contains(int) legalSettlements.contains(nodeCoord)},
      * then <tt>nodeCoord</tt> is a legal settlement.
      *<P>
      * If not {@link SOCGame#hasSeaBoard}, initialized in constructor
@@ -331,7 +353,7 @@ public class SOCPlayer implements SOCDevCardConstants, Serializable, Cloneable
      * @see #potentialSettlements
      * @see SOCBoard#nodesOnLand
      */
-    private HashSet<Integer> legalSettlements;
+    private IntBitSet legalSettlements;
 
     /**
      * The most recently added node from {@link #addLegalSettlement(int)}, or 0.
@@ -351,7 +373,7 @@ public class SOCPlayer implements SOCDevCardConstants, Serializable, Cloneable
      * @see #legalShipsRestricted
      * @since 2.0.00
      */
-    private HashSet<Integer> legalShips;
+    private IntBitSet legalShips;
 
     /**
      * A list of edges if the legal sea edges for ships are restricted
@@ -374,7 +396,7 @@ public class SOCPlayer implements SOCDevCardConstants, Serializable, Cloneable
      * {@link #updatePotentials(SOCPlayingPiece)}.
      * Elements are set false when a road or ship is placed on their edge.
      */
-    private HashSet<Integer> potentialRoads;
+    private IntBitSet potentialRoads;
 
     /**
      * a set of nodes where a settlement could be
@@ -384,13 +406,12 @@ public class SOCPlayer implements SOCDevCardConstants, Serializable, Cloneable
      * and then re-set via {@link #updatePotentials(SOCPlayingPiece) updatePotentials(SOCRoad)}.
      * Placing a settlement will clear its node and adjacent nodes.
      *<P>
-     * Key = node coordinate, as {@link Integer}.
-     * If {@link HashSet#contains(Object) potentialSettlements.contains(new Integer(nodeCoord))},
+     * If {@link IntBitSet#contains(int) potentialSettlements.contains(nodeCoord)},
      * then this is a potential settlement.
      * @see #legalSettlements
      * @see SOCBoard#nodesOnLand
      */
-    private HashSet<Integer> potentialSettlements;
+    private IntBitSet potentialSettlements;
 
     /**
      * a set of nodes where a city could be
@@ -403,7 +424,7 @@ public class SOCPlayer implements SOCDevCardConstants, Serializable, Cloneable
      * because we use {@link #legalSettlements} before placing a settlement,
      * and settlements can always become cities.
      */
-    private HashSet<Integer> potentialCities;
+    private IntBitSet potentialCities;
 
     /**
      * a set of edges where a ship could be placed
@@ -417,7 +438,7 @@ public class SOCPlayer implements SOCDevCardConstants, Serializable, Cloneable
      * this set is empty but non-null.
      * @since 2.0.00
      */
-    private HashSet<Integer> potentialShips;
+    private IntBitSet potentialShips;
 
     /**
      * a boolean array stating wheather this player is touching a
@@ -557,6 +578,8 @@ public class SOCPlayer implements SOCDevCardConstants, Serializable, Cloneable
         numWarships = player.numWarships;
         longestRoadLength = player.longestRoadLength;
         lrPaths = new Vector<SOCLRPathData>(player.lrPaths);
+        if (player.lrDirtyNodes != null)
+            lrDirtyNodes = new IntBitSet(player.lrDirtyNodes);
         resources = player.resources.copy();
         resourceStats = new int[player.resourceStats.length];
         System.arraycopy(player.resourceStats, 0, resourceStats, 0, player.resourceStats.length);
@@ -603,13 +626,13 @@ public class SOCPlayer implements SOCDevCardConstants, Serializable, Cloneable
         /**
          * init legal and potential arrays
          */
-        legalRoads = new HashSet<Integer>(player.legalRoads);
-        legalSettlements = new HashSet<Integer>(player.legalSettlements);
-        legalShips = new HashSet<Integer>(player.legalShips);
-        potentialRoads = new HashSet<Integer>(player.potentialRoads);
-        potentialSettlements = new HashSet<Integer>(player.potentialSettlements);
-        potentialCities = new HashSet<Integer>(player.potentialCities);
-        potentialShips = new HashSet<Integer>(player.potentialShips);
+        legalRoads = new IntBitSet(player.legalRoads);
+        legalSettlements = new IntBitSet(player.legalSettlements);
+        legalShips = new IntBitSet(player.legalShips);
+        potentialRoads = new IntBitSet(player.potentialRoads);
+        potentialSettlements = new IntBitSet(player.potentialSettlements);
+        potentialCities = new IntBitSet(player.potentialCities);
+        potentialShips = new IntBitSet(player.potentialShips);
         addedLegalSettlement = player.addedLegalSettlement;
         if (player.legalShipsRestricted != null)
             legalShipsRestricted = new HashSet<Integer>(player.legalShipsRestricted);
@@ -705,26 +728,42 @@ public class SOCPlayer implements SOCDevCardConstants, Serializable, Cloneable
          * If game.hasSeaBoard, these are initialized later, after board.makeNewBoard
          * and game.startGame, because the layout varies from game to game.
          */
-        potentialRoads = new HashSet<Integer>();
-        potentialCities = new HashSet<Integer>();
-        potentialShips = new HashSet<Integer>();
+        final int cap = coordSetCapacity(board);
+        potentialRoads = new IntBitSet(cap);
+        potentialCities = new IntBitSet(cap);
+        potentialShips = new IntBitSet(cap);
 
         if (! game.hasSeaBoard)
         {
-            legalRoads = board.initPlayerLegalRoads();
-            legalSettlements = board.initPlayerLegalAndPotentialSettlements();
-            legalShips = new HashSet<Integer>();  // will remain empty
-            potentialSettlements = new HashSet<Integer>(legalSettlements);
+            legalRoads = new IntBitSet(cap, board.initPlayerLegalRoads());
+            legalSettlements = new IntBitSet(cap, board.initPlayerLegalAndPotentialSettlements());
+            legalShips = new IntBitSet(cap);  // will remain empty
+            potentialSettlements = new IntBitSet(legalSettlements);
         } else {
-            legalRoads = new HashSet<Integer>();
-            legalSettlements = new HashSet<Integer>();
-            legalShips = new HashSet<Integer>();
-            potentialSettlements = new HashSet<Integer>();
+            legalRoads = new IntBitSet(cap);
+            legalSettlements = new IntBitSet(cap);
+            legalShips = new IntBitSet(cap);
+            potentialSettlements = new IntBitSet(cap);
         }
 
         currentOffer = null;
     }
 
+    /**
+     * Capacity for this player's legal and potential node and edge sets,
+     * from the board's dimensions, so they usually won't need to grow.
+     * @param board  The game's board
+     * @return  One more than the largest node or edge coordinate on {@code board}
+     * @since 2.0.00
+     */
+    private static int coordSetCapacity(final SOCBoard board)
+    {
+        if (board instanceof SOCBoardLarge)
+            return (board.getBoardHeight() + 1) << 8;  // coordinates are (r << 8) | c
+        else
+            return 0x100;
+    }
+
     /**
      * Set all nodes to not be potential settlements.
      * Called by {@link SOCGame#putPiece(SOCPlayingPiece)}
@@ -1742,6 +1781,7 @@ public class SOCPlayer implements SOCDevCardConstants, Serializable, Cloneable
     public void setLRPaths(Vector<SOCLRPathData> vec)
     {
         lrPaths.removeAllElements();
+        lrDirtyNodes = null;  // next calcLongestRoad2 will search all paths
 
         for (SOCLRPathData pd : vec)
         {
@@ -2226,6 +2266,8 @@ public class SOCPlayer implements SOCDevCardConstants, Serializable, Cloneable
     public void putPiece(final SOCPlayingPiece piece, final boolean isTempPiece)
         throws IllegalArgumentException
     {
+        lrPieceChanged(piece);
+
         /**
          * only do this stuff if it's our piece
          */
@@ -2700,6 +2742,8 @@ public class SOCPlayer implements SOCDevCardConstants, Serializable, Cloneable
      */
     public void undoPutPiece(SOCPlayingPiece piece)
     {
+        lrPieceChanged(piece);
+
         final boolean ours = (piece.getPlayerNumber() == playerNumber);
         final int pieceCoord = piece.getCoordinates();
         final Integer pieceCoordInt = new Integer(pieceCoord);
@@ -2980,6 +3024,7 @@ public class SOCPlayer implements SOCDevCardConstants, Serializable, Cloneable
     public void removePiece(SOCPlayingPiece piece, SOCPlayingPiece replacementPiece)
     {
         D.ebugPrintln("--- SOCPlayer.removePiece(" + piece + ")");
+        lrPieceChanged(piece);
 
         final int pieceCoord = piece.getCoordinates();
         final Integer pieceCoordInt = new Integer(pieceCoord);
@@ -3622,11 +3667,12 @@ public class SOCPlayer implements SOCDevCardConstants, Serializable, Cloneable
      * Afterwards it's mostly empty, and follows from the player's road locations.
      *<P>
      * Please make no changes, treat the returned set as read-only.
+     * It's a view of the player's set, not a copy, so it changes as the player's potentials change.
      * @return the player's set of {@link Integer} potential-settlement node coordinates
      * @see #getPotentialSettlements_arr()
      * @since 2.0.00
      */
-    public HashSet<Integer> getPotentialSettlements()
+    public Set<Integer> getPotentialSettlements()
     {
         return potentialSettlements;
     }
@@ -3644,15 +3690,10 @@ public class SOCPlayer implements SOCDevCardConstants, Serializable, Cloneable
      */
     public int[] getPotentialSettlements_arr()
     {
-        int L = potentialSettlements.size();
-        if (L == 0)
+        if (potentialSettlements.isEmpty())
             return null;
 
-        int[] pset = new int[L];
-        Iterator<Integer> it = potentialSettlements.iterator();
-        for (int i = 0; it.hasNext(); ++i)
-            pset[i] = it.next().intValue();
-        return pset;
+        return potentialSettlements.toIntArray();
     }
 
     /**
@@ -3708,9 +3749,11 @@ public class SOCPlayer implements SOCDevCardConstants, Serializable, Cloneable
                     legalSettlements.addAll(legalLandAreaNodes[i]);
             }
 
-            legalRoads = game.getBoard().initPlayerLegalRoads();
+            legalRoads.clear();
+            legalRoads.addAll(game.getBoard().initPlayerLegalRoads());
+            legalShips.clear();
             if (! game.isGameOptionSet(SOCGameOption.K_SC_PIRI))
-                legalShips = ((SOCBoardLarge) game.getBoard()).initPlayerLegalShips();
+                legalShips.addAll(((SOCBoardLarge) game.getBoard()).initPlayerLegalShips());
             else
                 legalShips.clear();  // caller must soon call setRestrictedLegalShips
         }
@@ -3731,7 +3774,7 @@ public class SOCPlayer implements SOCDevCardConstants, Serializable, Cloneable
         if (node == 0)
             return;
 
-        legalSettlements.add(Integer.valueOf(node));
+        legalSettlements.add(node);
         addedLegalSettlement = node;
     }
 
@@ -3773,7 +3816,7 @@ public class SOCPlayer implements SOCDevCardConstants, Serializable, Cloneable
      */
     public boolean isPotentialSettlement(final int node)
     {
-        return potentialSettlements.contains(Integer.valueOf(node));
+        return potentialSettlements.contains(node);
     }
 
     /**
@@ -3786,7 +3829,7 @@ public class SOCPlayer implements SOCDevCardConstants, Serializable, Cloneable
      */
     public void clearPotentialSettlement(final int node)
     {
-        potentialSettlements.remove(Integer.valueOf(node));
+        potentialSettlements.remove(node);
     }
 
     /**
@@ -3798,7 +3841,7 @@ public class SOCPlayer implements SOCDevCardConstants, Serializable, Cloneable
      */
     public boolean isLegalSettlement(final int node)
     {
-        return legalSettlements.contains(Integer.valueOf(node));
+        return legalSettlements.contains(node);
     }
 
     /**
@@ -3824,7 +3867,7 @@ public class SOCPlayer implements SOCDevCardConstants, Serializable, Cloneable
      */
     public boolean isPotentialCity(final int node)
     {
-        return potentialCities.contains(Integer.valueOf(node));
+        return potentialCities.contains(node);
     }
 
     /**
@@ -3837,7 +3880,7 @@ public class SOCPlayer implements SOCDevCardConstants, Serializable, Cloneable
      */
     public void clearPotentialCity(final int node)
     {
-        potentialCities.remove(Integer.valueOf(node));
+        potentialCities.remove(node);
     }
 
     /**
@@ -3852,7 +3895,7 @@ public class SOCPlayer implements SOCDevCardConstants, Serializable, Cloneable
     {
         if (edge == -1)
             edge = 0x00;
-        return potentialRoads.contains(Integer.valueOf(edge));
+        return potentialRoads.contains(edge);
     }
 
     /**
@@ -3867,7 +3910,7 @@ public class SOCPlayer implements SOCDevCardConstants, Serializable, Cloneable
     {
         if (edge == -1)
             edge = 0x00;
-        potentialRoads.remove(Integer.valueOf(edge));
+        potentialRoads.remove(edge);
     }
 
     /**
@@ -3881,7 +3924,7 @@ public class SOCPlayer implements SOCDevCardConstants, Serializable, Cloneable
             edge = 0x00;
         else if (edge < 0)
             return false;
-        return legalRoads.contains(Integer.valueOf(edge));
+        return legalRoads.contains(edge);
     }
 
     /**
@@ -3913,7 +3956,7 @@ public class SOCPlayer implements SOCDevCardConstants, Serializable, Cloneable
      */
     public boolean isPotentialShipMoveTo(final int toEdge, final int fromEdge)
     {
-        if (! potentialShips.contains(Integer.valueOf(toEdge)))
+        if (! potentialShips.contains(toEdge))
         {
             if (game.isGameOptionSet(SOCGameOption.K_SC_PIRI)
                 && (null != legalShipsRestricted))
@@ -3968,7 +4011,7 @@ public class SOCPlayer implements SOCDevCardConstants, Serializable, Cloneable
      */
     public boolean isPotentialShip(int edge)
     {
-        return potentialShips.contains(Integer.valueOf(edge));
+        return potentialShips.contains(edge);
     }
 
     /**
@@ -3981,7 +4024,7 @@ public class SOCPlayer implements SOCDevCardConstants, Serializable, Cloneable
      */
     public void clearPotentialShip(int edge)
     {
-        potentialShips.remove(Integer.valueOf(edge));
+        potentialShips.remove(edge);
     }
 
     /**
@@ -3995,7 +4038,7 @@ public class SOCPlayer implements SOCDevCardConstants, Serializable, Cloneable
         if (edge < 0)
             return false;
 
-        return legalShips.contains(Integer.valueOf(edge));
+        return legalShips.contains(edge);
     }
 
     /**
@@ -4157,11 +4200,263 @@ public class SOCPlayer implements SOCDevCardConstants, Serializable, Cloneable
     }
 
     /**
-     * Calculates the longest road / longest trade route for this player
+     * Calculates the longest road / longest trade route for this player.
+     *<P>
+     * Before v2.0.00 this searched all of the player's roads every time.
+     * It's now incremental: Only the paths through connected roads and ships at nodes
+     * changed since the last call are searched again, since the others can't have changed.
+     * The changed nodes are noted by {@link #putPiece(SOCPlayingPiece, boolean)},
+     * {@link #undoPutPiece(SOCPlayingPiece)} and {@link #removePiece(SOCPlayingPiece, SOCPlayingPiece)}.
+     * If {@link #lrCrossCheck}, the result is checked against the original full search.
      *
      * @return the length of the longest road for this player
+     * @throws IllegalStateException if {@link #lrCrossCheck} and the results differ
      */
     public int calcLongestRoad2()
+        throws IllegalStateException
+    {
+        final SOCBoard board = game.getBoard();
+
+        if (lrDirtyNodes == null)
+        {
+            // Search all paths
+            lrPaths.removeAllElements();
+            for (Integer rn : roadNodes)
+                calcLongestRoadFrom(rn.intValue(), board);
+            lrDirtyNodes = new IntBitSet(coordSetCapacity(board));
+        }
+        else if (! lrDirtyNodes.isEmpty())
+        {
+            // Find the nodes connected to the changed ones by our roads and ships
+            final IntBitSet compNodes = new IntBitSet(coordSetCapacity(board));
+            final int[] pending = new int[roadNodes.size() + lrDirtyNodes.size()];
+            int npending = 0;
+            for (final int node : lrDirtyNodes.toIntArray())
+            {
+                if (compNodes.add(node))
+                {
+                    pending[npending] = node;
+                    ++npending;
+                }
+            }
+            while (npending > 0)
+            {
+                --npending;
+                final int[] adjac = roadNodeGraph.get(Integer.valueOf(pending[npending]));
+                if (adjac == null)
+                    continue;
+
+                for (int i = 0; i < 3; ++i)
+                {
+                    if ((adjac[i] != 0) && compNodes.add(adjac[i]))
+                    {
+                        pending[npending] = adjac[i];
+                        ++npending;
+                    }
+                }
+            }
+            lrDirtyNodes.clear();
+
+            // Paths of those nodes' roads might have changed; paths elsewhere can't have.
+            // A path's nodes are all connected, so checking its start node is enough.
+            for (int i = lrPaths.size() - 1; i >= 0; --i)
+                if (compNodes.contains(lrPaths.elementAt(i).getBeginning()))
+                    lrPaths.removeElementAt(i);
+
+            for (Integer rn : roadNodes)
+                if (compNodes.contains(rn.intValue()))
+                    calcLongestRoadFrom(rn.intValue(), board);
+        }
+
+        // The longest path is always kept in lrPaths, since only shorter ones are removed
+        int longest = 0;
+        for (SOCLRPathData pd : lrPaths)
+            if (pd.getLength() > longest)
+                longest = pd.getLength();
+
+        if (lrCrossCheck)
+        {
+            final Vector<SOCLRPathData> fullPaths = new Vector<SOCLRPathData>();
+            final int fullLongest = calcLongestRoadByFullSearch(fullPaths);
+            if ((fullLongest != longest) || ! lrPathsSummary(fullPaths).equals(lrPathsSummary(lrPaths)))
+                throw new IllegalStateException
+                    ("calcLongestRoad2 mismatch: game " + game.getName() + " pn " + playerNumber
+                     + ": incremental " + longest + " " + lrPathsSummary(lrPaths)
+                     + ", full " + fullLongest + " " + lrPathsSummary(fullPaths));
+        }
+
+        longestRoadLength = longest;
+        return longest;
+    }
+
+    /**
+     * Note that a piece placed or removed may have changed this player's longest road paths,
+     * for the next call to {@link #calcLongestRoad2()}.
+     * Our roads and ships change paths at both their nodes;
+     * anyone's settlements and cities may end or connect paths at their node.
+     * @param piece  A piece being placed or removed by any player
+     * @since 2.0.00
+     */
+    private void lrPieceChanged(final SOCPlayingPiece piece)
+    {
+        if (lrDirtyNodes == null)
+            return;  // all paths will be searched
+
+        switch (piece.getType())
+        {
+        case SOCPlayingPiece.ROAD:
+        case SOCPlayingPiece.SHIP:
+            if (piece.getPlayerNumber() == playerNumber)
+            {
+                final int[] nodes = game.getBoard().getAdjacentNodesToEdge_arr(piece.getCoordinates());
+                lrDirtyNodes.add(nodes[0]);
+                lrDirtyNodes.add(nodes[1]);
+            }
+            break;
+
+        case SOCPlayingPiece.SETTLEMENT:
+        case SOCPlayingPiece.CITY:
+            lrDirtyNodes.add(piece.getCoordinates());
+            break;
+        }
+    }
+
+    /**
+     * Search all road paths from one node, adding the longest ones to {@link #lrPaths}.
+     * Same results as one pass of {@link #calcLongestRoadByFullSearch(Vector)}'s outer loop,
+     * in the same order, but using a visited-edge bitset and backtracking instead of
+     * copying a visited list at each step.
+     * @param startNode  Node coordinate to start at, from {@link #roadNodes}
+     * @param board  The game's board
+     * @since 2.0.00
+     */
+    private void calcLongestRoadFrom(final int startNode, final SOCBoard board)
+    {
+        final LRSearch s = new LRSearch(startNode, roads.size(), coordSetCapacity(board));
+        calcLongestRoadFrom(s, startNode, 0, null, board);
+    }
+
+    /**
+     * Recursive depth-first search for {@link #calcLongestRoadFrom(int, SOCBoard)}.
+     * Visits adjacent nodes in the same order as {@link #calcLongestRoadByFullSearch(Vector)}'s stack.
+     * @param s  Search state
+     * @param coord  Current node coordinate
+     * @param len  Path length so far
+     * @param inboundRoad  Road or ship that led to this node if {@code len} &gt; 0 and {@link SOCGame#hasSeaBoard}
+     * @param board  The game's board
+     * @since 2.0.00
+     */
+    private void calcLongestRoadFrom
+        (final LRSearch s, final int coord, final int len, final SOCRoad inboundRoad, final SOCBoard board)
+    {
+        s.pathNodes[len] = coord;
+        boolean pathEnd = false;
+        final SOCPlayingPiece settlementAtNodeCoord;
+
+        // check for road blocks
+        if (len > 0)
+        {
+            settlementAtNodeCoord = board.settlementAtNode(coord);
+            if ((settlementAtNodeCoord != null)
+                && (settlementAtNodeCoord.getPlayerNumber() != playerNumber))
+                pathEnd = true;
+        } else {
+            settlementAtNodeCoord = null;
+        }
+
+        if (! pathEnd)
+        {
+            pathEnd = true;  // may be set false in loop
+
+            for (int dir = 0; dir < 3; ++dir)
+            {
+                final int j = board.adjNodeToNode(coord, dir);
+                if ((j == -9) || ! isConnectedByRoad(coord, j))
+                    continue;
+
+                final int edge = board.getEdgeBetweenAdjacentNodes(coord, j);
+                if (s.visitedEdges.contains(edge))
+                    continue;
+
+                final SOCRoad roadFromNode;  // sea board: road/ship from node to j
+                if (game.hasSeaBoard)
+                {
+                    roadFromNode = getRoadOrShip(edge);
+                    if (len > 0)
+                    {
+                        if (roadFromNode == null)  // shouldn't happen
+                            continue;
+
+                        if ((roadFromNode.isRoadNotShip() != inboundRoad.isRoadNotShip())
+                            && (settlementAtNodeCoord == null))
+                            continue;  // Requires settlement/city to connect road to ship
+                    }
+                } else {
+                    roadFromNode = null;
+                }
+
+                pathEnd = false;
+                s.visitedEdges.add(edge);
+                calcLongestRoadFrom(s, j, len + 1, roadFromNode, board);
+                s.visitedEdges.remove(edge);
+            }
+        }
+
+        if (! pathEnd)
+            return;
+
+        // Keep only the longest path through any set of edges,
+        // like calcLongestRoadByFullSearch's check for paths that share a node pair
+        boolean addNewPath = true;
+        for (int i = lrPaths.size() - 1; i >= 0; --i)
+        {
+            final SOCLRPathData oldPathData = lrPaths.elementAt(i);
+            if (! oldPathData.sharesEdgeWith(s.visitedEdges, board))
+                continue;
+
+            if (oldPathData.getLength() < len)
+                lrPaths.removeElementAt(i);
+            else
+                addNewPath = false;
+        }
+
+        if (addNewPath)
+        {
+            Vector<IntPair> visited = new Vector<IntPair>(len);
+            for (int i = 0; i < len; ++i)
+                visited.addElement(new IntPair(s.pathNodes[i], s.pathNodes[i + 1]));
+            lrPaths.addElement(new SOCLRPathData
+                (s.startNode, coord, len, visited, new IntBitSet(s.visitedEdges)));
+        }
+    }
+
+    /**
+     * Summarize longest road paths for {@link #lrCrossCheck}, in a consistent order.
+     * @param paths  Paths to summarize
+     * @return  Sorted list of each path's start, end, and length
+     * @since 2.0.00
+     */
+    private static String lrPathsSummary(final Vector<SOCLRPathData> paths)
+    {
+        final ArrayList<String> li = new ArrayList<String>();
+        for (SOCLRPathData pd : paths)
+            li.add(Integer.toHexString(pd.getBeginning()) + "-" + Integer.toHexString(pd.getEnd())
+                   + ":" + pd.getLength());
+        Collections.sort(li);
+
+        return li.toString();
+    }
+
+    /**
+     * The original non-incremental longest road search, used before v2.0.00 by
+     * {@link #calcLongestRoad2()} and now used to check it if {@link #lrCrossCheck}.
+     * Searches from each node in {@link #roadNodes}. Doesn't change any fields.
+     *
+     * @param paths  Empty vector to fill with the longest paths, as {@link #lrPaths} would be
+     * @return the length of the longest road for this player
+     * @since 2.0.00
+     */
+    private int calcLongestRoadByFullSearch(final Vector<SOCLRPathData> paths)
     {
         //Date startTime = new Date();
         //
@@ -4170,7 +4465,7 @@ public class SOCPlayer implements SOCDevCardConstants, Serializable, Cloneable
         // we won't catch it unless we clear the vector
         //
         //D.ebugPrintln("CLEARING PATH DATA");
-        lrPaths.removeAllElements();
+        paths.removeAllElements();
 
         /**
          * we're doing a depth first search of all possible road paths.
@@ -4291,7 +4586,7 @@ public class SOCPlayer implements SOCDevCardConstants, Serializable, Cloneable
                     boolean addNewPath = true;
                     Vector<SOCLRPathData> trash = new Vector<SOCLRPathData>();
 
-                    for (SOCLRPathData oldPathData : lrPaths)
+                    for (SOCLRPathData oldPathData : paths)
                     {
                         //D.ebugPrintln("oldPathData = " + oldPathData);
 
@@ -4343,7 +4638,7 @@ public class SOCPlayer implements SOCDevCardConstants, Serializable, Cloneable
                     {
                         for (SOCLRPathData oldPathData : trash)
                         {
-                            lrPaths.removeElement(oldPathData);
+                            paths.removeElement(oldPathData);
                         }
                     }
 
@@ -4351,13 +4646,12 @@ public class SOCPlayer implements SOCDevCardConstants, Serializable, Cloneable
                     {
                         SOCLRPathData newPathData = new SOCLRPathData(pathStartNodeCoord, coord, len, visited);
                         //D.ebugPrintln("ADDING PATH: " + newPathData);
-                        lrPaths.addElement(newPathData);
+                        paths.addElement(newPathData);
                     }
                 }
             }
         }
 
-        longestRoadLength = longest;
 
         //Date stopTime = new Date();
         //long elapsed = stopTime.getTime() - startTime.getTime();
@@ -4558,4 +4852,32 @@ public class SOCPlayer implements SOCDevCardConstants, Serializable, Cloneable
         }
     }
 
+    /**
+     * State of a search for longest road paths from one node, in {@link SOCPlayer#calcLongestRoad2()}.
+     * @since 2.0.00
+     */
+    private static final class LRSearch
+    {
+        /** Node where the search started */
+        final int startNode;
+
+        /** Edges of roads and ships in the current path */
+        final IntBitSet visitedEdges;
+
+        /** Nodes of the current path; {@code pathNodes[i]} is the node after {@code i} roads or ships */
+        final int[] pathNodes;
+
+        /**
+         * @param startNode  Node to start the search at
+         * @param numRoads  Number of the player's roads and ships, the longest possible path
+         * @param capacity  Capacity for the edge set, from {@link SOCPlayer#coordSetCapacity(SOCBoard)}
+         */
+        LRSearch(final int startNode, final int numRoads, final int capacity)
+        {
+            this.startNode = startNode;
+            visitedEdges = new IntBitSet(capacity);
+            pathNodes = new int[numRoads + 1];
+        }
+    }
+
 }
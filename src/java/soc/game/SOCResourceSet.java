@@ -488,7 +488,11 @@ public class SOCResourceSet implements Serializable, Cloneable
      */
     public int hashCode()
     {
-        return this.toString().hashCode();
+        int h = 0;
+        for (int i = SOCResourceConstants.MIN; i < SOCResourceConstants.MAXPLUSONE; ++i)
+            h = (31 * h) + resources[i];
+
+        return h;
     }
 
     /**
@@ -19,8 +19,6 @@
  **/
 package soc.message;
 
-import java.util.StringTokenizer;
-
 import soc.game.SOCBoardLarge;  // for javadocs
 
 /**
@@ -74,13 +72,13 @@ public class SOCBoardSpecialEdge extends SOCMessageTemplate2i
         final String ga; // the game name
         final int edge, seType;  // edge coord, special edge type
 
-        StringTokenizer st = new StringTokenizer(s, sep2);
+        SOCMessageParser mp = new SOCMessageParser(s, sep2_char);
 
         try
         {
-            ga = st.nextToken();
-            edge = Integer.parseInt(st.nextToken());
-            seType = Integer.parseInt(st.nextToken());
+            ga = mp.next();
+            edge = mp.nextInt();
+            seType = mp.nextInt();
         }
         catch (Exception e)
         {
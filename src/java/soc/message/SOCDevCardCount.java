@@ -70,6 +70,18 @@ public class SOCDevCardCount extends SOCMessage
         return numDevCards;
     }
 
+    /**
+     * Later messages with the same key replace this one's count of development cards remaining.
+     * @return  key for coalescing while queued to a slow client: type, game
+     * @see SOCMessage#getCoalesceKey()
+     * @since 2.0.00
+     */
+    @Override
+    public String getCoalesceKey()
+    {
+        return messageType + sep2 + game;
+    }
+
     /**
      * DEVCARDCOUNT sep game sep2 numDevCards
      *
@@ -20,8 +20,6 @@
  **/
 package soc.message;
 
-import java.util.StringTokenizer;
-
 
 /**
  * This message reports total of what was rolled on the dice.
@@ -93,12 +91,12 @@ public class SOCDiceResult extends SOCMessageTemplate1i
         String ga; // the game name
         int dr; // the dice result
 
-        StringTokenizer st = new StringTokenizer(s, sep2);
+        SOCMessageParser mp = new SOCMessageParser(s, sep2_char);
 
         try
         {
-            ga = st.nextToken();
-            dr = Integer.parseInt(st.nextToken());
+            ga = mp.next();
+            dr = mp.nextInt();
         }
         catch (Exception e)
         {
@@ -85,6 +85,18 @@ public class SOCGameState extends SOCMessage
         return state;
     }
 
+    /**
+     * Later messages with the same key replace this one's game state.
+     * @return  key for coalescing while queued to a slow client: type, game
+     * @see SOCMessage#getCoalesceKey()
+     * @since 2.0.00
+     */
+    @Override
+    public String getCoalesceKey()
+    {
+        return messageType + sep2 + game;
+    }
+
     /**
      * GAMESTATE sep game sep2 state
      *
@@ -73,6 +73,18 @@ public class SOCLargestArmy extends SOCMessage
         return playerNumber;
     }
 
+    /**
+     * Later messages with the same key replace this one's largest army player.
+     * @return  key for coalescing while queued to a slow client: type, game
+     * @see SOCMessage#getCoalesceKey()
+     * @since 2.0.00
+     */
+    @Override
+    public String getCoalesceKey()
+    {
+        return messageType + sep2 + game;
+    }
+
     /**
      * LARGESTARMY sep game sep2 playerNumber
      *
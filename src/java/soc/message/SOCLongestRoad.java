@@ -73,6 +73,18 @@ public class SOCLongestRoad extends SOCMessage
         return playerNumber;
     }
 
+    /**
+     * Later messages with the same key replace this one's longest road player.
+     * @return  key for coalescing while queued to a slow client: type, game
+     * @see SOCMessage#getCoalesceKey()
+     * @since 2.0.00
+     */
+    @Override
+    public String getCoalesceKey()
+    {
+        return messageType + sep2 + game;
+    }
+
     /**
      * LONGESTROAD sep game sep2 playerNumber
      *
@@ -22,8 +22,6 @@ package soc.message;
 import java.io.Serializable;
 
 import java.util.Enumeration;
-import java.util.NoSuchElementException;
-import java.util.StringTokenizer;
 
 
 /**
@@ -339,6 +337,24 @@ public abstract class SOCMessage implements Serializable, Cloneable
         return messageType;
     }
 
+    /**
+     * Key for coalescing this message with later ones while it's queued to be sent to a slow client.
+     * Messages which set a piece of game state, where a later message with the same key completely
+     * replaces this one's effect, can override this method to return a key built from their type
+     * and the state's identifiers (game name, player number, etc).  When a client's outbound queue
+     * is over its limit, the server can then send only the latest message for each key.
+     * See {@link soc.server.genericServer.Server#OUTQUEUE_POLICY_COALESCE}.
+     *<P>
+     * This default implementation returns null: Most messages are events which can't be coalesced.
+     *
+     * @return  Key for coalescing with later messages, or null
+     * @since 2.0.00
+     */
+    public String getCoalesceKey()
+    {
+        return null;
+    }
+
     /**
      * To identify new message types, give the minimum version where this
      * type is used.  Default of 1000 (version 1.0.00) unless overridden.
@@ -537,12 +553,12 @@ public abstract class SOCMessage implements Serializable, Cloneable
     {
         try
         {
-            StringTokenizer st = new StringTokenizer(s, sep);
+            SOCMessageParser mp = new SOCMessageParser(s, sep_char);
 
             /**
              * get the id that identifies the type of message
              */
-            int msgId = Integer.parseInt(st.nextToken());
+            int msgId = mp.nextInt();
 
             /**
              * get the rest of the data
@@ -568,29 +584,20 @@ public abstract class SOCMessage implements Serializable, Cloneable
              */
             String[] multiData = null;
 
-            try
+            if (mp.hasNext())
             {
-                data = st.nextToken();
-                if (st.hasMoreTokens())
+                data = mp.next();
+                if (mp.hasNext())
                 {
                         // SOCMessageMulti
 
-                        int n = st.countTokens();  // remaining (== number of parameters after "data")
+                        int n = mp.countRemaining();  // remaining (== number of parameters after "data")
                         multiData = new String[n+1];
                         multiData[0] = data;
-                        for (int i = 1; st.hasMoreTokens(); ++i)
-                        {
-                                try {
-                                        multiData[i] = st.nextToken();
-                                } catch (NoSuchElementException e)
-                                {
-                                        multiData[i] = null;
-                                }
-                        }
+                        for (int i = 1; i <= n; ++i)
+                            multiData[i] = mp.next();
                 }
-            }
-            catch (NoSuchElementException e)
-            {
+            } else {
                 data = "";
             }
 
@@ -0,0 +1,220 @@
+/**
+ * Java Settlers - An online multiplayer version of the game Settlers of Catan
+ * This file Copyright (C) 2026 agent <agent@local>
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * The maintainer of this program can be reached at jsettlers@nand.net
+ **/
+package soc.message;
+
+import java.util.NoSuchElementException;
+
+/**
+ * Index-based cursor over the fields of a message string, used by
+ * {@link SOCMessage#toMsg(String)} and message types' {@code parseDataStr} methods
+ * instead of {@link java.util.StringTokenizer}.
+ *<P>
+ * Integer fields are parsed in place by {@link #nextInt()} without creating a substring for each one;
+ * only String fields such as the game name, returned by {@link #next()}, are copied out.
+ * Like {@code StringTokenizer}, consecutive separators are treated as one, so there are no empty fields.
+ *<P>
+ * Sample {@code parseDataStr} for a message with a game name and 2 int fields:
+ *<code><pre>
+ *   SOCMessageParser mp = new SOCMessageParser(s, sep2_char);
+ *   try
+ *   {
+ *       ga = mp.next();
+ *       pn = mp.nextInt();
+ *       co = mp.nextInt();
+ *   }
+ *   catch (Exception e)
+ *   {
+ *       return null;
+ *   }
+ *</pre></code>
+ * Not thread-safe; each cursor should be used by only one thread.
+ *
+ * @author agent &lt;agent@local&gt;
+ * @since 2.0.00
+ */
+final class SOCMessageParser
+{
+    /** String being parsed */
+    private final String str;
+
+    /** Field separator, such as {@link SOCMessage#sep_char} or {@link SOCMessage#sep2_char} */
+    private final char sepChar;
+
+    /** Length of {@link #str} */
+    private final int end;
+
+    /** Current position within {@link #str} */
+    private int pos;
+
+    /**
+     * Create a cursor at the start of {@code s}.
+     * @param s  String to parse; not null
+     * @param sepChar  Field separator, such as {@link SOCMessage#sep2_char}
+     */
+    SOCMessageParser(final String s, final char sepChar)
+    {
+        str = s;
+        this.sepChar = sepChar;
+        end = s.length();
+    }
+
+    /** Move {@link #pos} past any separators to the start of the next field, or to {@link #end}. */
+    private void skipSeps()
+    {
+        while ((pos < end) && (str.charAt(pos) == sepChar))
+            ++pos;
+    }
+
+    /**
+     * Are there any more fields?
+     * @return true if {@link #next()} or {@link #nextInt()} has a field to return
+     */
+    boolean hasNext()
+    {
+        skipSeps();
+        return (pos < end);
+    }
+
+    /**
+     * Count the remaining fields, without moving the cursor.
+     * @return number of fields not yet returned by {@link #next()} or {@link #nextInt()}
+     */
+    int countRemaining()
+    {
+        int n = 0;
+        boolean inField = false;
+        for (int i = pos; i < end; ++i)
+        {
+            if (str.charAt(i) == sepChar)
+            {
+                inField = false;
+            } else if (! inField) {
+                inField = true;
+                ++n;
+            }
+        }
+
+        return n;
+    }
+
+    /**
+     * Get the next field as a String.
+     * @return  the next field; not null or empty
+     * @throws NoSuchElementException  if no fields remain
+     */
+    String next()
+        throws NoSuchElementException
+    {
+        skipSeps();
+        if (pos >= end)
+            throw new NoSuchElementException();
+
+        final int start = pos;
+        int i = str.indexOf(sepChar, pos);
+        if (i == -1)
+            i = end;
+        pos = i;
+
+        return str.substring(start, i);
+    }
+
+    /**
+     * Parse the next field as a decimal int, with the same rules as {@link Integer#parseInt(String)}:
+     * An optional leading {@code '-'} or {@code '+'}, then 1 or more digits.
+     * Doesn't create a substring unless the field is malformed, or has a non-ASCII character:
+     * {@code parseInt} accepts other Unicode digits too, so those fields are passed to it.
+     * @return  the next field's int value
+     * @throws NoSuchElementException  if no fields remain
+     * @throws NumberFormatException  if the field isn't a well-formed int, or is out of range
+     */
+    int nextInt()
+        throws NoSuchElementException, NumberFormatException
+    {
+        skipSeps();
+        if (pos >= end)
+            throw new NoSuchElementException();
+
+        final int start = pos;
+        char c = str.charAt(pos);
+        final boolean neg = (c == '-');
+        if (neg || (c == '+'))
+            ++pos;
+
+        long val = 0;
+        int nDigits = 0;
+        for (; pos < end; ++pos)
+        {
+            c = str.charAt(pos);
+            if (c == sepChar)
+                break;
+            if ((c < '0') || (c > '9') || (val > 2147483648L))
+            {
+                if (c >= 0x80)
+                    return parseIntField(start);
+                throw badInt(start);
+            }
+
+            val = (val * 10) + (c - '0');
+            ++nDigits;
+        }
+
+        if (neg)
+            val = -val;
+        if ((nDigits == 0) || (val > Integer.MAX_VALUE) || (val < Integer.MIN_VALUE))
+            throw badInt(start);
+
+        return (int) val;
+    }
+
+    /**
+     * Parse the field starting at {@code start} with {@link Integer#parseInt(String)},
+     * and move the cursor past that field.
+     * @param start  Start position of the field
+     * @return  the field's int value
+     * @throws NumberFormatException  if the field isn't a well-formed int, or is out of range
+     */
+    private int parseIntField(final int start)
+        throws NumberFormatException
+    {
+        int i = str.indexOf(sepChar, start);
+        if (i == -1)
+            i = end;
+        pos = i;
+
+        return Integer.parseInt(str.substring(start, i));
+    }
+
+    /**
+     * Build the exception for a malformed int field starting at {@code start},
+     * and move the cursor past that field.
+     * @param start  Start position of the field
+     * @return  An exception to throw, whose message is the field's text
+     */
+    private NumberFormatException badInt(final int start)
+    {
+        int i = str.indexOf(sepChar, start);
+        if (i == -1)
+            i = end;
+        pos = i;
+
+        return new NumberFormatException("For input string: \"" + str.substring(start, i) + "\"");
+    }
+
+}
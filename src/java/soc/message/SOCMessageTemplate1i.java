@@ -20,9 +20,6 @@
  **/
 package soc.message;
 
-// import java.util.StringTokenizer;
-
-
 /**
  * Template for per-game message types with 1 integer parameter.
  * Your class javadoc should explain the meaning of param1,
@@ -38,12 +35,12 @@ package soc.message;
  *       String ga; // the game name
  *       int pn; // the seat number
  *
- *       StringTokenizer st = new StringTokenizer(s, sep2);
+ *       SOCMessageParser mp = new SOCMessageParser(s, sep2_char);
  *
  *       try
  *       {
- *           ga = st.nextToken();
- *           pn = Integer.parseInt(st.nextToken());
+ *           ga = mp.next();
+ *           pn = mp.nextInt();
  *       }
  *       catch (Exception e)
  *       {
@@ -134,12 +131,12 @@ public abstract class SOCMessageTemplate1i extends SOCMessage
         String ga; // the game name
         int pn; // the seat number
 
-        StringTokenizer st = new StringTokenizer(s, sep2);
+        SOCMessageParser mp = new SOCMessageParser(s, sep2_char);
 
         try
         {
-            ga = st.nextToken();
-            pn = Integer.parseInt(st.nextToken());
+            ga = mp.next();
+            pn = mp.nextInt();
         }
         catch (Exception e)
         {
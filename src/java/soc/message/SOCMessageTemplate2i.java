@@ -20,9 +20,6 @@
  **/
 package soc.message;
 
-// import java.util.StringTokenizer;
-
-
 /**
  * Template for per-game message types with 2 integer parameters.
  * Your class javadoc should explain the meaning of param1 and param2,
@@ -40,13 +37,13 @@ package soc.message;
  *       int pn; // the seat number
  *       int co; // coordinates
  *
- *       StringTokenizer st = new StringTokenizer(s, sep2);
+ *       SOCMessageParser mp = new SOCMessageParser(s, sep2_char);
  *
  *       try
  *       {
- *           ga = st.nextToken();
- *           pn = Integer.parseInt(st.nextToken());
- *           co = Integer.parseInt(st.nextToken());
+ *           ga = mp.next();
+ *           pn = mp.nextInt();
+ *           co = mp.nextInt();
  *       }
  *       catch (Exception e)
  *       {
@@ -154,13 +151,13 @@ public abstract class SOCMessageTemplate2i extends SOCMessage
         int pn; // the seat number
         int co; // coordinates
 
-        StringTokenizer st = new StringTokenizer(s, sep2);
+        SOCMessageParser mp = new SOCMessageParser(s, sep2_char);
 
         try
         {
-            ga = st.nextToken();
-            pn = Integer.parseInt(st.nextToken());
-            co = Integer.parseInt(st.nextToken());
+            ga = mp.next();
+            pn = mp.nextInt();
+            co = mp.nextInt();
         }
         catch (Exception e)
         {
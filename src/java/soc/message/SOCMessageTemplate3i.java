@@ -19,9 +19,6 @@
  **/
 package soc.message;
 
-// import java.util.StringTokenizer;
-
-
 /**
  * Template for per-game message types with 3 integer parameters.
  * Your class javadoc should explain the meaning of param1, param2, and param3,
@@ -40,14 +37,14 @@ package soc.message;
  *       int ht; // hex type
  *       int dn; // dice number
  *
- *       StringTokenizer st = new StringTokenizer(s, sep2);
+ *       SOCMessageParser mp = new SOCMessageParser(s, sep2_char);
  *
  *       try
  *       {
- *           ga = st.nextToken();
- *           hc = Integer.parseInt(st.nextToken());
- *           ht = Integer.parseInt(st.nextToken());
- *           dn = Integer.parseInt(st.nextToken());
+ *           ga = mp.next();
+ *           hc = mp.nextInt();
+ *           ht = mp.nextInt();
+ *           dn = mp.nextInt();
  *       }
  *       catch (Exception e)
  *       {
@@ -174,14 +171,14 @@ public abstract class SOCMessageTemplate3i extends SOCMessage
         int ht; // hex type
         int dn; // dice number
 
-        StringTokenizer st = new StringTokenizer(s, sep2);
+        SOCMessageParser mp = new SOCMessageParser(s, sep2_char);
 
         try
         {
-            ga = st.nextToken();
-            hc = Integer.parseInt(st.nextToken());
-            ht = Integer.parseInt(st.nextToken());
-            dn = Integer.parseInt(st.nextToken());
+            ga = mp.next();
+            hc = mp.nextInt();
+            ht = mp.nextInt();
+            dn = mp.nextInt();
         }
         catch (Exception e)
         {
@@ -19,9 +19,6 @@
  **/
 package soc.message;
 
-// import java.util.StringTokenizer;
-
-
 /**
  * Template for per-game message types with 4 integer parameters.
  * Your class javadoc should explain the meaning of param1, param2, param3, and param4,
@@ -41,15 +38,15 @@ package soc.message;
  *       int cf; // coordinates from
  *       int ct; // coordinates to
  *
- *       StringTokenizer st = new StringTokenizer(s, sep2);
+ *       SOCMessageParser mp = new SOCMessageParser(s, sep2_char);
  *
  *       try
  *       {
- *           ga = st.nextToken();
- *           pn = Integer.parseInt(st.nextToken());
- *           pt = Integer.parseInt(st.nextToken());
- *           cf = Integer.parseInt(st.nextToken());
- *           ct = Integer.parseInt(st.nextToken());
+ *           ga = mp.next();
+ *           pn = mp.nextInt();
+ *           pt = mp.nextInt();
+ *           cf = mp.nextInt();
+ *           ct = mp.nextInt();
  *       }
  *       catch (Exception e)
  *       {
@@ -193,15 +190,15 @@ public abstract class SOCMessageTemplate4i extends SOCMessage
         int cf; // coordinates from
         int ct; // coordinates to
 
-        StringTokenizer st = new StringTokenizer(s, sep2);
+        SOCMessageParser mp = new SOCMessageParser(s, sep2_char);
 
         try
         {
-            ga = st.nextToken();
-            pn = Integer.parseInt(st.nextToken());
-            pt = Integer.parseInt(st.nextToken());
-            cf = Integer.parseInt(st.nextToken());
-            ct = Integer.parseInt(st.nextToken());
+            ga = mp.next();
+            pn = mp.nextInt();
+            pt = mp.nextInt();
+            cf = mp.nextInt();
+            ct = mp.nextInt();
         }
         catch (Exception e)
         {
@@ -19,8 +19,6 @@
  **/
 package soc.message;
 
-import java.util.StringTokenizer;
-
 /**
  * This client-to-server message requests moving a piece
  * that's already on the board, to a new location.
@@ -110,15 +108,15 @@ public class SOCMovePieceRequest extends SOCMessageTemplate4i
         int fc;    // 'from' coordinate
         int tc;    // 'to' coordinate
 
-        StringTokenizer st = new StringTokenizer(s, sep2);
+        SOCMessageParser mp = new SOCMessageParser(s, sep2_char);
 
         try
         {
-            ga = st.nextToken();
-            pn = Integer.parseInt(st.nextToken());
-            pc = Integer.parseInt(st.nextToken());
-            fc = Integer.parseInt(st.nextToken());
-            tc = Integer.parseInt(st.nextToken());
+            ga = mp.next();
+            pn = mp.nextInt();
+            pc = mp.nextInt();
+            fc = mp.nextInt();
+            tc = mp.nextInt();
         }
         catch (Exception e)
         {
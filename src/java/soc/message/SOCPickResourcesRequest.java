@@ -19,8 +19,6 @@
  **/
 package soc.message;
 
-import java.util.StringTokenizer;
-
 /**
  * This message from server to a client informs the
  * client's player that in a game they're playing,
@@ -69,12 +67,12 @@ public class SOCPickResourcesRequest extends SOCMessageTemplate1i
         final String ga; // the game name
         final int numRes; // the number of resources
 
-        StringTokenizer st = new StringTokenizer(s, sep2);
+        SOCMessageParser mp = new SOCMessageParser(s, sep2_char);
 
         try
         {
-            ga = st.nextToken();
-            numRes = Integer.parseInt(st.nextToken());
+            ga = mp.next();
+            numRes = mp.nextInt();
         }
         catch (Exception e)
         {
@@ -19,8 +19,6 @@
  **/
 package soc.message;
 
-import java.util.StringTokenizer;
-
 /**
  * This message from server updates the value(s) of a piece on the board.
  * Example: Cloth count for a village in the cloth trade scenario.
@@ -76,14 +74,14 @@ public class SOCPieceValue extends SOCMessageTemplate3i
         int pv1; // value field 1
         int pv2; // value field 2
 
-        StringTokenizer st = new StringTokenizer(s, sep2);
+        SOCMessageParser mp = new SOCMessageParser(s, sep2_char);
 
         try
         {
-            ga = st.nextToken();
-            co = Integer.parseInt(st.nextToken());
-            pv1 = Integer.parseInt(st.nextToken());
-            pv2 = Integer.parseInt(st.nextToken());
+            ga = mp.next();
+            co = mp.nextInt();
+            pv1 = mp.nextInt();
+            pv2 = mp.nextInt();
         }
         catch (Exception e)
         {
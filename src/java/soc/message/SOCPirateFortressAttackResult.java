@@ -19,8 +19,6 @@
  **/
 package soc.message;
 
-import java.util.StringTokenizer;
-
 /**
  * This message from server announces the results of the current player's pirate fortress
  * attack attempt: Pirates' defense strength, and number of ships lost (win/tie/loss).
@@ -93,13 +91,13 @@ public class SOCPirateFortressAttackResult extends SOCMessageTemplate2i
         final int ps; // pirate strength
         final int sl; // ships lost
 
-        StringTokenizer st = new StringTokenizer(s, sep2);
+        SOCMessageParser mp = new SOCMessageParser(s, sep2_char);
 
         try
         {
-            ga = st.nextToken();
-            ps = Integer.parseInt(st.nextToken());
-            sl = Integer.parseInt(st.nextToken());
+            ga = mp.next();
+            ps = mp.nextInt();
+            sl = mp.nextInt();
         }
         catch (Exception e)
         {
@@ -20,8 +20,6 @@
  **/
 package soc.message;
 
-import java.util.StringTokenizer;
-
 
 /**
  * This message conveys one part of the player's status, such as their number of
@@ -247,6 +245,23 @@ public class SOCPlayerElement extends SOCMessage
         return value;
     }
 
+    /**
+     * If this message's action is {@link #SET}, later SET messages for the same player and element
+     * replace its value.  {@link #GAIN} and {@link #LOSE} can't be coalesced.
+     * @return  key for coalescing while queued to a slow client: type, game, player number, element type;
+     *     or null if action isn't {@link #SET}
+     * @see SOCMessage#getCoalesceKey()
+     * @since 2.0.00
+     */
+    @Override
+    public String getCoalesceKey()
+    {
+        if (actionType != SET)
+            return null;
+
+        return messageType + sep2 + game + sep2 + playerNumber + sep2 + elementType;
+    }
+
     /**
      * PLAYERELEMENT sep game sep2 playerNumber sep2 actionType sep2 elementType sep2 value
      *
@@ -288,15 +303,15 @@ public class SOCPlayerElement extends SOCMessage
         int et;
         int va;
 
-        StringTokenizer st = new StringTokenizer(s, sep2);
+        SOCMessageParser mp = new SOCMessageParser(s, sep2_char);
 
         try
         {
-            ga = st.nextToken();
-            pn = Integer.parseInt(st.nextToken());
-            ac = Integer.parseInt(st.nextToken());
-            et = Integer.parseInt(st.nextToken());
-            va = Integer.parseInt(st.nextToken());
+            ga = mp.next();
+            pn = mp.nextInt();
+            ac = mp.nextInt();
+            et = mp.nextInt();
+            va = mp.nextInt();
         }
         catch (Exception e)
         {
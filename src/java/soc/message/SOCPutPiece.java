@@ -20,8 +20,6 @@
  **/
 package soc.message;
 
-import java.util.StringTokenizer;
-
 /**
  * This message means that a player is asking to place, or has placed, a piece on the board.
  * Also used when joining a new game or a game in progress, to send the game state so far.
@@ -146,14 +144,14 @@ public class SOCPutPiece extends SOCMessage
         int pt; // type of piece
         int co; // coordinates
 
-        StringTokenizer st = new StringTokenizer(s, sep2);
+        SOCMessageParser mp = new SOCMessageParser(s, sep2_char);
 
         try
         {
-            na = st.nextToken();
-            pn = Integer.parseInt(st.nextToken());
-            pt = Integer.parseInt(st.nextToken());
-            co = Integer.parseInt(st.nextToken());
+            na = mp.next();
+            pn = mp.nextInt();
+            pt = mp.nextInt();
+            co = mp.nextInt();
         }
         catch (Exception e)
         {
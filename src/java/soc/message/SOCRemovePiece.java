@@ -19,8 +19,6 @@
  **/
 package soc.message;
 
-import java.util.StringTokenizer;
-
 import soc.game.SOCPlayingPiece;
 
 /**
@@ -94,14 +92,14 @@ public class SOCRemovePiece extends SOCMessageTemplate3i
         final int pt; // type of piece
         final int co; // coordinates
 
-        StringTokenizer st = new StringTokenizer(s, sep2);
+        SOCMessageParser mp = new SOCMessageParser(s, sep2_char);
 
         try
         {
-            ga = st.nextToken();
-            pn = Integer.parseInt(st.nextToken());
-            pt = Integer.parseInt(st.nextToken());
-            co = Integer.parseInt(st.nextToken());
+            ga = mp.next();
+            pn = mp.nextInt();
+            pt = mp.nextInt();
+            co = mp.nextInt();
         }
         catch (Exception e)
         {
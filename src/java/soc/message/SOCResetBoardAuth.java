@@ -19,8 +19,6 @@
  **/
 package soc.message;
 
-import java.util.StringTokenizer;
-
 /**
  * This message from server informs the client that a game they're playing
  * has been "reset" to a new game (with same name and players, new layout),
@@ -82,13 +80,13 @@ public class SOCResetBoardAuth extends SOCMessageTemplate2i
         int joinpn;  // the player number to join at
         int reqpn;   // the requester player number
 
-        StringTokenizer st = new StringTokenizer(s, sep2);
+        SOCMessageParser mp = new SOCMessageParser(s, sep2_char);
 
         try
         {
-            ga = st.nextToken();
-            joinpn = Integer.parseInt(st.nextToken());
-            reqpn = Integer.parseInt(st.nextToken());
+            ga = mp.next();
+            joinpn = mp.nextInt();
+            reqpn = mp.nextInt();
         }
         catch (Exception e)
         {
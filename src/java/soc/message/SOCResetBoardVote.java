@@ -19,8 +19,6 @@
  **/
 package soc.message;
 
-import java.util.StringTokenizer;
-
 /**
  * This bi-directional message gives the client's vote on a "board reset",
  * which was requested by another player in that game.
@@ -93,13 +91,13 @@ public class SOCResetBoardVote extends SOCMessageTemplate2i
         int pn;    // the voter's player number
         int vy;    // vote, 1 or 0
 
-        StringTokenizer st = new StringTokenizer(s, sep2);
+        SOCMessageParser mp = new SOCMessageParser(s, sep2_char);
 
         try
         {
-            ga = st.nextToken();
-            pn = Integer.parseInt(st.nextToken());
-            vy = Integer.parseInt(st.nextToken());
+            ga = mp.next();
+            pn = mp.nextInt();
+            vy = mp.nextInt();
         }
         catch (Exception e)
         {
@@ -19,8 +19,6 @@
  **/
 package soc.message;
 
-import java.util.StringTokenizer;
-
 /**
  * This message from server informs the client that in a game they're playing,
  * another player requests a "board reset" (new game with same name and players, new layout),
@@ -74,12 +72,12 @@ public class SOCResetBoardVoteRequest extends SOCMessageTemplate1i
         String ga; // the game name
         int reqpn; // the requester player number
 
-        StringTokenizer st = new StringTokenizer(s, sep2);
+        SOCMessageParser mp = new SOCMessageParser(s, sep2_char);
 
         try
         {
-            ga = st.nextToken();
-            reqpn = Integer.parseInt(st.nextToken());
+            ga = mp.next();
+            reqpn = mp.nextInt();
         }
         catch (Exception e)
         {
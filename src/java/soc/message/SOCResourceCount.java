@@ -85,6 +85,18 @@ public class SOCResourceCount extends SOCMessage
         return count;
     }
 
+    /**
+     * Later messages with the same key replace this one's resource count for the player.
+     * @return  key for coalescing while queued to a slow client: type, game, player number
+     * @see SOCMessage#getCoalesceKey()
+     * @since 2.0.00
+     */
+    @Override
+    public String getCoalesceKey()
+    {
+        return messageType + sep2 + game + sep2 + playerNumber;
+    }
+
     /**
      * RESOURCECOUNT sep game sep2 playerNumber sep2 count
      *
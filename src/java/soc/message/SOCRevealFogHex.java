@@ -19,8 +19,6 @@
  **/
 package soc.message;
 
-import java.util.StringTokenizer;
-
 /**
  * This message from server reveals a hex previously hidden by fog on the large sea board.
  * Hexes are revealed by placing roads or ships that touch a corner of a fog hex.
@@ -77,14 +75,14 @@ public class SOCRevealFogHex extends SOCMessageTemplate3i
         int ht; // hex type
         int dn; // dice number
 
-        StringTokenizer st = new StringTokenizer(s, sep2);
+        SOCMessageParser mp = new SOCMessageParser(s, sep2_char);
 
         try
         {
-            ga = st.nextToken();
-            hc = Integer.parseInt(st.nextToken());
-            ht = Integer.parseInt(st.nextToken());
-            dn = Integer.parseInt(st.nextToken());
+            ga = mp.next();
+            hc = mp.nextInt();
+            ht = mp.nextInt();
+            dn = mp.nextInt();
         }
         catch (Exception e)
         {
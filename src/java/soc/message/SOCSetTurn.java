@@ -19,8 +19,6 @@
  **/
 package soc.message;
 
-import java.util.StringTokenizer;
-
 
 /**
  * This message from server to client says whose turn it is.
@@ -74,12 +72,12 @@ public class SOCSetTurn extends SOCMessageTemplate1i
         String ga; // the game name
         int pn; // the seat number
 
-        StringTokenizer st = new StringTokenizer(s, sep2);
+        SOCMessageParser mp = new SOCMessageParser(s, sep2_char);
 
         try
         {
-            ga = st.nextToken();
-            pn = Integer.parseInt(st.nextToken());
+            ga = mp.next();
+            pn = mp.nextInt();
         }
         catch (Exception e)
         {
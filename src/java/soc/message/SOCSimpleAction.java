@@ -19,8 +19,6 @@
  **/
 package soc.message;
 
-import java.util.StringTokenizer;
-
 /**
  * This generic message from the server to clients handles a simple action or event for a client player in a game.
  * This is a way to add game actions and events without adding new SOCMessage subclasses.
@@ -184,15 +182,15 @@ public class SOCSimpleAction extends SOCMessageTemplate4i
         final int v1;    // optional value1
         final int v2;    // optional value2
 
-        StringTokenizer st = new StringTokenizer(s, sep2);
+        SOCMessageParser mp = new SOCMessageParser(s, sep2_char);
 
         try
         {
-            ga = st.nextToken();
-            pn = Integer.parseInt(st.nextToken());
-            at = Integer.parseInt(st.nextToken());
-            v1 = Integer.parseInt(st.nextToken());
-            v2 = Integer.parseInt(st.nextToken());
+            ga = mp.next();
+            pn = mp.nextInt();
+            at = mp.nextInt();
+            v1 = mp.nextInt();
+            v2 = mp.nextInt();
         }
         catch (Exception e)
         {
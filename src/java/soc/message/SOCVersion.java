@@ -19,8 +19,6 @@
  **/
 package soc.message;
 
-import java.util.StringTokenizer;
-
 
 /**
  * This message sends the server's version, or client's version and locale, to the other side of the
@@ -64,6 +62,22 @@ public class SOCVersion extends SOCMessage
      */
     public final String locale;
 
+    /**
+     * Client's optional protocol features, or null, separated by {@code ';'}, such as {@link #FEAT_COMPACT_FRAMES}.
+     * Not sent from server or from clients older than 2.0.00.  Check with {@link #hasFeature(String)}.
+     * @since 2.0.00
+     */
+    public final String feats;
+
+    /**
+     * Client feature: Can read compact frames as well as text frames; see
+     * {@link soc.server.genericServer.MessageFrameCodec}.
+     * Only network clients should ask for this.
+     * @see #hasFeature(String)
+     * @since 2.0.00
+     */
+    public static final String FEAT_COMPACT_FRAMES = "cf";
+
     /**
      * Create a Version message.
      *
@@ -74,12 +88,30 @@ public class SOCVersion extends SOCMessage
      *                  not sent by jsettlers clients older than 2.0.00.
      */
     public SOCVersion(final int verNum, final String verStr, final String verBuild, final String verLocale)
+    {
+        this(verNum, verStr, verBuild, verLocale, null);
+    }
+
+    /**
+     * Create a Version message which includes client features.
+     *
+     * @param verNum The version number, as in {@link soc.util.Version#versionNumber()}
+     * @param verStr The version display string, as in {@link soc.util.Version#version()}
+     * @param verBuild The version build, or null, as in {@link soc.util.Version#buildnum()}
+     * @param verLocale The client's JVM locale, or null, as in {@link java.util.Locale#toString()}
+     * @param feats  The client's optional features, or null, such as {@link #FEAT_COMPACT_FRAMES};
+     *               not sent by clients older than 2.0.00.
+     * @since 2.0.00
+     */
+    public SOCVersion
+        (final int verNum, final String verStr, final String verBuild, final String verLocale, final String feats)
     {
         messageType = VERSION;
         versNum = verNum;
         versStr = verStr;
         versBuild = verBuild;
         locale = verLocale;
+        this.feats = feats;
     }
 
     /**
@@ -107,13 +139,24 @@ public class SOCVersion extends SOCMessage
     }
 
     /**
-     * VERSION SEP vernum SEP2 verstr SEP2 build SEP2 locale; build,locale may be blank
+     * Does the client have this optional feature?
+     * @param feat  Feature name, such as {@link #FEAT_COMPACT_FRAMES}
+     * @return  True if {@link #feats} contains {@code feat}
+     * @since 2.0.00
+     */
+    public boolean hasFeature(final String feat)
+    {
+        return (feats != null) && ((';' + feats + ';').indexOf(';' + feat + ';') != -1);
+    }
+
+    /**
+     * VERSION SEP vernum SEP2 verstr SEP2 build SEP2 locale [SEP2 feats]; build,locale may be blank
      *
      * @return the command String
      */
     public String toCmd()
     {
-        return toCmd(versNum, versStr, versBuild, locale);
+        return toCmd(versNum, versStr, versBuild, locale, feats);
     }
 
     /**
@@ -127,50 +170,74 @@ public class SOCVersion extends SOCMessage
      * @return    the command string
      */
     public static String toCmd(final int verNum, final String verStr, final String verBuild, final String verLocale)
+    {
+        return toCmd(verNum, verStr, verBuild, verLocale, null);
+    }
+
+    /**
+     * VERSION SEP vernum SEP2 verstr SEP2 build SEP2 locale [SEP2 feats]; build,locale may be blank
+     *
+     * @param verNum  the version number, like 1100 for 1.1.00, as in {@link soc.util.Version#versionNumber()}
+     * @param verStr  the version as string, like "1.1.00"
+     * @param verBuild the version build, or null, from {@link soc.util.Version#buildnum()}
+     * @param verLocale The client's JVM locale, or null, as in {@link java.util.Locale#toString()}
+     * @param feats  The client's optional features separated by {@code ';'}, or null,
+     *               such as {@link #FEAT_COMPACT_FRAMES}; older servers will ignore this token.
+     * @return    the command string
+     * @since 2.0.00
+     */
+    public static String toCmd
+        (final int verNum, final String verStr, final String verBuild, final String verLocale, final String feats)
     {
         return VERSION + sep + verNum + sep2 + verStr
             + sep2 + (verBuild != null ? verBuild : "")
-            + sep2 + (verLocale != null ? verLocale : "");
+            + sep2 + (verLocale != null ? verLocale : "")
+            + (feats != null ? (sep2 + feats) : "");
     }
 
     /**
-     * Parse the command String into a Version message
+     * Parse the command String into a Version message.
+     *<P>
+     * Before 2.0.00 this used a StringTokenizer, which skips empty tokens:
+     * So if build was blank, the locale was parsed as the build.
+     * Fields are now split exactly at each {@link #sep2_char}, and blank fields become null.
      *
      * @param s   the String to parse
-     * @return    a Version message
+     * @return    a Version message, or null if parsing errors
      */
     public static SOCVersion parseDataStr(String s)
     {
-        int vn;     // version number
-        String vs;  // version string
-        String bs;  // build string, or null
-        String lo = null;  // locale string, or null 
-
-        StringTokenizer st = new StringTokenizer(s, sep2);
-
-        try
+        final String[] fields = new String[5];  // vernum, verstr, build, locale, feats
+        int nf = 0;
+        for (int i = 0; nf < fields.length; )
         {
-            vn = Integer.parseInt(st.nextToken());
-            vs = st.nextToken();
-            if (st.hasMoreTokens())
+            final int j = s.indexOf(sep2_char, i);
+            if (j == -1)
             {
-                bs = st.nextToken();
-                if (st.hasMoreTokens())
-                {
-                    lo = st.nextToken();
-                    if (lo.length() == 0)
-                        lo = null;
-                }
-            } else {
-                bs = null;
+                fields[nf++] = s.substring(i);
+                break;
             }
+            fields[nf++] = s.substring(i, j);
+            i = j + 1;
         }
-        catch (Exception e)
+        if ((nf < 2) || (fields[1].length() == 0))
+            return null;
+
+        final int vn;  // version number
+        try
+        {
+            vn = Integer.parseInt(fields[0]);
+        }
+        catch (NumberFormatException e)
         {
             return null;
         }
 
-        return new SOCVersion(vn, vs, bs, lo);
+        for (int i = 2; i < nf; ++i)
+            if (fields[i].length() == 0)
+                fields[i] = null;
+
+        return new SOCVersion(vn, fields[1], fields[2], fields[3], fields[4]);
     }
 
     /**
@@ -180,7 +247,8 @@ public class SOCVersion extends SOCMessage
     {
         return "SOCVersion:" + versNum + ",str=" + versStr + ",verBuild="
             + (versBuild != null ? versBuild : "(null)"
-            + ",locale=" + (locale != null ? locale : "(null)"));
+            + ",locale=" + (locale != null ? locale : "(null)"))
+            + ((feats != null) ? (",feats=" + feats) : "");
     }
 
     /**
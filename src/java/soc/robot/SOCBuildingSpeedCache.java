@@ -0,0 +1,171 @@
+/**
+ * Java Settlers - An online multiplayer version of the game Settlers of Catan
+ * This file Copyright (C) 2026 agent <agent@local>
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * The maintainer of this program can be reached at jsettlers@nand.net
+ **/
+package soc.robot;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Bounded, thread-safe cache of {@link SOCBuildingSpeedEstimate}'s fast estimates,
+ * keyed by a compact 2-{@code long} encoding of the inputs which determine them:
+ * rolls per resource, starting resources, port flags, and roll limit.
+ * The robot brains and player trackers calculate the same estimates many times
+ * during one decision and across turns; with the cache, repeats are lookups.
+ *<P>
+ * One instance, {@link SOCBuildingSpeedEstimate#estimateCache}, is shared by all robots in the JVM.
+ * Least-recently used entries are dropped when the cache is full.
+ * Hit and miss counts are kept for tuning; see {@link #toString()}.
+ *
+ * @author agent &lt;agent@local&gt;
+ * @since 2.0.00
+ */
+public final class SOCBuildingSpeedCache
+{
+    /** Default maximum number of entries, used by {@link SOCBuildingSpeedEstimate#estimateCache} */
+    public static final int DEFAULT_MAX_ENTRIES = 8192;
+
+    /** Cached estimates, in access order for LRU removal */
+    private final LinkedHashMap<Key, int[]> map;
+
+    /** Lookup counts; access is synchronized on this cache */
+    private long hits, misses;
+
+    /**
+     * Create an empty cache.
+     * @param maxEntries  Maximum number of entries to keep; at least 1
+     * @throws IllegalArgumentException if {@code maxEntries} &lt; 1
+     */
+    public SOCBuildingSpeedCache(final int maxEntries)
+        throws IllegalArgumentException
+    {
+        if (maxEntries < 1)
+            throw new IllegalArgumentException("maxEntries: " + maxEntries);
+
+        map = new LinkedHashMap<Key, int[]>(Math.min(maxEntries, 1024), 0.75f, true)
+        {
+            private static final long serialVersionUID = 2000L;
+
+            protected boolean removeEldestEntry(Map.Entry<Key, int[]> eldest)
+            {
+                return (size() > maxEntries);
+            }
+        };
+    }
+
+    /**
+     * Look up cached estimates, and count a hit or miss.
+     * @param k1  First part of the key
+     * @param k2  Second part of the key
+     * @param estimates  If found, the cached estimates are copied into this array
+     * @return  true if found and copied, false if not cached
+     */
+    public synchronized boolean get(final long k1, final long k2, final int[] estimates)
+    {
+        final int[] cached = map.get(new Key(k1, k2));
+        if (cached == null)
+        {
+            ++misses;
+            return false;
+        }
+
+        ++hits;
+        System.arraycopy(cached, 0, estimates, 0, cached.length);
+        return true;
+    }
+
+    /**
+     * Add or replace estimates in the cache, possibly dropping the least recently used entry.
+     * @param k1  First part of the key
+     * @param k2  Second part of the key
+     * @param estimates  Estimates to cache; a copy is kept, so the caller can change this array afterwards
+     */
+    public synchronized void put(final long k1, final long k2, final int[] estimates)
+    {
+        map.put(new Key(k1, k2), estimates.clone());
+    }
+
+    /** @return Number of lookups which found cached estimates */
+    public synchronized long getHits()
+    {
+        return hits;
+    }
+
+    /** @return Number of lookups which didn't find cached estimates */
+    public synchronized long getMisses()
+    {
+        return misses;
+    }
+
+    /** @return Number of entries currently cached */
+    public synchronized int size()
+    {
+        return map.size();
+    }
+
+    /** Remove all entries and reset the hit and miss counts. */
+    public synchronized void clear()
+    {
+        map.clear();
+        hits = 0;
+        misses = 0;
+    }
+
+    /**
+     * Summary of the cache's statistics, such as
+     * "building speed cache: 1520 entries, 58712 hits, 1520 misses (97.5% hit rate)".
+     */
+    public synchronized String toString()
+    {
+        final long total = hits + misses;
+        final String rate = (total > 0) ? String.format("%.1f", (100.0 * hits) / total) : "0.0";
+        return "building speed cache: " + map.size() + " entries, " + hits + " hits, " + misses + " misses ("
+            + rate + "% hit rate)";
+    }
+
+    /**
+     * Key for one set of estimate inputs, encoded by the caller into 2 longs.
+     */
+    private static final class Key
+    {
+        private final long k1, k2;
+
+        Key(final long k1, final long k2)
+        {
+            this.k1 = k1;
+            this.k2 = k2;
+        }
+
+        public boolean equals(final Object o)
+        {
+            if (! (o instanceof Key))
+                return false;
+
+            final Key k = (Key) o;
+            return (k1 == k.k1) && (k2 == k.k2);
+        }
+
+        public int hashCode()
+        {
+            final long h = (k1 * 0x9E3779B97F4A7C15L) ^ k2;
+            return (int) (h ^ (h >>> 32));
+        }
+    }
+
+}
@@ -25,6 +25,7 @@ import soc.disableDebug.D;
 
 import soc.game.SOCBoard;
 import soc.game.SOCGame;
+import soc.game.SOCPackedResourceSet;
 import soc.game.SOCPlayer;
 import soc.game.SOCPlayerNumbers;
 import soc.game.SOCResourceConstants;
@@ -53,6 +54,15 @@ public class SOCBuildingSpeedEstimate
     public static final int MAXPLUSONE = 5;
     public static final int DEFAULT_ROLL_LIMIT = 40;
     protected static boolean recalc;
+
+    /**
+     * Cache of fast estimates, shared by all robots, used by {@link #getEstimatesFromNothingFast(boolean[])},
+     * {@link #getEstimatesFromNothingFast(boolean[], int)} and {@link #getEstimatesFromNowFast(SOCResourceSet, boolean[])}.
+     * @since 2.0.00
+     */
+    public static final SOCBuildingSpeedCache estimateCache
+        = new SOCBuildingSpeedCache(SOCBuildingSpeedCache.DEFAULT_MAX_ENTRIES);
+
     int[] estimatesFromNothing;
     int[] estimatesFromNow;
 
@@ -192,28 +202,7 @@ public class SOCBuildingSpeedEstimate
     public int[] getEstimatesFromNothingFast(boolean[] ports)
     {
         if (recalc)
-        {
-            estimatesFromNothing[ROAD] = DEFAULT_ROLL_LIMIT;
-            estimatesFromNothing[SETTLEMENT] = DEFAULT_ROLL_LIMIT;
-            estimatesFromNothing[CITY] = DEFAULT_ROLL_LIMIT;
-            estimatesFromNothing[CARD] = DEFAULT_ROLL_LIMIT;
-            estimatesFromNothing[SHIP] = DEFAULT_ROLL_LIMIT;
-
-            SOCResourceSet emptySet = new SOCResourceSet();
-
-            try
-            {
-                estimatesFromNothing[ROAD] = calculateRollsAndRsrcFast(emptySet, SOCGame.ROAD_SET, DEFAULT_ROLL_LIMIT, ports).getRolls();
-                estimatesFromNothing[SETTLEMENT] = calculateRollsAndRsrcFast(emptySet, SOCGame.SETTLEMENT_SET, DEFAULT_ROLL_LIMIT, ports).getRolls();
-                estimatesFromNothing[CITY] = calculateRollsAndRsrcFast(emptySet, SOCGame.CITY_SET, DEFAULT_ROLL_LIMIT, ports).getRolls();
-                estimatesFromNothing[CARD] = calculateRollsAndRsrcFast(emptySet, SOCGame.CARD_SET, DEFAULT_ROLL_LIMIT, ports).getRolls();
-                estimatesFromNothing[SHIP] = calculateRollsAndRsrcFast(emptySet, SOCGame.SHIP_SET, DEFAULT_ROLL_LIMIT, ports).getRolls();
-            }
-            catch (CutoffExceededException e)
-            {
-                ;
-            }
-        }
+            calculateEstimatesFast(SOCResourceSet.EMPTY_SET, DEFAULT_ROLL_LIMIT, ports, estimatesFromNothing);
 
         return estimatesFromNothing;
     }
@@ -226,28 +215,7 @@ public class SOCBuildingSpeedEstimate
     public int[] getEstimatesFromNothingFast(boolean[] ports, int limit)
     {
         if (recalc)
-        {
-            estimatesFromNothing[ROAD] = limit;
-            estimatesFromNothing[SETTLEMENT] = limit;
-            estimatesFromNothing[CITY] = limit;
-            estimatesFromNothing[CARD] = limit;
-            estimatesFromNothing[SHIP] = limit;
-
-            SOCResourceSet emptySet = new SOCResourceSet();
-
-            try
-            {
-                estimatesFromNothing[ROAD] = calculateRollsAndRsrcFast(emptySet, SOCGame.ROAD_SET, limit, ports).getRolls();
-                estimatesFromNothing[SETTLEMENT] = calculateRollsAndRsrcFast(emptySet, SOCGame.SETTLEMENT_SET, limit, ports).getRolls();
-                estimatesFromNothing[CITY] = calculateRollsAndRsrcFast(emptySet, SOCGame.CITY_SET, limit, ports).getRolls();
-                estimatesFromNothing[CARD] = calculateRollsAndRsrcFast(emptySet, SOCGame.CARD_SET, limit, ports).getRolls();
-                estimatesFromNothing[SHIP] = calculateRollsAndRsrcFast(emptySet, SOCGame.SHIP_SET, limit, ports).getRolls();
-            }
-            catch (CutoffExceededException e)
-            {
-                ;
-            }
-        }
+            calculateEstimatesFast(SOCResourceSet.EMPTY_SET, limit, ports, estimatesFromNothing);
 
         return estimatesFromNothing;
     }
@@ -290,26 +258,112 @@ public class SOCBuildingSpeedEstimate
      */
     public int[] getEstimatesFromNowFast(SOCResourceSet resources, boolean[] ports)
     {
-        estimatesFromNow[ROAD] = DEFAULT_ROLL_LIMIT;
-        estimatesFromNow[SETTLEMENT] = DEFAULT_ROLL_LIMIT;
-        estimatesFromNow[CITY] = DEFAULT_ROLL_LIMIT;
-        estimatesFromNow[CARD] = DEFAULT_ROLL_LIMIT;
-        estimatesFromNow[SHIP] = DEFAULT_ROLL_LIMIT;
+        return calculateEstimatesFast(resources, DEFAULT_ROLL_LIMIT, ports, estimatesFromNow);
+    }
+
+    /**
+     * Calculate the fast estimates of rolls to build each piece type from a starting set of resources,
+     * or copy them from {@link #estimateCache} if they've already been calculated for the same inputs.
+     * If an estimate is more than {@code limit} rolls, it and the estimates after it
+     * (in order {@link #ROAD}, {@link #SETTLEMENT}, {@link #CITY}, {@link #CARD}, {@link #SHIP})
+     * are {@code limit}.
+     *
+     * @param resources  the starting resources
+     * @param limit      the roll limit
+     * @param ports      the player's port flags
+     * @param estimates  array to fill, such as {@link #estimatesFromNow}
+     * @return {@code estimates}
+     * @since 2.0.00
+     */
+    private int[] calculateEstimatesFast
+        (final SOCResourceSet resources, final int limit, final boolean[] ports, final int[] estimates)
+    {
+        final long k1 = cacheKeyResources(resources), k2 = cacheKeyRollsAndPorts(limit, ports);
+        final boolean cacheable = (k1 != -1L) && (k2 != -1L);
+        if (cacheable && estimateCache.get(k1, k2, estimates))
+            return estimates;
+
+        estimates[ROAD] = limit;
+        estimates[SETTLEMENT] = limit;
+        estimates[CITY] = limit;
+        estimates[CARD] = limit;
+        estimates[SHIP] = limit;
 
         try
         {
-            estimatesFromNow[ROAD] = calculateRollsAndRsrcFast(resources, SOCGame.ROAD_SET, DEFAULT_ROLL_LIMIT, ports).getRolls();
-            estimatesFromNow[SETTLEMENT] = calculateRollsAndRsrcFast(resources, SOCGame.SETTLEMENT_SET, DEFAULT_ROLL_LIMIT, ports).getRolls();
-            estimatesFromNow[CITY] = calculateRollsAndRsrcFast(resources, SOCGame.CITY_SET, DEFAULT_ROLL_LIMIT, ports).getRolls();
-            estimatesFromNow[CARD] = calculateRollsAndRsrcFast(resources, SOCGame.CARD_SET, DEFAULT_ROLL_LIMIT, ports).getRolls();
-            estimatesFromNow[SHIP] = calculateRollsAndRsrcFast(resources, SOCGame.SHIP_SET, DEFAULT_ROLL_LIMIT, ports).getRolls();
+            estimates[ROAD] = calculateRollsAndRsrcFast(resources, SOCGame.ROAD_SET, limit, ports).getRolls();
+            estimates[SETTLEMENT] = calculateRollsAndRsrcFast(resources, SOCGame.SETTLEMENT_SET, limit, ports).getRolls();
+            estimates[CITY] = calculateRollsAndRsrcFast(resources, SOCGame.CITY_SET, limit, ports).getRolls();
+            estimates[CARD] = calculateRollsAndRsrcFast(resources, SOCGame.CARD_SET, limit, ports).getRolls();
+            estimates[SHIP] = calculateRollsAndRsrcFast(resources, SOCGame.SHIP_SET, limit, ports).getRolls();
         }
         catch (CutoffExceededException e)
         {
             ;
         }
 
-        return estimatesFromNow;
+        if (cacheable)
+            estimateCache.put(k1, k2, estimates);
+
+        return estimates;
+    }
+
+    /**
+     * Encode starting resources for an {@link #estimateCache} key:
+     * Their known amounts packed by {@link SOCPackedResourceSet#packKnown(SOCResourceSet)},
+     * plus a bit for whether the unknown amount is at least 0, the unknown amount of every piece's cost;
+     * that's the only way unknowns affect the fast estimates.
+     * @param resources  the starting resources
+     * @return  the encoded key, or -1 if a known amount can't be packed
+     * @since 2.0.00
+     */
+    private static long cacheKeyResources(final SOCResourceSet resources)
+    {
+        final long packed;
+        try
+        {
+            packed = SOCPackedResourceSet.packKnown(resources);
+        }
+        catch (IllegalArgumentException e)
+        {
+            return -1L;
+        }
+
+        return (resources.getAmount(SOCResourceConstants.UNKNOWN) >= 0) ? (packed | (1L << 62)) : packed;
+    }
+
+    /**
+     * Encode {@link #rollsPerResource}, port flags and roll limit for an {@link #estimateCache} key:
+     * 6 bits per resource's rolls (0 to 62, or 63 for none), 6 bits of port flags, and the limit.
+     * @param limit  the roll limit
+     * @param ports  the player's port flags, from {@link SOCBoard#MISC_PORT} to {@link SOCBoard#WOOD_PORT}
+     * @return  the encoded key, or -1 if an input doesn't fit
+     * @since 2.0.00
+     */
+    private long cacheKeyRollsAndPorts(final int limit, final boolean[] ports)
+    {
+        if ((limit < 0) || (limit >= (1 << 24)) || (ports.length <= SOCBoard.WOOD_PORT))
+            return -1L;
+
+        long k = 0L;
+        for (int rtype = SOCResourceConstants.CLAY; rtype <= SOCResourceConstants.WOOD; ++rtype)
+        {
+            final int rolls = rollsPerResource[rtype];
+            final int enc;
+            if (rolls == 55555)
+                enc = 63;
+            else if ((rolls >= 0) && (rolls < 63))
+                enc = rolls;
+            else
+                return -1L;
+
+            k = (k << 6) | enc;
+        }
+
+        for (int i = SOCBoard.MISC_PORT; i <= SOCBoard.WOOD_PORT; ++i)
+            k = (k << 1) | (ports[i] ? 1 : 0);
+
+        return (k << 24) | limit;
     }
 
     /**
@@ -475,8 +529,7 @@ public class SOCBuildingSpeedEstimate
     {
         try
         {
-            SOCResSetBuildTimePair pair = calculateRollsAndRsrcFast(startingResources, targetResources, cutoff, ports);
-            return pair.getRolls();
+            return calculateRollsPacked(startingResources, targetResources, cutoff, ports, null);
         }
         catch (CutoffExceededException e)
         {
@@ -504,247 +557,181 @@ public class SOCBuildingSpeedEstimate
         (final SOCResourceSet startingResources, final SOCResourceSet targetResources, final int cutoff, final boolean[] ports)
         throws CutoffExceededException
     {
-        //D.ebugPrintln("calculateRolls");
-        //D.ebugPrintln("  start: "+startingResources);
-        //D.ebugPrintln("  target: "+targetResources);
-        SOCResourceSet ourResources = startingResources.copy();
+        final long[] ourResources = new long[1];
+        final int rolls = calculateRollsPacked(startingResources, targetResources, cutoff, ports, ourResources);
+
+        SOCResourceSet rs = SOCPackedResourceSet.toResourceSet(ourResources[0]);
+        rs.setAmount(startingResources.getAmount(SOCResourceConstants.UNKNOWN), SOCResourceConstants.UNKNOWN);
+        return (new SOCResSetBuildTimePair(rs, rolls));
+    }
+
+    /**
+     * Calculation for {@link #calculateRollsAndRsrcFast(SOCResourceSet, SOCResourceSet, int, boolean[])}
+     * and {@link #calculateRollsFast(SOCResourceSet, SOCResourceSet, int, boolean[])}:
+     * Simulates rolls and bank/port trades using {@link SOCPackedResourceSet}s, without allocating.
+     *<P>
+     * Only known resource types are packed.  Rolls and trades never change the unknown amount,
+     * so if {@code startingResources} has fewer unknowns than {@code targetResources}
+     * the target can't be reached, and the cutoff exception is thrown without simulating.
+     *
+     * @param startingResources   the starting resources; known amounts must be 0 to {@link SOCPackedResourceSet#MAX_AMOUNT}
+     * @param targetResources     the target resources; known amounts must be 0 to {@link SOCPackedResourceSet#MAX_AMOUNT}
+     * @param cutoff              throw an exception if the total speed is greater than this
+     * @param ports               a list of port flags
+     * @param ourResourcesOut     if not null, element 0 is set to the packed known resources after any trading
+     * @return the number of rolls
+     * @throws CutoffExceededException  if total number of rolls &gt; {@code cutoff}
+     * @throws IllegalArgumentException  if a known amount is out of range
+     * @since 2.0.00
+     */
+    private int calculateRollsPacked
+        (final SOCResourceSet startingResources, final SOCResourceSet targetResources, final int cutoff,
+         final boolean[] ports, final long[] ourResourcesOut)
+        throws CutoffExceededException, IllegalArgumentException
+    {
+        if (startingResources.getAmount(SOCResourceConstants.UNKNOWN) < targetResources.getAmount(SOCResourceConstants.UNKNOWN))
+            throw new CutoffExceededException();
+
+        final long target = SOCPackedResourceSet.packKnown(targetResources);
+        long ourResources = SOCPackedResourceSet.packKnown(startingResources);
         int rolls = 0;
 
-        if (!ourResources.contains(targetResources))
+        if (! SOCPackedResourceSet.gte(ourResources, target))
         {
             /**
              * do any possible trading with the bank/ports
              */
-            for (int giveResource = SOCResourceConstants.CLAY;
-                    giveResource <= SOCResourceConstants.WOOD;
-                    giveResource++)
-            {
-                /**
-                 * find the ratio at which we can trade
-                 */
-                int tradeRatio;
-
-                if (ports[giveResource])
-                {
-                    tradeRatio = 2;
-                }
-                else if (ports[SOCBoard.MISC_PORT])
-                {
-                    tradeRatio = 3;
-                }
-                else
-                {
-                    tradeRatio = 4;
-                }
-
-                /**
-                 * get the target resources
-                 */
-                int numTrades = (ourResources.getAmount(giveResource) - targetResources.getAmount(giveResource)) / tradeRatio;
-
-                //D.ebugPrintln("))) ***");
-                //D.ebugPrintln("))) giveResource="+giveResource);
-                //D.ebugPrintln("))) tradeRatio="+tradeRatio);
-                //D.ebugPrintln("))) ourResources="+ourResources);
-                //D.ebugPrintln("))) targetResources="+targetResources);
-                //D.ebugPrintln("))) numTrades="+numTrades);
-                for (int trades = 0; trades < numTrades; trades++)
-                {
-                    /**
-                     * find the most needed resource by looking at
-                     * which of the resources we still need takes the
-                     * longest to aquire
-                     */
-                    int mostNeededResource = -1;
-
-                    for (int resource = SOCResourceConstants.CLAY;
-                            resource <= SOCResourceConstants.WOOD;
-                            resource++)
-                    {
-                        if (ourResources.getAmount(resource) < targetResources.getAmount(resource))
-                        {
-                            if (mostNeededResource < 0)
-                            {
-                                mostNeededResource = resource;
-                            }
-                            else
-                            {
-                                if (rollsPerResource[resource] > rollsPerResource[mostNeededResource])
-                                {
-                                    mostNeededResource = resource;
-                                }
-                            }
-                        }
-                    }
-
-                    /**
-                     * make the trade
-                     */
-
-                    //D.ebugPrintln("))) want to trade "+tradeRatio+" "+giveResource+" for a "+mostNeededResource);
-                    if ((mostNeededResource != -1) && (ourResources.getAmount(giveResource) >= tradeRatio))
-                    {
-                        //D.ebugPrintln("))) trading...");
-                        ourResources.add(1, mostNeededResource);
-
-                        if (ourResources.getAmount(giveResource) < tradeRatio)
-                        {
-                            System.err.println("@@@ rsrcs=" + ourResources);
-                            System.err.println("@@@ tradeRatio=" + tradeRatio);
-                            System.err.println("@@@ giveResource=" + giveResource);
-                            System.err.println("@@@ target=" + targetResources);
-                        }
-
-                        ourResources.subtract(tradeRatio, giveResource);
-
-                        //D.ebugPrintln("))) ourResources="+ourResources);
-                    }
-
-                    if (ourResources.contains(targetResources))
-                    {
-                        break;
-                    }
-                }
-
-                if (ourResources.contains(targetResources))
-                {
-                    break;
-                }
-            }
+            ourResources = tradeTowardsPacked(ourResources, target, ports);
         }
 
-        while (!ourResources.contains(targetResources))
+        while (! SOCPackedResourceSet.gte(ourResources, target))
         {
-            //D.ebugPrintln("roll: "+rolls);
-            //D.ebugPrintln("resources: "+ourResources);
             rolls++;
 
             if (rolls > cutoff)
             {
-                //D.ebugPrintln("startingResources="+startingResources+"\ntargetResources="+targetResources+"\ncutoff="+cutoff+"\nourResources="+ourResources);
+                //D.ebugPrintln("startingResources="+startingResources+"\ntargetResources="+targetResources+"\ncutoff="+cutoff+"\nourResources="+SOCPackedResourceSet.toString(ourResources));
                 throw new CutoffExceededException();
             }
 
             for (int resource = SOCResourceConstants.CLAY;
                     resource <= SOCResourceConstants.WOOD; resource++)
             {
-                //D.ebugPrintln("resource: "+resource);
-                //D.ebugPrintln("rollsPerResource: "+rollsPerResource[resource]);
-
                 /**
                  * get our resources for the roll
                  */
                 if ((rollsPerResource[resource] == 0) || ((rolls % rollsPerResource[resource]) == 0))
                 {
-                    ourResources.add(1, resource);
+                    ourResources = SOCPackedResourceSet.add(ourResources, 1, resource);
                 }
             }
 
-            if (!ourResources.contains(targetResources))
+            if (! SOCPackedResourceSet.gte(ourResources, target))
             {
                 /**
                  * do any possible trading with the bank/ports
                  */
-                for (int giveResource = SOCResourceConstants.CLAY;
-                        giveResource <= SOCResourceConstants.WOOD;
-                        giveResource++)
-                {
-                    /**
-                     * find the ratio at which we can trade
-                     */
-                    int tradeRatio;
+                ourResources = tradeTowardsPacked(ourResources, target, ports);
+            }
+        }
 
-                    if (ports[giveResource])
-                    {
-                        tradeRatio = 2;
-                    }
-                    else if (ports[SOCBoard.MISC_PORT])
-                    {
-                        tradeRatio = 3;
-                    }
-                    else
-                    {
-                        tradeRatio = 4;
-                    }
+        if (ourResourcesOut != null)
+            ourResourcesOut[0] = ourResources;
 
-                    /**
-                     * get the target resources
-                     */
-                    int numTrades = (ourResources.getAmount(giveResource) - targetResources.getAmount(giveResource)) / tradeRatio;
-
-                    //D.ebugPrintln("))) ***");
-                    //D.ebugPrintln("))) giveResource="+giveResource);
-                    //D.ebugPrintln("))) tradeRatio="+tradeRatio);
-                    //D.ebugPrintln("))) ourResources="+ourResources);
-                    //D.ebugPrintln("))) targetResources="+targetResources);
-                    //D.ebugPrintln("))) numTrades="+numTrades);
-                    for (int trades = 0; trades < numTrades; trades++)
-                    {
-                        /**
-                         * find the most needed resource by looking at
-                         * which of the resources we still need takes the
-                         * longest to aquire
-                         */
-                        int mostNeededResource = -1;
-
-                        for (int resource = SOCResourceConstants.CLAY;
-                                resource <= SOCResourceConstants.WOOD;
-                                resource++)
-                        {
-                            if (ourResources.getAmount(resource) < targetResources.getAmount(resource))
-                            {
-                                if (mostNeededResource < 0)
-                                {
-                                    mostNeededResource = resource;
-                                }
-                                else
-                                {
-                                    if (rollsPerResource[resource] > rollsPerResource[mostNeededResource])
-                                    {
-                                        mostNeededResource = resource;
-                                    }
-                                }
-                            }
-                        }
+        return rolls;
+    }
 
-                        /**
-                         * make the trade
-                         */
+    /**
+     * Trade surplus resources with the bank or ports towards a target, for {@link #calculateRollsPacked}.
+     * For each resource type having a surplus above the target, trades it at the player's best ratio
+     * for the most needed resource, which is the needed one that takes the most rolls to acquire.
+     * @param ourResources  Packed resources we have
+     * @param target  Packed target resources
+     * @param ports   a list of port flags
+     * @return  Our packed resources after trading; may have reached the target
+     * @since 2.0.00
+     */
+    private long tradeTowardsPacked(long ourResources, final long target, final boolean[] ports)
+    {
+        for (int giveResource = SOCResourceConstants.CLAY;
+                giveResource <= SOCResourceConstants.WOOD;
+                giveResource++)
+        {
+            /**
+             * find the ratio at which we can trade
+             */
+            int tradeRatio;
 
-                        //D.ebugPrintln("))) want to trade "+tradeRatio+" "+giveResource+" for a "+mostNeededResource);
-                        if ((mostNeededResource != -1) && (ourResources.getAmount(giveResource) >= tradeRatio))
-                        {
-                            //D.ebugPrintln("))) trading...");
-                            ourResources.add(1, mostNeededResource);
+            if (ports[giveResource])
+            {
+                tradeRatio = 2;
+            }
+            else if (ports[SOCBoard.MISC_PORT])
+            {
+                tradeRatio = 3;
+            }
+            else
+            {
+                tradeRatio = 4;
+            }
 
-                            if (ourResources.getAmount(giveResource) < tradeRatio)
-                            {
-                                System.err.println("@@@ rsrcs=" + ourResources);
-                                System.err.println("@@@ tradeRatio=" + tradeRatio);
-                                System.err.println("@@@ giveResource=" + giveResource);
-                                System.err.println("@@@ target=" + targetResources);
-                            }
+            /**
+             * get the target resources
+             */
+            int numTrades = (SOCPackedResourceSet.getAmount(ourResources, giveResource)
+                             - SOCPackedResourceSet.getAmount(target, giveResource)) / tradeRatio;
 
-                            ourResources.subtract(tradeRatio, giveResource);
+            for (int trades = 0; trades < numTrades; trades++)
+            {
+                /**
+                 * find the most needed resource by looking at
+                 * which of the resources we still need takes the
+                 * longest to aquire
+                 */
+                int mostNeededResource = -1;
 
-                            //D.ebugPrintln("))) ourResources="+ourResources);
+                for (int resource = SOCResourceConstants.CLAY;
+                        resource <= SOCResourceConstants.WOOD;
+                        resource++)
+                {
+                    if (SOCPackedResourceSet.getAmount(ourResources, resource) < SOCPackedResourceSet.getAmount(target, resource))
+                    {
+                        if (mostNeededResource < 0)
+                        {
+                            mostNeededResource = resource;
                         }
-
-                        if (ourResources.contains(targetResources))
+                        else
                         {
-                            break;
+                            if (rollsPerResource[resource] > rollsPerResource[mostNeededResource])
+                            {
+                                mostNeededResource = resource;
+                            }
                         }
                     }
+                }
 
-                    if (ourResources.contains(targetResources))
-                    {
-                        break;
-                    }
+                /**
+                 * make the trade
+                 */
+                if ((mostNeededResource != -1) && (SOCPackedResourceSet.getAmount(ourResources, giveResource) >= tradeRatio))
+                {
+                    ourResources = SOCPackedResourceSet.add(ourResources, 1, mostNeededResource);
+                    ourResources = SOCPackedResourceSet.subtract(ourResources, tradeRatio, giveResource);
+                }
+
+                if (SOCPackedResourceSet.gte(ourResources, target))
+                {
+                    break;
                 }
             }
+
+            if (SOCPackedResourceSet.gte(ourResources, target))
+            {
+                break;
+            }
         }
 
-        return (new SOCResSetBuildTimePair(ourResources, rolls));
+        return ourResources;
     }
 
     /**
@@ -42,6 +42,7 @@ import soc.game.SOCShip;
 import soc.util.Pair;
 import soc.util.Queue;
 
+import java.io.Serializable;
 import java.util.Collection;
 import java.util.Enumeration;
 import java.util.HashMap;
@@ -78,8 +79,10 @@ import java.util.Vector;
  *
  * @author Robert S Thomas
  */
-public class SOCPlayerTracker
+public class SOCPlayerTracker implements Serializable
 {
+    private static final long serialVersionUID = 2000L;
+
     // protected static final DecimalFormat df1 = new DecimalFormat("###0.00");
 
     /**
@@ -103,8 +106,12 @@ public class SOCPlayerTracker
      */
     static protected int LR_CALC_LEVEL = 2;
 
-    /** The robot brain using this tracker */
-    protected final SOCRobotBrain brain;
+    /**
+     * The robot brain using this tracker, or null if none
+     * (such as in {@link SOCRobotSimulator}, where trackers are shared by all players' decision makers).
+     * Not serialized: null in the copies which {@link SOCRobotDM} deserializes to score pieces in parallel.
+     */
+    protected final transient SOCRobotBrain brain;
 
     /** The player being tracked */
     private final SOCPlayer player;
@@ -152,18 +159,27 @@ public class SOCPlayerTracker
      * {@code null} otherwise.  Updated by {@link #updateScenario_SC_PIRI_closestShipToFortress(SOCShip, boolean)}.
      * @since 2.0.00
      */
-    private SOCShip scen_SC_PIRI_closestShipToFortress;
+    SOCShip scen_SC_PIRI_closestShipToFortress;
 
     /**
      * monitor for synchronization
      */
     boolean inUse;
 
+    /**
+     * Undo journal while a piece is being tried in place by
+     * {@link #tryPutPieceInPlace(SOCPlayingPiece, SOCGame, HashMap, SOCPlayerTrackerJournal)}, or null.
+     * Changes to possible pieces and their maps are recorded here so they can be rolled back.
+     * Set and cleared by {@link SOCPlayerTrackerJournal}.
+     * @since 2.0.00
+     */
+    transient SOCPlayerTrackerJournal journal;
+
     /**
      * Constructor.
      *
      * @param pl  the player being tracked
-     * @param br  the robot brain using this tracker
+     * @param br  the robot brain using this tracker, or null if none
      */
     public SOCPlayerTracker(SOCPlayer pl, SOCRobotBrain br)
     {
@@ -572,7 +588,7 @@ public class SOCPlayerTracker
                 // if so, remove it
                 //
                 //D.ebugPrintln("$$$ removing (wrong) "+Integer.toHexString(road.getCoordinates()));
-                possibleRoads.remove(new Integer(pr.getCoordinates()));
+                removePossible(possibleRoads, new Integer(pr.getCoordinates()));
                 removeFromNecessaryRoads(pr);
 
                 break;
@@ -606,7 +622,11 @@ public class SOCPlayerTracker
             //
             // reset all expanded flags for possible roads
             //
-            pr.resetExpandedFlag();
+            if (pr.hasBeenExpanded())
+            {
+                willChange(pr);
+                pr.resetExpandedFlag();
+            }
 
             if (pr.getCoordinates() == road.getCoordinates())
             {
@@ -614,7 +634,7 @@ public class SOCPlayerTracker
                 // if so, remove it
                 //
                 //D.ebugPrintln("$$$ removing "+Integer.toHexString(road.getCoordinates()));
-                possibleRoads.remove(new Integer(pr.getCoordinates()));
+                removePossible(possibleRoads, new Integer(pr.getCoordinates()));
                 removeFromNecessaryRoads(pr);
 
                 break;
@@ -648,6 +668,7 @@ public class SOCPlayerTracker
                     //
                     //D.ebugPrintln("$$$ found it");
                     removeFromNecessaryRoads(posSet);
+                    willChange(posSet);
                     posSet.getNecessaryRoads().removeAllElements();
                     posSet.setNumberOfNecessaryRoads(0);
                 }
@@ -659,7 +680,7 @@ public class SOCPlayerTracker
                     //D.ebugPrintln("$$$ adding new possible settlement at "+Integer.toHexString(adjNode.intValue()));
                     SOCPossibleSettlement newPosSet = new SOCPossibleSettlement(player, adjNode.intValue(), null);
                     newPosSet.setNumberOfNecessaryRoads(0);
-                    possibleSettlements.put(adjNode, newPosSet);
+                    putPossible(possibleSettlements, adjNode, newPosSet);
                     updateSettlementConflicts(newPosSet, trackers);
                 }
             }
@@ -733,6 +754,7 @@ public class SOCPlayerTracker
                     // if so, clear necessary road list and remove from np lists
                     //
                     //D.ebugPrintln("$$$ pr "+Integer.toHexString(pr.getCoordinates())+" already in list");
+                    willChange(pr);
                     if (!pr.getNecessaryRoads().isEmpty())
                     {
                         //D.ebugPrintln("$$$    clearing nr list");
@@ -777,7 +799,7 @@ public class SOCPlayerTracker
         //
         for (SOCPossibleRoad newPR : newPossibleRoads)
         {
-            possibleRoads.put(new Integer(newPR.getCoordinates()), newPR);
+            putPossible(possibleRoads, new Integer(newPR.getCoordinates()), newPR);
         }
 
         //
@@ -860,6 +882,8 @@ public class SOCPlayerTracker
                         // add target road to settlement's nr list and this settlement to the road's np list
                         //
                         //D.ebugPrintln("$$$ adding road "+Integer.toHexString(targetRoad.getCoordinates())+" to the settlement "+Integer.toHexString(posSet.getCoordinates()));
+                        willChange(posSet);
+                        willChange(targetRoad);
                         posSet.getNecessaryRoads().addElement(targetRoad);
                         targetRoad.addNewPossibility(posSet);
 
@@ -883,7 +907,8 @@ public class SOCPlayerTracker
 
                     SOCPossibleSettlement newPosSet = new SOCPossibleSettlement(player, adjNode.intValue(), nr);
                     newPosSet.setNumberOfNecessaryRoads(targetRoad.getNumberOfNecessaryRoads() + 1);
-                    possibleSettlements.put(adjNode, newPosSet);
+                    putPossible(possibleSettlements, adjNode, newPosSet);
+                    willChange(targetRoad);
                     targetRoad.addNewPossibility(newPosSet);
                     updateSettlementConflicts(newPosSet, trackers);
                 }
@@ -991,6 +1016,8 @@ public class SOCPlayerTracker
                             // add the target road to its nr list and the new road to the target road's np list
                             //
                             //D.ebugPrintln("$$$    adding "+Integer.toHexString(targetRoad.getCoordinates())+" to nr list");
+                            willChange(pr);
+                            willChange(targetRoad);
                             nr.addElement(targetRoad);
                             targetRoad.addNewPossibility(pr);
 
@@ -1006,6 +1033,7 @@ public class SOCPlayerTracker
                         if (!pr.hasBeenExpanded())
                         {
                             roadsToExpand.addElement(pr);
+                            willChange(pr);
                             pr.setExpandedFlag();
                         }
                     }
@@ -1027,6 +1055,7 @@ public class SOCPlayerTracker
                         else
                             newPR = new SOCPossibleShip(player, edge, neededRoads);
                         newPR.setNumberOfNecessaryRoads(targetRoad.getNumberOfNecessaryRoads() + incrDistance);
+                        willChange(targetRoad);
                         targetRoad.addNewPossibility(newPR);
                         newPossibleRoads.addElement(newPR);
                         roadsToExpand.addElement(newPR);
@@ -1043,7 +1072,7 @@ public class SOCPlayerTracker
             while (newPREnum.hasMoreElements())
             {
                 SOCPossibleRoad newPR = newPREnum.nextElement();
-                possibleRoads.put(new Integer(newPR.getCoordinates()), newPR);
+                putPossible(possibleRoads, new Integer(newPR.getCoordinates()), newPR);
             }
 
             //
@@ -1090,7 +1119,7 @@ public class SOCPlayerTracker
         if (pr != null)
         {
             //D.ebugPrintln("$$$ removing road at "+Integer.toHexString(pr.getCoordinates()));
-            possibleRoads.remove(roadCoordinates);
+            removePossible(possibleRoads, roadCoordinates);
             removeFromNecessaryRoads(pr);
             removeDependents(pr);
         }
@@ -1300,6 +1329,8 @@ public class SOCPlayerTracker
                 if (posSet != null)
                 {
                     //D.ebugPrintln("$$$ add conflict "+Integer.toHexString(posSet.getCoordinates()));
+                    willChange(ps);
+                    willChange(posSet);
                     ps.addConflict(posSet);
                     posSet.addConflict(ps);
                 }
@@ -1318,6 +1349,8 @@ public class SOCPlayerTracker
                 if (posSet != null)
                 {
                     //D.ebugPrintln("$$$ add conflict "+Integer.toHexString(posSet.getCoordinates()));
+                    willChange(ps);
+                    willChange(posSet);
                     ps.addConflict(posSet);
                     posSet.addConflict(ps);
                 }
@@ -1366,7 +1399,7 @@ public class SOCPlayerTracker
         Integer settlementCoords = new Integer(settlement.getCoordinates());
         SOCPossibleSettlement ps = possibleSettlements.get(settlementCoords);
         D.ebugPrintln("$$$ removing (wrong) " + Integer.toHexString(settlement.getCoordinates()));
-        possibleSettlements.remove(settlementCoords);
+        removePossible(possibleSettlements, settlementCoords);
         removeFromNecessaryRoads(ps);
 
     }
@@ -1382,7 +1415,8 @@ public class SOCPlayerTracker
      *<UL>
      * <LI> To track an actual (not possible) settlement that's just been placed
      * <LI> To see the effects of trying to placing a possible settlement, in a copy of the PlayerTracker
-     *      ({@link #tryPutPiece(SOCPlayingPiece, SOCGame, HashMap)})
+     *      ({@link #tryPutPiece(SOCPlayingPiece, SOCGame, HashMap)}) or in place with an undo journal
+     *      ({@link #tryPutPieceInPlace(SOCPlayingPiece, SOCGame, HashMap, SOCPlayerTrackerJournal)})
      *</UL>
      *
      * @param settlement  the new settlement
@@ -1399,7 +1433,7 @@ public class SOCPlayerTracker
         /**
          * add a new possible city
          */
-        possibleCities.put(settlementCoords, new SOCPossibleCity(player, settlement.getCoordinates()));
+        putPossible(possibleCities, settlementCoords, new SOCPossibleCity(player, settlement.getCoordinates()));
 
         /**
          * see if the new settlement was a possible settlement in
@@ -1420,7 +1454,7 @@ public class SOCPlayerTracker
              * remove the possible settlement that is now a real settlement
              */
             D.ebugPrintln("$$$ removing " + Integer.toHexString(settlement.getCoordinates()));
-            possibleSettlements.remove(settlementCoords);
+            removePossible(possibleSettlements, settlementCoords);
             removeFromNecessaryRoads(ps);
 
             /**
@@ -1438,7 +1472,7 @@ public class SOCPlayerTracker
                 if (tracker != null)
                 {
                     D.ebugPrintln("$$$ removing " + Integer.toHexString(conflict.getCoordinates()));
-                    tracker.getPossibleSettlements().remove(new Integer(conflict.getCoordinates()));
+                    removePossible(tracker.getPossibleSettlements(), new Integer(conflict.getCoordinates()));
                     removeFromNecessaryRoads(conflict);
 
                     /**
@@ -1450,6 +1484,7 @@ public class SOCPlayerTracker
                     {
                         SOCPossibleSettlement otherConflict = otherConflictEnum.nextElement();
                         D.ebugPrintln("$$$ removing conflict " + Integer.toHexString(conflict.getCoordinates()) + " from " + Integer.toHexString(otherConflict.getCoordinates()));
+                        willChange(otherConflict);
                         otherConflict.removeConflict(conflict);
                     }
                 }
@@ -1492,6 +1527,7 @@ public class SOCPlayerTracker
                     {
                         SOCPossibleSettlement conflict = conflictEnum.nextElement();
                         D.ebugPrintln("$$$ removing conflict " + Integer.toHexString(posSet.getCoordinates()) + " from " + Integer.toHexString(conflict.getCoordinates()));
+                        willChange(conflict);
                         conflict.removeConflict(posSet);
                     }
                 }
@@ -1521,6 +1557,7 @@ public class SOCPlayerTracker
                         {
                             SOCPossibleSettlement conflict = conflictEnum.nextElement();
                             D.ebugPrintln("$$$ removing conflict " + Integer.toHexString(posSet.getCoordinates()) + " from " + Integer.toHexString(conflict.getCoordinates()));
+                            willChange(conflict);
                             conflict.removeConflict(posSet);
                         }
                     }
@@ -1538,7 +1575,7 @@ public class SOCPlayerTracker
                 {
                     SOCPossibleSettlement pset = trashEnum.nextElement();
                     D.ebugPrintln("$$$ removing " + Integer.toHexString(pset.getCoordinates()) + " owned by " + pset.getPlayer().getPlayerNumber());
-                    tracker.getPossibleSettlements().remove(new Integer(pset.getCoordinates()));
+                    removePossible(tracker.getPossibleSettlements(), new Integer(pset.getCoordinates()));
                     removeFromNecessaryRoads(pset);
                 }
 
@@ -1596,7 +1633,7 @@ public class SOCPlayerTracker
                 {
                     // A way out to a new island
                     SOCPossibleShip newPS = new SOCPossibleShip(player, edge, null);
-                    possibleRoads.put(edge, newPS);
+                    putPossible(possibleRoads, edge, newPS);
                     System.err.println("L1383: new possible ship at edge 0x"
                         + Integer.toHexString(edge) + " from coastal settle 0x"
                         + Integer.toHexString(settlementCoords));
@@ -1615,7 +1652,7 @@ public class SOCPlayerTracker
                 // (Make sure this isn't initial placement, where nothing has adjacent roads)
                 for (SOCPossibleRoad pr : possibleNewIslandRoads)
                 {
-                    possibleRoads.put(Integer.valueOf(pr.getCoordinates()), pr);
+                    putPossible(possibleRoads, Integer.valueOf(pr.getCoordinates()), pr);
                     System.err.println("L1396: new possible road at edge 0x"
                         + Integer.toHexString(pr.getCoordinates()) + " from coastal settle 0x"
                         + Integer.toHexString(settlementCoords));
@@ -1750,6 +1787,8 @@ public class SOCPlayerTracker
                         while (nrTrashEnum.hasMoreElements())
                         {
                             SOCPossibleRoad nrTrashRoad = nrTrashEnum.nextElement();
+                            willChange(pr);
+                            willChange(nrTrashRoad);
                             pr.getNecessaryRoads().removeElement(nrTrashRoad);
                             nrTrashRoad.getNewPossibilities().removeElement(pr);
                         }
@@ -1771,7 +1810,7 @@ public class SOCPlayerTracker
             while (prTrashEnum.hasMoreElements())
             {
                 SOCPossibleRoad prt = prTrashEnum.nextElement();
-                possibleRoads.remove(new Integer(prt.getCoordinates()));
+                removePossible(possibleRoads, new Integer(prt.getCoordinates()));
                 removeFromNecessaryRoads(prt);
                 removeDependents(prt);
             }
@@ -1813,12 +1852,13 @@ public class SOCPlayerTracker
                 }
                 else
                 {
+                    willChange(newPos);
                     nr.removeElement(road);
 
                     if (nr.isEmpty())
                     {
                         //D.ebugPrintln("$$$ removing this road");
-                        possibleRoads.remove(new Integer(newPos.getCoordinates()));
+                        removePossible(possibleRoads, new Integer(newPos.getCoordinates()));
                         removeFromNecessaryRoads((SOCPossibleRoad) newPos);
                         removeDependents((SOCPossibleRoad) newPos);
                     }
@@ -1855,12 +1895,13 @@ public class SOCPlayerTracker
                 }
                 else
                 {
+                    willChange(newPos);
                     nr.removeElement(road);
 
                     if (nr.isEmpty())
                     {
                         //D.ebugPrintln("$$$ removing this settlement");
-                        possibleSettlements.remove(new Integer(newPos.getCoordinates()));
+                        removePossible(possibleSettlements, new Integer(newPos.getCoordinates()));
                         removeFromNecessaryRoads((SOCPossibleSettlement) newPos);
 
                         /**
@@ -1871,6 +1912,7 @@ public class SOCPlayerTracker
                         while (conflictEnum.hasMoreElements())
                         {
                             SOCPossibleSettlement conflict = conflictEnum.nextElement();
+                            willChange(conflict);
                             conflict.removeConflict((SOCPossibleSettlement) newPos);
                         }
                     }
@@ -1900,6 +1942,7 @@ public class SOCPlayerTracker
             }
         }
 
+        willChange(road);
         road.getNewPossibilities().removeAllElements();
     }
 
@@ -1918,6 +1961,7 @@ public class SOCPlayerTracker
             SOCPossibleRoad nr = nrEnum.nextElement();
 
             //D.ebugPrintln("%%% removing road at "+Integer.toHexString(pr.getCoordinates())+" from road at "+Integer.toHexString(nr.getCoordinates()));
+            willChange(nr);
             nr.getNewPossibilities().removeElement(pr);
         }
     }
@@ -1940,6 +1984,7 @@ public class SOCPlayerTracker
             SOCPossibleRoad nr = nrEnum.nextElement();
 
             //D.ebugPrintln("%%% removing settlement at "+Integer.toHexString(ps.getCoordinates())+" from road at "+Integer.toHexString(nr.getCoordinates()));
+            willChange(nr);
             nr.getNewPossibilities().removeElement(ps);
         }
     }
@@ -1963,7 +2008,7 @@ public class SOCPlayerTracker
          * Just remove our potential city, since it was wrongly placed.
          * remove the possible city from the list
          */
-        possibleCities.remove(new Integer(city.getCoordinates()));
+        removePossible(possibleCities, new Integer(city.getCoordinates()));
     }
 
     /**
@@ -1977,7 +2022,7 @@ public class SOCPlayerTracker
         /**
          * remove the possible city from the list
          */
-        possibleCities.remove(new Integer(city.getCoordinates()));
+        removePossible(possibleCities, new Integer(city.getCoordinates()));
     }
 
     /**
@@ -1990,17 +2035,65 @@ public class SOCPlayerTracker
         /**
          * add the possible city to the list
          */
-        possibleCities.put(new Integer(city.getCoordinates()), city);
+        putPossible(possibleCities, new Integer(city.getCoordinates()), city);
+    }
+
+    /**
+     * Before changing a possible piece's fields or lists, save it in the {@link #journal} if we're in a trial.
+     * @param pp  the possible piece about to be changed
+     * @since 2.0.00
+     */
+    private void willChange(final SOCPossiblePiece pp)
+    {
+        if (journal != null)
+            journal.savePiece(pp);
+    }
+
+    /**
+     * Put a possible piece into one of the trackers' possible-piece maps,
+     * and record the change in the {@link #journal} if we're in a trial.
+     * @param map  {@link #possibleRoads}, {@link #possibleSettlements}, or {@link #possibleCities}
+     *     of this tracker or another tracker in the same trial
+     * @param key  the piece's coordinate
+     * @param pp  the possible piece
+     * @since 2.0.00
+     */
+    private <P extends SOCPossiblePiece> void putPossible(final TreeMap<Integer, P> map, final Integer key, final P pp)
+    {
+        final P old = map.put(key, pp);
+        if (journal != null)
+            journal.mapChanged(map, key, old);
+    }
+
+    /**
+     * Remove a possible piece from one of the trackers' possible-piece maps,
+     * and record the change in the {@link #journal} if we're in a trial.
+     * @param map  {@link #possibleRoads}, {@link #possibleSettlements}, or {@link #possibleCities}
+     *     of this tracker or another tracker in the same trial
+     * @param key  the piece's coordinate
+     * @since 2.0.00
+     */
+    private <P extends SOCPossiblePiece> void removePossible(final TreeMap<Integer, P> map, final Integer key)
+    {
+        final P old = map.remove(key);
+        if ((old != null) && (journal != null))
+            journal.mapChanged(map, key, old);
     }
 
     /**
      * update threats for pieces that need to be updated
      *
      * @param trackers  all of the player trackers
+     * @throws IllegalStateException if this tracker is in a trial from
+     *     {@link #tryPutPieceInPlace(SOCPlayingPiece, SOCGame, HashMap, SOCPlayerTrackerJournal)},
+     *     which doesn't journal threat changes
      */
     public void updateThreats(HashMap<Integer, SOCPlayerTracker> trackers)
+        throws IllegalStateException
     {
         //D.ebugPrintln("&&&& updateThreats");
+        if (journal != null)
+            throw new IllegalStateException("updateThreats during a trial");
 
         /**
          * check roads that need updating and don't have necessary roads
@@ -2528,6 +2621,7 @@ public class SOCPlayerTracker
         while (posRoadsIter.hasNext())
         {
             SOCPossibleRoad posRoad = posRoadsIter.next();
+            willChange(posRoad);
 
             if (posRoad.getNecessaryRoads().isEmpty())
             {
@@ -2601,11 +2695,10 @@ public class SOCPlayerTracker
         {
             noMoreExpansion = false;
 
-            Enumeration<Integer> adjEdgeEnum = board.getAdjacentEdgesToEdge(dummyRoad.getCoordinates()).elements();
-
-            while (adjEdgeEnum.hasMoreElements())
+            final int dummyEdge = dummyRoad.getCoordinates();
+            for (int i = board.adjEdgesToEdgeCount(dummyEdge) - 1; i >= 0; --i)
             {
-                final int adjEdge = adjEdgeEnum.nextElement().intValue();
+                final int adjEdge = board.adjEdgeToEdge(dummyEdge, i);
 
                 if ( (dummyRoad.isRoadNotShip() && dummy.isPotentialRoad(adjEdge))
                      || ((! dummyRoad.isRoadNotShip()) && dummy.isPotentialShip(adjEdge)) )
@@ -2628,6 +2721,7 @@ public class SOCPlayerTracker
             //D.ebugPrintln("$$$ newPotentialLRValue = "+newPotentialLRValue);
             if (newPotentialLRValue > posRoad.getLRPotential())
             {
+                willChange(posRoad);
                 posRoad.setLRPotential(newPotentialLRValue);
             }
         }
@@ -2636,10 +2730,10 @@ public class SOCPlayerTracker
             //
             // we need to add new roads/ships adjacent to dummyRoad, and recurse
             //
-            Enumeration<Integer> adjEdgeEnum = board.getAdjacentEdgesToEdge(dummyRoad.getCoordinates()).elements();
-            while (adjEdgeEnum.hasMoreElements())
+            final int dummyEdge = dummyRoad.getCoordinates(), nAdj = board.adjEdgesToEdgeCount(dummyEdge);
+            for (int i = 0; i < nAdj; ++i)
             {
-                final int adjEdge = adjEdgeEnum.nextElement().intValue();
+                final int adjEdge = board.adjEdgeToEdge(dummyEdge, i);
 
                 if ( (dummyRoad.isRoadNotShip() && dummy.isPotentialRoad(adjEdge))
                      || ((! dummyRoad.isRoadNotShip()) && dummy.isPotentialShip(adjEdge)) )
@@ -2906,7 +3000,7 @@ public class SOCPlayerTracker
                     {
                         needLR = true;
 
-                        if (brain.getDRecorder().isOn())
+                        if ((brain != null) && brain.getDRecorder().isOn())
                         {
                             brain.getDRecorder().record(fastestETA + ": Longest Road");
                         }
@@ -2915,21 +3009,21 @@ public class SOCPlayerTracker
                     {
                         needLA = true;
 
-                        if (brain.getDRecorder().isOn())
+                        if ((brain != null) && brain.getDRecorder().isOn())
                         {
                             brain.getDRecorder().record(fastestETA + ": Largest Army");
                         }
                     }
                     else if ((cityPiecesLeft > 0) && (citySpotsLeft > 0) && (cityETA == fastestETA))
                     {
-                        if (brain.getDRecorder().isOn())
+                        if ((brain != null) && brain.getDRecorder().isOn())
                         {
                             brain.getDRecorder().record(fastestETA + ": City");
                         }
                     }
                     else if (chosenSet != null)
                     {
-                        if (brain.getDRecorder().isOn())
+                        if ((brain != null) && brain.getDRecorder().isOn())
                         {
                             brain.getDRecorder().record(fastestETA + ": Stlmt at "
                                 + board.nodeCoordToString(chosenSet.getCoordinates()));
@@ -3665,7 +3759,7 @@ public class SOCPlayerTracker
                         D.ebugPrintln("WWW    settlement 1: " + board.nodeCoordToString(chosenSet[0].getCoordinates()));
                         D.ebugPrintln("WWW    settlement 2: " + board.nodeCoordToString(chosenSet[1].getCoordinates()));
 
-                        if (brain.getDRecorder().isOn())
+                        if ((brain != null) && brain.getDRecorder().isOn())
                         {
                             brain.getDRecorder().record
                                 (fastestETA + ": Stlmt at " + board.nodeCoordToString(chosenSet[0].getCoordinates())
@@ -3721,7 +3815,7 @@ public class SOCPlayerTracker
                         D.ebugPrintln("WWW    settlement at " + board.nodeCoordToString(chosenSet[0].getCoordinates()));
                         D.ebugPrintln("WWW    city at " + board.nodeCoordToString(chosenCity[0].getCoordinates()));
 
-                        if (brain.getDRecorder().isOn())
+                        if ((brain != null) && brain.getDRecorder().isOn())
                         {
                             if (fastestETA == settlementBeforeCity)
                             {
@@ -3830,7 +3924,7 @@ public class SOCPlayerTracker
                         D.ebugPrintln("WWW    city 1: " + board.nodeCoordToString(chosenCity[0].getCoordinates()));
                         D.ebugPrintln("WWW    city 2: " + board.nodeCoordToString(chosenCity[1].getCoordinates()));
 
-                        if (brain.getDRecorder().isOn())
+                        if ((brain != null) && brain.getDRecorder().isOn())
                         {
                             brain.getDRecorder().record
                                 (fastestETA + ": City at " + board.nodeCoordToString(chosenCity[0].getCoordinates())
@@ -3842,7 +3936,7 @@ public class SOCPlayerTracker
                         needLR = true;
                         D.ebugPrintln("WWW  * take longest road");
 
-                        if (brain.getDRecorder().isOn())
+                        if ((brain != null) && brain.getDRecorder().isOn())
                         {
                             brain.getDRecorder().record(fastestETA + ": Longest Road");
                         }
@@ -3852,7 +3946,7 @@ public class SOCPlayerTracker
                         needLA = true;
                         D.ebugPrintln("WWW  * take largest army");
 
-                        if (brain.getDRecorder().isOn())
+                        if ((brain != null) && brain.getDRecorder().isOn())
                         {
                             brain.getDRecorder().record(fastestETA + ": Largest Army");
                         }
@@ -3862,7 +3956,7 @@ public class SOCPlayerTracker
 
             D.ebugPrintln("WWW TOTAL WGETA FOR PLAYER " + playerNumber + " = " + winGameETA);
 
-            if (brain.getDRecorder().isOn())
+            if ((brain != null) && brain.getDRecorder().isOn())
             {
                 brain.getDRecorder().record("Total WGETA for " + player.getName() + " = " + winGameETA);
                 brain.getDRecorder().record("--------------------");
@@ -3988,6 +4082,50 @@ public class SOCPlayerTracker
         }
     }
 
+    /**
+     * See how building a piece impacts the game, without copying the player trackers:
+     * Like {@link #tryPutPiece(SOCPlayingPiece, SOCGame, HashMap) tryPutPiece}, but adds {@code piece}
+     * to {@code trackers} themselves, recording their changes in {@code journal}.
+     * Call {@link #undoTryPutPieceInPlace(SOCPlayingPiece, SOCGame, SOCPlayerTrackerJournal)}
+     * afterwards to remove it and roll back the trackers.
+     *<P>
+     * The trial starts from the same state as copies from {@link #copyPlayerTrackers(HashMap)} would:
+     * The journal clears the possible pieces' threats and expanded flags until it's rolled back.
+     * Between the two calls, {@code trackers} can be examined and updated with
+     * {@link #updateWinGameETAs(HashMap)}, but not with {@link #updateThreats(HashMap)}, which throws an exception.
+     *
+     * @param piece      the piece to build
+     * @param game       the game
+     * @param trackers   the player trackers
+     * @param journal    the journal to record changes in; must not already have a trial in progress
+     * @throws IllegalStateException if {@code journal} or one of the trackers already has a trial in progress
+     * @since 2.0.00
+     */
+    public static void tryPutPieceInPlace
+        (SOCPlayingPiece piece, SOCGame game, HashMap<Integer, SOCPlayerTracker> trackers,
+         SOCPlayerTrackerJournal journal)
+        throws IllegalStateException
+    {
+        journal.begin(trackers);
+        tryPutPieceNoCopy(piece, game, trackers);
+    }
+
+    /**
+     * Reset the game and player trackers back to before
+     * {@link #tryPutPieceInPlace(SOCPlayingPiece, SOCGame, HashMap, SOCPlayerTrackerJournal) tryPutPieceInPlace}:
+     * Removes the temp piece, then rolls back the journal.
+     *
+     * @param piece      the piece to remove, or null
+     * @param game       the game
+     * @param journal    the journal given to {@code tryPutPieceInPlace}
+     * @since 2.0.00
+     */
+    public static void undoTryPutPieceInPlace(SOCPlayingPiece piece, SOCGame game, SOCPlayerTrackerJournal journal)
+    {
+        undoTryPutPiece(piece, game);
+        journal.rollback();
+    }
+
     /**
      * Print debug output for a set of player trackers.
      *<P>
@@ -0,0 +1,386 @@
+/**
+ * Java Settlers - An online multiplayer version of the game Settlers of Catan
+ * This file Copyright (C) 2026 agent <agent@local>
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * The maintainer of this program can be reached at jsettlers@nand.net
+ **/
+package soc.robot;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Stack;
+import java.util.TreeMap;
+import java.util.Vector;
+
+import soc.game.SOCShip;
+
+/**
+ * Undo journal for trying a piece in place in a set of {@link SOCPlayerTracker}s, instead of
+ * trying it in a copy of them from {@link SOCPlayerTracker#copyPlayerTrackers(HashMap)}.
+ * Used by {@link SOCPlayerTracker#tryPutPieceInPlace(soc.game.SOCPlayingPiece, soc.game.SOCGame, HashMap, SOCPlayerTrackerJournal)}
+ * and {@link SOCPlayerTracker#undoTryPutPieceInPlace(soc.game.SOCPlayingPiece, soc.game.SOCGame, SOCPlayerTrackerJournal)}.
+ *<P>
+ * While a trial is in progress, the trackers record each change to their possible-piece maps,
+ * and save each possible piece's fields and lists before its first change.
+ * {@link #begin(HashMap)} also saves each tracker's ETA fields. {@link #rollback()} puts all of that
+ * back, newest first, leaving the trackers as they were before the trial.
+ * Like a trial in copies of the trackers, it doesn't restore the players' longest road paths,
+ * which {@link soc.game.SOCGame#undoPutTempPiece(soc.game.SOCPlayingPiece)} leaves as they were
+ * with the temporary piece.
+ *<P>
+ * A trial gives the same results as trying the piece in copies of the trackers, which don't copy
+ * possible pieces' threats or expanded flags: So {@code begin} saves and clears those for the trial.
+ * The trackers don't change threats during a trial, except in
+ * {@link SOCPlayerTracker#updateThreats(HashMap)}, which throws {@link IllegalStateException} if called.
+ * A saved piece's speedups and road path are also restored, although trials don't change them.
+ *<P>
+ * A journal can be reused for any number of trials, one at a time. Not thread-safe.
+ *
+ * @author agent &lt;agent@local&gt;
+ * @since 2.0.00
+ */
+public class SOCPlayerTrackerJournal
+{
+    /** Trackers in the current trial, or null if none is in progress */
+    private SOCPlayerTracker[] trackers;
+
+    /** Each tracker's fields at {@link #begin(HashMap)}; same indexes as {@link #trackers} */
+    private TrackerState[] trackerStates;
+
+    /** Changes during the current trial, oldest first */
+    private final ArrayList<Entry> entries = new ArrayList<Entry>();
+
+    /** Possible pieces already saved in {@link #entries} during the current trial */
+    private final IdentityHashMap<SOCPossiblePiece, Boolean> savedPieces
+        = new IdentityHashMap<SOCPossiblePiece, Boolean>();
+
+    /**
+     * Start a trial: Attach this journal to each tracker, and save their current state.
+     * @param trackerMap  Player trackers which will be changed by the trial
+     * @throws IllegalStateException if this journal already has a trial in progress,
+     *     or one of the trackers is already in another journal's trial
+     */
+    public void begin(final HashMap<Integer, SOCPlayerTracker> trackerMap)
+        throws IllegalStateException
+    {
+        if (trackers != null)
+            throw new IllegalStateException("trial already in progress");
+
+        final SOCPlayerTracker[] trs = trackerMap.values().toArray(new SOCPlayerTracker[trackerMap.size()]);
+        for (int i = 0; i < trs.length; ++i)
+            if (trs[i].journal != null)
+                throw new IllegalStateException("tracker already in a trial: " + trs[i].getPlayer().getPlayerNumber());
+
+        if ((trackerStates == null) || (trackerStates.length != trs.length))
+        {
+            trackerStates = new TrackerState[trs.length];
+            for (int i = 0; i < trs.length; ++i)
+                trackerStates[i] = new TrackerState();
+        }
+        for (int i = 0; i < trs.length; ++i)
+        {
+            trackerStates[i].save(trs[i]);
+            trs[i].journal = this;
+        }
+
+        trackers = trs;
+
+        for (int i = 0; i < trs.length; ++i)
+        {
+            for (SOCPossibleRoad pr : trs[i].getPossibleRoads().values())
+                clearForTrial(pr);
+            for (SOCPossibleSettlement ps : trs[i].getPossibleSettlements().values())
+                clearForTrial(ps);
+            for (SOCPossibleCity pc : trs[i].getPossibleCities().values())
+                clearForTrial(pc);
+        }
+    }
+
+    /**
+     * At the start of a trial, save and clear a possible piece's threats and expanded flag if it has any,
+     * to match a copy from {@link SOCPlayerTracker#copyPlayerTrackers(HashMap)}.
+     * @param pp  Possible piece in one of the trial's trackers
+     */
+    private void clearForTrial(final SOCPossiblePiece pp)
+    {
+        if (! (pp.hasBeenExpanded || pp.threatUpdatedFlag || ! pp.threats.isEmpty() || ! pp.biggestThreats.isEmpty()))
+            return;
+
+        savePiece(pp);
+        pp.hasBeenExpanded = false;
+        pp.threatUpdatedFlag = false;
+        pp.threats.removeAllElements();
+        pp.biggestThreats.removeAllElements();
+    }
+
+    /**
+     * Is a trial in progress?
+     * @return  true if {@link #begin(HashMap)} has been called, but not yet {@link #rollback()}
+     */
+    public boolean isActive()
+    {
+        return (trackers != null);
+    }
+
+    /**
+     * End the trial by undoing all of its changes to the trackers and their possible pieces.
+     * Call after removing the trial's temporary piece from the game.
+     * Does nothing if no trial is in progress.
+     */
+    public void rollback()
+    {
+        if (trackers == null)
+            return;
+
+        for (int i = entries.size() - 1; i >= 0; --i)
+            entries.get(i).undo();
+        entries.clear();
+        savedPieces.clear();
+
+        for (int i = 0; i < trackers.length; ++i)
+        {
+            trackerStates[i].restore(trackers[i]);
+            trackers[i].journal = null;
+        }
+
+        trackers = null;
+    }
+
+    /**
+     * Record a change to one of the trackers' possible-piece maps.
+     * @param map  Map which was changed
+     * @param key  Key which was put or removed
+     * @param oldValue  Value at {@code key} before the change, or null if none
+     */
+    <V> void mapChanged(final TreeMap<Integer, V> map, final Integer key, final V oldValue)
+    {
+        entries.add(new MapEntry<V>(map, key, oldValue));
+    }
+
+    /**
+     * Save a possible piece's fields and lists before its first change during this trial.
+     * Does nothing if it's already been saved.
+     * @param pp  Possible piece about to be changed
+     */
+    void savePiece(final SOCPossiblePiece pp)
+    {
+        if (savedPieces.put(pp, Boolean.TRUE) == null)
+            entries.add(new PieceEntry(pp));
+    }
+
+    /**
+     * Copy a vector's elements, for {@link #restoreVector(Vector, Object[])}.
+     * @param v  Vector to copy, or null
+     * @return  {@code v}'s elements, or null
+     */
+    private static Object[] saveVector(final Vector<?> v)
+    {
+        return (v != null) ? v.toArray() : null;
+    }
+
+    /**
+     * Restore a vector's elements from {@link #saveVector(Vector)}.
+     * @param v  Vector to restore, or null
+     * @param saved  Its saved elements, or null
+     */
+    @SuppressWarnings("unchecked")
+    private static <T> void restoreVector(final Vector<T> v, final Object[] saved)
+    {
+        if (v == null)
+            return;
+
+        v.clear();
+        for (int i = 0; i < saved.length; ++i)
+            v.addElement((T) saved[i]);
+    }
+
+    /** One undoable change */
+    private static abstract class Entry
+    {
+        abstract void undo();
+    }
+
+    /** Put or remove in a tracker's possible-piece map */
+    private static final class MapEntry<V> extends Entry
+    {
+        private final TreeMap<Integer, V> map;
+        private final Integer key;
+        private final V oldValue;
+
+        MapEntry(final TreeMap<Integer, V> map, final Integer key, final V oldValue)
+        {
+            this.map = map;
+            this.key = key;
+            this.oldValue = oldValue;
+        }
+
+        void undo()
+        {
+            if (oldValue != null)
+                map.put(key, oldValue);
+            else
+                map.remove(key);
+        }
+    }
+
+    /**
+     * A possible piece's fields and lists before its first change.
+     */
+    private static final class PieceEntry extends Entry
+    {
+        private final SOCPossiblePiece pp;
+        private final int eta;
+        private final boolean updated, hasBeenExpanded, threatUpdatedFlag;
+        private final float score;
+        private final Object[] threats, biggestThreats;
+
+        /** Road or settlement fields; unused for other types */
+        private final int numberOfNecessaryRoads, longestRoadValue, longestRoadPotential;
+
+        /** Road or settlement's necessary roads, road's new possibilities, settlement's conflicts; or null */
+        private final Object[] necessaryRoads, newPossibilities, conflicts;
+
+        /** Settlement or city's speedups, or null */
+        private final int[] speedup;
+
+        /** Settlement's road path and its contents, or null */
+        private final Stack<SOCPossibleRoad> roadPath;
+        private final Object[] roadPathRoads;
+
+        PieceEntry(final SOCPossiblePiece pp)
+        {
+            this.pp = pp;
+            eta = pp.eta;
+            updated = pp.updated;
+            hasBeenExpanded = pp.hasBeenExpanded;
+            threatUpdatedFlag = pp.threatUpdatedFlag;
+            score = pp.score;
+            threats = saveVector(pp.threats);
+            biggestThreats = saveVector(pp.biggestThreats);
+
+            if (pp instanceof SOCPossibleRoad)
+            {
+                final SOCPossibleRoad pr = (SOCPossibleRoad) pp;
+                numberOfNecessaryRoads = pr.numberOfNecessaryRoads;
+                longestRoadValue = pr.longestRoadValue;
+                longestRoadPotential = pr.longestRoadPotential;
+                necessaryRoads = saveVector(pr.necessaryRoads);
+                newPossibilities = saveVector(pr.newPossibilities);
+                conflicts = null;
+                speedup = null;
+                roadPath = null;
+                roadPathRoads = null;
+            }
+            else if (pp instanceof SOCPossibleSettlement)
+            {
+                final SOCPossibleSettlement ps = (SOCPossibleSettlement) pp;
+                numberOfNecessaryRoads = ps.numberOfNecessaryRoads;
+                longestRoadValue = 0;
+                longestRoadPotential = 0;
+                necessaryRoads = saveVector(ps.necessaryRoads);
+                newPossibilities = null;
+                conflicts = saveVector(ps.conflicts);
+                speedup = ps.speedup.clone();
+                roadPath = ps.roadPath;
+                roadPathRoads = saveVector(ps.roadPath);
+            }
+            else
+            {
+                numberOfNecessaryRoads = 0;
+                longestRoadValue = 0;
+                longestRoadPotential = 0;
+                necessaryRoads = null;
+                newPossibilities = null;
+                conflicts = null;
+                speedup = (pp instanceof SOCPossibleCity) ? ((SOCPossibleCity) pp).speedup.clone() : null;
+                roadPath = null;
+                roadPathRoads = null;
+            }
+        }
+
+        void undo()
+        {
+            pp.eta = eta;
+            pp.updated = updated;
+            pp.hasBeenExpanded = hasBeenExpanded;
+            pp.threatUpdatedFlag = threatUpdatedFlag;
+            pp.score = score;
+            restoreVector(pp.threats, threats);
+            restoreVector(pp.biggestThreats, biggestThreats);
+
+            if (pp instanceof SOCPossibleRoad)
+            {
+                final SOCPossibleRoad pr = (SOCPossibleRoad) pp;
+                pr.numberOfNecessaryRoads = numberOfNecessaryRoads;
+                pr.longestRoadValue = longestRoadValue;
+                pr.longestRoadPotential = longestRoadPotential;
+                restoreVector(pr.necessaryRoads, necessaryRoads);
+                restoreVector(pr.newPossibilities, newPossibilities);
+            }
+            else if (pp instanceof SOCPossibleSettlement)
+            {
+                final SOCPossibleSettlement ps = (SOCPossibleSettlement) pp;
+                ps.numberOfNecessaryRoads = numberOfNecessaryRoads;
+                restoreVector(ps.necessaryRoads, necessaryRoads);
+                restoreVector(ps.conflicts, conflicts);
+                System.arraycopy(speedup, 0, ps.speedup, 0, speedup.length);
+                ps.roadPath = roadPath;
+                restoreVector(roadPath, roadPathRoads);
+            }
+            else if (pp instanceof SOCPossibleCity)
+            {
+                System.arraycopy(speedup, 0, ((SOCPossibleCity) pp).speedup, 0, speedup.length);
+            }
+        }
+    }
+
+    /**
+     * A tracker's ETA fields at {@link #begin(HashMap)}.
+     * Reused from trial to trial.
+     */
+    private static final class TrackerState
+    {
+        private int longestRoadETA, roadsToGo, largestArmyETA, winGameETA, knightsToBuy;
+        private boolean needLR, needLA;
+        private SOCShip closestShipToFortress;
+
+        void save(final SOCPlayerTracker pt)
+        {
+            longestRoadETA = pt.longestRoadETA;
+            roadsToGo = pt.roadsToGo;
+            largestArmyETA = pt.largestArmyETA;
+            winGameETA = pt.winGameETA;
+            knightsToBuy = pt.knightsToBuy;
+            needLR = pt.needLR;
+            needLA = pt.needLA;
+            closestShipToFortress = pt.getScenario_SC_PIRI_closestShipToFortress();
+        }
+
+        void restore(final SOCPlayerTracker pt)
+        {
+            pt.longestRoadETA = longestRoadETA;
+            pt.roadsToGo = roadsToGo;
+            pt.largestArmyETA = largestArmyETA;
+            pt.winGameETA = winGameETA;
+            pt.knightsToBuy = knightsToBuy;
+            pt.needLR = needLR;
+            pt.needLA = needLA;
+            pt.scen_SC_PIRI_closestShipToFortress = closestShipToFortress;
+        }
+    }
+
+}
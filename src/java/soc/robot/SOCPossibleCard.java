@@ -33,6 +33,8 @@ import java.util.Vector;
  */
 public class SOCPossibleCard extends SOCPossiblePiece
 {
+    private static final long serialVersionUID = 2000L;
+
     /**
      * constructor
      *
@@ -36,6 +36,8 @@ import java.util.Vector;
  */
 public class SOCPossibleCity extends SOCPossiblePiece
 {
+    private static final long serialVersionUID = 2000L;
+
     /**
      * Speedup per building type.  Indexed from {@link SOCBuildingSpeedEstimate#MIN}
      * to {@link SOCBuildingSpeedEstimate#MAXPLUSONE}.
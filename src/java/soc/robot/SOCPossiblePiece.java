@@ -23,6 +23,7 @@ package soc.robot;
 
 import soc.game.SOCPlayer;
 
+import java.io.Serializable;
 import java.util.Vector;
 
 
@@ -34,8 +35,10 @@ import java.util.Vector;
  *
  * @author Robert S. Thomas
  */
-public abstract class SOCPossiblePiece
+public abstract class SOCPossiblePiece implements Serializable
 {
+    private static final long serialVersionUID = 2000L;
+
     /**
      * Type constant for a possible road. Same value as {@link soc.game.SOCPlayingPiece#ROAD}.
      */
@@ -35,6 +35,8 @@ import java.util.Vector;
  */
 public class SOCPossibleRoad extends SOCPossiblePiece
 {
+    private static final long serialVersionUID = 2000L;
+
     protected Vector<SOCPossibleRoad> necessaryRoads;
     protected Vector<SOCPossiblePiece> newPossibilities;
     protected int longestRoadValue;
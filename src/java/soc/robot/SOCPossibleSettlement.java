@@ -35,6 +35,8 @@ import java.util.Vector;
  */
 public class SOCPossibleSettlement extends SOCPossiblePiece
 {
+    private static final long serialVersionUID = 2000L;
+
     protected Vector<SOCPossibleRoad> necessaryRoads;
     protected Vector<SOCPossibleSettlement> conflicts;
 
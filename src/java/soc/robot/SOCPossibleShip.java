@@ -34,6 +34,8 @@ import java.util.Vector;
  */
 public class SOCPossibleShip extends SOCPossibleRoad
 {
+    private static final long serialVersionUID = 2000L;
+
     /**
      * constructor
      *
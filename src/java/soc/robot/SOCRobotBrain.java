@@ -87,6 +87,8 @@ import java.util.Vector;
  * AI for playing Settlers of Catan.
  * Represents a robot player within 1 game.
  * The bot is a separate thread, so everything happens in {@link #run()} or a method called from there.
+ * Or, many bots' brains can share a pool of threads: See {@link SOCRobotBrainScheduler}.
+ * Either way, each game event message is handled by {@link #handleGameEvent(SOCMessage)}.
  *<P>
  * Some robot behaviors are altered by the {@link SOCRobotParameters} passed into our constructor.
  * Some decision-making code is in the {@link OpeningBuildStrategy},
@@ -98,7 +100,7 @@ import java.util.Vector;
  * {@link #setOurPlayerData()}.
  *<P>
  * At the start of each player's turn, {@link #buildingPlan} and most other state fields are cleared
- * (search {@link #run()} for <tt>mesType == SOCMessage.TURN</tt>).
+ * (search {@link #handleGameEvent(SOCMessage)} for <tt>mesType == SOCMessage.TURN</tt>).
  * The plan for what to build next is decided in {@link SOCRobotDM#planStuff(int)}
  * (called from {@link #planBuilding()} and some other places) which updates {@link #buildingPlan}.
  * That plan is executed in {@link #buildOrGetResourceByTradeOrCard()}.
@@ -262,6 +264,12 @@ public class SOCRobotBrain extends Thread
      */
     public static int MAX_DENIED_BUILDING_PER_TURN = 3;
 
+    /**
+     * Actual length of each {@link #pause(int)}, in milliseconds, regardless of its requested length.
+     * @since 2.0.00
+     */
+    private static final int PAUSE_ACTUAL_MSEC = 10;
+
     /**
      * these are the two resources that we want
      * when we play a discovery dev card
@@ -558,6 +566,27 @@ public class SOCRobotBrain extends Thread
      */
     protected SOCRobotPinger pinger;
 
+    /**
+     * True if this brain is run by a {@link SOCRobotBrainScheduler} instead of its own thread.
+     * Set in {@link #setPooled()}.
+     * @since 2.0.00
+     */
+    private boolean pooled;
+
+    /**
+     * In {@link #pooled} mode, true from {@link #setPooled()} until {@link #deallocate()}.
+     * @see #isRunning()
+     * @since 2.0.00
+     */
+    private volatile boolean pooledRunning;
+
+    /**
+     * In {@link #pooled} mode, total milliseconds that {@link #pause(int)} has been asked to
+     * pause during the current call to {@link #handleQueuedEvents(int)}.
+     * @since 2.0.00
+     */
+    private int pauseMsec;
+
     /**
      * an object for recording debug information that can
      * be accessed interactively
@@ -859,8 +888,8 @@ public class SOCRobotBrain extends Thread
      * Print brain variables and status for this game to {@link System#err}.
      * Includes all of the expect and waitingFor fields (<tt>expectPLAY</tt>,
      * <tt>waitingForGameState</tt>, etc.)
-     * Also prints the game state, and the messages received by this brain
-     * during the previous and current turns.
+     * Also prints the game state, {@link #gameEventQ}'s size and high-water mark,
+     * and the messages received by this brain during the previous and current turns.
      * @since 1.1.13
      */
     public void debugPrintBrainStatus()
@@ -879,6 +908,9 @@ public class SOCRobotBrain extends Thread
             System.err.println("  bot card count = " + ourPlayerData.getResources().getTotal());
         if (rejectedPlayDevCardType != -1)
             System.err.println("  rejectedPlayDevCardType = " + rejectedPlayDevCardType);
+        final CappedQueue<SOCMessage> q = gameEventQ;
+        if (q != null)
+            System.err.println("  gameEventQ size = " + q.size() + ", high water = " + q.getHighWaterMark());
         final String[] s = {
             "ourTurn", "doneTrading",
             "waitingForGameState", "waitingForOurTurn", "waitingForTradeMsg", "waitingForDevCard", "waitingForTradeResponse",
@@ -959,14 +991,17 @@ public class SOCRobotBrain extends Thread
 
     /**
      * Here is the run method.  Just keep receiving game events
-     * through {@link #gameEventQ} and deal with each one.
+     * through {@link #gameEventQ} and deal with each one
+     * in {@link #handleGameEvent(SOCMessage)}.
      * Remember that we're sent a {@link SOCTimingPing} event once per second,
      * incrementing {@link #counter}.  That allows the bot to wait a certain
      * time for other players before it decides whether to do something.
      *<P>
-     * Nearly all bot actions start in this method; the overview of bot structures
+     * Nearly all bot actions start in this method's loop; the overview of bot structures
      * is in the {@link SOCRobotBrain class javadoc} for prominence.
-     * See comments within <tt>run()</tt> for minor details.
+     *<P>
+     * If the brain is run by a {@link SOCRobotBrainScheduler} instead of its own thread,
+     * this method isn't called; see {@link #handleQueuedEvents(int)}.
      */
     @Override
     public void run()
@@ -999,803 +1034,878 @@ public class SOCRobotBrain extends Thread
                     //} else {
                     //mes = null;
                     //}
-                    final int mesType;
+                    handleGameEvent(mes);
+                    yield();
+                }
+            }
+            catch (Throwable e)
+            {
+                printCaughtException(e);
+            }
+        }
+        else
+        {
+            System.out.println("AGG! NO PINGER!");
+        }
 
-                    if (mes != null)
-                    {
-                        mesType = mes.getType();
-                        if ((mesType != SOCMessage.TIMINGPING) && (mesType != SOCMessage.GAMETEXTMSG))
-                            turnEventsCurrent.addElement(mes);
-                        if (D.ebugOn)
-                            D.ebugPrintln("mes - " + mes);
-
-                        // Debug aid: when looking at message contents: avoid pings:
-                        // check here for (mesType != SOCMessage.TIMINGPING).
-                    }
-                    else
-                    {
-                        mesType = -1;
-                    }
+        deallocate();
+    }
 
-                    if (waitingForTradeMsg && (counter > 10))
-                    {
-                        waitingForTradeMsg = false;
-                        counter = 0;
-                    }
+    /**
+     * In pooled mode, handle the game events now in {@link #gameEventQ} in arrival order,
+     * as {@link #run()}'s loop does in thread mode.  Called by {@link SOCRobotBrainScheduler}
+     * on one of its worker threads, never on more than one thread at a time for this brain.
+     *<P>
+     * Returns early if an event's handling calls {@link #pause(int)}, so that the scheduler
+     * can wait that long before the next event instead of blocking its worker thread with a sleep.
+     *
+     * @param maxEvents  Most events to handle in this call, to let other brains use the worker thread
+     * @return  Milliseconds to wait before handling any more events, 0 if none,
+     *     or -1 if this brain has stopped and the caller should call {@link #deallocate()}
+     * @since 2.0.00
+     */
+    int handleQueuedEvents(final int maxEvents)
+    {
+        pauseMsec = 0;
 
-                    if (waitingForTradeResponse && (counter > 100))
-                    {
-                        // Remember other players' responses, call client.clearOffer,
-                        // clear waitingForTradeResponse and counter.
-                        tradeStopWaitingClearOffer();
-                    }
+        try
+        {
+            for (int n = 0; alive && (n < maxEvents) && ! gameEventQ.empty(); ++n)
+            {
+                handleGameEvent(gameEventQ.get());
+                if (pauseMsec > 0)
+                    break;
+            }
+        }
+        catch (Throwable e)
+        {
+            printCaughtException(e);
+            return -1;
+        }
 
-                    if (waitingForGameState && (counter > 10000))
-                    {
-                        //D.ebugPrintln("counter = "+counter);
-                        //D.ebugPrintln("RESEND");
-                        counter = 0;
-                        client.resend();
-                    }
+        return (alive) ? pauseMsec : -1;
+    }
 
-                    if (mesType == SOCMessage.GAMESTATE)
-                    {
-                        waitingForGameState = false;
-                        oldGameState = game.getGameState();
-                        game.setGameState(((SOCGameState) mes).getState());
-                    }
+    /**
+     * Handle one game event from {@link #gameEventQ}: Update our game data and player trackers,
+     * and plan and send our next action if it's our turn or the server's waiting for us.
+     * May leave the game and clear {@link #alive}, for example if {@link #counter} gets too high.
+     * Called from {@link #run()}'s loop, or {@link #handleQueuedEvents(int)} in pooled mode.
+     * See comments within this method for minor details.
+     *<P>
+     * Before 2.0.00 this was the body of {@link #run()}'s loop.
+     *
+     * @param mes  Event message; may be null, as sent by {@link #kill()}
+     * @since 2.0.00
+     */
+    private void handleGameEvent(SOCMessage mes)
+    {
+        final int mesType;
 
-                    else if (mesType == SOCMessage.FIRSTPLAYER)
-                    {
-                        game.setFirstPlayer(((SOCFirstPlayer) mes).getPlayerNumber());
-                    }
+        if (mes != null)
+        {
+            mesType = mes.getType();
+            if ((mesType != SOCMessage.TIMINGPING) && (mesType != SOCMessage.GAMETEXTMSG))
+                turnEventsCurrent.addElement(mes);
+            if (D.ebugOn)
+                D.ebugPrintln("mes - " + mes);
+
+            // Debug aid: when looking at message contents: avoid pings:
+            // check here for (mesType != SOCMessage.TIMINGPING).
+        }
+        else
+        {
+            mesType = -1;
+        }
 
-                    else if (mesType == SOCMessage.SETTURN)
-                    {
-                        game.setCurrentPlayerNumber(((SOCSetTurn) mes).getPlayerNumber());
-                    }
+        if (waitingForTradeMsg && (counter > 10))
+        {
+            waitingForTradeMsg = false;
+            counter = 0;
+        }
 
-                    else if (mesType == SOCMessage.TURN)
-                    {
-                        // Start of a new player's turn.
-                        // Update game and reset most of our state fields.
+        if (waitingForTradeResponse && (counter > 100))
+        {
+            // Remember other players' responses, call client.clearOffer,
+            // clear waitingForTradeResponse and counter.
+            tradeStopWaitingClearOffer();
+        }
 
-                        game.setCurrentPlayerNumber(((SOCTurn) mes).getPlayerNumber());
-                        game.updateAtTurn();
+        if (waitingForGameState && (counter > 10000))
+        {
+            //D.ebugPrintln("counter = "+counter);
+            //D.ebugPrintln("RESEND");
+            counter = 0;
+            client.resend();
+        }
 
-                        //
-                        // remove any expected states
-                        //
-                        expectPLAY = false;
-                        expectPLAY1 = false;
-                        expectPLACING_ROAD = false;
-                        expectPLACING_SETTLEMENT = false;
-                        expectPLACING_CITY = false;
-                        expectPLACING_SHIP = false;
-                        expectPLACING_ROBBER = false;
-                        expectPLACING_FREE_ROAD1 = false;
-                        expectPLACING_FREE_ROAD2 = false;
-                        expectDICERESULT = false;
-                        expectDISCARD = false;
-                        expectMOVEROBBER = false;
-                        expectWAITING_FOR_DISCOVERY = false;
-                        expectWAITING_FOR_MONOPOLY = false;
+        if (mesType == SOCMessage.GAMESTATE)
+        {
+            waitingForGameState = false;
+            oldGameState = game.getGameState();
+            game.setGameState(((SOCGameState) mes).getState());
+        }
 
-                        //
-                        // reset the selling flags and offers history
-                        //
-                        if (robotParameters.getTradeFlag() == 1)
-                        {
-                            doneTrading = false;
-                        }
-                        else
-                        {
-                            doneTrading = true;
-                        }
+        else if (mesType == SOCMessage.FIRSTPLAYER)
+        {
+            game.setFirstPlayer(((SOCFirstPlayer) mes).getPlayerNumber());
+        }
 
-                        waitingForTradeMsg = false;
-                        waitingForTradeResponse = false;
-                        negotiator.resetIsSelling();
-                        negotiator.resetOffersMade();
+        else if (mesType == SOCMessage.SETTURN)
+        {
+            game.setCurrentPlayerNumber(((SOCSetTurn) mes).getPlayerNumber());
+        }
 
-                        //
-                        // check or reset any special-building-phase decisions
-                        //
-                        decidedIfSpecialBuild = false;
-                        if (game.getGameState() == SOCGame.SPECIAL_BUILDING)
-                        {
-                            if (waitingForSpecialBuild && ! buildingPlan.isEmpty())
-                            {
-                                // Keep the building plan.
-                                // Will ask during loop body to build.
-                            } else {
-                                // We have no plan, but will call planBuilding()
-                                // during the loop body.  If buildingPlan still empty,
-                                // bottom of loop will end our Special Building turn,
-                                // just as it would in gamestate PLAY1.  Otherwise,
-                                // will ask to build after planBuilding.
-                            }
-                        } else {
-                            //
-                            // reset any plans we had
-                            //
-                            buildingPlan.clear();
-                        }
-                        negotiator.resetTargetPieces();
+        else if (mesType == SOCMessage.TURN)
+        {
+            // Start of a new player's turn.
+            // Update game and reset most of our state fields.
 
-                        //
-                        // swap the message-history queues
-                        //
-                        {
-                            Vector<SOCMessage> tmp = turnEventsPrev;
-                            turnEventsPrev = turnEventsCurrent;
-                            tmp.clear();
-                            turnEventsCurrent = tmp;
-                        }
-                    }
+            game.setCurrentPlayerNumber(((SOCTurn) mes).getPlayerNumber());
+            game.updateAtTurn();
 
-                    if (game.getCurrentPlayerNumber() == ourPlayerNumber)
-                    {
-                        ourTurn = true;
-                        waitingForSpecialBuild = false;
-                    }
-                    else
-                    {
-                        ourTurn = false;
-                    }
+            //
+            // remove any expected states
+            //
+            expectPLAY = false;
+            expectPLAY1 = false;
+            expectPLACING_ROAD = false;
+            expectPLACING_SETTLEMENT = false;
+            expectPLACING_CITY = false;
+            expectPLACING_SHIP = false;
+            expectPLACING_ROBBER = false;
+            expectPLACING_FREE_ROAD1 = false;
+            expectPLACING_FREE_ROAD2 = false;
+            expectDICERESULT = false;
+            expectDISCARD = false;
+            expectMOVEROBBER = false;
+            expectWAITING_FOR_DISCOVERY = false;
+            expectWAITING_FOR_MONOPOLY = false;
 
-                    if ((mesType == SOCMessage.TURN) && (ourTurn))
-                    {
-                        waitingForOurTurn = false;
+            //
+            // reset the selling flags and offers history
+            //
+            if (robotParameters.getTradeFlag() == 1)
+            {
+                doneTrading = false;
+            }
+            else
+            {
+                doneTrading = true;
+            }
 
-                        // Clear some per-turn variables.
-                        // For others, find the code which calls game.updateAtTurn().
-                        whatWeFailedToBuild = null;
-                        failedBuildingAttempts = 0;
-                        rejectedPlayDevCardType = -1;
-                    }
+            waitingForTradeMsg = false;
+            waitingForTradeResponse = false;
+            negotiator.resetIsSelling();
+            negotiator.resetOffersMade();
 
-                    /**
-                     * Handle some message types early.
-                     */
-                    switch (mesType)
-                    {
-                    case SOCMessage.PLAYERELEMENT:
-                        {
-                        handlePLAYERELEMENT((SOCPlayerElement) mes);
+            //
+            // check or reset any special-building-phase decisions
+            //
+            decidedIfSpecialBuild = false;
+            if (game.getGameState() == SOCGame.SPECIAL_BUILDING)
+            {
+                if (waitingForSpecialBuild && ! buildingPlan.isEmpty())
+                {
+                    // Keep the building plan.
+                    // Will ask during loop body to build.
+                } else {
+                    // We have no plan, but will call planBuilding()
+                    // during the loop body.  If buildingPlan still empty,
+                    // bottom of loop will end our Special Building turn,
+                    // just as it would in gamestate PLAY1.  Otherwise,
+                    // will ask to build after planBuilding.
+                }
+            } else {
+                //
+                // reset any plans we had
+                //
+                buildingPlan.clear();
+            }
+            negotiator.resetTargetPieces();
 
-                        // If this during the PLAY state, also updates the
-                        // negotiator's is-selling flags.
+            //
+            // swap the message-history queues
+            //
+            {
+                Vector<SOCMessage> tmp = turnEventsPrev;
+                turnEventsPrev = turnEventsCurrent;
+                tmp.clear();
+                turnEventsCurrent = tmp;
+            }
+        }
 
-                        // If our player is losing a resource needed for the buildingPlan,
-                        // clear the plan if this is for the Special Building Phase (on the 6-player board).
-                        // In normal game play, we clear the building plan at the start of each turn.
-                        }
-                        break;
+        if (game.getCurrentPlayerNumber() == ourPlayerNumber)
+        {
+            ourTurn = true;
+            waitingForSpecialBuild = false;
+        }
+        else
+        {
+            ourTurn = false;
+        }
 
-                    case SOCMessage.RESOURCECOUNT:
-                        {
-                        SOCPlayer pl = game.getPlayer(((SOCResourceCount) mes).getPlayerNumber());
+        if ((mesType == SOCMessage.TURN) && (ourTurn))
+        {
+            waitingForOurTurn = false;
 
-                        if (((SOCResourceCount) mes).getCount() != pl.getResources().getTotal())
-                        {
-                            SOCResourceSet rsrcs = pl.getResources();
+            // Clear some per-turn variables.
+            // For others, find the code which calls game.updateAtTurn().
+            whatWeFailedToBuild = null;
+            failedBuildingAttempts = 0;
+            rejectedPlayDevCardType = -1;
+        }
 
-                            if (D.ebugOn)
-                            {
-                                client.sendText(game, ">>> RESOURCE COUNT ERROR FOR PLAYER " + pl.getPlayerNumber() + ": " + ((SOCResourceCount) mes).getCount() + " != " + rsrcs.getTotal());
-                            }
+        /**
+         * Handle some message types early.
+         */
+        switch (mesType)
+        {
+        case SOCMessage.PLAYERELEMENT:
+            {
+            handlePLAYERELEMENT((SOCPlayerElement) mes);
 
-                            //
-                            //  fix it
-                            //
-                            if (pl.getPlayerNumber() != ourPlayerNumber)
-                            {
-                                rsrcs.clear();
-                                rsrcs.setAmount(((SOCResourceCount) mes).getCount(), SOCResourceConstants.UNKNOWN);
-                            }
-                        }
-                        }
-                        break;
+            // If this during the PLAY state, also updates the
+            // negotiator's is-selling flags.
 
-                    case SOCMessage.DICERESULT:
-                        game.setCurrentDice(((SOCDiceResult) mes).getResult());
-                        break;
+            // If our player is losing a resource needed for the buildingPlan,
+            // clear the plan if this is for the Special Building Phase (on the 6-player board).
+            // In normal game play, we clear the building plan at the start of each turn.
+            }
+            break;
 
-                    case SOCMessage.PUTPIECE:
-                        handlePUTPIECE_updateGameData((SOCPutPiece) mes);
-                        // For initial roads, also tracks their initial settlement in SOCPlayerTracker.
-                        break;
+        case SOCMessage.RESOURCECOUNT:
+            {
+            SOCPlayer pl = game.getPlayer(((SOCResourceCount) mes).getPlayerNumber());
 
-                    case SOCMessage.MOVEPIECE:
-                        {
-                            SOCMovePiece mpm = (SOCMovePiece) mes;
-                            SOCShip sh = new SOCShip
-                                (game.getPlayer(mpm.getPlayerNumber()), mpm.getFromCoord(), null);
-                            game.moveShip(sh, mpm.getToCoord());
-                        }
-                        break;
+            if (((SOCResourceCount) mes).getCount() != pl.getResources().getTotal())
+            {
+                SOCResourceSet rsrcs = pl.getResources();
 
-                    case SOCMessage.CANCELBUILDREQUEST:
-                        handleCANCELBUILDREQUEST((SOCCancelBuildRequest) mes);
-                        break;
+                if (D.ebugOn)
+                {
+                    client.sendText(game, ">>> RESOURCE COUNT ERROR FOR PLAYER " + pl.getPlayerNumber() + ": " + ((SOCResourceCount) mes).getCount() + " != " + rsrcs.getTotal());
+                }
 
-                    case SOCMessage.MOVEROBBER:
-                        {
-                        //
-                        // Note: Don't call ga.moveRobber() because that will call the
-                        // functions to do the stealing.  We just want to set where
-                        // the robber moved, without seeing if something was stolen.
-                        // MOVEROBBER will be followed by PLAYERELEMENT messages to
-                        // report the gain/loss of resources.
-                        //
-                        moveRobberOnSeven = false;
-                        final int newHex = ((SOCMoveRobber) mes).getCoordinates();
-                        if (newHex >= 0)
-                            game.getBoard().setRobberHex(newHex, true);
-                        else
-                            ((SOCBoardLarge) game.getBoard()).setPirateHex(-newHex, true);
-                        }
-                        break;
+                //
+                //  fix it
+                //
+                if (pl.getPlayerNumber() != ourPlayerNumber)
+                {
+                    rsrcs.clear();
+                    rsrcs.setAmount(((SOCResourceCount) mes).getCount(), SOCResourceConstants.UNKNOWN);
+                }
+            }
+            }
+            break;
 
-                    case SOCMessage.MAKEOFFER:
-                        if (robotParameters.getTradeFlag() == 1)
-                            handleMAKEOFFER((SOCMakeOffer) mes);
-                        break;
+        case SOCMessage.DICERESULT:
+            game.setCurrentDice(((SOCDiceResult) mes).getResult());
+            break;
 
-                    case SOCMessage.CLEAROFFER:
-                        if (robotParameters.getTradeFlag() == 1)
-                        {
-                            final int pn = ((SOCClearOffer) mes).getPlayerNumber();
-                            if (pn != -1)
-                            {
-                                game.getPlayer(pn).setCurrentOffer(null);
-                            } else {
-                                for (int i = 0; i < game.maxPlayers; ++i)
-                                    game.getPlayer(i).setCurrentOffer(null);
-                            }
-                        }
-                        break;
+        case SOCMessage.PUTPIECE:
+            handlePUTPIECE_updateGameData((SOCPutPiece) mes);
+            // For initial roads, also tracks their initial settlement in SOCPlayerTracker.
+            break;
 
-                    case SOCMessage.ACCEPTOFFER:
-                        if (waitingForTradeResponse && (robotParameters.getTradeFlag() == 1))
-                        {
-                            if ((ourPlayerNumber == (((SOCAcceptOffer) mes).getOfferingNumber()))
-                                || (ourPlayerNumber == ((SOCAcceptOffer) mes).getAcceptingNumber()))
-                            {
-                                waitingForTradeResponse = false;
-                            }
-                        }
-                        break;
+        case SOCMessage.MOVEPIECE:
+            {
+                SOCMovePiece mpm = (SOCMovePiece) mes;
+                SOCShip sh = new SOCShip
+                    (game.getPlayer(mpm.getPlayerNumber()), mpm.getFromCoord(), null);
+                game.moveShip(sh, mpm.getToCoord());
+            }
+            break;
 
-                    case SOCMessage.REJECTOFFER:
-                        if (robotParameters.getTradeFlag() == 1)
-                            handleREJECTOFFER((SOCRejectOffer) mes);
-                        break;
+        case SOCMessage.CANCELBUILDREQUEST:
+            handleCANCELBUILDREQUEST((SOCCancelBuildRequest) mes);
+            break;
 
-                    case SOCMessage.DEVCARDCOUNT:
-                        game.setNumDevCards(((SOCDevCardCount) mes).getNumDevCards());
-                        break;
+        case SOCMessage.MOVEROBBER:
+            {
+            //
+            // Note: Don't call ga.moveRobber() because that will call the
+            // functions to do the stealing.  We just want to set where
+            // the robber moved, without seeing if something was stolen.
+            // MOVEROBBER will be followed by PLAYERELEMENT messages to
+            // report the gain/loss of resources.
+            //
+            moveRobberOnSeven = false;
+            final int newHex = ((SOCMoveRobber) mes).getCoordinates();
+            if (newHex >= 0)
+                game.getBoard().setRobberHex(newHex, true);
+            else
+                ((SOCBoardLarge) game.getBoard()).setPirateHex(-newHex, true);
+            }
+            break;
 
-                    case SOCMessage.DEVCARDACTION:
-                        {
-                            SOCDevCardAction dcMes = (SOCDevCardAction) mes;
-                            if (dcMes.getAction() != SOCDevCardAction.CANNOT_PLAY)
-                            {
-                                handleDEVCARDACTION(dcMes);
-                            } else {
-                                // rejected by server, can't play our requested card
-                                rejectedPlayDevCardType = dcMes.getCardType();
-                                waitingForGameState = false;
-                                expectPLACING_FREE_ROAD1 = false;
-                                expectWAITING_FOR_DISCOVERY = false;
-                                expectWAITING_FOR_MONOPOLY = false;
-                                expectPLACING_ROBBER = false;
-                            }
-                        }
-                        break;
+        case SOCMessage.MAKEOFFER:
+            if (robotParameters.getTradeFlag() == 1)
+                handleMAKEOFFER((SOCMakeOffer) mes);
+            break;
 
-                    case SOCMessage.SETPLAYEDDEVCARD:
-                        {
-                        SOCPlayer player = game.getPlayer(((SOCSetPlayedDevCard) mes).getPlayerNumber());
-                        player.setPlayedDevCard(((SOCSetPlayedDevCard) mes).hasPlayedDevCard());
-                        }
-                        break;
+        case SOCMessage.CLEAROFFER:
+            if (robotParameters.getTradeFlag() == 1)
+            {
+                final int pn = ((SOCClearOffer) mes).getPlayerNumber();
+                if (pn != -1)
+                {
+                    game.getPlayer(pn).setCurrentOffer(null);
+                } else {
+                    for (int i = 0; i < game.maxPlayers; ++i)
+                        game.getPlayer(i).setCurrentOffer(null);
+                }
+            }
+            break;
 
-                    }  // switch(mesType)
+        case SOCMessage.ACCEPTOFFER:
+            if (waitingForTradeResponse && (robotParameters.getTradeFlag() == 1))
+            {
+                if ((ourPlayerNumber == (((SOCAcceptOffer) mes).getOfferingNumber()))
+                    || (ourPlayerNumber == ((SOCAcceptOffer) mes).getAcceptingNumber()))
+                {
+                    waitingForTradeResponse = false;
+                }
+            }
+            break;
 
-                    debugInfo();
+        case SOCMessage.REJECTOFFER:
+            if (robotParameters.getTradeFlag() == 1)
+                handleREJECTOFFER((SOCRejectOffer) mes);
+            break;
 
-                    if ((game.getGameState() == SOCGame.PLAY) && (!waitingForGameState))
-                    {
-                        rollOrPlayKnightOrExpectDice();
+        case SOCMessage.DEVCARDCOUNT:
+            game.setNumDevCards(((SOCDevCardCount) mes).getNumDevCards());
+            break;
 
-                        // On our turn, ask client to roll dice or play a knight;
-                        // on other turns, update flags to expect dice result.
-                        // Clears expectPLAY to false.
-                        // Sets either expectDICERESULT, or expectPLACING_ROBBER and waitingForGameState.
-                    }
+        case SOCMessage.DEVCARDACTION:
+            {
+                SOCDevCardAction dcMes = (SOCDevCardAction) mes;
+                if (dcMes.getAction() != SOCDevCardAction.CANNOT_PLAY)
+                {
+                    handleDEVCARDACTION(dcMes);
+                } else {
+                    // rejected by server, can't play our requested card
+                    rejectedPlayDevCardType = dcMes.getCardType();
+                    waitingForGameState = false;
+                    expectPLACING_FREE_ROAD1 = false;
+                    expectWAITING_FOR_DISCOVERY = false;
+                    expectWAITING_FOR_MONOPOLY = false;
+                    expectPLACING_ROBBER = false;
+                }
+            }
+            break;
+
+        case SOCMessage.SETPLAYEDDEVCARD:
+            {
+            SOCPlayer player = game.getPlayer(((SOCSetPlayedDevCard) mes).getPlayerNumber());
+            player.setPlayedDevCard(((SOCSetPlayedDevCard) mes).hasPlayedDevCard());
+            }
+            break;
+
+        }  // switch(mesType)
+
+        debugInfo();
+
+        if ((game.getGameState() == SOCGame.PLAY) && (!waitingForGameState))
+        {
+            rollOrPlayKnightOrExpectDice();
+
+            // On our turn, ask client to roll dice or play a knight;
+            // on other turns, update flags to expect dice result.
+            // Clears expectPLAY to false.
+            // Sets either expectDICERESULT, or expectPLACING_ROBBER and waitingForGameState.
+        }
+
+        if (ourTurn && (game.getGameState() == SOCGame.WAITING_FOR_ROBBER_OR_PIRATE) && ! waitingForGameState)
+        {
+            // TODO handle moving the pirate too
+            // For now, always decide to move the robber.
+            // Once we move the robber, will also need to deal with state WAITING_FOR_ROB_CLOTH_OR_RESOURCE.
+            expectPLACING_ROBBER = true;
+            waitingForGameState = true;
+            counter = 0;
+            client.choosePlayer(game, SOCChoosePlayer.CHOICE_MOVE_ROBBER);
+            pause(200);
+        }
 
-                    if (ourTurn && (game.getGameState() == SOCGame.WAITING_FOR_ROBBER_OR_PIRATE) && ! waitingForGameState)
+        else if ((game.getGameState() == SOCGame.PLACING_ROBBER) && (!waitingForGameState))
+        {
+            expectPLACING_ROBBER = false;
+
+            if ((!waitingForOurTurn) && (ourTurn))
+            {
+                if (!((expectPLAY || expectPLAY1) && (counter < 4000)))
+                {
+                    if (moveRobberOnSeven)
                     {
-                        // TODO handle moving the pirate too
-                        // For now, always decide to move the robber.
-                        // Once we move the robber, will also need to deal with state WAITING_FOR_ROB_CLOTH_OR_RESOURCE.
-                        expectPLACING_ROBBER = true;
+                        // robber moved because 7 rolled on dice
+                        moveRobberOnSeven = false;
                         waitingForGameState = true;
                         counter = 0;
-                        client.choosePlayer(game, SOCChoosePlayer.CHOICE_MOVE_ROBBER);
-                        pause(200);
+                        expectPLAY1 = true;
                     }
-
-                    else if ((game.getGameState() == SOCGame.PLACING_ROBBER) && (!waitingForGameState))
+                    else
                     {
-                        expectPLACING_ROBBER = false;
+                        waitingForGameState = true;
+                        counter = 0;
+
+                        if (oldGameState == SOCGame.PLAY)
+                        {
+                            // robber moved from playing knight card before dice roll
+                            expectPLAY = true;
+                        }
+                        else if (oldGameState == SOCGame.PLAY1)
+                        {
+                            // robber moved from playing knight card after dice roll
+                            expectPLAY1 = true;
+                        }
+                    }
+
+                    counter = 0;
+                    moveRobber();
+                }
+            }
+        }
+
+        if ((game.getGameState() == SOCGame.WAITING_FOR_DISCOVERY) && (!waitingForGameState))
+        {
+            expectWAITING_FOR_DISCOVERY = false;
+
+            if ((!waitingForOurTurn) && (ourTurn))
+            {
+                if (!(expectPLAY1) && (counter < 4000))
+                {
+                    waitingForGameState = true;
+                    expectPLAY1 = true;
+                    counter = 0;
+                    client.discoveryPick(game, resourceChoices);
+                    pause(1500);
+                }
+            }
+        }
+
+        if ((game.getGameState() == SOCGame.WAITING_FOR_MONOPOLY) && (!waitingForGameState))
+        {
+            expectWAITING_FOR_MONOPOLY = false;
+
+            if ((!waitingForOurTurn) && (ourTurn))
+            {
+                if (!(expectPLAY1) && (counter < 4000))
+                {
+                    waitingForGameState = true;
+                    expectPLAY1 = true;
+                    counter = 0;
+                    client.monopolyPick(game, monopolyStrategy.getMonopolyChoice());
+                    pause(1500);
+                }
+            }
+        }
+
+        if (waitingForTradeMsg && (mesType == SOCMessage.SIMPLEACTION)
+            && (((SOCSimpleAction) mes).getActionType() == SOCSimpleAction.TRADE_SUCCESSFUL))
+        {
+            //
+            // This is the bank/port trade message we've been waiting for;
+            // is sent to only the trading player
+            //
+            waitingForTradeMsg = false;
+        }
+
+        if (waitingForDevCard && (mesType == SOCMessage.SIMPLEACTION)
+            && (((SOCSimpleAction) mes).getPlayerNumber() == ourPlayerNumber)
+            && (((SOCSimpleAction) mes).getActionType() == SOCSimpleAction.DEVCARD_BOUGHT))
+        {
+            //
+            // This is the "dev card bought" message we've been waiting for
+            //
+            waitingForDevCard = false;
+        }
+
+        if (((game.getGameState() == SOCGame.PLAY1) || (game.getGameState() == SOCGame.SPECIAL_BUILDING))
+            && ! (waitingForGameState || waitingForTradeMsg || waitingForTradeResponse || waitingForDevCard
+                  || expectPLACING_ROAD || expectPLACING_SETTLEMENT || expectPLACING_CITY || expectPLACING_SHIP
+                  || expectPLACING_ROBBER || expectPLACING_FREE_ROAD1 || expectPLACING_FREE_ROAD2 || expectWAITING_FOR_DISCOVERY || expectWAITING_FOR_MONOPOLY))
+        {
+            // Time to decide to build, or take other normal actions.
+
+            expectPLAY1 = false;
+
+            // 6-player: check Special Building Phase
+            // during other players' turns.
+            if ((! ourTurn) && waitingForOurTurn && gameIs6Player
+                 && (! decidedIfSpecialBuild) && (!expectPLACING_ROBBER))
+            {
+                decidedIfSpecialBuild = true;
+
+                /**
+                 * It's not our turn.  We're not doing anything else right now.
+                 * Gamestate has passed PLAY, so we know what resources to expect.
+                 * Do we want to Special Build?  Check the same conditions as during our turn.
+                 * Make a plan if we don't have one,
+                 * and if we haven't given up building
+                 * attempts this turn.
+                 */
 
-                        if ((!waitingForOurTurn) && (ourTurn))
-                        {
-                            if (!((expectPLAY || expectPLAY1) && (counter < 4000)))
-                            {
-                                if (moveRobberOnSeven)
-                                {
-                                    // robber moved because 7 rolled on dice
-                                    moveRobberOnSeven = false;
-                                    waitingForGameState = true;
-                                    counter = 0;
-                                    expectPLAY1 = true;
-                                }
-                                else
-                                {
-                                    waitingForGameState = true;
-                                    counter = 0;
-
-                                    if (oldGameState == SOCGame.PLAY)
-                                    {
-                                        // robber moved from playing knight card before dice roll
-                                        expectPLAY = true;
-                                    }
-                                    else if (oldGameState == SOCGame.PLAY1)
-                                    {
-                                        // robber moved from playing knight card after dice roll
-                                        expectPLAY1 = true;
-                                    }
-                                }
+                if (buildingPlan.empty() && (ourPlayerData.getResources().getTotal() > 1) && (failedBuildingAttempts < MAX_DENIED_BUILDING_PER_TURN))
+                {
+                    planBuilding();
 
-                                counter = 0;
-                                moveRobber();
-                            }
-                        }
-                    }
+                    /*
+                     * planBuilding takes these actions:
+                     *
+                    decisionMaker.planStuff(robotParameters.getStrategyType());
 
-                    if ((game.getGameState() == SOCGame.WAITING_FOR_DISCOVERY) && (!waitingForGameState))
+                    if (!buildingPlan.empty())
                     {
-                        expectWAITING_FOR_DISCOVERY = false;
-
-                        if ((!waitingForOurTurn) && (ourTurn))
-                        {
-                            if (!(expectPLAY1) && (counter < 4000))
-                            {
-                                waitingForGameState = true;
-                                expectPLAY1 = true;
-                                counter = 0;
-                                client.discoveryPick(game, resourceChoices);
-                                pause(1500);
-                            }
-                        }
+                        lastTarget = (SOCPossiblePiece) buildingPlan.peek();
+                        negotiator.setTargetPiece(ourPlayerNumber, (SOCPossiblePiece) buildingPlan.peek());
                     }
+                     */
 
-                    if ((game.getGameState() == SOCGame.WAITING_FOR_MONOPOLY) && (!waitingForGameState))
+                    if ( ! buildingPlan.empty())
                     {
-                        expectWAITING_FOR_MONOPOLY = false;
+                        // Do we have the resources right now?
+                        final SOCPossiblePiece targetPiece = buildingPlan.peek();
+                        final SOCResourceSet targetResources = SOCPlayingPiece.getResourcesToBuild(targetPiece.getType());
 
-                        if ((!waitingForOurTurn) && (ourTurn))
+                        if ((ourPlayerData.getResources().contains(targetResources)))
                         {
-                            if (!(expectPLAY1) && (counter < 4000))
-                            {
-                                waitingForGameState = true;
-                                expectPLAY1 = true;
-                                counter = 0;
-                                client.monopolyPick(game, monopolyStrategy.getMonopolyChoice());
-                                pause(1500);
-                            }
+                            // Ask server for the Special Building Phase.
+                            // (TODO) if FAST_STRATEGY: Maybe randomly don't ask?
+                            waitingForSpecialBuild = true;
+                            client.buildRequest(game, -1);
+                            pause(100);
                         }
                     }
+                }
+            }
+
+            if ((! waitingForOurTurn) && ourTurn)
+            {
+                if (!(expectPLAY && (counter < 4000)))
+                {
+                    counter = 0;
 
-                    if (waitingForTradeMsg && (mesType == SOCMessage.SIMPLEACTION)
-                        && (((SOCSimpleAction) mes).getActionType() == SOCSimpleAction.TRADE_SUCCESSFUL))
+                    //D.ebugPrintln("DOING PLAY1");
+                    if (D.ebugOn)
                     {
-                        //
-                        // This is the bank/port trade message we've been waiting for;
-                        // is sent to only the trading player
-                        //
-                        waitingForTradeMsg = false;
+                        client.sendText(game, "================================");
+
+                        // for each player in game:
+                        //    sendText and debug-prn game.getPlayer(i).getResources()
+                        printResources();
                     }
 
-                    if (waitingForDevCard && (mesType == SOCMessage.SIMPLEACTION)
-                        && (((SOCSimpleAction) mes).getPlayerNumber() == ourPlayerNumber)
-                        && (((SOCSimpleAction) mes).getActionType() == SOCSimpleAction.DEVCARD_BOUGHT))
+                    /**
+                     * if we haven't played a dev card yet,
+                     * and we have a knight, and we can get
+                     * largest army, play the knight.
+                     * If we're in SPECIAL_BUILDING (not PLAY1),
+                     * can't trade or play development cards.
+                     *
+                     * In scenario _SC_PIRI (which has no robber and
+                     * no largest army), play one whenever we have
+                     * it, someone else has resources, and we can
+                     * convert a ship to a warship.
+                     */
+                    if ((game.getGameState() == SOCGame.PLAY1) && ! ourPlayerData.hasPlayedDevCard())
                     {
-                        //
-                        // This is the "dev card bought" message we've been waiting for
-                        //
-                        waitingForDevCard = false;
+                        considerPlayKnightCard();  // might set expectPLACING_ROBBER and waitingForGameState
                     }
 
-                    if (((game.getGameState() == SOCGame.PLAY1) || (game.getGameState() == SOCGame.SPECIAL_BUILDING))
-                        && ! (waitingForGameState || waitingForTradeMsg || waitingForTradeResponse || waitingForDevCard
-                              || expectPLACING_ROAD || expectPLACING_SETTLEMENT || expectPLACING_CITY || expectPLACING_SHIP
-                              || expectPLACING_ROBBER || expectPLACING_FREE_ROAD1 || expectPLACING_FREE_ROAD2 || expectWAITING_FOR_DISCOVERY || expectWAITING_FOR_MONOPOLY))
+                    /**
+                     * make a plan if we don't have one,
+                     * and if we haven't given up building
+                     * attempts this turn.
+                     */
+                    if ( (! expectPLACING_ROBBER) && buildingPlan.empty() && (ourPlayerData.getResources().getTotal() > 1) && (failedBuildingAttempts < MAX_DENIED_BUILDING_PER_TURN))
                     {
-                        // Time to decide to build, or take other normal actions.
-
-                        expectPLAY1 = false;
-
-                        // 6-player: check Special Building Phase
-                        // during other players' turns.
-                        if ((! ourTurn) && waitingForOurTurn && gameIs6Player
-                             && (! decidedIfSpecialBuild) && (!expectPLACING_ROBBER))
-                        {
-                            decidedIfSpecialBuild = true;
-
-                            /**
-                             * It's not our turn.  We're not doing anything else right now.
-                             * Gamestate has passed PLAY, so we know what resources to expect.
-                             * Do we want to Special Build?  Check the same conditions as during our turn.
-                             * Make a plan if we don't have one,
-                             * and if we haven't given up building
-                             * attempts this turn.
-                             */
-
-                            if (buildingPlan.empty() && (ourPlayerData.getResources().getTotal() > 1) && (failedBuildingAttempts < MAX_DENIED_BUILDING_PER_TURN))
-                            {
-                                planBuilding();
+                        planBuilding();
 
-                                /*
-                                 * planBuilding takes these actions:
-                                 *
-                                decisionMaker.planStuff(robotParameters.getStrategyType());
-
-                                if (!buildingPlan.empty())
-                                {
-                                    lastTarget = (SOCPossiblePiece) buildingPlan.peek();
-                                    negotiator.setTargetPiece(ourPlayerNumber, (SOCPossiblePiece) buildingPlan.peek());
-                                }
-                                 */
-
-                                if ( ! buildingPlan.empty())
-                                {
-                                    // Do we have the resources right now?
-                                    final SOCPossiblePiece targetPiece = buildingPlan.peek();
-                                    final SOCResourceSet targetResources = SOCPlayingPiece.getResourcesToBuild(targetPiece.getType());
-
-                                    if ((ourPlayerData.getResources().contains(targetResources)))
-                                    {
-                                        // Ask server for the Special Building Phase.
-                                        // (TODO) if FAST_STRATEGY: Maybe randomly don't ask?
-                                        waitingForSpecialBuild = true;
-                                        client.buildRequest(game, -1);
-                                        pause(100);
-                                    }
-                                }
-                            }
-                        }
+                        /*
+                         * planBuilding takes these actions:
+                         *
+                        decisionMaker.planStuff(robotParameters.getStrategyType());
 
-                        if ((! waitingForOurTurn) && ourTurn)
+                        if (!buildingPlan.empty())
                         {
-                            if (!(expectPLAY && (counter < 4000)))
-                            {
-                                counter = 0;
-
-                                //D.ebugPrintln("DOING PLAY1");
-                                if (D.ebugOn)
-                                {
-                                    client.sendText(game, "================================");
-
-                                    // for each player in game:
-                                    //    sendText and debug-prn game.getPlayer(i).getResources()
-                                    printResources();
-                                }
-
-                                /**
-                                 * if we haven't played a dev card yet,
-                                 * and we have a knight, and we can get
-                                 * largest army, play the knight.
-                                 * If we're in SPECIAL_BUILDING (not PLAY1),
-                                 * can't trade or play development cards.
-                                 *
-                                 * In scenario _SC_PIRI (which has no robber and
-                                 * no largest army), play one whenever we have
-                                 * it, someone else has resources, and we can
-                                 * convert a ship to a warship.
-                                 */
-                                if ((game.getGameState() == SOCGame.PLAY1) && ! ourPlayerData.hasPlayedDevCard())
-                                {
-                                    considerPlayKnightCard();  // might set expectPLACING_ROBBER and waitingForGameState
-                                }
-
-                                /**
-                                 * make a plan if we don't have one,
-                                 * and if we haven't given up building
-                                 * attempts this turn.
-                                 */
-                                if ( (! expectPLACING_ROBBER) && buildingPlan.empty() && (ourPlayerData.getResources().getTotal() > 1) && (failedBuildingAttempts < MAX_DENIED_BUILDING_PER_TURN))
-                                {
-                                    planBuilding();
-
-                                    /*
-                                     * planBuilding takes these actions:
-                                     *
-                                    decisionMaker.planStuff(robotParameters.getStrategyType());
-
-                                    if (!buildingPlan.empty())
-                                    {
-                                        lastTarget = (SOCPossiblePiece) buildingPlan.peek();
-                                        negotiator.setTargetPiece(ourPlayerNumber, (SOCPossiblePiece) buildingPlan.peek());
-                                    }
-                                     */
-                                }
-
-                                //D.ebugPrintln("DONE PLANNING");
-                                if ( (! expectPLACING_ROBBER) && (! buildingPlan.empty()))
-                                {
-                                    // Time to build something.
-
-                                    // Either ask to build a piece, or use trading or development
-                                    // cards to get resources to build it.  See javadoc for flags set.
-                                    buildOrGetResourceByTradeOrCard();
-                                }
-
-                                /**
-                                 * see if we're done with our turn
-                                 */
-                                if (! (expectPLACING_SETTLEMENT || expectPLACING_FREE_ROAD1 || expectPLACING_FREE_ROAD2 || expectPLACING_ROAD || expectPLACING_CITY || expectPLACING_SHIP
-                                       || expectWAITING_FOR_DISCOVERY || expectWAITING_FOR_MONOPOLY || expectPLACING_ROBBER || waitingForTradeMsg || waitingForTradeResponse || waitingForDevCard))
-                                {
-                                    waitingForGameState = true;
-                                    counter = 0;
-                                    expectPLAY = true;
-                                    waitingForOurTurn = true;
-
-                                    if (robotParameters.getTradeFlag() == 1)
-                                    {
-                                        doneTrading = false;
-                                    }
-                                    else
-                                    {
-                                        doneTrading = true;
-                                    }
-
-                                    //D.ebugPrintln("!!! ENDING TURN !!!");
-                                    negotiator.resetIsSelling();
-                                    negotiator.resetOffersMade();
-                                    buildingPlan.clear();
-                                    negotiator.resetTargetPieces();
-                                    pause(1500);
-                                    client.endTurn(game);
-                                }
-                            }
+                            lastTarget = (SOCPossiblePiece) buildingPlan.peek();
+                            negotiator.setTargetPiece(ourPlayerNumber, (SOCPossiblePiece) buildingPlan.peek());
                         }
+                         */
                     }
 
-                    /**
-                     * Placement: Make various putPiece calls; server has told us it's OK to buy them.
-                     * Call client.putPiece.
-                     * Works when it's our turn and we have an expect flag set
-                     * (such as expectPLACING_SETTLEMENT, in these game states:
-                     * START1A - START2B
-                     * PLACING_SETTLEMENT, PLACING_ROAD, PLACING_CITY
-                     * PLACING_FREE_ROAD1, PLACING_FREE_ROAD2
-                     */
-                    if (! waitingForGameState)
+                    //D.ebugPrintln("DONE PLANNING");
+                    if ( (! expectPLACING_ROBBER) && (! buildingPlan.empty()))
                     {
-                        placeIfExpectPlacing();
-                    }
-
-                    /**
-                     * End of various putPiece placement calls.
-                     */
+                        // Time to build something.
 
-                    /*
-                       if (game.getGameState() == SOCGame.OVER) {
-                       client.leaveGame(game);
-                       alive = false;
-                       }
-                     */
+                        // Either ask to build a piece, or use trading or development
+                        // cards to get resources to build it.  See javadoc for flags set.
+                        buildOrGetResourceByTradeOrCard();
+                    }
 
                     /**
-                     * Handle various message types here at bottom of loop.
+                     * see if we're done with our turn
                      */
-                    switch (mesType)
+                    if (! (expectPLACING_SETTLEMENT || expectPLACING_FREE_ROAD1 || expectPLACING_FREE_ROAD2 || expectPLACING_ROAD || expectPLACING_CITY || expectPLACING_SHIP
+                           || expectWAITING_FOR_DISCOVERY || expectWAITING_FOR_MONOPOLY || expectPLACING_ROBBER || waitingForTradeMsg || waitingForTradeResponse || waitingForDevCard))
                     {
-                    case SOCMessage.SETTURN:
-                        game.setCurrentPlayerNumber(((SOCSetTurn) mes).getPlayerNumber());
-                        break;
+                        waitingForGameState = true;
+                        counter = 0;
+                        expectPLAY = true;
+                        waitingForOurTurn = true;
 
-                    case SOCMessage.PUTPIECE:
-                        /**
-                         * this is for player tracking
-                         */
+                        if (robotParameters.getTradeFlag() == 1)
+                        {
+                            doneTrading = false;
+                        }
+                        else
                         {
-                            final SOCPutPiece mpp = (SOCPutPiece) mes;
-                            final int pn = mpp.getPlayerNumber();
-                            final int coord = mpp.getCoordinates();
-                            final int pieceType = mpp.getPieceType();
-                            handlePUTPIECE_updateTrackers(pn, coord, pieceType);
+                            doneTrading = true;
                         }
 
-                        // For initial placement of our own pieces, also checks
-                        // and clears expectPUTPIECE_FROM_START1A,
-                        // and sets expectSTART1B, etc.  The final initial putpiece
-                        // clears expectPUTPIECE_FROM_START2B and sets expectPLAY.
+                        //D.ebugPrintln("!!! ENDING TURN !!!");
+                        negotiator.resetIsSelling();
+                        negotiator.resetOffersMade();
+                        buildingPlan.clear();
+                        negotiator.resetTargetPieces();
+                        pause(1500);
+                        client.endTurn(game);
+                    }
+                }
+            }
+        }
 
-                        break;
+        /**
+         * Placement: Make various putPiece calls; server has told us it's OK to buy them.
+         * Call client.putPiece.
+         * Works when it's our turn and we have an expect flag set
+         * (such as expectPLACING_SETTLEMENT, in these game states:
+         * START1A - START2B
+         * PLACING_SETTLEMENT, PLACING_ROAD, PLACING_CITY
+         * PLACING_FREE_ROAD1, PLACING_FREE_ROAD2
+         */
+        if (! waitingForGameState)
+        {
+            placeIfExpectPlacing();
+        }
 
-                    case SOCMessage.MOVEPIECE:
-                        /**
-                         * this is for player tracking of moved ships
-                         */
-                        {
-                            final SOCMovePiece mpp = (SOCMovePiece) mes;
-                            final int pn = mpp.getPlayerNumber();
-                            final int coord = mpp.getToCoord();
-                            final int pieceType = mpp.getPieceType();
-                            // TODO what about getFromCoord()?
-                            handlePUTPIECE_updateTrackers(pn, coord, pieceType);
-                        }
-                        break;
+        /**
+         * End of various putPiece placement calls.
+         */
 
-                    case SOCMessage.DICERESULT:
-                        if (expectDICERESULT)
-                        {
-                            expectDICERESULT = false;
+        /*
+           if (game.getGameState() == SOCGame.OVER) {
+           client.leaveGame(game);
+           alive = false;
+           }
+         */
 
-                            if (((SOCDiceResult) mes).getResult() == 7)
-                            {
-                                final boolean robWithoutRobber = game.isGameOptionSet(SOCGameOption.K_SC_PIRI);
+        /**
+         * Handle various message types here at bottom of loop.
+         */
+        switch (mesType)
+        {
+        case SOCMessage.SETTURN:
+            game.setCurrentPlayerNumber(((SOCSetTurn) mes).getPlayerNumber());
+            break;
 
-                                if (! robWithoutRobber)
-                                    moveRobberOnSeven = true;
+        case SOCMessage.PUTPIECE:
+            /**
+             * this is for player tracking
+             */
+            {
+                final SOCPutPiece mpp = (SOCPutPiece) mes;
+                final int pn = mpp.getPlayerNumber();
+                final int coord = mpp.getCoordinates();
+                final int pieceType = mpp.getPieceType();
+                handlePUTPIECE_updateTrackers(pn, coord, pieceType);
+            }
 
-                                if (ourPlayerData.getResources().getTotal() > 7)
-                                    expectDISCARD = true;
+            // For initial placement of our own pieces, also checks
+            // and clears expectPUTPIECE_FROM_START1A,
+            // and sets expectSTART1B, etc.  The final initial putpiece
+            // clears expectPUTPIECE_FROM_START2B and sets expectPLAY.
 
-                                else if (ourTurn)
-                                {
-                                    if (! robWithoutRobber)
-                                        expectPLACING_ROBBER = true;
-                                    else
-                                        expectPLAY1 = true;
-                                }
-                            }
-                            else
-                            {
-                                expectPLAY1 = true;
-                            }
-                        }
-                        break;
+            break;
 
-                    case SOCMessage.PICKRESOURCESREQUEST:
-                        // gold hex
-                        counter = 0;
-                        pickFreeResources( ((SOCPickResourcesRequest) mes).getParam() );
-                        waitingForGameState = true;
-                        if (game.isInitialPlacement())
-                        {
-                            if (game.isGameOptionSet(SOCGameOption.K_SC_3IP))
-                                expectSTART3B = true;
-                            else
-                                expectSTART2B = true;
-                        } else {
-                            expectPLAY1 = true;
-                        }
-                        break;
+        case SOCMessage.MOVEPIECE:
+            /**
+             * this is for player tracking of moved ships
+             */
+            {
+                final SOCMovePiece mpp = (SOCMovePiece) mes;
+                final int pn = mpp.getPlayerNumber();
+                final int coord = mpp.getToCoord();
+                final int pieceType = mpp.getPieceType();
+                // TODO what about getFromCoord()?
+                handlePUTPIECE_updateTrackers(pn, coord, pieceType);
+            }
+            break;
 
-                    case SOCMessage.DISCARDREQUEST:
-                        expectDISCARD = false;
+        case SOCMessage.DICERESULT:
+            if (expectDICERESULT)
+            {
+                expectDICERESULT = false;
 
-                        /**
-                         * If we haven't recently discarded...
-                         */
+                if (((SOCDiceResult) mes).getResult() == 7)
+                {
+                    final boolean robWithoutRobber = game.isGameOptionSet(SOCGameOption.K_SC_PIRI);
 
-                        //	if (!((expectPLACING_ROBBER || expectPLAY1) &&
-                        //	      (counter < 4000))) {
-                        if ((game.getCurrentDice() == 7) && (ourTurn))
-                        {
-                            if (! game.isGameOptionSet(SOCGameOption.K_SC_PIRI))
-                                expectPLACING_ROBBER = true;
-                            else
-                                expectPLAY1 = true;
-                        }
-                        else
-                        {
-                            expectPLAY1 = true;
-                        }
+                    if (! robWithoutRobber)
+                        moveRobberOnSeven = true;
 
-                        counter = 0;
-                        client.discard(game, DiscardStrategy.discard
-                            (((SOCDiscardRequest) mes).getNumberOfDiscards(), buildingPlan, rand,
-                              ourPlayerData, robotParameters, decisionMaker, negotiator));
+                    if (ourPlayerData.getResources().getTotal() > 7)
+                        expectDISCARD = true;
 
-                        //	}
-                        break;
+                    else if (ourTurn)
+                    {
+                        if (! robWithoutRobber)
+                            expectPLACING_ROBBER = true;
+                        else
+                            expectPLAY1 = true;
+                    }
+                }
+                else
+                {
+                    expectPLAY1 = true;
+                }
+            }
+            break;
 
-                    case SOCMessage.CHOOSEPLAYERREQUEST:
-                        {
-                            final int choicePl = RobberStrategy.chooseRobberVictim
-                                (((SOCChoosePlayerRequest) mes).getChoices(), game, playerTrackers);
-                            counter = 0;
-                            client.choosePlayer(game, choicePl);
-                        }
-                        break;
+        case SOCMessage.PICKRESOURCESREQUEST:
+            // gold hex
+            counter = 0;
+            pickFreeResources( ((SOCPickResourcesRequest) mes).getParam() );
+            waitingForGameState = true;
+            if (game.isInitialPlacement())
+            {
+                if (game.isGameOptionSet(SOCGameOption.K_SC_3IP))
+                    expectSTART3B = true;
+                else
+                    expectSTART2B = true;
+            } else {
+                expectPLAY1 = true;
+            }
+            break;
 
-                    case SOCMessage.CHOOSEPLAYER:
-                        {
-                            final int vpn = ((SOCChoosePlayer) mes).getChoice();
-                            // Cloth is more valuable.
-                            // TODO decide when we should choose resources instead
-                            client.choosePlayer(game, -(vpn + 1));
-                        }
-                        break;
+        case SOCMessage.DISCARDREQUEST:
+            expectDISCARD = false;
 
-                    case SOCMessage.ROBOTDISMISS:
-                        if ((!expectDISCARD) && (!expectPLACING_ROBBER))
-                        {
-                            client.leaveGame(game, "dismiss msg", false);
-                            alive = false;
-                        }
-                        break;
+            /**
+             * If we haven't recently discarded...
+             */
 
-                    case SOCMessage.TIMINGPING:
-                        // Once-per-second message from the pinger thread
-                        counter++;
-                        break;
+            //	if (!((expectPLACING_ROBBER || expectPLAY1) &&
+            //	      (counter < 4000))) {
+            if ((game.getCurrentDice() == 7) && (ourTurn))
+            {
+                if (! game.isGameOptionSet(SOCGameOption.K_SC_PIRI))
+                    expectPLACING_ROBBER = true;
+                else
+                    expectPLAY1 = true;
+            }
+            else
+            {
+                expectPLAY1 = true;
+            }
 
-                    }  // switch (mesType) - for some types, at bottom of loop body
+            counter = 0;
+            client.discard(game, DiscardStrategy.discard
+                (((SOCDiscardRequest) mes).getNumberOfDiscards(), buildingPlan, rand,
+                  ourPlayerData, robotParameters, decisionMaker, negotiator));
 
-                    if (counter > 15000)
-                    {
-                        // We've been waiting too long, must be a bug: Leave the game.
-                        client.leaveGame(game, "counter 15000", false);
-                        alive = false;
-                    }
+            //	}
+            break;
 
-                    if ((failedBuildingAttempts > (2 * MAX_DENIED_BUILDING_PER_TURN))
-                        && game.isInitialPlacement())
-                    {
-                        // Apparently can't decide where we can initially place:
-                        // Leave the game.
-                        client.leaveGame(game, "failedBuildingAttempts at start", false);
-                        alive = false;
-                    }
+        case SOCMessage.CHOOSEPLAYERREQUEST:
+            {
+                final int choicePl = RobberStrategy.chooseRobberVictim
+                    (((SOCChoosePlayerRequest) mes).getChoices(), game, playerTrackers);
+                counter = 0;
+                client.choosePlayer(game, choicePl);
+            }
+            break;
 
-                    /*
-                       if (D.ebugOn) {
-                       if (mes != null) {
-                       debugInfo();
-                       D.ebugPrintln("~~~~~~~~~~~~~~~~");
-                       }
-                       }
-                     */
-                    yield();
-                }
+        case SOCMessage.CHOOSEPLAYER:
+            {
+                final int vpn = ((SOCChoosePlayer) mes).getChoice();
+                // Cloth is more valuable.
+                // TODO decide when we should choose resources instead
+                client.choosePlayer(game, -(vpn + 1));
             }
-            catch (Throwable e)
+            break;
+
+        case SOCMessage.ROBOTDISMISS:
+            if ((!expectDISCARD) && (!expectPLACING_ROBBER))
             {
-                // Ignore errors due to game reset in another thread
-                if (alive && ((game == null) || (game.getGameState() != SOCGame.RESET_OLD)))
-                {
-                    D.ebugPrintln("*** Robot caught an exception - " + e);
-                    System.out.println("*** Robot caught an exception - " + e);
-                    e.printStackTrace();
-                }
+                client.leaveGame(game, "dismiss msg", false);
+                alive = false;
             }
+            break;
+
+        case SOCMessage.TIMINGPING:
+            // Once-per-second message from the pinger thread
+            counter++;
+            break;
+
+        }  // switch (mesType) - for some types, at bottom of loop body
+
+        if (counter > 15000)
+        {
+            // We've been waiting too long, must be a bug: Leave the game.
+            client.leaveGame(game, "counter 15000", false);
+            alive = false;
         }
-        else
+
+        if ((failedBuildingAttempts > (2 * MAX_DENIED_BUILDING_PER_TURN))
+            && game.isInitialPlacement())
         {
-            System.out.println("AGG! NO PINGER!");
+            // Apparently can't decide where we can initially place:
+            // Leave the game.
+            client.leaveGame(game, "failedBuildingAttempts at start", false);
+            alive = false;
+        }
+
+        /*
+           if (D.ebugOn) {
+           if (mes != null) {
+           debugInfo();
+           D.ebugPrintln("~~~~~~~~~~~~~~~~");
+           }
+           }
+         */
+    }
+
+    /**
+     * Print an exception caught while handling game events, unless it's because of a game reset
+     * in another thread or this brain has been {@link #kill() killed}.
+     * @param e  Exception caught
+     * @since 2.0.00
+     */
+    private void printCaughtException(final Throwable e)
+    {
+        // Ignore errors due to game reset in another thread
+        if (alive && ((game == null) || (game.getGameState() != SOCGame.RESET_OLD)))
+        {
+            D.ebugPrintln("*** Robot caught an exception - " + e);
+            System.out.println("*** Robot caught an exception - " + e);
+            e.printStackTrace();
         }
+    }
 
+    /**
+     * Release this brain's game data and trackers after it stops, and tell the client.
+     * Called at the end of {@link #run()}, or by {@link SOCRobotBrainScheduler} in pooled mode.
+     * Before 2.0.00 this was part of {@code run()}.
+     * @since 2.0.00
+     */
+    void deallocate()
+    {
         //D.ebugPrintln("STOPPING AND DEALLOCATING");
+        pooledRunning = false;
         gameEventQ = null;
         client.addCleanKill();
         client = null;
@@ -3037,7 +3147,7 @@ public class SOCRobotBrain extends Thread
 
     /**
      * Plan the next building plan and target.
-     * Should be called from {@link #run()} under these conditions: <BR>
+     * Should be called from {@link #handleGameEvent(SOCMessage)} under these conditions: <BR>
      * (!expectPLACING_ROBBER && (buildingPlan.empty()) && (ourPlayerData.getResources().getTotal() > 1) && (failedBuildingAttempts < MAX_DENIED_BUILDING_PER_TURN))
      *<P>
      * Sets these fields/actions: <BR>
@@ -3820,6 +3930,29 @@ public class SOCRobotBrain extends Thread
         buildingPlan.clear();
     }
 
+    /**
+     * Set this brain to be run by a {@link SOCRobotBrainScheduler} instead of starting its thread.
+     * Called by {@link SOCRobotBrainScheduler#startBrain(SOCRobotBrain)} before any events are handled.
+     * @since 2.0.00
+     */
+    void setPooled()
+    {
+        pooled = true;
+        pooledRunning = true;
+    }
+
+    /**
+     * Is this brain running?  That is, has its thread started and not yet finished,
+     * or if run by a {@link SOCRobotBrainScheduler}, has it started and not yet stopped?
+     * Use this instead of {@link Thread#isAlive()}, which is always false in pooled mode.
+     * @return  true if running
+     * @since 2.0.00
+     */
+    public boolean isRunning()
+    {
+        return (pooled) ? pooledRunning : isAlive();
+    }
+
     /**
      * kill this brain
      */
@@ -3840,6 +3973,10 @@ public class SOCRobotBrain extends Thread
      * In a 6-player game, pause only 75% as long, to shorten the overall game delay,
      * except if {@link #waitingForTradeResponse}.
      * This is indicated by the {@link #pauseFaster} flag.
+     *<P>
+     * If this brain is run by a {@link SOCRobotBrainScheduler}, doesn't sleep; instead
+     * the scheduler waits before handling our next event, without blocking its worker thread.
+     * Either way, the actual pause is {@link #PAUSE_ACTUAL_MSEC}.
      *
      * @param msec  number of milliseconds to pause
      */
@@ -3848,10 +3985,16 @@ public class SOCRobotBrain extends Thread
         if (pauseFaster && ! waitingForTradeResponse)
             msec = (msec / 2) + (msec / 4);
 
+        if (pooled)
+        {
+            pauseMsec += PAUSE_ACTUAL_MSEC;
+            return;
+        }
+
         try
         {
             yield();
-            sleep(10);
+            sleep(PAUSE_ACTUAL_MSEC);
         }
         catch (InterruptedException exc) {}
     }
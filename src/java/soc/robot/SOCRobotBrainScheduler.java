@@ -0,0 +1,270 @@
+/**
+ * Java Settlers - An online multiplayer version of the game Settlers of Catan
+ * This file Copyright (C) 2026 agent <agent@local>
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * The maintainer of this program can be reached at jsettlers@nand.net
+ **/
+package soc.robot;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import soc.message.SOCMessage;
+import soc.message.SOCTimingPing;
+import soc.util.CappedQueue;
+import soc.util.CutoffExceededException;
+
+/**
+ * Runs robot brains on a shared, bounded pool of worker threads, instead of each
+ * {@link SOCRobotBrain} having its own thread and {@link SOCRobotPinger} thread.
+ * A server with many bots playing has hundreds of those threads, mostly idle.
+ *<P>
+ * In this pooled mode each brain is driven by its message queue: When a message is put into
+ * a brain's queue, the brain is scheduled on a worker thread, which handles its queued messages
+ * in arrival order with {@link SOCRobotBrain#handleQueuedEvents(int)}.
+ * A brain is queued or running on at most one worker at a time, so each brain's
+ * messages are still handled one at a time in order, but different brains run in parallel.
+ * Since each brain has at most 1 queued task, the executor's task queue is bounded by the number of brains.
+ *<P>
+ * One shared timer thread sends each brain's once-per-second {@link SOCTimingPing}, like the pinger thread.
+ * The timer also wakes brains after {@link SOCRobotBrain#pause(int)}: Instead of sleeping
+ * on the worker thread, the brain's next message is handled after that delay.
+ *<P>
+ * Used by {@link SOCRobotClient} if {@link SOCRobotClient#setBrainScheduler(SOCRobotBrainScheduler)} was called.
+ * One scheduler can be shared by all robot clients in the JVM.
+ *
+ * @author agent &lt;agent@local&gt;
+ * @since 2.0.00
+ */
+public final class SOCRobotBrainScheduler
+{
+    /** Interval between each brain's {@link SOCTimingPing}s, in milliseconds, same as {@link SOCRobotPinger}'s */
+    public static final int PING_INTERVAL_MSEC = 1000;
+
+    /** Most messages one brain handles each time it's run on a worker, before letting other brains use the worker */
+    private static final int MAX_EVENTS_PER_RUN = 50;
+
+    /** Worker threads which run the brains */
+    private final ExecutorService workers;
+
+    /** Timer thread for pings and wakeups after pauses */
+    private final ScheduledExecutorService timer;
+
+    /** Number of worker threads */
+    private final int nThreads;
+
+    /**
+     * Create and start the worker and timer threads.
+     * @param nThreads  Number of worker threads in the pool; at least 1
+     * @throws IllegalArgumentException if {@code nThreads} &lt; 1
+     */
+    public SOCRobotBrainScheduler(final int nThreads)
+        throws IllegalArgumentException
+    {
+        if (nThreads < 1)
+            throw new IllegalArgumentException("nThreads: " + nThreads);
+
+        this.nThreads = nThreads;
+        workers = Executors.newFixedThreadPool(nThreads, new DaemonThreadFactory("robotBrain-worker-"));
+        timer = Executors.newSingleThreadScheduledExecutor(new DaemonThreadFactory("robotBrain-timer-"));
+    }
+
+    /**
+     * Number of worker threads in the pool.
+     * @return  the {@code nThreads} given to the constructor
+     */
+    public int getThreadCount()
+    {
+        return nThreads;
+    }
+
+    /**
+     * Start running a brain in pooled mode, instead of calling its {@link Thread#start()}.
+     * Its queued messages, if any, will be handled soon, and it will be pinged once per second.
+     * The brain stops when it's {@link SOCRobotBrain#kill() killed} or leaves its game.
+     * @param brain  Brain to start; {@link SOCRobotBrain#setOurPlayerData()} must already have been called
+     */
+    public void startBrain(final SOCRobotBrain brain)
+    {
+        brain.setPooled();
+        new BrainTask(brain).start();
+    }
+
+    /**
+     * Stop the pool's threads.  Brains won't handle any more messages.
+     */
+    public void shutdown()
+    {
+        timer.shutdownNow();
+        workers.shutdown();
+    }
+
+    /**
+     * One brain's task, run on a worker when its queue has messages.
+     */
+    private final class BrainTask implements Runnable
+    {
+        private final SOCRobotBrain brain;
+
+        private final CappedQueue<SOCMessage> queue;
+
+        /**
+         * True while this task is queued or running on a worker, or waiting for its wakeup after a pause.
+         * Checked and set atomically, so the brain is never on more than one worker at a time.
+         * Stays true once the brain stops, so it's never run again.
+         */
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+
+        /** The brain's periodic ping, cancelled when it stops */
+        private volatile ScheduledFuture<?> pingTimer;
+
+        /** Run by {@link #timer} to put this task back on a worker after a pause */
+        private final Runnable wakeup = new Runnable()
+        {
+            public void run()
+            {
+                execute();
+            }
+        };
+
+        BrainTask(final SOCRobotBrain brain)
+        {
+            this.brain = brain;
+            queue = brain.gameEventQ;
+        }
+
+        /**
+         * Schedule the brain's pings, listen for messages to its queue,
+         * and run it if any messages are already queued.
+         */
+        void start()
+        {
+            final SOCTimingPing ping = new SOCTimingPing(brain.getGame().getName());
+
+            pingTimer = timer.scheduleAtFixedRate(new Runnable()
+            {
+                public void run()
+                {
+                    try
+                    {
+                        queue.put(ping);
+                    }
+                    catch (CutoffExceededException e)
+                    {
+                        pingTimer.cancel(false);  // like SOCRobotPinger, stop pinging if queue is full
+                    }
+                }
+            }, PING_INTERVAL_MSEC, PING_INTERVAL_MSEC, TimeUnit.MILLISECONDS);
+
+            // Listen only after pingTimer is set: Once listening, a put can run us on a worker,
+            // and if the brain has stopped, run() cancels pingTimer
+            queue.setPutListener(new Runnable()
+            {
+                public void run()
+                {
+                    wake();
+                }
+            });
+
+            if (! queue.empty())
+                wake();
+        }
+
+        /**
+         * Queue this task on a worker, unless it's already queued, running, or waiting after a pause.
+         */
+        void wake()
+        {
+            if (scheduled.compareAndSet(false, true))
+                execute();
+        }
+
+        /** Queue this task on a worker; {@link #scheduled} must already be true. */
+        private void execute()
+        {
+            try
+            {
+                workers.execute(this);
+            }
+            catch (RejectedExecutionException e) {}  // scheduler is shutting down
+        }
+
+        /**
+         * Handle the brain's queued messages, then wait for more, or for the wakeup after a pause,
+         * or clean up if the brain has stopped.
+         */
+        public void run()
+        {
+            final int waitMsec = brain.handleQueuedEvents(MAX_EVENTS_PER_RUN);
+
+            if (waitMsec == -1)
+            {
+                // Brain has stopped. Leave scheduled true, so it won't be run again.
+                pingTimer.cancel(false);
+                queue.setPutListener(null);
+                brain.deallocate();
+            }
+            else if (waitMsec > 0)
+            {
+                // Paused: Stay scheduled, and handle the next messages after the wakeup
+                try
+                {
+                    timer.schedule(wakeup, waitMsec, TimeUnit.MILLISECONDS);
+                }
+                catch (RejectedExecutionException e) {}  // scheduler is shutting down
+            }
+            else
+            {
+                scheduled.set(false);
+
+                // If a message arrived after handleQueuedEvents checked the queue,
+                // its put listener saw scheduled == true and didn't run us again
+                if (! queue.empty())
+                    wake();
+            }
+        }
+    }
+
+    /**
+     * Thread factory for the pool's daemon threads, with names for debugging.
+     */
+    private static final class DaemonThreadFactory implements ThreadFactory
+    {
+        private final String namePrefix;
+
+        private final AtomicInteger count = new AtomicInteger();
+
+        DaemonThreadFactory(final String namePrefix)
+        {
+            this.namePrefix = namePrefix;
+        }
+
+        public Thread newThread(Runnable r)
+        {
+            Thread t = new Thread(r, namePrefix + count.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        }
+    }
+
+}
@@ -154,6 +154,13 @@ public class SOCRobotClient extends SOCDisplaylessPlayerClient
      */
     private Hashtable<String, CappedQueue<SOCMessage>> brainQs = new Hashtable<String, CappedQueue<SOCMessage>>();
 
+    /**
+     * If not null, our brains run on this shared pool of threads instead of each having its own thread.
+     * @see #setBrainScheduler(SOCRobotBrainScheduler)
+     * @since 2.0.00
+     */
+    private SOCRobotBrainScheduler brainScheduler;
+
     /**
      * a table of requests from the server to sit at games
      */
@@ -245,6 +252,17 @@ public class SOCRobotClient extends SOCDisplaylessPlayerClient
         strSocketName = s;
     }
 
+    /**
+     * Run this robot's brains on a shared pool of threads, instead of starting a thread
+     * for each game's brain.  Call before {@link #init()}.
+     * @param sched  Scheduler to run brains, or null to give each brain its own thread (the default)
+     * @since 2.0.00
+     */
+    public void setBrainScheduler(final SOCRobotBrainScheduler sched)
+    {
+        brainScheduler = sched;
+    }
+
     /**
      * Initialize the robot player; connect to server, send first messages
      */
@@ -269,7 +287,9 @@ public class SOCRobotClient extends SOCDisplaylessPlayerClient
 
             //resetThread = new SOCRobotResetThread(this);
             //resetThread.start();
-            put(SOCVersion.toCmd(Version.versionNumber(), Version.version(), Version.buildnum(), null));
+            put(SOCVersion.toCmd
+                (Version.versionNumber(), Version.version(), Version.buildnum(), null,
+                 (strSocketName == null) ? SOCVersion.FEAT_COMPACT_FRAMES : null));
             put(SOCImARobot.toCmd(nickname, cookie, SOCImARobot.RBCLASS_BUILTIN));
         }
         catch (Exception e)
@@ -309,7 +329,9 @@ public class SOCRobotClient extends SOCDisplaylessPlayerClient
 
             //resetThread = new SOCRobotResetThread(this);
             //resetThread.start();
-            put(SOCVersion.toCmd(Version.versionNumber(), Version.version(), Version.buildnum(), null));
+            put(SOCVersion.toCmd
+                (Version.versionNumber(), Version.version(), Version.buildnum(), null,
+                 (strSocketName == null) ? SOCVersion.FEAT_COMPACT_FRAMES : null));
             put(SOCImARobot.toCmd(nickname, cookie, SOCImARobot.RBCLASS_BUILTIN));
         }
         catch (Exception e)
@@ -1333,6 +1355,9 @@ public class SOCRobotClient extends SOCDisplaylessPlayerClient
             sendText(ga, "Games won:" + gamesWon);
             sendText(ga, "Clean brain kills:" + cleanBrainKills);
             sendText(ga, "Brains running: " + robotBrains.size());
+            CappedQueue<SOCMessage> brainQ = brainQs.get(mes.getGame());
+            if (brainQ != null)
+                sendText(ga, "Brain queue: " + brainQ.size() + " messages, high water " + brainQ.getHighWaterMark());
 
             Runtime rt = Runtime.getRuntime();
             sendText(ga, "Total Memory:" + rt.totalMemory());
@@ -1392,7 +1417,10 @@ public class SOCRobotClient extends SOCDisplaylessPlayerClient
                 }
 
                 brain.setOurPlayerData();
-                brain.start();
+                if (brainScheduler != null)
+                    brainScheduler.startBrain(brain);
+                else
+                    brain.start();
 
                 /**
                  * change our face to the robot face
@@ -1532,7 +1560,7 @@ public class SOCRobotClient extends SOCDisplaylessPlayerClient
              */
             SOCRobotBrain brain = robotBrains.get(mes.getGame());
 
-            if ((brain == null) || (! brain.isAlive()))
+            if ((brain == null) || (! brain.isRunning()))
             {
                 leaveGame(games.get(mes.getGame()), "brain not alive in handleROBOTDISMISS", false);
             }
@@ -21,12 +21,22 @@
  **/
 package soc.robot;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
 import java.text.DecimalFormat;
+import java.util.ArrayList;
 import java.util.Enumeration;
 import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.Iterator;
 import java.util.Stack;
 import java.util.Vector;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.RejectedExecutionException;
 
 import soc.disableDebug.D;
 import soc.game.SOCBoard;
@@ -154,6 +164,39 @@ public class SOCRobotDM
   protected SOCPossibleCity favoriteCity;
   protected SOCPossibleCard possibleCard;
 
+  /**
+   * Shared thread pool for scoring possible pieces in parallel in {@link #smartGameStrategy(int[])},
+   * or null to score them one at a time on the robot's thread (the default).
+   * @see #setParallelEvaluation(int)
+   * @since 2.0.00
+   */
+  private static volatile ForkJoinPool parallelEvalPool;
+
+  /**
+   * If true (the default), {@link #smartGameStrategy(int[])} tries each possible piece in place
+   * in the player trackers and rolls back their changes with a {@link SOCPlayerTrackerJournal};
+   * if false, it tries each piece in copies of the trackers from
+   * {@link SOCPlayerTracker#copyPlayerTrackers(HashMap)}, as in earlier versions. The scores are the same.
+   * @see #setTrialJournal(boolean)
+   * @since 2.0.00
+   */
+  private static volatile boolean trialJournal = true;
+
+  /**
+   * During {@link #smartGameStrategy(int[])}, the score bonuses of possible pieces calculated
+   * in parallel by {@link #scorePiecesInParallel(int[], int)}, or null if they weren't.
+   * @since 2.0.00
+   */
+  private IdentityHashMap<SOCPossiblePiece, Float> parallelScores;
+
+  /**
+   * Undo journal for trying possible pieces in place in {@link #playerTrackers}
+   * when scoring them one at a time, or null until first needed.
+   * @see #getTrialJournal()
+   * @since 2.0.00
+   */
+  private SOCPlayerTrackerJournal trialJournalInPlace;
+
 
   /**
    * constructor
@@ -251,6 +294,64 @@ public class SOCRobotDM
     return possibleCard;
   }
 
+  /**
+   * Set how many threads all robots in this JVM may use to score possible pieces in parallel
+   * when planning with {@link #SMART_STRATEGY}. Each thread tries some of the pieces in its own
+   * copy of the game and player trackers; the plans are the same as when scoring them one at a time.
+   * Useful when there are more CPUs than busy robots.
+   * @param maxThreads  Most threads to use, or 0 or 1 to score pieces one at a time
+   *     on each robot's own thread (the default)
+   * @see #getParallelEvaluation()
+   * @since 2.0.00
+   */
+  public static synchronized void setParallelEvaluation(final int maxThreads)
+  {
+      if (parallelEvalPool != null)
+      {
+          parallelEvalPool.shutdown();
+          parallelEvalPool = null;
+      }
+
+      if (maxThreads > 1)
+          parallelEvalPool = new ForkJoinPool(maxThreads);
+  }
+
+  /**
+   * Set whether all robots in this JVM try possible pieces in place with an undo journal when planning
+   * with {@link #SMART_STRATEGY}, or in copies of the player trackers. Both give the same scores;
+   * trying in place is faster because it doesn't copy every tracker and possible piece for each trial.
+   * @param inPlace  True to try pieces in place (the default), false to copy the trackers
+   * @see #isTrialJournal()
+   * @since 2.0.00
+   */
+  public static void setTrialJournal(final boolean inPlace)
+  {
+      trialJournal = inPlace;
+  }
+
+  /**
+   * Do robots try possible pieces in place with an undo journal, or in copies of the player trackers?
+   * @return  True if tried in place (the default)
+   * @see #setTrialJournal(boolean)
+   * @since 2.0.00
+   */
+  public static boolean isTrialJournal()
+  {
+      return trialJournal;
+  }
+
+  /**
+   * Get the number of threads used to score possible pieces in parallel, if any.
+   * @return  Number of threads, or 0 if pieces are scored one at a time
+   * @see #setParallelEvaluation(int)
+   * @since 2.0.00
+   */
+  public static int getParallelEvaluation()
+  {
+      final ForkJoinPool pool = parallelEvalPool;
+      return (pool != null) ? pool.getParallelism() : 0;
+  }
+
   /**
    * make some building plans.
    * Called as needed by {@link SOCRobotBrain} and related strategy classes.
@@ -1279,6 +1380,9 @@ public class SOCRobotDM
    *<P>
    * For example, if {@link #favoriteSettlement} is chosen,
    * it's chosen from {@link #goodSettlements} or {{@link #threatenedSettlements}.
+   *<P>
+   * If {@link #setParallelEvaluation(int)} was called, the possible pieces we can build now
+   * are scored in parallel by {@link #scorePiecesInParallel(int[], int)}.
    *
    * @param buildingETAs  the etas for building something
    * @see #dumbFastGameStrategy(int[])
@@ -1323,9 +1427,11 @@ public class SOCRobotDM
     */
 
     ///
-    /// score the possible settlements
+    /// score the possible settlements,
+    /// unless scoring in parallel below with the roads and cities
     ///
-    if (ourPlayerData.getNumPieces(SOCPlayingPiece.SETTLEMENT) > 0) {
+    final boolean scoreInParallel = canScorePiecesInParallel();
+    if ((! scoreInParallel) && (ourPlayerData.getNumPieces(SOCPlayingPiece.SETTLEMENT) > 0)) {
       scorePossibleSettlements(buildingETAs[SOCBuildingSpeedEstimate.SETTLEMENT], leadersCurrentWGETA);
     }
 
@@ -1395,6 +1501,18 @@ public class SOCRobotDM
         }
     }
 
+    ///
+    /// if scoring in parallel, score all the pieces we can build now;
+    /// the settlement, road, and city loops use those scores
+    ///
+    if (scoreInParallel)
+    {
+      parallelScores = scorePiecesInParallel(buildingETAs, leadersCurrentWGETA);
+      if (ourPlayerData.getNumPieces(SOCPlayingPiece.SETTLEMENT) > 0) {
+        scorePossibleSettlements(buildingETAs[SOCBuildingSpeedEstimate.SETTLEMENT], leadersCurrentWGETA);
+      }
+    }
+
     /*
     ///
     /// check everything
@@ -1509,8 +1627,14 @@ public class SOCRobotDM
 	// see how building this piece impacts our winETA
 	//
 	threatenedRoad.resetScore();
-	float wgetaScore = getWinGameETABonusForRoad
-	    (threatenedRoad, buildingETAs[SOCBuildingSpeedEstimate.ROAD], leadersCurrentWGETA, playerTrackers);
+	float wgetaScore;
+	if (parallelScores != null) {
+	  wgetaScore = parallelScores.get(threatenedRoad);
+	  threatenedRoad.addToScore(wgetaScore);
+	} else {
+	  wgetaScore = getWinGameETABonusForRoad
+	      (threatenedRoad, buildingETAs[SOCBuildingSpeedEstimate.ROAD], leadersCurrentWGETA, playerTrackers);
+	}
 	if ((brain != null) && (brain.getDRecorder().isOn())) {
 	  brain.getDRecorder().stopRecording();
 	}
@@ -1545,7 +1669,13 @@ public class SOCRobotDM
 	    (goodRoad instanceof SOCPossibleShip)
 	    ? SOCBuildingSpeedEstimate.ROAD
 	    : SOCBuildingSpeedEstimate.SHIP;
-	float wgetaScore = getWinGameETABonusForRoad(goodRoad, buildingETAs[etype], leadersCurrentWGETA, playerTrackers);
+	float wgetaScore;
+	if (parallelScores != null) {
+	  wgetaScore = parallelScores.get(goodRoad);
+	  goodRoad.addToScore(wgetaScore);
+	} else {
+	  wgetaScore = getWinGameETABonusForRoad(goodRoad, buildingETAs[etype], leadersCurrentWGETA, playerTrackers);
+	}
 	if ((brain != null) && (brain.getDRecorder().isOn())) {
 	  brain.getDRecorder().stopRecording();
 	}
@@ -1575,7 +1705,11 @@ public class SOCRobotDM
     ///
     if (ourPlayerData.getNumPieces(SOCPlayingPiece.CITY) > 0)
     {
-      HashMap<Integer, SOCPlayerTracker> trackersCopy = SOCPlayerTracker.copyPlayerTrackers(playerTrackers);
+      // try each city in one copy of the player trackers, or in place in them with the undo journal
+      final SOCPlayerTrackerJournal journal = (parallelScores == null) ? getTrialJournal() : null;
+      HashMap<Integer, SOCPlayerTracker> trackersCopy = ((parallelScores != null) || (journal != null))
+          ? playerTrackers
+          : SOCPlayerTracker.copyPlayerTrackers(playerTrackers);
       SOCPlayerTracker ourTrackerCopy = trackersCopy.get(Integer.valueOf(ourPlayerNumber));
       int originalWGETAs[] = new int[game.maxPlayers];
       int WGETAdiffs[] = new int[game.maxPlayers];
@@ -1583,10 +1717,27 @@ public class SOCRobotDM
       int bestWGETA = 1000;
       // int bonus = 0;
 
-      Iterator<SOCPossibleCity> posCitiesIter = ourPlayerTracker.getPossibleCities().values().iterator();
+      // iterate over a copy, since trying a city in place removes it from ourPlayerTracker until the undo
+      Iterator<SOCPossibleCity> posCitiesIter =
+          new Vector<SOCPossibleCity>(ourPlayerTracker.getPossibleCities().values()).iterator();
       while (posCitiesIter.hasNext())
       {
 	SOCPossibleCity posCity = posCitiesIter.next();
+	if (parallelScores != null) {
+	  // Already scored. Place and remove the city anyway, since that changes
+	  // the players' longest road paths the same way trying it here would
+	  SOCCity tmpCity = new SOCCity(ourPlayerData, posCity.getCoordinates(), null);
+	  game.putTempPiece(tmpCity);
+	  game.undoPutTempPiece(tmpCity);
+
+	  posCity.addToScore(parallelScores.get(posCity));
+	  if ((favoriteCity == null) ||
+	      (posCity.getScore() > favoriteCity.getScore())) {
+	    favoriteCity = posCity;
+	  }
+	  continue;
+	}
+
 	if ((brain != null) && (brain.getDRecorder().isOn())) {
 	  brain.getDRecorder().startRecording("CITY"+posCity.getCoordinates());
 	  brain.getDRecorder().record("Estimate value of city at "
@@ -1597,6 +1748,9 @@ public class SOCRobotDM
 	// see how building this piece impacts our winETA
 	//
 	leaders.clear();
+	if (journal != null) {
+	  journal.begin(trackersCopy);  // rollback will restore their win game ETAs
+	}
 	if ((brain != null) && (brain.getDRecorder().isOn())) {
 	  brain.getDRecorder().suspend();
 	}
@@ -1639,8 +1793,12 @@ public class SOCRobotDM
 	//
 	// remove the city
 	//
-	ourTrackerCopy.undoAddOurNewCity(posCity);
-	game.undoPutTempPiece(tmpCity);
+	if (journal != null) {
+	  SOCPlayerTracker.undoTryPutPieceInPlace(tmpCity, game, journal);
+	} else {
+	  ourTrackerCopy.undoAddOurNewCity(posCity);
+	  game.undoPutTempPiece(tmpCity);
+	}
 
 	D.ebugPrintln("*** ETA for city = "+buildingETAs[SOCBuildingSpeedEstimate.CITY]);
 	if ((brain != null) && (brain.getDRecorder().isOn())) {
@@ -1670,6 +1828,8 @@ public class SOCRobotDM
       }
     }
 
+    parallelScores = null;  // all pieces have their scores now
+
     if (favoriteSettlement != null) {
       D.ebugPrintln("### FAVORITE SETTLEMENT IS AT "+Integer.toHexString(favoriteSettlement.getCoordinates()));
       D.ebugPrintln("###   WITH A SCORE OF "+favoriteSettlement.getScore());
@@ -1930,7 +2090,9 @@ public class SOCRobotDM
     }
     */
 
-    Iterator<SOCPossibleSettlement> posSetsIter = ourPlayerTracker.getPossibleSettlements().values().iterator();
+    // iterate over a copy, since trying a settlement in place removes possible settlements until the undo
+    Iterator<SOCPossibleSettlement> posSetsIter =
+        new Vector<SOCPossibleSettlement>(ourPlayerTracker.getPossibleSettlements().values()).iterator();
     while (posSetsIter.hasNext())
     {
       SOCPossibleSettlement posSet = posSetsIter.next();
@@ -1948,6 +2110,11 @@ public class SOCRobotDM
       if (necRoadVec.isEmpty())
       {
 	D.ebugPrintln("*** no roads needed");
+	if (parallelScores != null) {
+	  posSet.addToScore(parallelScores.get(posSet));  // from scorePiecesInParallel
+	  continue;
+	}
+
 	//
 	//  no roads needed
 	//
@@ -1961,9 +2128,7 @@ public class SOCRobotDM
 	  brain.getDRecorder().record("Estimate value of settlement at "+board.nodeCoordToString(posSet.getCoordinates()));
 	}
 
-	HashMap<Integer, SOCPlayerTracker> trackersCopy = SOCPlayerTracker.tryPutPiece(tmpSet, game, playerTrackers);
-	SOCPlayerTracker.updateWinGameETAs(trackersCopy);
-	float wgetaScore = calcWGETABonus(playerTrackers, trackersCopy);
+	float wgetaScore = tryPieceWGETABonus(tmpSet, game, playerTrackers, getTrialJournal());
 	D.ebugPrintln("***  wgetaScore = "+wgetaScore);
 
 	D.ebugPrintln("*** ETA for settlement = "+settlementETA);
@@ -1982,8 +2147,6 @@ public class SOCRobotDM
 	  brain.getDRecorder().record("Total settlement score = "+df1.format(etaBonus));
 	  brain.getDRecorder().stopRecording();
 	}
-
-	SOCPlayerTracker.undoTryPutPiece(tmpSet, game);
       }
     }
   }
@@ -2093,7 +2256,6 @@ public class SOCRobotDM
     D.ebugPrintln("ourCurrentWGETA = "+ourCurrentWGETA);
 
 
-    HashMap<Integer, SOCPlayerTracker> trackersCopy = null;
     SOCRoad tmpRoad1 = null;
 
     D.ebugPrintln("--- before [start] ---");
@@ -2110,9 +2272,7 @@ public class SOCRobotDM
       D.ebugPrintln("crap in getWinGameETABonusForRoad - "+e);
     }
     tmpRoad1 = new SOCRoad(ourPlayerData, posRoad.getCoordinates(), null);
-    trackersCopy = SOCPlayerTracker.tryPutPiece(tmpRoad1, game, playerTrackers);
-    SOCPlayerTracker.updateWinGameETAs(trackersCopy);
-    float score = calcWGETABonus(playerTrackers, trackersCopy);
+    float score = tryPieceWGETABonus(tmpRoad1, game, playerTrackers, getTrialJournal());
 
     if (!posRoad.getThreats().isEmpty()) {
       score *= threatMultiplier;
@@ -2131,7 +2291,6 @@ public class SOCRobotDM
     }
 
     D.ebugPrintln("--- after [end] ---");
-    SOCPlayerTracker.undoTryPutPiece(tmpRoad1, game);
     ourPlayerData.getResources().clear();
     ourPlayerData.getResources().add(originalResources);
     D.ebugPrintln("--- cleanup done ---");
@@ -2139,6 +2298,537 @@ public class SOCRobotDM
     return etaBonus;
   }
 
+  /**
+   * Get the undo journal for trying possible pieces in place in {@link #playerTrackers}
+   * when scoring them one at a time, if robots {@link #isTrialJournal() try pieces in place}.
+   * If an exception interrupted a trial, rolls back what it left in the trackers.
+   * @return  The journal, created if needed, or null if pieces are tried in copies of the trackers
+   * @since 2.0.00
+   */
+  private SOCPlayerTrackerJournal getTrialJournal()
+  {
+      if (! trialJournal)
+          return null;
+
+      if (trialJournalInPlace == null)
+          trialJournalInPlace = new SOCPlayerTrackerJournal();
+      else if (trialJournalInPlace.isActive())
+          trialJournalInPlace.rollback();
+
+      return trialJournalInPlace;
+  }
+
+  /**
+   * Try a piece in a game and its player trackers to calculate its win game ETA bonus
+   * like {@link #calcWGETABonus(HashMap, HashMap)}, then remove it.
+   * The piece is tried in copies of the trackers from {@link SOCPlayerTracker#tryPutPiece(SOCPlayingPiece, SOCGame, HashMap)},
+   * or in place in them if {@code journal != null}.
+   * Like {@link SOCGame#undoPutTempPiece(SOCPlayingPiece)}, doesn't restore the players' longest road paths.
+   *
+   * @param piece  the temporary piece to try
+   * @param ga  the game: {@link #game}, or a copy being scored by {@link #scorePiecesInParallel(int[], int)}
+   * @param trackers  the player trackers of {@code ga}'s players
+   * @param journal  the undo journal for trying the piece in place, or null to try it in copies of the trackers
+   * @return  the bonus
+   * @since 2.0.00
+   */
+  private float tryPieceWGETABonus
+      (final SOCPlayingPiece piece, final SOCGame ga, final HashMap<Integer, SOCPlayerTracker> trackers,
+       final SOCPlayerTrackerJournal journal)
+  {
+    if (journal == null)
+    {
+      HashMap<Integer, SOCPlayerTracker> trackersCopy = SOCPlayerTracker.tryPutPiece(piece, ga, trackers);
+      SOCPlayerTracker.updateWinGameETAs(trackersCopy);
+      float bonus = calcWGETABonus(trackers, trackersCopy);
+      SOCPlayerTracker.undoTryPutPiece(piece, ga);
+
+      return bonus;
+    }
+
+    int originalWGETAs[] = new int[ga.maxPlayers];
+    Vector<SOCPlayerTracker> leaders = getWGETALeaders(trackers, originalWGETAs);
+    SOCPlayerTracker.tryPutPieceInPlace(piece, ga, trackers, journal);
+    SOCPlayerTracker.updateWinGameETAs(trackers);
+    float bonus = calcWGETABonusAux(originalWGETAs, trackers, leaders);
+    SOCPlayerTracker.undoTryPutPieceInPlace(piece, ga, journal);
+
+    return bonus;
+  }
+
+  /**
+   * Will {@link #smartGameStrategy(int[])} score the possible pieces we can build now
+   * with {@link #scorePiecesInParallel(int[], int)}? True if {@link #setParallelEvaluation(int)}
+   * has set up a thread pool, unless our brain's {@link SOCRobotBrain#getDRecorder() debug recorder} is on,
+   * since it records each piece's scoring in order, or this is a subclass, which may override the scoring methods.
+   * @return  True if pieces will be scored in parallel
+   * @since 2.0.00
+   */
+  private boolean canScorePiecesInParallel()
+  {
+      return (parallelEvalPool != null) && (getClass() == SOCRobotDM.class)
+          && ((brain == null) || ! brain.getDRecorder().isOn());
+  }
+
+  /**
+   * If {@link #canScorePiecesInParallel()}, calculate the score bonuses of the possible pieces
+   * we can build now, in parallel, for {@link #smartGameStrategy(int[])} to use instead of scoring them
+   * one at a time: Settlements from our {@link #ourPlayerTracker}, {@link #threatenedRoads},
+   * {@link #goodRoads}, and cities.
+   *<P>
+   * The pieces, in the same order that {@code smartGameStrategy} scores them, are split among
+   * fork/join tasks on the shared pool. Each task scores its pieces in order with a {@link PieceScorer}
+   * in its own copy of {@link #game} and the {@link #playerTrackers}, which aren't changed.
+   * The scores are the same as when scoring one at a time; see {@link ScorePiecesTask}.
+   *
+   * @param buildingETAs  the etas for building something
+   * @param leadersCurrentWGETA  the leaders current WGETA
+   * @return  Each possible piece's score bonus, or null if not calculated in parallel
+   * @since 2.0.00
+   */
+  private IdentityHashMap<SOCPossiblePiece, Float> scorePiecesInParallel
+      (final int[] buildingETAs, final int leadersCurrentWGETA)
+  {
+      final ForkJoinPool pool = parallelEvalPool;
+      final boolean inPlace = trialJournal;
+      if ((pool == null) || ! canScorePiecesInParallel())
+          return null;
+
+      //
+      // gather the pieces and each one's ETA, in the order smartGameStrategy scores them
+      //
+      final Vector<SOCPossiblePiece> pieces = new Vector<SOCPossiblePiece>();
+      final Vector<Integer> etas = new Vector<Integer>();
+      if (ourPlayerData.getNumPieces(SOCPlayingPiece.SETTLEMENT) > 0)
+      {
+          for (SOCPossibleSettlement posSet : ourPlayerTracker.getPossibleSettlements().values())
+          {
+              if (posSet.getNecessaryRoads().isEmpty())
+              {
+                  pieces.addElement(posSet);
+                  etas.addElement(Integer.valueOf(buildingETAs[SOCBuildingSpeedEstimate.SETTLEMENT]));
+              }
+          }
+      }
+      final int firstRoad = pieces.size();
+      if (ourPlayerData.getNumPieces(SOCPlayingPiece.ROAD) > 0)
+      {
+          for (SOCPossibleRoad threatenedRoad : threatenedRoads)
+          {
+              pieces.addElement(threatenedRoad);
+              etas.addElement(Integer.valueOf(buildingETAs[SOCBuildingSpeedEstimate.ROAD]));
+          }
+          for (SOCPossibleRoad goodRoad : goodRoads)
+          {
+              // same ETA type as the goodRoads loop in smartGameStrategy
+              final int etype =
+                  (goodRoad instanceof SOCPossibleShip)
+                  ? SOCBuildingSpeedEstimate.ROAD
+                  : SOCBuildingSpeedEstimate.SHIP;
+              pieces.addElement(goodRoad);
+              etas.addElement(Integer.valueOf(buildingETAs[etype]));
+          }
+      }
+      final int firstCity = pieces.size();
+      if (ourPlayerData.getNumPieces(SOCPlayingPiece.CITY) > 0)
+      {
+          for (SOCPossibleCity posCity : ourPlayerTracker.getPossibleCities().values())
+          {
+              pieces.addElement(posCity);
+              etas.addElement(Integer.valueOf(buildingETAs[SOCBuildingSpeedEstimate.CITY]));
+          }
+      }
+
+      final int n = pieces.size();
+      if (n < 2)
+          return null;  // nothing to gain
+
+      //
+      // serialize the game and player trackers once, in the same stream so the trackers' players
+      // are the copied game's; each task deserializes its own copy of both
+      //
+      final byte[] gameData;
+      try
+      {
+          ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+          ObjectOutputStream oos = new ObjectOutputStream(bytes);
+          oos.writeObject(game);
+          oos.writeObject(playerTrackers);
+          oos.close();
+          gameData = bytes.toByteArray();
+      }
+      catch (IOException e)
+      {
+          System.err.println("SOCRobotDM: Can't copy game " + game.getName() + " to score pieces in parallel: " + e);
+          return null;
+      }
+
+      final SOCPossiblePiece[] pieceArr = pieces.toArray(new SOCPossiblePiece[n]);
+      final int[] etaArr = new int[n];
+      for (int i = 0; i < n; ++i)
+          etaArr[i] = etas.elementAt(i).intValue();
+      final float[] scores = new float[n];
+      final int nThreads = pool.getParallelism();
+      try
+      {
+          pool.invoke(new ScorePiecesTask
+              (gameData, inPlace, pieceArr, etaArr, firstRoad, firstCity, leadersCurrentWGETA, scores,
+               0, n, (n + nThreads - 1) / nThreads));
+      }
+      catch (RejectedExecutionException e)
+      {
+          return null;  // pool was shut down by setParallelEvaluation
+      }
+
+      final IdentityHashMap<SOCPossiblePiece, Float> pieceScores = new IdentityHashMap<SOCPossiblePiece, Float>();
+      for (int i = 0; i < n; ++i)
+          pieceScores.put(pieceArr[i], Float.valueOf(scores[i]));
+
+      return pieceScores;
+  }
+
+  /**
+   * Calculates the score bonuses of possible pieces in a parallel task's copy of {@link #game}
+   * and {@link #playerTrackers}, for {@link #scorePiecesInParallel(int[], int)}.
+   * Each piece is tried the same way {@link #smartGameStrategy(int[])} tries it when scoring one at a time:
+   * {@link #scoreSettlement(SOCPossibleSettlement, int, int)} is like {@link SOCRobotDM#scorePossibleSettlements(int, int)},
+   * {@link #scoreRoad(SOCPossibleRoad, int, int)} like {@link SOCRobotDM#getWinGameETABonusForRoad(SOCPossibleRoad, int, int, HashMap)},
+   * and {@link #scoreCity(SOCPossibleCity, int, int)} like smartGameStrategy's city loop.
+   * The debug recorder is off when scoring in parallel, so nothing is recorded.
+   * Not thread-safe; each task uses its own scorer.
+   * @since 2.0.00
+   */
+  private final class PieceScorer
+  {
+      /** Copy of the game in which to try pieces */
+      private final SOCGame ga;
+
+      /** Our player in {@link #ga} */
+      private final SOCPlayer pl;
+
+      /** Copy of the player trackers, which track {@link #ga}'s players */
+      private final HashMap<Integer, SOCPlayerTracker> trackers;
+
+      /**
+       * Journal for trying each piece in place in {@link #trackers},
+       * or null if each piece is tried in copies of them
+       */
+      private final SOCPlayerTrackerJournal journal;
+
+      /**
+       * The trackers used by {@link #scoreCity(SOCPossibleCity, int, int)} for all cities:
+       * {@link #trackers} if trying in place, otherwise a copy of them, or null until the first city is scored
+       */
+      private HashMap<Integer, SOCPlayerTracker> cityTrackers;
+
+      /** Our tracker in {@link #cityTrackers} */
+      private SOCPlayerTracker ourCityTracker;
+
+      /** Players' win game ETAs before trying each city; same indexes as player numbers */
+      private final int[] cityOriginalWGETAs;
+
+      /** Best of {@link #cityOriginalWGETAs} so far; lower is better. Not reset between cities. */
+      private int cityBestWGETA = 1000;
+
+      /**
+       * Create a scorer for a copy of the game.
+       * @param ga  Copy of the game in which to try pieces
+       * @param trackers  Copy of the player trackers, which track {@code ga}'s players.
+       *     If {@code inPlace}, each piece is tried in them and rolled back.
+       * @param inPlace  True to try each piece in place with an undo journal, false to try it in copies of
+       *     {@code trackers}; usually {@link SOCRobotDM#isTrialJournal()}
+       */
+      PieceScorer
+          (final SOCGame ga, final HashMap<Integer, SOCPlayerTracker> trackers, final boolean inPlace)
+      {
+          this.ga = ga;
+          this.trackers = trackers;
+          pl = ga.getPlayer(ourPlayerNumber);
+          journal = (inPlace) ? new SOCPlayerTrackerJournal() : null;
+          cityOriginalWGETAs = new int[ga.maxPlayers];
+      }
+
+      /**
+       * Calculate a possible settlement's, road's, ship's, or city's score bonus.
+       * @param pp  Possible piece to score
+       * @param eta  ETA for building this type of piece
+       * @param leadersCurrentWGETA  the leaders current WGETA
+       * @return  The score bonus
+       * @throws IllegalArgumentException if {@code pp}'s type is {@link SOCPossiblePiece#CARD}
+       */
+      float score(final SOCPossiblePiece pp, final int eta, final int leadersCurrentWGETA)
+          throws IllegalArgumentException
+      {
+          switch (pp.getType())
+          {
+          case SOCPossiblePiece.SETTLEMENT:
+              return scoreSettlement((SOCPossibleSettlement) pp, eta, leadersCurrentWGETA);
+
+          case SOCPossiblePiece.SHIP:  // fall through to ROAD
+          case SOCPossiblePiece.ROAD:
+              return scoreRoad((SOCPossibleRoad) pp, eta, leadersCurrentWGETA);
+
+          case SOCPossiblePiece.CITY:
+              return scoreCity((SOCPossibleCity) pp, eta, leadersCurrentWGETA);
+
+          default:
+              throw new IllegalArgumentException("type: " + pp.getType());
+          }
+      }
+
+      /**
+       * Place and remove the same temporary piece that {@link #score(SOCPossiblePiece, int, int)} would try,
+       * without scoring it. Like a trial, this leaves the players' longest road paths changed.
+       * @param pp  Possible settlement, road, ship, or city
+       */
+      void placeAndRemove(final SOCPossiblePiece pp)
+      {
+          final SOCPlayingPiece tmpPiece;
+          switch (pp.getType())
+          {
+          case SOCPossiblePiece.SETTLEMENT:
+              tmpPiece = new SOCSettlement(pl, pp.getCoordinates(), ga.getBoard());
+              break;
+
+          case SOCPossiblePiece.CITY:
+              tmpPiece = new SOCCity(pl, pp.getCoordinates(), null);
+              break;
+
+          default:
+              tmpPiece = new SOCRoad(pl, pp.getCoordinates(), null);  // also for ships, like scoreRoad
+          }
+
+          ga.putTempPiece(tmpPiece);
+          ga.undoPutTempPiece(tmpPiece);
+      }
+
+      /**
+       * Calculate a possible settlement's score bonus.
+       * @param posSet  Possible settlement, which needs no more roads
+       * @param settlementETA  the eta for a settlement
+       * @param leadersCurrentWGETA  the leaders current WGETA
+       * @return  The score bonus
+       */
+      float scoreSettlement(final SOCPossibleSettlement posSet, final int settlementETA, final int leadersCurrentWGETA)
+      {
+          SOCSettlement tmpSet = new SOCSettlement(pl, posSet.getCoordinates(), ga.getBoard());
+          float wgetaScore = tryPieceWGETABonus(tmpSet, ga, trackers, journal);
+
+          return getETABonus(settlementETA, leadersCurrentWGETA, wgetaScore);
+      }
+
+      /**
+       * Calculate a possible road's or ship's score bonus.
+       * Our player's resources are changed during the calculation, then restored.
+       * @param posRoad  Possible road or ship, which needs no more roads
+       * @param roadETA  the eta for the road
+       * @param leadersCurrentWGETA  the leaders current WGETA
+       * @return  The score bonus
+       */
+      float scoreRoad(final SOCPossibleRoad posRoad, final int roadETA, final int leadersCurrentWGETA)
+      {
+          SOCResourceSet originalResources = pl.getResources().copy();
+          SOCBuildingSpeedEstimate estimate = new SOCBuildingSpeedEstimate(pl.getNumbers());
+          try
+          {
+              SOCResSetBuildTimePair btp = estimate.calculateRollsAndRsrcFast
+                  (pl.getResources(), SOCGame.ROAD_SET, 50, pl.getPortFlags());
+              btp.getResources().subtract(SOCGame.ROAD_SET);
+              pl.getResources().setAmounts(btp.getResources());
+          } catch (CutoffExceededException e) {
+              D.ebugPrintln("crap in getWinGameETABonusForRoad - "+e);
+          }
+          SOCRoad tmpRoad1 = new SOCRoad(pl, posRoad.getCoordinates(), null);
+          float score = tryPieceWGETABonus(tmpRoad1, ga, trackers, journal);
+
+          if (! posRoad.getThreats().isEmpty())
+              score *= threatMultiplier;
+          float etaBonus = getETABonus(roadETA, leadersCurrentWGETA, score);
+
+          pl.getResources().clear();
+          pl.getResources().add(originalResources);
+
+          return etaBonus;
+      }
+
+      /**
+       * Calculate a possible city's score bonus.
+       * Each city's "before" win game ETAs are recalculated in the trial before placing it.
+       * The best of those so far is kept from city to city.
+       * When trying pieces in copies of the player trackers, all cities are tried in the same copy.
+       * @param posCity  Possible city, from {@link SOCRobotDM#ourPlayerTracker}
+       * @param cityETA  the eta for a city
+       * @param leadersCurrentWGETA  the leaders current WGETA
+       * @return  The score bonus
+       */
+      float scoreCity(final SOCPossibleCity posCity, final int cityETA, final int leadersCurrentWGETA)
+      {
+          if (cityTrackers == null)
+          {
+              cityTrackers = (journal != null) ? trackers : SOCPlayerTracker.copyPlayerTrackers(trackers);
+              ourCityTracker = cityTrackers.get(Integer.valueOf(ourPlayerNumber));
+          }
+
+          Vector<SOCPlayerTracker> cityLeaders = new Vector<SOCPlayerTracker>();
+          if (journal != null)
+              journal.begin(cityTrackers);
+          SOCPlayerTracker.updateWinGameETAs(cityTrackers);
+          for (SOCPlayerTracker trackerBefore : cityTrackers.values())
+          {
+              final int pn = trackerBefore.getPlayer().getPlayerNumber();
+              cityOriginalWGETAs[pn] = trackerBefore.getWinGameETA();
+              if (trackerBefore.getWinGameETA() < cityBestWGETA)
+              {
+                  cityBestWGETA = trackerBefore.getWinGameETA();
+                  cityLeaders.removeAllElements();
+                  cityLeaders.addElement(trackerBefore);
+              } else if (trackerBefore.getWinGameETA() == cityBestWGETA) {
+                  cityLeaders.addElement(trackerBefore);
+              }
+          }
+
+          SOCCity tmpCity = new SOCCity(pl, posCity.getCoordinates(), null);
+          ga.putTempPiece(tmpCity);
+          ourCityTracker.addOurNewCity(tmpCity);
+          SOCPlayerTracker.updateWinGameETAs(cityTrackers);
+
+          float wgetaScore = calcWGETABonusAux(cityOriginalWGETAs, cityTrackers, cityLeaders);
+
+          if (journal != null)
+          {
+              SOCPlayerTracker.undoTryPutPieceInPlace(tmpCity, ga, journal);
+          } else {
+              // like smartGameStrategy, which puts back ourPlayerTracker's possible city:
+              // that's posCity's copy in trackers
+              ourCityTracker.undoAddOurNewCity
+                  (trackers.get(Integer.valueOf(ourPlayerNumber)).getPossibleCities().get(Integer.valueOf(posCity.getCoordinates())));
+              ga.undoPutTempPiece(tmpCity);
+          }
+
+          return getETABonus(cityETA, leadersCurrentWGETA, wgetaScore);
+      }
+  }
+
+  /**
+   * Fork/join task to score a range of possible pieces for {@link SOCRobotDM#scorePiecesInParallel(int[], int)}.
+   * Splits its range in half until it's no larger than the chunk size, then scores those pieces in order
+   * with a {@link PieceScorer} on its own copy of the game and player trackers.
+   *<P>
+   * When scoring one at a time, each trial leaves the players' longest road paths changed,
+   * and {@link SOCRobotDM#smartGameStrategy(int[])} restores them before the roads and again before the cities.
+   * So that its first piece is scored with the same paths, a task does the same before each earlier piece,
+   * placing and removing it.
+   * @since 2.0.00
+   */
+  private final class ScorePiecesTask extends RecursiveAction
+  {
+      private static final long serialVersionUID = 2000L;
+
+      /** Serialized {@link SOCRobotDM#game} and then {@link SOCRobotDM#playerTrackers}, to deserialize copies from */
+      private final byte[] gameData;
+
+      /**
+       * True to try pieces in place in the trackers from {@link #gameData}, false to try them in copies;
+       * see {@link SOCRobotDM#setTrialJournal(boolean)}
+       */
+      private final boolean inPlace;
+
+      /** All the pieces to score, and each one's building ETA */
+      private final SOCPossiblePiece[] pieces;
+      private final int[] etas;
+
+      /** Index of the first road or ship in {@link #pieces}; settlements are before it */
+      private final int firstRoad;
+
+      /**
+       * Index of the first city in {@link #pieces}; cities are last. The cities are all scored by one task,
+       * because {@link PieceScorer#scoreCity(SOCPossibleCity, int, int)} scores each city in the
+       * player trackers as left by the previous ones, like {@link SOCRobotDM#smartGameStrategy(int[])}.
+       */
+      private final int firstCity;
+
+      private final int leadersCurrentWGETA;
+
+      /** Scores calculated by all tasks; same indexes as {@link #pieces} */
+      private final float[] scores;
+
+      /** This task's range of {@link #pieces}: from inclusive, to exclusive */
+      private final int from, to;
+
+      /** Most pieces to score in one task */
+      private final int chunkSize;
+
+      ScorePiecesTask
+          (final byte[] gameData, final boolean inPlace, final SOCPossiblePiece[] pieces, final int[] etas,
+           final int firstRoad, final int firstCity, final int leadersCurrentWGETA, final float[] scores,
+           final int from, final int to, final int chunkSize)
+      {
+          this.gameData = gameData;
+          this.inPlace = inPlace;
+          this.pieces = pieces;
+          this.etas = etas;
+          this.firstRoad = firstRoad;
+          this.firstCity = firstCity;
+          this.leadersCurrentWGETA = leadersCurrentWGETA;
+          this.scores = scores;
+          this.from = from;
+          this.to = to;
+          this.chunkSize = chunkSize;
+      }
+
+      protected void compute()
+      {
+          if ((from < firstCity) && ((to - from > chunkSize) || (to > firstCity)))
+          {
+              // Split, keeping the cities together
+              int mid = (from + to) >>> 1;
+              if ((mid > firstCity) || ((to > firstCity) && (to - from <= chunkSize)))
+                  mid = firstCity;
+              invokeAll
+                  (new ScorePiecesTask
+                      (gameData, inPlace, pieces, etas, firstRoad, firstCity, leadersCurrentWGETA, scores,
+                       from, mid, chunkSize),
+                   new ScorePiecesTask
+                      (gameData, inPlace, pieces, etas, firstRoad, firstCity, leadersCurrentWGETA, scores,
+                       mid, to, chunkSize));
+              return;
+          }
+
+          final SOCGame gaCopy;
+          final HashMap<Integer, SOCPlayerTracker> trackersCopy;
+          try
+          {
+              ObjectInputStream ois = new ObjectInputStream(new ByteArrayInputStream(gameData));
+              gaCopy = (SOCGame) ois.readObject();
+              @SuppressWarnings("unchecked")
+              HashMap<Integer, SOCPlayerTracker> trs = (HashMap<Integer, SOCPlayerTracker>) ois.readObject();
+              trackersCopy = trs;
+          }
+          catch (Exception e)
+          {
+              throw new IllegalStateException("Can't copy game " + game.getName(), e);
+          }
+
+          // each player's paths as saved by smartGameStrategy, to restore like it does
+          final ArrayList<Vector<SOCLRPathData>> savedLRPaths = new ArrayList<Vector<SOCLRPathData>>();
+          for (int pn = 0; pn < gaCopy.maxPlayers; pn++)
+              savedLRPaths.add(new Vector<SOCLRPathData>(gaCopy.getPlayer(pn).getLRPaths()));
+
+          final PieceScorer scorer = new PieceScorer(gaCopy, trackersCopy, inPlace);
+          for (int i = 0; i < to; ++i)
+          {
+              if ((i == firstRoad) || (i == firstCity))
+                  for (int pn = 0; pn < gaCopy.maxPlayers; pn++)
+                      gaCopy.getPlayer(pn).setLRPaths(savedLRPaths.get(pn));
+
+              if (i < from)
+                  scorer.placeAndRemove(pieces[i]);
+              else
+                  scores[i] = scorer.score(pieces[i], etas[i], leadersCurrentWGETA);
+          }
+      }
+  }
+
   /**
    * Calc the win game ETA bonus for a move, based on {@link SOCPlayerTracker#getWinGameETA()}.
    * The bonus is based on lowering your bot's WGETA and increasing the leaders' WGETA.
@@ -2153,10 +2843,35 @@ public class SOCRobotDM
   {
     D.ebugPrintln("^^^^^ calcWGETABonus");
     int originalWGETAs[] = new int[game.maxPlayers];
-    int WGETAdiffs[] = new int[game.maxPlayers];
+    float bonus = 0;
+
+    Vector<SOCPlayerTracker> leaders = getWGETALeaders(trackersBefore, originalWGETAs);
+
+    bonus = calcWGETABonusAux(originalWGETAs, trackersAfter, leaders);
+
+    D.ebugPrintln("^^^^ final bonus = "+bonus);
+
+    return bonus;
+  }
+
+  /**
+   * Get each player's current win game ETA, and the leaders (players winning soonest),
+   * to calculate the bonus for a move with {@link #calcWGETABonusAux(int[], HashMap, Vector)}.
+   * Split out from {@link #calcWGETABonus(HashMap, HashMap)} so a move can be tried in place
+   * in the same player trackers, after getting their ETAs from before the move.
+   *
+   * @param  trackersBefore  list of player trackers before move
+   * @param  originalWGETAs  array to fill with each player's {@link SOCPlayerTracker#getWinGameETA()};
+   *           same indexes as player numbers
+   * @return the leaders: the player(s) with lowest {@link SOCPlayerTracker#getWinGameETA()}.
+   *           Contains only one element, unless there is an ETA tie.
+   * @since 2.0.00
+   */
+  private Vector<SOCPlayerTracker> getWGETALeaders
+      (HashMap<Integer, SOCPlayerTracker> trackersBefore, final int[] originalWGETAs)
+  {
     Vector<SOCPlayerTracker> leaders = new Vector<SOCPlayerTracker>();  // Players winning soonest, based on ETA
     int bestWGETA = 1000;  // Lower is better
-    float bonus = 0;
 
     Iterator<SOCPlayerTracker> trackersBeforeIter = trackersBefore.values().iterator();
     while (trackersBeforeIter.hasNext())
@@ -2165,7 +2880,6 @@ public class SOCRobotDM
       final int pn = trackerBefore.getPlayer().getPlayerNumber();
       D.ebugPrintln("$$$ win game ETA for player " + pn + " = " + trackerBefore.getWinGameETA());
       originalWGETAs[pn] = trackerBefore.getWinGameETA();
-      WGETAdiffs[pn] = trackerBefore.getWinGameETA();
 
       if (trackerBefore.getWinGameETA() < bestWGETA) {
 	bestWGETA = trackerBefore.getWinGameETA();
@@ -2178,11 +2892,7 @@ public class SOCRobotDM
 
     D.ebugPrintln("^^^^ bestWGETA = "+bestWGETA);
 
-    bonus = calcWGETABonusAux(originalWGETAs, trackersAfter, leaders);
-
-    D.ebugPrintln("^^^^ final bonus = "+bonus);
-
-    return bonus;
+    return leaders;
   }
 
   /**
@@ -29,6 +29,7 @@ import soc.game.SOCPlayer;
 import soc.game.SOCResourceConstants;
 import soc.game.SOCResourceSet;
 import soc.game.SOCTradeOffer;
+import soc.util.SOCRobotParameters;
 
 import java.util.Collection;
 import java.util.HashMap;
@@ -105,6 +106,44 @@ public class SOCRobotNegotiator
         resetTargetPieces();
     }
 
+    /**
+     * Constructor to use if you don't want to use a brain, such as in {@link SOCRobotSimulator}.
+     * Only bank and port trades ({@link #getOfferToBank(SOCResourceSet, SOCResourceSet)})
+     * and target pieces can be used; offers to other players need a brain.
+     *
+     * @param params  the robot parameters
+     * @param pt   the player trackers
+     * @param opt  our player tracker
+     * @param dm   our player's decision maker
+     * @param bp   our player's building plan
+     * @since 2.0.00
+     */
+    public SOCRobotNegotiator
+        (SOCRobotParameters params, HashMap<Integer, SOCPlayerTracker> pt, SOCPlayerTracker opt,
+         SOCRobotDM dm, Stack<SOCPossiblePiece> bp)
+    {
+        brain = null;
+        strategyType = params.getStrategyType();
+        playerTrackers = pt;
+        ourPlayerTracker = opt;
+        ourPlayerData = opt.getPlayer();
+        ourPlayerNumber = ourPlayerData.getPlayerNumber();
+        buildingPlan = bp;
+        decisionMaker = dm;
+        game = ourPlayerData.getGame();
+
+        isSellingResource = new boolean[game.maxPlayers][SOCResourceConstants.MAXPLUSONE];
+        resetIsSelling();
+
+        wantsAnotherOffer = new boolean[game.maxPlayers][SOCResourceConstants.MAXPLUSONE];
+        resetWantsAnotherOffer();
+
+        offersMade = new Vector<SOCTradeOffer>();
+
+        targetPieces = new SOCPossiblePiece[game.maxPlayers];
+        resetTargetPieces();
+    }
+
     /**
      * reset target pieces for all players
      */
@@ -2281,7 +2320,9 @@ public class SOCRobotNegotiator
             return bankTrade;
         }
 
-        SOCBuildingSpeedEstimate estimate = new SOCBuildingSpeedEstimate(ourPlayerData.getNumbers());
+        // Only rollsPerResource is needed here, not the per-roll resource sets
+        SOCBuildingSpeedEstimate estimate = new SOCBuildingSpeedEstimate();
+        estimate.recalculateRollsPerResource(ourPlayerData.getNumbers(), -1);
         int[] rollsPerResource = estimate.getRollsPerResource();
         boolean[] ports = ourPlayerData.getPortFlags();
 
@@ -0,0 +1,957 @@
+/**
+ * Java Settlers - An online multiplayer version of the game Settlers of Catan
+ * This file Copyright (C) 2026 agent <agent@local>
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * The maintainer of this program can be reached at jsettlers@nand.net
+ **/
+package soc.robot;
+
+import java.util.HashMap;
+import java.util.Random;
+import java.util.Stack;
+import java.util.Vector;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+import soc.game.SOCBoard;
+import soc.game.SOCCity;
+import soc.game.SOCDevCardConstants;
+import soc.game.SOCGame;
+import soc.game.SOCInventory;
+import soc.game.SOCPlayer;
+import soc.game.SOCPlayingPiece;
+import soc.game.SOCResourceConstants;
+import soc.game.SOCResourceSet;
+import soc.game.SOCRoad;
+import soc.game.SOCSettlement;
+import soc.game.SOCTradeOffer;
+import soc.server.SOCServer;
+import soc.util.SOCRobotParameters;
+import soc.util.Version;
+
+/**
+ * Headless bot-vs-bot game simulator, for tuning robot strategy and parameters.
+ * Plays complete games in-process with no server, client, or network:
+ * Each game's {@link SOCGame} is played directly by the robots' decision-making classes
+ * ({@link SOCRobotDM}, {@link SOCRobotNegotiator}, {@link OpeningBuildStrategy},
+ * {@link RobberStrategy}, {@link DiscardStrategy}, {@link MonopolyStrategy})
+ * without {@link SOCRobotBrain}'s message handling and pauses.
+ * Games are independent and run in parallel on a pool of threads, 1 thread per game at a time.
+ *<P>
+ * To compare {@link SOCRobotParameters}, give one set per seat; each game rotates the sets
+ * among the seats so that no set always plays first. Results count wins per parameter set.
+ *<P>
+ * Differences from games played at a server:
+ *<UL>
+ * <LI> Only the classic 4-player board, with no game options or scenarios
+ * <LI> No trades between players; bots trade only with the bank or ports
+ * <LI> All players share one set of {@link SOCPlayerTracker}s per game, which see each
+ *      player's actual resources and dev cards instead of estimating them from messages
+ * <LI> Games which haven't finished within {@link #MAX_ROUNDS_DEFAULT} rounds are stopped
+ *      and counted as unfinished
+ *</UL>
+ * To run from the command line: {@code java soc.robot.SOCRobotSimulator numgames [threads [strategy ...]]}
+ * where each strategy is {@code fast}, {@code smart}, or 9 comma-separated {@link SOCRobotParameters} fields.
+ *
+ * @author agent &lt;agent@local&gt;
+ * @since 2.0.00
+ */
+public class SOCRobotSimulator
+{
+    /**
+     * Default maximum number of rounds to play before stopping an unfinished game.
+     * @see #SOCRobotSimulator(SOCRobotParameters[], int)
+     */
+    public static final int MAX_ROUNDS_DEFAULT = 200;
+
+    /**
+     * Maximum actions (builds, trades, card plays, etc) during one player's turn
+     * before the simulator forces that turn to end, in case bots are stuck in a loop.
+     */
+    private static final int MAX_ACTIONS_PER_TURN = 100;
+
+    /** Robot parameters for each seat, before rotation; length is at least the game's maxPlayers */
+    private final SOCRobotParameters[] seatParams;
+
+    /** Maximum rounds per game; see {@link #MAX_ROUNDS_DEFAULT} */
+    private final int maxRounds;
+
+    /**
+     * Create a simulator to play games with these robot parameters.
+     * @param seatParams  Robot parameters for each player; length must be at least 4.
+     *     Each game rotates these among the seats.
+     * @param maxRounds  Stop a game if it hasn't finished after this many rounds;
+     *     default is {@link #MAX_ROUNDS_DEFAULT}
+     * @throws IllegalArgumentException if {@code seatParams} has fewer than 4 elements,
+     *     or any element is null, or {@code maxRounds} &lt; 1
+     */
+    public SOCRobotSimulator(final SOCRobotParameters[] seatParams, final int maxRounds)
+        throws IllegalArgumentException
+    {
+        if ((seatParams == null) || (seatParams.length < 4))
+            throw new IllegalArgumentException("seatParams");
+        for (int i = 0; i < seatParams.length; ++i)
+            if (seatParams[i] == null)
+                throw new IllegalArgumentException("seatParams[" + i + "]");
+        if (maxRounds < 1)
+            throw new IllegalArgumentException("maxRounds: " + maxRounds);
+
+        this.seatParams = seatParams;
+        this.maxRounds = maxRounds;
+    }
+
+    /**
+     * Play a number of games in parallel, and wait for them all to finish.
+     * @param numGames  Number of games to play
+     * @param nThreads  Number of threads to play them on, such as
+     *     {@link Runtime#availableProcessors()}
+     * @return  Results of the games
+     * @throws IllegalArgumentException if {@code numGames} or {@code nThreads} &lt; 1
+     * @throws InterruptedException if interrupted while waiting for games to finish
+     */
+    public Results run(final int numGames, final int nThreads)
+        throws IllegalArgumentException, InterruptedException
+    {
+        if (numGames < 1)
+            throw new IllegalArgumentException("numGames: " + numGames);
+        if (nThreads < 1)
+            throw new IllegalArgumentException("nThreads: " + nThreads);
+
+        final Results res = new Results(seatParams.length);
+        final long startTime = System.currentTimeMillis();
+
+        ExecutorService pool = Executors.newFixedThreadPool(nThreads, new ThreadFactory()
+        {
+            private int n = 0;
+
+            public synchronized Thread newThread(Runnable r)
+            {
+                Thread t = new Thread(r, "robot-simulator-" + n);
+                ++n;
+                t.setDaemon(true);
+                return t;
+            }
+        });
+
+        for (int g = 0; g < numGames; ++g)
+        {
+            final int gameNum = g;
+            pool.execute(new Runnable()
+            {
+                public void run()
+                {
+                    playGame(gameNum, res);
+                }
+            });
+        }
+
+        pool.shutdown();
+        while (! pool.awaitTermination(60, TimeUnit.SECONDS))
+            System.err.println("SOCRobotSimulator: games played so far: " + res.getGamesPlayed());
+
+        res.elapsedMillis = System.currentTimeMillis() - startTime;
+        return res;
+    }
+
+    /**
+     * Play one game and add its outcome to {@code res}.
+     * Parameter sets are rotated so that seat 0 uses {@code seatParams[gameNum % seatParams.length]}.
+     * @param gameNum  Game number, for its name and parameter rotation
+     * @param res  Results to update
+     */
+    private void playGame(final int gameNum, final Results res)
+    {
+        final int nParams = seatParams.length;
+        final int[] paramsIdx = new int[4];
+        final SOCRobotParameters[] params = new SOCRobotParameters[4];
+        for (int pn = 0; pn < 4; ++pn)
+        {
+            paramsIdx[pn] = (pn + gameNum) % nParams;
+            params[pn] = seatParams[paramsIdx[pn]];
+        }
+
+        SimGame sg = null;
+        try
+        {
+            sg = new SimGame("sim-" + gameNum, params);
+            final int winner = sg.play(maxRounds);
+            res.gameDone
+                ((winner >= 0) ? paramsIdx[winner] : -1, sg.ga.getRoundCount(), sg.forcedTurnEnds, false);
+        }
+        catch (Throwable th)
+        {
+            res.gameDone(-1, 0, (sg != null) ? sg.forcedTurnEnds : 0, true);
+            if (res.getErrorCount() <= 3)
+            {
+                System.err.println("SOCRobotSimulator: error in game sim-" + gameNum + ": " + th);
+                th.printStackTrace();
+            }
+        }
+    }
+
+    /**
+     * Results of {@link SOCRobotSimulator#run(int, int)}: Win counts and other statistics.
+     * Thread-safe while games are being played.
+     */
+    public static class Results
+    {
+        /** Win counts per robot parameter set, indexed like the simulator's {@code seatParams} */
+        private final int[] wins;
+
+        private int gamesPlayed, unfinished, errors, forcedTurnEnds;
+
+        /** Total rounds of finished games, for average length */
+        private long totalRounds;
+
+        /** Elapsed time of {@link SOCRobotSimulator#run(int, int)}; set after all games are done */
+        long elapsedMillis;
+
+        Results(final int nParams)
+        {
+            wins = new int[nParams];
+        }
+
+        /**
+         * Record a game's outcome.
+         * @param winnerParams  Index of winner's parameter set, or -1 if the game is unfinished or had an error
+         * @param rounds  Number of rounds played
+         * @param forced  Number of turns which the simulator had to force to end
+         * @param isError  True if the game ended because of an exception
+         */
+        synchronized void gameDone(final int winnerParams, final int rounds, final int forced, final boolean isError)
+        {
+            ++gamesPlayed;
+            forcedTurnEnds += forced;
+            if (isError)
+                ++errors;
+            else if (winnerParams < 0)
+                ++unfinished;
+            else
+            {
+                ++wins[winnerParams];
+                totalRounds += rounds;
+            }
+        }
+
+        /** @return Number of games played so far, including unfinished games and errors */
+        public synchronized int getGamesPlayed()
+        {
+            return gamesPlayed;
+        }
+
+        /** @return Number of games stopped at the round limit without a winner */
+        public synchronized int getUnfinishedCount()
+        {
+            return unfinished;
+        }
+
+        /** @return Number of games which ended because of an exception */
+        public synchronized int getErrorCount()
+        {
+            return errors;
+        }
+
+        /**
+         * Get the number of games won by players using one parameter set.
+         * @param paramsIdx  Index into the simulator's {@code seatParams}
+         * @return  Number of wins
+         */
+        public synchronized int getWins(final int paramsIdx)
+        {
+            return wins[paramsIdx];
+        }
+
+        /** @return Average number of rounds of finished games, or 0 if none */
+        public synchronized double getAverageRounds()
+        {
+            final int finished = gamesPlayed - unfinished - errors;
+            return (finished > 0) ? ((double) totalRounds / finished) : 0.0;
+        }
+
+        /** @return Elapsed time of all games, in milliseconds */
+        public long getElapsedMillis()
+        {
+            return elapsedMillis;
+        }
+
+        /**
+         * Multi-line summary for printing. Example:
+         *<pre>
+         * Games: 1000 (finished 996, unfinished 4, errors 0) in 41.2 seconds, 1456 games/minute
+         * Average rounds: 61.3; forced turn ends: 7
+         * Wins: params 0: 251, params 1: 247, params 2: 253, params 3: 245</pre>
+         */
+        public synchronized String toString()
+        {
+            StringBuffer sb = new StringBuffer();
+            sb.append("Games: ").append(gamesPlayed);
+            sb.append(" (finished ").append(gamesPlayed - unfinished - errors);
+            sb.append(", unfinished ").append(unfinished);
+            sb.append(", errors ").append(errors);
+            sb.append(") in ").append(elapsedMillis / 100 / 10.0).append(" seconds");
+            if (elapsedMillis > 0)
+                sb.append(", ").append((gamesPlayed * 60000L) / elapsedMillis).append(" games/minute");
+            sb.append("\nAverage rounds: ").append(Math.round(getAverageRounds() * 10) / 10.0);
+            sb.append("; forced turn ends: ").append(forcedTurnEnds);
+            sb.append("\nWins:");
+            for (int i = 0; i < wins.length; ++i)
+            {
+                if (i > 0)
+                    sb.append(',');
+                sb.append(" params ").append(i).append(": ").append(wins[i]);
+            }
+
+            return sb.toString();
+        }
+    }
+
+    /**
+     * One simulated game, its shared player trackers, and each player's decision makers.
+     * Not thread-safe: Played on one thread.
+     */
+    private static final class SimGame
+    {
+        final SOCGame ga;
+
+        /** Player trackers, shared by all players' decision makers */
+        final HashMap<Integer, SOCPlayerTracker> trackers = new HashMap<Integer, SOCPlayerTracker>();
+
+        /** Bots, indexed by player number */
+        final SimPlayer[] players;
+
+        /** Number of turns which had to be forced to end */
+        int forcedTurnEnds;
+
+        /** Actions during the current turn; see {@link SOCRobotSimulator#MAX_ACTIONS_PER_TURN} */
+        private int turnActions;
+
+        /**
+         * Create and start a game.
+         * @param gaName  Game name
+         * @param params  Robot parameters for each player number
+         */
+        SimGame(final String gaName, final SOCRobotParameters[] params)
+        {
+            ga = new SOCGame(gaName);
+            for (int pn = 0; pn < ga.maxPlayers; ++pn)
+                ga.addPlayer("robot " + pn, pn);
+            ga.startGame();
+            ga.pendingMessagesOut.clear();
+
+            players = new SimPlayer[ga.maxPlayers];
+            for (int pn = 0; pn < ga.maxPlayers; ++pn)
+                trackers.put(Integer.valueOf(pn), new SOCPlayerTracker(ga.getPlayer(pn), null));
+            for (int pn = 0; pn < ga.maxPlayers; ++pn)
+                players[pn] = new SimPlayer(this, ga.getPlayer(pn), params[pn].copyIfOptionChanged(ga.getGameOptions()));
+        }
+
+        /**
+         * Play the game until someone wins or it reaches {@code maxRounds}.
+         * @param maxRounds  Stop the game after this many rounds
+         * @return  Winner's player number, or -1 if unfinished
+         */
+        int play(final int maxRounds)
+        {
+            int cpn = -1;
+            for (;;)
+            {
+                final int gs = ga.getGameState();
+                if (gs >= SOCGame.OVER)
+                {
+                    final SOCPlayer winner = ga.getPlayerWithWin();
+                    return (winner != null) ? winner.getPlayerNumber() : -1;
+                }
+                if (ga.getRoundCount() > maxRounds)
+                    return -1;
+
+                if (ga.getCurrentPlayerNumber() != cpn)
+                {
+                    cpn = ga.getCurrentPlayerNumber();
+                    turnActions = 0;
+                    players[cpn].newTurn();
+                }
+
+                ++turnActions;
+                if (turnActions > MAX_ACTIONS_PER_TURN)
+                {
+                    forceEndTurn();
+                    turnActions = 0;
+                } else {
+                    step(gs, players[cpn]);
+                }
+
+                ga.pendingMessagesOut.clear();
+            }
+        }
+
+        /**
+         * Take the next action in the game's current state.
+         * @param gs  Current game state
+         * @param sp  Current player
+         */
+        private void step(final int gs, final SimPlayer sp)
+        {
+            switch (gs)
+            {
+            case SOCGame.START1A:
+                sp.placeInitSettlement(true);
+                break;
+
+            case SOCGame.START2A:
+                sp.placeInitSettlement(false);
+                break;
+
+            case SOCGame.START1B:
+            case SOCGame.START2B:
+                sp.placeInitRoad();
+                break;
+
+            case SOCGame.PLAY:
+                sp.rollOrPlayKnight();
+                break;
+
+            case SOCGame.PLAY1:
+                sp.play1Action();
+                break;
+
+            case SOCGame.WAITING_FOR_DISCARDS:
+                for (int pn = 0; pn < ga.maxPlayers; ++pn)
+                    if (ga.getPlayer(pn).getNeedToDiscard())
+                        players[pn].discard();
+                break;
+
+            case SOCGame.PLACING_ROBBER:
+                sp.moveRobber();
+                break;
+
+            case SOCGame.WAITING_FOR_ROB_CHOOSE_PLAYER:
+                sp.chooseRobberVictim();
+                break;
+
+            case SOCGame.PLACING_FREE_ROAD1:
+            case SOCGame.PLACING_FREE_ROAD2:
+                sp.placeFreeRoad(gs);
+                break;
+
+            default:
+                // States not used on the classic board without scenarios
+                forceEndTurn();
+            }
+        }
+
+        /**
+         * Force the current turn to end, like the server does for a stuck robot.
+         */
+        void forceEndTurn()
+        {
+            ++forcedTurnEnds;
+            ga.forceEndTurn();
+            if (ga.getGameState() == SOCGame.PLAY1)
+                ga.endTurn();
+        }
+
+        /**
+         * Put a piece into the game and update the player trackers,
+         * like {@link SOCRobotBrain} does for a PUTPIECE message.
+         * @param pp  Piece to place
+         */
+        void putPiece(final SOCPlayingPiece pp)
+        {
+            ga.putPiece(pp);
+
+            switch (pp.getType())
+            {
+            case SOCPlayingPiece.ROAD:
+                for (SOCPlayerTracker tr : trackers.values())
+                    tr.addNewRoadOrShip((SOCRoad) pp, trackers);
+                updateThreats();
+                break;
+
+            case SOCPlayingPiece.SETTLEMENT:
+                for (SOCPlayerTracker tr : trackers.values())
+                    tr.addNewSettlement((SOCSettlement) pp, trackers);
+                updateThreats();
+                updateSpeedups(pp.getPlayerNumber());
+                break;
+
+            case SOCPlayingPiece.CITY:
+                trackers.get(Integer.valueOf(pp.getPlayerNumber())).addOurNewCity((SOCCity) pp);
+                updateSpeedups(pp.getPlayerNumber());
+                break;
+            }
+        }
+
+        /** After a new road or settlement, clear and recalculate all trackers' threats. */
+        private void updateThreats()
+        {
+            for (SOCPlayerTracker tr : trackers.values())
+            {
+                for (SOCPossibleRoad pr : tr.getPossibleRoads().values())
+                    pr.clearThreats();
+                for (SOCPossibleSettlement ps : tr.getPossibleSettlements().values())
+                    ps.clearThreats();
+            }
+
+            for (SOCPlayerTracker tr : trackers.values())
+                tr.updateThreats(trackers);
+        }
+
+        /**
+         * After a player's new settlement or city, update its possible pieces' speedups.
+         * @param pn  Player number
+         */
+        private void updateSpeedups(final int pn)
+        {
+            final SOCPlayerTracker tr = trackers.get(Integer.valueOf(pn));
+            for (SOCPossibleSettlement ps : tr.getPossibleSettlements().values())
+                ps.updateSpeedup();
+            for (SOCPossibleCity pc : tr.getPossibleCities().values())
+                pc.updateSpeedup();
+        }
+    }
+
+    /**
+     * One bot player in a {@link SimGame}, with its building plan and decision makers.
+     * Actions follow {@link SOCRobotBrain}'s, without player trades or waiting for the server.
+     */
+    private static final class SimPlayer
+    {
+        final SimGame sg;
+        final SOCGame ga;
+        final SOCPlayer pl;
+        final int pn;
+        final SOCRobotParameters params;
+        final Stack<SOCPossiblePiece> buildingPlan = new Stack<SOCPossiblePiece>();
+        final SOCRobotDM dm;
+        final SOCRobotNegotiator negotiator;
+        final OpeningBuildStrategy openingBuildStrategy;
+        final MonopolyStrategy monopolyStrategy;
+        final Random rand = new Random();
+
+        /** Pieces of our plan which couldn't be built this turn; see {@link SOCRobotBrain#MAX_DENIED_BUILDING_PER_TURN} */
+        private int failedBuildingAttempts;
+
+        SimPlayer(final SimGame sg, final SOCPlayer pl, final SOCRobotParameters params)
+        {
+            this.sg = sg;
+            ga = sg.ga;
+            this.pl = pl;
+            pn = pl.getPlayerNumber();
+            this.params = params;
+
+            final SOCPlayerTracker ourTracker = sg.trackers.get(Integer.valueOf(pn));
+            dm = new SOCRobotDM(params, sg.trackers, ourTracker, pl, buildingPlan);
+            negotiator = new SOCRobotNegotiator(params, sg.trackers, ourTracker, dm, buildingPlan);
+            openingBuildStrategy = new OpeningBuildStrategy(ga, pl);
+            monopolyStrategy = new MonopolyStrategy(ga, pl);
+        }
+
+        /** Our turn is starting: Clear our building plan, as the brain does. */
+        void newTurn()
+        {
+            buildingPlan.clear();
+            failedBuildingAttempts = 0;
+        }
+
+        /**
+         * Place an initial settlement.
+         * @param isFirst  True for the first settlement, false for the second
+         */
+        void placeInitSettlement(final boolean isFirst)
+        {
+            int node = (isFirst)
+                ? openingBuildStrategy.planInitialSettlements()
+                : openingBuildStrategy.planSecondSettlement();
+            if ((node == -1) || ! pl.canPlaceSettlement(node))
+            {
+                node = -1;
+                final int[] potentials = pl.getPotentialSettlements_arr();
+                if (potentials != null)
+                    for (int i = 0; (i < potentials.length) && (node == -1); ++i)
+                        if (pl.canPlaceSettlement(potentials[i]))
+                            node = potentials[i];
+            }
+
+            if (node != -1)
+                sg.putPiece(new SOCSettlement(pl, node, null));
+            else
+                sg.forceEndTurn();
+        }
+
+        /** Place an initial road next to our most recent settlement. */
+        void placeInitRoad()
+        {
+            int edge = openingBuildStrategy.planInitRoad();
+            if (! pl.isPotentialRoad(edge))
+            {
+                edge = -1;
+                final int[] edges = ga.getBoard().getAdjacentEdgesToNode_arr(pl.getLastSettlementCoord());
+                for (int i = 0; (i < edges.length) && (edge == -1); ++i)
+                    if ((edges[i] != -9) && pl.isPotentialRoad(edges[i]))
+                        edge = edges[i];
+            }
+
+            if (edge != -1)
+                sg.putPiece(new SOCRoad(pl, edge, null));
+            else
+                sg.forceEndTurn();
+        }
+
+        /**
+         * Start of turn: Play a knight first if the robber is on one of our hexes, then roll.
+         */
+        void rollOrPlayKnight()
+        {
+            if (pl.getInventory().hasPlayable(SOCDevCardConstants.KNIGHT)
+                && ga.canPlayKnight(pn)
+                && ! pl.getNumbers().hasNoResourcesForHex(ga.getBoard().getRobberHex()))
+                ga.playKnight();
+            else
+                ga.rollDice();
+        }
+
+        /**
+         * After rolling: Take one action toward our building plan, or end our turn.
+         * Like the brain's handling of game state {@link SOCGame#PLAY1}.
+         */
+        void play1Action()
+        {
+            if (considerPlayKnight())
+                return;
+
+            if (buildingPlan.empty() && (pl.getResources().getTotal() > 1)
+                && (failedBuildingAttempts < SOCRobotBrain.MAX_DENIED_BUILDING_PER_TURN))
+                dm.planStuff(params.getStrategyType());
+
+            if (buildingPlan.empty() || ! buildOrGetResources())
+                ga.endTurn();
+        }
+
+        /**
+         * Play a knight card if it would give us largest army.
+         * @return  true if played
+         */
+        private boolean considerPlayKnight()
+        {
+            if (! ga.canPlayKnight(pn))
+                return false;
+
+            final SOCPlayer laPlayer = ga.getPlayerWithLargestArmy();
+            if (laPlayer == pl)
+                return false;
+
+            final int larmySize = (laPlayer == null) ? 3 : (laPlayer.getNumKnights() + 1);
+            if ((pl.getNumKnights() + pl.getInventory().getAmount(SOCDevCardConstants.KNIGHT)) < larmySize)
+                return false;
+
+            ga.playKnight();
+            return true;
+        }
+
+        /**
+         * Play a dev card, trade with the bank, or build, for the top piece of our building plan.
+         * Like {@link SOCRobotBrain}'s {@code buildOrGetResourceByTradeOrCard} without player trades.
+         * @return  true if an action was taken; false if we can't make progress this turn
+         */
+        private boolean buildOrGetResources()
+        {
+            final SOCInventory inv = pl.getInventory();
+
+            if (inv.hasPlayable(SOCDevCardConstants.ROADS) && ga.canPlayRoadBuilding(pn)
+                && (pl.getNumPieces(SOCPlayingPiece.ROAD) >= 2) && (buildingPlan.size() >= 2))
+            {
+                final SOCPossiblePiece topPiece = buildingPlan.pop();
+                final boolean twoRoads = (topPiece.getType() == SOCPossiblePiece.ROAD)
+                    && (buildingPlan.peek().getType() == SOCPossiblePiece.ROAD);
+                buildingPlan.push(topPiece);
+                if (twoRoads)
+                {
+                    ga.playRoadBuilding();
+                    return true;
+                }
+            }
+
+            final SOCPossiblePiece targetPiece = buildingPlan.peek();
+            final SOCResourceSet targetResources = SOCPlayingPiece.getResourcesToBuild(targetPiece.getType());
+            final SOCResourceSet ourResources = pl.getResources();
+            negotiator.setTargetPiece(pn, targetPiece);
+
+            if (! ourResources.contains(targetResources))
+            {
+                if (inv.hasPlayable(SOCDevCardConstants.DISC) && ga.canPlayDiscovery(pn))
+                {
+                    final SOCResourceSet needed = new SOCResourceSet();
+                    for (int rtype = SOCResourceConstants.CLAY; rtype <= SOCResourceConstants.WOOD; ++rtype)
+                    {
+                        final int n = targetResources.getAmount(rtype) - ourResources.getAmount(rtype);
+                        if (n > 0)
+                            needed.add(n, rtype);
+                    }
+                    if (needed.getTotal() == 2)
+                    {
+                        ga.playDiscovery();
+                        ga.doDiscoveryAction(needed);
+                        return true;
+                    }
+                }
+
+                if (inv.hasPlayable(SOCDevCardConstants.MONO) && ga.canPlayMonopoly(pn)
+                    && monopolyStrategy.decidePlayMonopoly())
+                {
+                    ga.playMonopoly();
+                    ga.doMonopolyAction(monopolyStrategy.getMonopolyChoice());
+                    return true;
+                }
+
+                final SOCTradeOffer bankTrade = negotiator.getOfferToBank(targetResources, ourResources);
+                if ((bankTrade != null) && ourResources.contains(bankTrade.getGiveSet())
+                    && ga.canMakeBankTrade(bankTrade.getGiveSet(), bankTrade.getGetSet()))
+                {
+                    ga.makeBankTrade(bankTrade.getGiveSet(), bankTrade.getGetSet());
+                    return true;
+                }
+
+                return false;
+            }
+
+            buildingPlan.pop();
+            final int coord = targetPiece.getCoordinates();
+            boolean built = false;
+            switch (targetPiece.getType())
+            {
+            case SOCPossiblePiece.CARD:
+                if (ga.couldBuyDevCard(pn))
+                {
+                    ga.buyDevCard();
+                    built = true;
+                }
+                break;
+
+            case SOCPossiblePiece.ROAD:
+                if (ga.couldBuildRoad(pn) && pl.isPotentialRoad(coord))
+                {
+                    ga.buyRoad(pn);
+                    sg.putPiece(new SOCRoad(pl, coord, null));
+                    built = true;
+                }
+                break;
+
+            case SOCPossiblePiece.SETTLEMENT:
+                if (ga.couldBuildSettlement(pn) && pl.canPlaceSettlement(coord))
+                {
+                    ga.buySettlement(pn);
+                    sg.putPiece(new SOCSettlement(pl, coord, null));
+                    built = true;
+                }
+                break;
+
+            case SOCPossiblePiece.CITY:
+                if (ga.couldBuildCity(pn) && pl.isPotentialCity(coord))
+                {
+                    ga.buyCity(pn);
+                    sg.putPiece(new SOCCity(pl, coord, null));
+                    built = true;
+                }
+                break;
+            }
+
+            if (! built)
+            {
+                // Like the brain when the server denies a build: Clear the plan and re-plan, up to a limit
+                buildingPlan.clear();
+                ++failedBuildingAttempts;
+                return (failedBuildingAttempts < SOCRobotBrain.MAX_DENIED_BUILDING_PER_TURN);
+            }
+
+            return true;
+        }
+
+        /** We must discard half our resources because a 7 was rolled. */
+        void discard()
+        {
+            final int numDiscards = pl.getResources().getTotal() / 2;
+            final SOCResourceSet discards = DiscardStrategy.discard
+                (numDiscards, buildingPlan, rand, pl, params, dm, negotiator);
+            if (ga.canDiscard(pn, discards))
+                ga.discard(pn, discards);
+            else
+                ga.playerDiscardRandom(pn, true);
+        }
+
+        /** Move the robber to the hex chosen by {@link RobberStrategy}. */
+        void moveRobber()
+        {
+            int hex = RobberStrategy.getBestRobberHex(ga, pl, sg.trackers, rand);
+            if (! ga.canMoveRobber(pn, hex))
+            {
+                final int[] hexes = ga.getBoard().getLandHexCoords();
+                hex = -1;
+                for (int i = 0; (i < hexes.length) && (hex == -1); ++i)
+                    if (ga.canMoveRobber(pn, hexes[i]))
+                        hex = hexes[i];
+            }
+
+            if (hex != -1)
+                ga.moveRobber(pn, hex);
+            else
+                sg.forceEndTurn();
+        }
+
+        /** Choose a player to rob, from those next to the robber's new hex. */
+        void chooseRobberVictim()
+        {
+            final boolean[] choices = new boolean[ga.maxPlayers];
+            int firstChoice = -1;
+            final Vector<SOCPlayer> victims = ga.getPossibleVictims();
+            for (SOCPlayer v : victims)
+            {
+                choices[v.getPlayerNumber()] = true;
+                if (firstChoice == -1)
+                    firstChoice = v.getPlayerNumber();
+            }
+
+            int victim = RobberStrategy.chooseRobberVictim(choices, ga, sg.trackers);
+            if ((victim < 0) || ! choices[victim])
+                victim = firstChoice;
+
+            if (victim != -1)
+                ga.choosePlayerForRobbery(victim);
+            else
+                sg.forceEndTurn();
+        }
+
+        /**
+         * Place a free road from the Road Building card: The next road in our plan, if any, or any legal road.
+         * @param gs  Current game state, {@link SOCGame#PLACING_FREE_ROAD1} or {@link SOCGame#PLACING_FREE_ROAD2}
+         */
+        void placeFreeRoad(final int gs)
+        {
+            int edge = -1;
+            if ((! buildingPlan.empty()) && (buildingPlan.peek().getType() == SOCPossiblePiece.ROAD))
+            {
+                final int co = buildingPlan.pop().getCoordinates();
+                if (pl.isPotentialRoad(co))
+                    edge = co;
+            }
+
+            if (edge == -1)
+                edge = findPotentialRoad();
+
+            if ((edge != -1) && (pl.getNumPieces(SOCPlayingPiece.ROAD) > 0))
+                sg.putPiece(new SOCRoad(pl, edge, null));
+            else if (gs == SOCGame.PLACING_FREE_ROAD2)
+                ga.cancelBuildRoad(pn);
+            else
+                ga.forceEndTurn();  // returns to PLAY1 without using the card's other road
+        }
+
+        /**
+         * Find any edge where we can legally build a road.
+         * @return  an edge coordinate, or -1 if none
+         */
+        private int findPotentialRoad()
+        {
+            for (Integer edge : sg.trackers.get(Integer.valueOf(pn)).getPossibleRoads().keySet())
+                if (pl.isPotentialRoad(edge.intValue()))
+                    return edge.intValue();
+
+            final SOCBoard board = ga.getBoard();
+            for (SOCRoad rd : pl.getRoads())
+                for (Integer edge : board.getAdjacentEdgesToEdge(rd.getCoordinates()))
+                    if (pl.isPotentialRoad(edge.intValue()))
+                        return edge.intValue();
+
+            return -1;
+        }
+    }
+
+    /**
+     * Parse a robot parameter set from the command line.
+     * @param s  {@code fast}, {@code smart}, or 9 comma-separated fields in the order of
+     *     {@link SOCRobotParameters#SOCRobotParameters(int, int, float, float, float, float, float, int, int)}
+     * @return  the parameters
+     * @throws IllegalArgumentException if {@code s} can't be parsed
+     */
+    private static SOCRobotParameters parseParams(final String s)
+        throws IllegalArgumentException
+    {
+        if (s.equalsIgnoreCase("fast"))
+            return SOCServer.ROBOT_PARAMS_DEFAULT;
+        if (s.equalsIgnoreCase("smart"))
+            return SOCServer.ROBOT_PARAMS_SMARTER;
+
+        final String[] f = s.split(",");
+        if (f.length != 9)
+            throw new IllegalArgumentException("Expected fast, smart, or 9 comma-separated fields: " + s);
+
+        return new SOCRobotParameters
+            (Integer.parseInt(f[0].trim()), Integer.parseInt(f[1].trim()),
+             Float.parseFloat(f[2].trim()), Float.parseFloat(f[3].trim()), Float.parseFloat(f[4].trim()),
+             Float.parseFloat(f[5].trim()), Float.parseFloat(f[6].trim()),
+             Integer.parseInt(f[7].trim()), Integer.parseInt(f[8].trim()));
+    }
+
+    /**
+     * Play simulated games and print the results.
+     * @param args  numgames [threads [strategy for each of the 4 seats]]; see class javadoc.
+     *     Default threads is the number of processors; default strategy is {@code fast} for all seats,
+     *     or if only one strategy is given, the others are {@code fast}.
+     * @throws InterruptedException if interrupted while waiting for games to finish
+     */
+    public static void main(String[] args)
+        throws InterruptedException
+    {
+        if ((args.length < 1) || (args.length > 6))
+        {
+            System.err.println("Java Settlers robot simulator " + Version.version() +
+                    ", build " + Version.buildnum());
+            System.err.println("usage: java soc.robot.SOCRobotSimulator numgames [threads [strategy ...]]");
+            System.err.println("  strategy: fast, smart, or 9 comma-separated robot parameters");
+            return;
+        }
+
+        final int numGames, nThreads;
+        final SOCRobotParameters[] params = new SOCRobotParameters[4];
+        try
+        {
+            numGames = Integer.parseInt(args[0]);
+            nThreads = (args.length > 1)
+                ? Integer.parseInt(args[1])
+                : Runtime.getRuntime().availableProcessors();
+            for (int i = 0; i < 4; ++i)
+                params[i] = (args.length > (i + 2))
+                    ? parseParams(args[i + 2])
+                    : SOCServer.ROBOT_PARAMS_DEFAULT;
+        }
+        catch (IllegalArgumentException e)
+        {
+            System.err.println("SOCRobotSimulator: " + e);
+            return;
+        }
+
+        System.err.println
+            ("SOCRobotSimulator: playing " + numGames + " games on " + nThreads + " threads");
+        for (int i = 0; i < 4; ++i)
+            System.err.println("  params " + i + ": " + params[i]);
+
+        final Results res = new SOCRobotSimulator(params, MAX_ROUNDS_DEFAULT).run(numGames, nThreads);
+        System.out.println(res);
+        System.out.println(SOCBuildingSpeedEstimate.estimateCache);
+    }
+
+}
@@ -0,0 +1,369 @@
+/**
+ * Java Settlers - An online multiplayer version of the game Settlers of Catan
+ * This file Copyright (C) 2026 agent <agent@local>
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * The maintainer of this program can be reached at jsettlers@nand.net
+ **/
+package soc.server;
+
+import java.util.Iterator;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import soc.message.SOCCreateAccount;
+import soc.message.SOCStatusMessage;
+import soc.server.genericServer.StringConnection;
+
+/**
+ * Checks users' passwords and creates accounts on a small bounded pool of threads,
+ * so that database lookups don't block the server's single treater thread and all game traffic with it.
+ * Used when the server has a database; otherwise there's nothing slow to check.
+ *<P>
+ * {@link #authenticate(StringConnection, String, String, Runnable)} checks the password on a pool thread
+ * with {@link SOCServer#authenticateUser(StringConnection, String, String)}, which tells the client if it's wrong.
+ * If it's correct, the caller's continuation is run on the treater thread with {@link SOCServer#treatTask(Runnable)},
+ * to name the connection and join the channel or game there like before.
+ * {@link #createAccount(StringConnection, SOCCreateAccount)} runs all of
+ * {@link SOCServer#createAccount(StringConnection, SOCCreateAccount)} on a pool thread.
+ *<P>
+ * Limits:
+ *<UL>
+ * <LI> Each client host can make at most {@link SOCServer#PROP_JSETTLERS_SERVER_AUTH_RATELIMIT}
+ *      requests per minute. Requests over the limit are refused with a status message.
+ * <LI> At most {@link #QUEUE_CAPACITY} requests can wait for a thread. When the queue is full,
+ *      new requests are refused with a status message asking the client to try again later.
+ *</UL>
+ * Keeps counts of requests, failures and refusals, and their latency from being requested until checked,
+ * for {@link #getStatsText()}.
+ *
+ * @author agent &lt;agent@local&gt;
+ * @since 2.0.00
+ */
+class SOCAuthExecutor
+{
+    /** Default number of threads if {@link SOCServer#PROP_JSETTLERS_SERVER_AUTH_THREADS} isn't set. */
+    public static final int THREADS_DEFAULT = 2;
+
+    /** Default requests per host per minute if {@link SOCServer#PROP_JSETTLERS_SERVER_AUTH_RATELIMIT} isn't set. */
+    public static final int RATELIMIT_DEFAULT = 30;
+
+    /** Most requests which can be waiting for a thread */
+    public static final int QUEUE_CAPACITY = 200;
+
+    /** Text sent to a client when {@link #QUEUE_CAPACITY} is reached */
+    private static final String MSG_BUSY = "The server is busy, please try again later.";
+
+    /** Text sent to a client over the rate limit */
+    private static final String MSG_RATELIMIT = "Too many login attempts, please wait a minute and try again.";
+
+    private final SOCServer srv;
+
+    /** The pool's threads, named "auth-1" etc */
+    private final ThreadPoolExecutor pool;
+
+    /** Most requests per host per minute, or 0 for no limit */
+    private final int rateLimit;
+
+    /** Each host's rate limit bucket; empty if {@link #rateLimit} is 0 */
+    private final ConcurrentHashMap<String, HostBucket> hostBuckets = new ConcurrentHashMap<String, HostBucket>();
+
+    /** Number of password checks which succeeded or failed, and accounts creations requested */
+    private final AtomicInteger authOKCount = new AtomicInteger(), authFailCount = new AtomicInteger(),
+        createCount = new AtomicInteger();
+
+    /** Number of requests refused by the rate limit, or because the queue was full */
+    private final AtomicInteger rateLimitedCount = new AtomicInteger(), busyCount = new AtomicInteger();
+
+    /** Total and longest latency of completed requests, in milliseconds */
+    private final AtomicLong latencyTotalMillis = new AtomicLong(), latencyMaxMillis = new AtomicLong();
+
+    /**
+     * Create and start the pool's threads.
+     * @param srv  Server, to check passwords and run continuations
+     * @param nThreads  Number of threads in the pool; at least 1
+     * @param rateLimit  Most requests per host per minute, or 0 for no limit
+     * @throws IllegalArgumentException if {@code nThreads} &lt; 1 or {@code rateLimit} &lt; 0
+     */
+    SOCAuthExecutor(final SOCServer srv, final int nThreads, final int rateLimit)
+        throws IllegalArgumentException
+    {
+        if (nThreads < 1)
+            throw new IllegalArgumentException("nThreads: " + nThreads);
+        if (rateLimit < 0)
+            throw new IllegalArgumentException("rateLimit: " + rateLimit);
+
+        this.srv = srv;
+        this.rateLimit = rateLimit;
+        pool = new ThreadPoolExecutor
+            (nThreads, nThreads, 0L, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<Runnable>(QUEUE_CAPACITY),
+             new ThreadFactory()
+             {
+                 private final AtomicInteger threadNum = new AtomicInteger();
+
+                 public Thread newThread(Runnable r)
+                 {
+                     Thread t = new Thread(r, "auth-" + threadNum.incrementAndGet());  // Thread name for debug
+                     t.setDaemon(true);
+                     return t;
+                 }
+             });
+    }
+
+    /**
+     * Check a user's password soon on a pool thread. If it's wrong or the database has a problem,
+     * the client is sent a status message. If it's correct, {@code onSuccess} is run on the treater thread.
+     * If the host is over the rate limit or the queue is full, the client is sent a status message
+     * and nothing is checked.
+     * @param c  Client's connection
+     * @param userName  Nickname to check
+     * @param password  Password to check; trimmed, or null for none
+     * @param onSuccess  Continuation to run on the treater thread if the password is correct
+     */
+    void authenticate
+        (final StringConnection c, final String userName, final String password, final Runnable onSuccess)
+    {
+        submit(c, new AuthTask(c, userName, (password != null) ? password : "", onSuccess));
+    }
+
+    /**
+     * Create an account soon on a pool thread, with
+     * {@link SOCServer#createAccount(StringConnection, SOCCreateAccount)}, which sends the client the result.
+     * If the host is over the rate limit or the queue is full, the client is sent a status message instead.
+     * @param c  Client's connection
+     * @param mes  Client's request
+     */
+    void createAccount(final StringConnection c, final SOCCreateAccount mes)
+    {
+        submit(c, new CreateAccountTask(c, mes));
+    }
+
+    /**
+     * Check the rate limit for {@code c}'s host, then queue a task or tell the client why not.
+     * @param c  Client's connection
+     * @param task  Task to queue
+     */
+    private void submit(final StringConnection c, final Task task)
+    {
+        if ((rateLimit > 0) && ! takeRateLimitToken(c.host()))
+        {
+            rateLimitedCount.incrementAndGet();
+            c.put(SOCStatusMessage.toCmd(SOCStatusMessage.SV_NOT_OK_GENERIC, c.getVersion(), MSG_RATELIMIT));
+            return;
+        }
+
+        try
+        {
+            pool.execute(task);
+        }
+        catch (RejectedExecutionException e)
+        {
+            // queue full, or shutting down
+            busyCount.incrementAndGet();
+            c.put(SOCStatusMessage.toCmd(SOCStatusMessage.SV_NOT_OK_GENERIC, c.getVersion(), MSG_BUSY));
+        }
+    }
+
+    /**
+     * Take a token from this host's rate limit bucket, if it has one.
+     * Occasionally removes other hosts' buckets which have refilled, so the map doesn't grow without limit.
+     * @param host  Client's host
+     * @return  True if the host is under its limit
+     */
+    private boolean takeRateLimitToken(final String host)
+    {
+        final long now = System.currentTimeMillis();
+
+        HostBucket b = hostBuckets.get(host);
+        if (b == null)
+        {
+            if (hostBuckets.size() >= 1000)
+            {
+                for (Iterator<HostBucket> it = hostBuckets.values().iterator(); it.hasNext(); )
+                    if (it.next().isFull(now))
+                        it.remove();
+            }
+
+            b = new HostBucket(now);
+            final HostBucket prev = hostBuckets.putIfAbsent(host, b);
+            if (prev != null)
+                b = prev;
+        }
+
+        return b.take(now);
+    }
+
+    /**
+     * Auth stats for the server's *STATS* command.
+     * @return  Text with the number of password checks, account creations, refused requests,
+     *     requests waiting, and average and longest latency
+     */
+    String getStatsText()
+    {
+        final int ok = authOKCount.get(), fail = authFailCount.get(), cr = createCount.get();
+        final int n = ok + fail + cr;
+        final long avg = (n > 0) ? (latencyTotalMillis.get() / n) : 0;
+        return ok + " OK, " + fail + " failed, " + cr + " account creations; refused "
+            + rateLimitedCount.get() + " over rate limit, " + busyCount.get() + " busy; waiting "
+            + pool.getQueue().size() + "; latency avg " + avg + " ms, max " + latencyMaxMillis.get() + " ms";
+    }
+
+    /**
+     * Stop the pool's threads.  Requests already queued will still be run.
+     */
+    void shutdown()
+    {
+        pool.shutdown();
+    }
+
+    /**
+     * Each host's token bucket for the rate limit: Holds up to {@link SOCAuthExecutor#rateLimit} tokens,
+     * refilled evenly over a minute. Each request takes one token.
+     */
+    private final class HostBucket
+    {
+        private double tokens;
+        private long lastRefill;
+
+        HostBucket(final long now)
+        {
+            tokens = rateLimit;
+            lastRefill = now;
+        }
+
+        /** Refill for the time since {@link #lastRefill}; caller must synchronize on this bucket */
+        private void refill(final long now)
+        {
+            if (now > lastRefill)
+            {
+                tokens = Math.min(rateLimit, tokens + (rateLimit * (now - lastRefill)) / 60000.0);
+                lastRefill = now;
+            }
+        }
+
+        synchronized boolean take(final long now)
+        {
+            refill(now);
+            if (tokens < 1.0)
+                return false;
+
+            tokens -= 1.0;
+            return true;
+        }
+
+        synchronized boolean isFull(final long now)
+        {
+            refill(now);
+            return (tokens >= rateLimit);
+        }
+    }
+
+    /**
+     * A queued request. Runs {@link #process()}, then updates the latency stats.
+     */
+    private abstract class Task implements Runnable
+    {
+        /** When this request was submitted, from {@link System#currentTimeMillis()} */
+        private final long requestTime = System.currentTimeMillis();
+
+        /** Do this task's work on the pool thread */
+        abstract void process();
+
+        public void run()
+        {
+            try
+            {
+                process();
+            }
+            catch (Throwable th)
+            {
+                System.err.println("Error in auth thread: " + th);
+                th.printStackTrace();
+            }
+            finally
+            {
+                final long latency = System.currentTimeMillis() - requestTime;
+                latencyTotalMillis.addAndGet(latency);
+                long max;
+                while ((latency > (max = latencyMaxMillis.get())) && ! latencyMaxMillis.compareAndSet(max, latency))
+                    ;
+            }
+        }
+    }
+
+    /**
+     * Check a password, then continue on the treater thread if it's correct.
+     */
+    private final class AuthTask extends Task
+    {
+        private final StringConnection c;
+        private final String userName, password;
+        private final Runnable onSuccess;
+
+        AuthTask(final StringConnection c, final String userName, final String password, final Runnable onSuccess)
+        {
+            this.c = c;
+            this.userName = userName;
+            this.password = password;
+            this.onSuccess = onSuccess;
+        }
+
+        void process()
+        {
+            if (! c.isConnected())
+            {
+                authFailCount.incrementAndGet();
+                return;
+            }
+
+            if (srv.authenticateUser(c, userName, password))
+            {
+                authOKCount.incrementAndGet();
+                srv.treatTask(onSuccess);
+            } else {
+                authFailCount.incrementAndGet();
+            }
+        }
+    }
+
+    /**
+     * Create an account and tell the client the result.
+     */
+    private final class CreateAccountTask extends Task
+    {
+        private final StringConnection c;
+        private final SOCCreateAccount mes;
+
+        CreateAccountTask(final StringConnection c, final SOCCreateAccount mes)
+        {
+            this.c = c;
+            this.mes = mes;
+        }
+
+        void process()
+        {
+            createCount.incrementAndGet();
+            if (c.isConnected())
+                srv.createAccount(c, mes);
+        }
+    }
+
+}
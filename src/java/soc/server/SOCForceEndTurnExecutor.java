@@ -0,0 +1,336 @@
+/**
+ * Java Settlers - An online multiplayer version of the game Settlers of Catan
+ * This file Copyright (C) 2013-2014 Jeremy D Monin <jeremy@nand.net>. Contents were
+ * formerly part of SOCServer.java; portions of this file Copyright (C) 2010-2013 Jeremy D Monin.
+ * Portions of this file Copyright (C) 2012 Paul Bilnoski <paul@bilnoski.net>
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * The maintainer of this program can be reached at jsettlers@nand.net
+ **/
+package soc.server;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import soc.game.SOCGame;
+import soc.game.SOCPlayer;
+import soc.robot.SOCRobotClient;
+import soc.server.genericServer.StringConnection;
+
+/**
+ * Force-ends robots' turns on a small shared pool of threads.
+ * Called from {@link SOCGameHandler#endTurnIfInactive(SOCGame, long)}
+ * when that's called from {@link SOCGameTimeoutChecker#run()}.
+ * Done in separate threads in case of deadlocks, so the timeout checker isn't tied up.
+ *<P>
+ * Each game has at most one forced end in flight (queued or running): {@link #forceEndTurn(SOCGameHandler, SOCGame, SOCPlayer)}
+ * skips a game which already has one. So the queue holds at most one task per game,
+ * and a burst of stalls in many bot games uses the pool's threads instead of starting a thread for each.
+ * If a forced end deadlocks, only its game and one pool thread are stuck.
+ *<P>
+ * A forced end still running after {@link #STUCK_MILLIS} is counted as stuck: It's printed to {@link System#err}
+ * and shown in {@link #getStatsText()}, and the pool gets an extra thread for it so other games' forced ends
+ * aren't held up, up to {@link #STUCK_EXTRA_THREADS_MAX} extra.  When a stuck task finishes, its extra thread
+ * is released.  A stuck task can't be safely stopped, since it may be waiting on a game's lock.
+ *<P>
+ * Keeps counts of forced ends and their latency, from being requested until finished,
+ * for {@link #getStatsText()}.
+ *<P>
+ * Before 2.0.00, each forced end started a new SOCForceEndTurnThread,
+ * which before 2.0.00 was SOCServer.SOCForceEndTurnThread.
+ *
+ * @author Jeremy D Monin &lt;jeremy@nand.net&gt;
+ * @since 1.1.11
+ */
+class SOCForceEndTurnExecutor
+{
+    /**
+     * Default number of threads if {@link SOCServer#PROP_JSETTLERS_SERVER_FORCEENDTURN_THREADS} isn't set.
+     * @since 2.0.00
+     */
+    public static final int THREADS_DEFAULT = 2;
+
+    /**
+     * A forced end running longer than this many milliseconds is stuck, probably deadlocked.
+     * @since 2.0.00
+     */
+    public static final int STUCK_MILLIS = 30 * 1000;
+
+    /**
+     * Most extra threads to add to the pool for stuck forced ends.
+     * @since 2.0.00
+     */
+    public static final int STUCK_EXTRA_THREADS_MAX = 8;
+
+    private final SOCServer srv;
+
+    /** The pool's threads, named "forceEndTurn-1" etc */
+    private final ThreadPoolExecutor pool;
+
+    /** Number of threads in {@link #pool} when no forced ends are stuck */
+    private final int nThreads;
+
+    /**
+     * Forced ends now running, and when each started, from {@link System#currentTimeMillis()}.
+     * @see #checkStuck(long)
+     * @since 2.0.00
+     */
+    private final Map<ForceEndTurnTask, Long> running = new ConcurrentHashMap<ForceEndTurnTask, Long>();
+
+    /**
+     * Number of stuck forced ends seen by the latest {@link #checkStuck(long)}, and since startup.
+     * @since 2.0.00
+     */
+    private volatile int stuckNow;
+    private final AtomicInteger stuckTotal = new AtomicInteger();
+
+    /** Games with a forced end queued or running */
+    private final Set<SOCGame> inFlight
+        = Collections.newSetFromMap(new ConcurrentHashMap<SOCGame, Boolean>());
+
+    /** Number of forced ends requested and run */
+    private final AtomicInteger forcedCount = new AtomicInteger();
+
+    /** Number of forced ends skipped because their game already had one in flight */
+    private final AtomicInteger skippedCount = new AtomicInteger();
+
+    /** Total and longest latency of {@link #forcedCount} forced ends, in milliseconds */
+    private final AtomicLong latencyTotalMillis = new AtomicLong(), latencyMaxMillis = new AtomicLong();
+
+    /**
+     * Create and start the pool's threads.
+     * @param srv  Server, to find robots' connections
+     * @param nThreads  Number of threads in the pool; at least 1
+     * @throws IllegalArgumentException if {@code nThreads} &lt; 1
+     * @since 2.0.00
+     */
+    SOCForceEndTurnExecutor(final SOCServer srv, final int nThreads)
+        throws IllegalArgumentException
+    {
+        if (nThreads < 1)
+            throw new IllegalArgumentException("nThreads: " + nThreads);
+
+        this.srv = srv;
+        this.nThreads = nThreads;
+        pool = new ThreadPoolExecutor
+            (nThreads, nThreads, 0L, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<Runnable>(), new ThreadFactory()
+        {
+            private final AtomicInteger threadNum = new AtomicInteger();
+
+            public Thread newThread(Runnable r)
+            {
+                Thread t = new Thread(r, "forceEndTurn-" + threadNum.incrementAndGet());  // Thread name for debug
+                t.setDaemon(true);
+                return t;
+            }
+        });
+    }
+
+    /**
+     * Force-end this robot's turn soon on a pool thread, if our targeted robot player
+     * is still the current player then.  Does nothing if this game already has a forced end in flight.
+     * @param hand  Game handler, to end the turn
+     * @param ga  Game to end the turn in
+     * @param pl  Robot player whose turn should end
+     * @return  True if queued, false if skipped
+     * @since 2.0.00
+     */
+    boolean forceEndTurn(final SOCGameHandler hand, final SOCGame ga, final SOCPlayer pl)
+    {
+        if (! inFlight.add(ga))
+        {
+            skippedCount.incrementAndGet();
+            return false;
+        }
+
+        checkStuck(System.currentTimeMillis());
+
+        try
+        {
+            pool.execute(new ForceEndTurnTask(hand, ga, pl, System.currentTimeMillis()));
+        }
+        catch (RejectedExecutionException e)
+        {
+            inFlight.remove(ga);  // shutting down
+            return false;
+        }
+
+        return true;
+    }
+
+    /**
+     * Look for forced ends which have been running longer than {@link #STUCK_MILLIS}.
+     * Prints each newly stuck one to {@link System#err}, and resizes the pool to have
+     * an extra thread for each one now stuck, up to {@link #STUCK_EXTRA_THREADS_MAX}.
+     * @param now  Current time, from {@link System#currentTimeMillis()}
+     * @return  Number of stuck forced ends
+     * @since 2.0.00
+     */
+    private synchronized int checkStuck(final long now)
+    {
+        int nStuck = 0;
+        for (Map.Entry<ForceEndTurnTask, Long> e : running.entrySet())
+        {
+            final long runMillis = now - e.getValue();
+            if (runMillis < STUCK_MILLIS)
+                continue;
+
+            ++nStuck;
+            final ForceEndTurnTask task = e.getKey();
+            if (! task.stuck)
+            {
+                task.stuck = true;
+                stuckTotal.incrementAndGet();
+                System.err.println("SOCForceEndTurnExecutor: Forced end turn stuck for " + (runMillis / 1000)
+                    + " seconds in game " + task.ga.getName() + " for " + task.pl.getName());
+            }
+        }
+        stuckNow = nStuck;
+
+        final int size = nThreads + Math.min(nStuck, STUCK_EXTRA_THREADS_MAX);
+        if (size > pool.getMaximumPoolSize())
+        {
+            pool.setMaximumPoolSize(size);
+            pool.setCorePoolSize(size);
+        }
+        else if (size < pool.getCorePoolSize())
+        {
+            pool.setCorePoolSize(size);
+            pool.setMaximumPoolSize(size);
+        }
+
+        return nStuck;
+    }
+
+    /**
+     * Forced-end stats for the server's *STATS* command.
+     * @return  Text with the number of forced ends, skipped duplicates, average and longest latency,
+     *     and the number of stuck forced ends now and since startup
+     * @since 2.0.00
+     */
+    String getStatsText()
+    {
+        final int n = forcedCount.get();
+        final long avg = (n > 0) ? (latencyTotalMillis.get() / n) : 0;
+        final int nStuck = checkStuck(System.currentTimeMillis());
+        return n + " (" + skippedCount.get() + " skipped while in progress), latency avg "
+            + avg + " ms, max " + latencyMaxMillis.get() + " ms; stuck now " + nStuck
+            + ((nStuck > 0) ? " (WARNING: running over " + (STUCK_MILLIS / 1000) + " seconds)" : "")
+            + ", total " + stuckTotal.get();
+    }
+
+    /**
+     * Stop the pool's threads.  Forced ends already queued will still be run.
+     * @since 2.0.00
+     */
+    void shutdown()
+    {
+        pool.shutdown();
+    }
+
+    /**
+     * Force-end one robot's turn, then update the stats and let its game have another forced end.
+     */
+    private final class ForceEndTurnTask implements Runnable
+    {
+        private final SOCGameHandler hand;
+        private final SOCGame ga;
+        private final SOCPlayer pl;
+
+        /** When this forced end was requested, from {@link System#currentTimeMillis()} */
+        private final long requestTime;
+
+        /** Has {@link #checkStuck(long)} found this task stuck? */
+        volatile boolean stuck;
+
+        ForceEndTurnTask(final SOCGameHandler hand, final SOCGame g, final SOCPlayer p, final long requestTime)
+        {
+            this.hand = hand;
+            ga = g;
+            pl = p;
+            this.requestTime = requestTime;
+        }
+
+        public void run()
+        {
+            running.put(this, Long.valueOf(System.currentTimeMillis()));
+            try
+            {
+                forceEndTurn();
+            }
+            finally
+            {
+                running.remove(this);
+                if (stuck)
+                {
+                    System.err.println("SOCForceEndTurnExecutor: Stuck forced end turn finished in game " + ga.getName());
+                    checkStuck(System.currentTimeMillis());  // release its extra thread
+                }
+                inFlight.remove(ga);
+
+                final long latency = System.currentTimeMillis() - requestTime;
+                forcedCount.incrementAndGet();
+                latencyTotalMillis.addAndGet(latency);
+                long max;
+                while ((latency > (max = latencyMaxMillis.get())) && ! latencyMaxMillis.compareAndSet(max, latency))
+                    ;
+            }
+        }
+
+        /** If our targeted robot player is still the current player, force-end their turn. */
+        private void forceEndTurn()
+        {
+            final String rname = pl.getName();
+            final int plNum = pl.getPlayerNumber();
+            if (ga.getCurrentPlayerNumber() != plNum)
+                return;
+
+            StringConnection rconn = srv.getConnection(rname);
+            System.err.println("For robot " + rname + ": force end turn in game " + ga.getName() + " cpn=" + plNum + " state " + ga.getGameState());
+            if (ga.getGameState() == SOCGame.WAITING_FOR_DISCARDS)
+                System.err.println("  srv card count = " + pl.getResources().getTotal());
+            if (rconn == null)
+            {
+                System.err.println("L9120: internal error: can't find connection for bot " + rname);
+                return;  // shouldn't happen
+            }
+
+            // if it's the built-in type, print brain variables
+            SOCClientData scd = (SOCClientData) rconn.getAppData();
+            if (scd.isBuiltInRobot)
+            {
+                SOCRobotClient rcli = SOCLocalRobotClient.robotClients.get(rname);
+                if (rcli != null)
+                    rcli.debugPrintBrainStatus(ga.getName());
+                else
+                    System.err.println("L9397: internal error: can't find robotClient for " + rname);
+            } else {
+                System.err.println("  Can't print brain status; robot type is " + scd.robot3rdPartyBrainClass);
+            }
+
+            hand.endGameTurnOrForce(ga, plNum, rname, rconn, false);
+        }
+    }
+
+}  // class SOCForceEndTurnExecutor
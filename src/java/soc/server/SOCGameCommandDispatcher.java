@@ -0,0 +1,169 @@
+/**
+ * Java Settlers - An online multiplayer version of the game Settlers of Catan
+ * This file Copyright (C) 2026 agent <agent@local>
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * The maintainer of this program can be reached at jsettlers@nand.net
+ **/
+package soc.server;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+
+import soc.message.SOCMessage;
+import soc.message.SOCMessageForGame;
+import soc.message.SOCMessageTemplateJoinGame;
+import soc.server.genericServer.StringConnection;
+
+/**
+ * Runs each game's inbound commands on a small pool of "game treater" threads,
+ * instead of the generic server's single treater thread, so that one game's slow
+ * command (board generation, DB save, etc) doesn't stall the other games.
+ *<P>
+ * Each game is assigned to one of the pool's threads by a hash of its name;
+ * each thread runs its commands one at a time in arrival order.
+ * So, a game's commands are still processed in order, one at a time,
+ * but different games' commands can run in parallel.
+ *<P>
+ * All of a game's membership and seat changes are made on its thread:
+ * Joining, leaving, sitting down and starting the game are dispatched like its other messages,
+ * and when a client leaves the server, {@link SOCServer#leaveConnection(StringConnection)}
+ * queues its departure from each game to that game's thread.  Since a client's messages
+ * about one game all go to the same thread, they're processed in the order they were sent.
+ *<P>
+ * Used by {@link SOCServer#processCommand(String, StringConnection)} when
+ * {@link SOCServer#PROP_JSETTLERS_SERVER_GAMETHREADS} is set.
+ * Non-game messages are still processed by the generic server's treater thread.
+ *
+ * @author agent &lt;agent@local&gt;
+ * @since 2.0.00
+ */
+class SOCGameCommandDispatcher
+{
+    private final SOCServer srv;
+
+    /** Single-threaded executors; each game is always assigned to the same one. */
+    private final ExecutorService[] shards;
+
+    /**
+     * Create and start the game treater threads.
+     * @param srv  Server to call {@link SOCServer#processCommandMessage(SOCMessage, StringConnection)}
+     * @param nThreads  Number of threads in the pool; at least 1
+     * @throws IllegalArgumentException if {@code nThreads} &lt; 1
+     */
+    SOCGameCommandDispatcher(final SOCServer srv, final int nThreads)
+        throws IllegalArgumentException
+    {
+        if (nThreads < 1)
+            throw new IllegalArgumentException("nThreads: " + nThreads);
+
+        this.srv = srv;
+        shards = new ExecutorService[nThreads];
+        for (int i = 0; i < nThreads; ++i)
+        {
+            final String thName = "game-treater-" + i;  // Thread name for debug
+            shards[i] = Executors.newSingleThreadExecutor(new ThreadFactory()
+            {
+                public Thread newThread(Runnable r)
+                {
+                    Thread t = new Thread(r, thName);
+                    t.setDaemon(true);
+                    return t;
+                }
+            });
+        }
+    }
+
+    /**
+     * Number of game treater threads in the pool.
+     * @return  the {@code nThreads} given to the constructor
+     */
+    int getThreadCount()
+    {
+        return shards.length;
+    }
+
+    /**
+     * If this message is about a game, queue it to be processed on that game's treater thread,
+     * after any earlier messages for the same game.  Messages about a game are any {@link SOCMessageForGame},
+     * whether or not the game exists yet, and {@link SOCMessage#JOINGAME JOINGAME} or
+     * {@link SOCMessage#NEWGAMEWITHOPTIONSREQUEST NEWGAMEWITHOPTIONSREQUEST} from a client which has a name.
+     *<P>
+     * A join request from a client without a name isn't dispatched: The treater thread checks
+     * and sets the client's name, one request at a time, then
+     * {@link SOCServer#createOrJoinGameIfUserOK(StringConnection, String, String, String, java.util.Map, boolean)}
+     * dispatches the rest of the join with {@link #dispatch(String, Runnable)}.
+     *
+     * @param mes  Message from client
+     * @param c  Connection (client) sending this message
+     * @return  True if queued, false if not about a game: Caller should process it
+     */
+    boolean dispatch(final SOCMessage mes, final StringConnection c)
+    {
+        final String gaName;
+        if (mes instanceof SOCMessageForGame)
+        {
+            gaName = ((SOCMessageForGame) mes).getGame();
+        }
+        else if ((mes instanceof SOCMessageTemplateJoinGame) && (c.getData() != null))
+        {
+            final String gn = ((SOCMessageTemplateJoinGame) mes).getGame();
+            gaName = (mes.getType() == SOCMessage.JOINGAME) ? gn.trim() : gn;  // same as join's handler
+        } else {
+            return false;
+        }
+
+        if (gaName == null)
+            return false;
+
+        dispatch(gaName, new Runnable()
+        {
+            public void run()
+            {
+                srv.processCommandMessage(mes, c);
+            }
+        });
+
+        return true;
+    }
+
+    /**
+     * Queue a task to run on this game's treater thread, after any earlier messages or tasks for the same game.
+     * @param gaName  Game name; the game doesn't need to exist yet
+     * @param task  Task to run; should catch any exceptions it throws.
+     *     Ignored if {@link #shutdown()} has been called.
+     */
+    void dispatch(final String gaName, final Runnable task)
+    {
+        final int idx = (gaName.hashCode() & 0x7FFFFFFF) % shards.length;
+        try
+        {
+            shards[idx].execute(task);
+        }
+        catch (RejectedExecutionException e) {}  // server is shutting down
+    }
+
+    /**
+     * Stop the pool's threads.  Commands already queued will still be processed.
+     */
+    void shutdown()
+    {
+        for (int i = 0; i < shards.length; ++i)
+            shards[i].shutdown();
+    }
+
+}
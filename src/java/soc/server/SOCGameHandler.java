@@ -36,6 +36,7 @@ import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Random;
+import java.util.Set;
 import java.util.StringTokenizer;
 import java.util.Vector;
 
@@ -155,7 +156,7 @@ public class SOCGameHandler extends GameHandler
      *<P>
      * This field was originally in SOCServer, moved in v2.0.00.
      * @see SOCServer#ROBOT_FORCE_ENDTURN_SECONDS
-     * @see SOCServer#checkForExpiredTurns(long)
+     * @see SOCServer#checkForExpiredTurn(SOCGame, long)
      * @since 1.1.11
      */
     public static int ROBOT_FORCE_ENDTURN_TRADEOFFER_SECONDS = 60;
@@ -961,7 +962,7 @@ public class SOCGameHandler extends GameHandler
         if ((gameData.getGameState() == SOCGame.NEW)
             && (c.getVersion() >= SOCPotentialSettlements.VERSION_FOR_PLAYERNUM_ALL))
         {
-            final HashSet<Integer> psList = gameData.getPlayer(0).getPotentialSettlements();
+            final Set<Integer> psList = gameData.getPlayer(0).getPotentialSettlements();
 
             // Some boards may have multiple land areas.
             // See also below, and startGame which has very similar code.
@@ -976,7 +977,7 @@ public class SOCGameHandler extends GameHandler
                 if ((lan != null) && ! lan[pan].equals(psList))
                 {
                     // If potentials != legals[startingLandArea], send as legals[0]
-                    lan[0] = psList;
+                    lan[0] = new HashSet<Integer>(psList);
                     addedPsList = true;
                 }
             } else {
@@ -1121,7 +1122,7 @@ public class SOCGameHandler extends GameHandler
             if ((gameData.getGameState() != SOCGame.NEW)
                 || (c.getVersion() < SOCPotentialSettlements.VERSION_FOR_PLAYERNUM_ALL))
             {
-                final HashSet<Integer> psList = pl.getPotentialSettlements();
+                final Set<Integer> psList = pl.getPotentialSettlements();
 
                 // Some boards may have multiple land areas.
                 // Note: Assumes all players have same legal nodes.
@@ -1135,7 +1136,7 @@ public class SOCGameHandler extends GameHandler
                     lan = bl.getLandAreasLegalNodes();
                     pan = bl.getStartingLandArea();
                     if (lan != null)
-                        lan[0] = psList;
+                        lan[0] = new HashSet<Integer>(psList);
                 } else {
                     lan = null;
                     pan = 0;
@@ -1691,16 +1692,7 @@ public class SOCGameHandler extends GameHandler
                         /**
                          * record the request
                          */
-                        if (requests == null)
-                        {
-                            requests = new Vector<StringConnection>();
-                            requests.addElement(robotConn);
-                            srv.robotJoinRequests.put(gm, requests);
-                        }
-                        else
-                        {
-                            requests.addElement(robotConn);
-                        }
+                        srv.addRobotJoinRequest(gm, robotConn);
                     }
                     else
                     {
@@ -2411,7 +2403,7 @@ public class SOCGameHandler extends GameHandler
 
         final String gaName = ga.getName();
 
-        srv.numberOfGamesStarted++;  // TODO once multiple handler threads, encapsulate this
+        srv.numberOfGamesStarted.incrementAndGet();
 
         /**
          * start the game, place any initial pieces
@@ -2460,7 +2452,7 @@ public class SOCGameHandler extends GameHandler
             // Send the updated Potential/Legal Settlement node list
             // Note: Assumes all players have same potential settlements
             //    (sends with playerNumber -1 == all)
-            final HashSet<Integer> psList = ga.getPlayer(0).getPotentialSettlements();
+            final Set<Integer> psList = ga.getPlayer(0).getPotentialSettlements();
 
             // Some boards may have multiple land areas.
             final HashSet<Integer>[] lan;
@@ -2474,7 +2466,7 @@ public class SOCGameHandler extends GameHandler
             if ((lan != null) && (pan != 0) && ! lan[pan].equals(psList))
             {
                 // If potentials != legals[startingLandArea], send as legals[0]
-                lan[0] = psList;
+                lan[0] = new HashSet<Integer>(psList);
                 addedPsList = true;
             }
 
@@ -2928,6 +2920,7 @@ public class SOCGameHandler extends GameHandler
                     {
                         // Set the "force end turn soon" field
                         ga.lastActionTime = 0L;
+                        srv.gameTimeoutChecker.recheckTurnSoon(ga);
                     }
                 }
             }
@@ -5253,7 +5246,7 @@ public class SOCGameHandler extends GameHandler
                 return;  // <-- Waiting on humans --
         }
 
-        new SOCForceEndTurnThread(srv, this, ga, pl).start();
+        srv.forceEndTurnExecutor.forceEndTurn(this, ga, pl);
     }
 
     /**
@@ -5270,7 +5263,7 @@ public class SOCGameHandler extends GameHandler
      * May or may not have <tt>gameList.takeMonitorForGame(ga)</tt>;
      * use <tt>hasMonitorFromGameList</tt> to indicate.
      *<P>
-     * Not public, but package visibility, for use by {@link SOCForceEndTurnThread} for {@link SOCGameTimeoutChecker}.
+     * Not public, but package visibility, for use by {@link SOCForceEndTurnExecutor} for {@link SOCGameTimeoutChecker}.
      *
      * @param ga   The game to end turn
      * @param plNumber  player.getNumber; may or may not be current player
@@ -55,7 +55,7 @@ public class SOCGameListAtServer extends SOCGameList
      * Default is 90.
      *
      * @see #createGame(String, String, String, Map)
-     * @see SOCServer#checkForExpiredGames(long)
+     * @see SOCServer#checkForExpiredGame(SOCGame, long)
      */
     public static int GAME_EXPIRE_MINUTES = 90;
 
@@ -312,7 +312,7 @@ public class SOCGameListAtServer extends SOCGameList
         // set the expiration to 90 min. from now
         game.setExpiration(game.getStartTime().getTime() + (60 * 1000 * GAME_EXPIRE_MINUTES));
 
-        gameInfo.put(gaName, new GameInfoAtServer(game.getGameOptions(), handler));  // also creates MutexFlag
+        gameInfo.put(gaName, new GameInfoAtServer(gaName, game.getGameOptions(), handler));  // also creates MonitorLock
         gameData.put(gaName, game);
 
         return game;
@@ -492,15 +492,16 @@ public class SOCGameListAtServer extends SOCGameList
 
         /**
          * Constructor, with handler and optional game options.
+         * @param gaName  Game name
          * @param gameOpts  Game's {@link SOCGameOption}s, or null
          * @param typeHandler  Game type handler for this game
          * @throws IllegalArgumentException  if {@code handler} is null
          */
         public GameInfoAtServer
-            (final Map<String,SOCGameOption> gameOpts, final GameHandler typeHandler)
+            (final String gaName, final Map<String,SOCGameOption> gameOpts, final GameHandler typeHandler)
             throws IllegalArgumentException
         {
-            super(true, gameOpts);
+            super(gaName, true, gameOpts);
 
             if (typeHandler == null)
                 throw new IllegalArgumentException("handler");
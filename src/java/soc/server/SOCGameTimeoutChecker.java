@@ -1,7 +1,7 @@
 /**
  * Java Settlers - An online multiplayer version of the game Settlers of Catan
  * Copyright (C) 2003  Robert S. Thomas
- * Portions of this file Copyright (C) 2010 Jeremy D Monin <jeremy@nand.net>
+ * Portions of this file Copyright (C) 2010,2014 Jeremy D Monin <jeremy@nand.net>
  *
  * This program is free software; you can redistribute it and/or
  * modify it under the terms of the GNU General Public License
@@ -18,19 +18,46 @@
  **/
 package soc.server;
 
+import java.util.concurrent.DelayQueue;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.TimeUnit;
+
+import soc.debug.D;
+import soc.game.SOCGame;
 
 /**
- * Wakes up every few seconds to check for turns that have expired,
- * and every 5 minutes to check for games that have expired,
- * by calling {@link SOCServer#checkForExpiredGames(long)}
- * and {@link SOCServer#checkForExpiredTurns(long)}.
+ * Checks each game for turns that have expired and for game expiry, when they're due,
+ * by calling {@link SOCServer#checkForExpiredTurn(SOCGame, long)}
+ * and {@link SOCServer#checkForExpiredGame(SOCGame, long)}.
+ *<P>
+ * Before v2.0.00 this thread woke every few seconds and scanned every game for turn expiry,
+ * and every 5 minutes scanned them for game expiry while holding the game list's monitor.
+ * Now each game has a turn check and a game-expiry check in a {@link DelayQueue}, scheduled for the time
+ * its {@link SOCGame#lastActionTime} or {@link SOCGame#getExpiration()} will come due.
+ * The thread sleeps until the earliest check is due, and touches only the games being checked.
+ *<P>
+ * Activity doesn't need to reschedule the checks: When a check comes due, the server method
+ * re-reads the game's current times and returns the next time to check it, which is later if there's been
+ * activity or if *ADDTIME* extended the game. A check returning 0 is dropped, such as when its game
+ * has ended or been destroyed.
+ *<P>
+ * Call {@link #addGame(SOCGame)} when the server creates a new game object.
+ * When the server sets a game's {@link SOCGame#lastActionTime} to 0 to force its turn to end soon,
+ * it should call {@link #recheckTurnSoon(SOCGame)}, since the game's scheduled turn check may be
+ * up to {@link SOCServer#ROBOT_FORCE_ENDTURN_SECONDS} away.
  *
  * @author Robert S Thomas
  */
 public class SOCGameTimeoutChecker extends Thread
 {
     private SOCServer server;
-    private boolean alive;
+    private volatile boolean alive;
+
+    /**
+     * Checks for all games, earliest due first.
+     * @since 2.0.00
+     */
+    private final DelayQueue<Check> checks = new DelayQueue<Check>();
 
     /**
      * Create a game timeout checker
@@ -46,49 +73,138 @@ public class SOCGameTimeoutChecker extends Thread
     }
 
     /**
-     * Wakes up every few seconds to check for turns that have expired,
-     * and every 5 minutes to check for games that have expired.
+     * Start checking a new game: Schedule its turn check for {@link SOCServer#ROBOT_FORCE_ENDTURN_SECONDS}
+     * after its {@link SOCGame#lastActionTime}, and its game-expiry check for now,
+     * which will schedule the expiry warning. Call once per game object, including each board reset's new game.
+     * Can be called from any thread.
+     * @param ga  Game to check; its expiration and {@link SOCGame#isPractice} flag should already be set
+     * @since 2.0.00
      */
-    public void run()
+    public void addGame(final SOCGame ga)
     {
-        // check every few seconds; should be about half of ROBOT_FORCE_ENDTURN_SECONDS
-        final int sleepMillis = SOCServer.ROBOT_FORCE_ENDTURN_SECONDS * 600;
+        checks.add(new Check(ga, true, ga.lastActionTime + (1000L * SOCServer.ROBOT_FORCE_ENDTURN_SECONDS)));
+        if (! ga.isPractice)
+            checks.add(new Check(ga, false, System.currentTimeMillis()));
+    }
 
-        // Holds time of next check for game expiry, not just turn expiry
-        long gameExpireCheckTime = 0L;
+    /**
+     * Check a game's turn again soon, after the server sets its {@link SOCGame#lastActionTime} to 0
+     * to force the turn to end.  The check is due in half the interval of the sweep through all games
+     * before v2.0.00, which was {@link SOCServer#ROBOT_FORCE_ENDTURN_SECONDS} * 600 ms,
+     * so the turn ends about as soon as it did then.
+     * This extra check runs once; the game's regular turn check stays scheduled.
+     * Can be called from any thread.
+     * @param ga  Game to check
+     * @since 2.0.00
+     */
+    public void recheckTurnSoon(final SOCGame ga)
+    {
+        final Check ch = new Check(ga, true, System.currentTimeMillis() + (300L * SOCServer.ROBOT_FORCE_ENDTURN_SECONDS));
+        ch.once = true;
+        checks.add(ch);
+    }
 
+    /**
+     * Number of turn and game-expiry checks waiting, for status or debugging.
+     * Includes checks of games destroyed since their check was scheduled;
+     * those are dropped when they come due.
+     * @return  Number of scheduled checks
+     * @since 2.0.00
+     */
+    public int getScheduledCount()
+    {
+        return checks.size();
+    }
+
+    /**
+     * Waits for each check to come due, calls the server to check the game,
+     * and reschedules it for the time returned.
+     */
+    public void run()
+    {
         while (alive)
         {
-            long now = System.currentTimeMillis();
-            if (gameExpireCheckTime == 0L)
-                gameExpireCheckTime = now;
-            if (now >= gameExpireCheckTime)
+            final Check ch;
+            try
             {
-                server.checkForExpiredGames(now);
-
-                // check every 5 minutes; must be at most half of SOCServer.GAME_EXPIRE_WARN_MINUTES
-                gameExpireCheckTime = now + 300000;
-                yield();
+                ch = checks.take();
+            }
+            catch (InterruptedException e)
+            {
+                continue;  // probably from stopChecking
             }
 
-            server.checkForExpiredTurns(now);
-            yield();
-
+            final long now = System.currentTimeMillis();
+            long next;
             try
             {
-                sleep(sleepMillis);
+                next = (ch.isTurn)
+                    ? server.checkForExpiredTurn(ch.game, now)
+                    : server.checkForExpiredGame(ch.game, now);
             }
-            catch (InterruptedException exc) {}
+            catch (Throwable e)
+            {
+                D.ebugPrintln("Exception in SOCGameTimeoutChecker - " + e);
+                next = now + (1000L * SOCServer.ROBOT_FORCE_ENDTURN_SECONDS);  // try again later
+            }
+
+            if ((next != 0L) && ! ch.once)
+            {
+                ch.when = (next > now) ? next : now + 1;
+                checks.add(ch);
+            }
+
+            yield();
         }
 
+        checks.clear();
         server = null;
     }
 
     /**
-     * DOCUMENT ME!
+     * Stop checking, and end this thread.
      */
     public void stopChecking()
     {
         alive = false;
+        interrupt();
     }
+
+    /**
+     * One scheduled check of a game's turn or expiration.
+     * Only the checker thread changes {@link #when}, while the check isn't in the queue.
+     * @since 2.0.00
+     */
+    private static final class Check implements Delayed
+    {
+        final SOCGame game;
+
+        /** Is this the game's turn check, not its game-expiry check? */
+        final boolean isTurn;
+
+        /** When this check is due, same epoch as {@link System#currentTimeMillis()} */
+        long when;
+
+        /** Is this an extra check from {@link SOCGameTimeoutChecker#recheckTurnSoon(SOCGame)}, not rescheduled? */
+        boolean once;
+
+        Check(final SOCGame game, final boolean isTurn, final long when)
+        {
+            this.game = game;
+            this.isTurn = isTurn;
+            this.when = when;
+        }
+
+        public long getDelay(final TimeUnit unit)
+        {
+            return unit.convert(when - System.currentTimeMillis(), TimeUnit.MILLISECONDS);
+        }
+
+        public int compareTo(final Delayed other)
+        {
+            final long ow = ((Check) other).when;
+            return (when < ow) ? -1 : ((when == ow) ? 0 : 1);
+        }
+    }
+
 }
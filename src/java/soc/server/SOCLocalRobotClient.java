@@ -23,6 +23,7 @@ package soc.server;
 
 import java.util.Hashtable;
 
+import soc.robot.SOCRobotBrainScheduler;
 import soc.robot.SOCRobotClient;
 
 /**
@@ -76,6 +77,9 @@ class SOCLocalRobotClient implements Runnable
      * @param strSocketName  Server's stringport socket name, or null
      * @param port    Server's tcp port, if <tt>strSocketName</tt> is null
      * @param cookie  Cookie for robot connections to server
+     * @param sched  Scheduler to run the robot's brains on a shared pool of threads,
+     *     or null for a thread per brain; see {@link SOCRobotClient#setBrainScheduler(SOCRobotBrainScheduler)}.
+     *     This parameter was added in 2.0.00.
      * @since 1.1.09
      * @see SOCServer#setupLocalRobots(int, int)
      * @throws ClassNotFoundException  if a robot class, or SOCDisplaylessClient,
@@ -83,7 +87,8 @@ class SOCLocalRobotClient implements Runnable
      * @throws LinkageError  for same reason as ClassNotFoundException
      */
     public static void createAndStartRobotClientThread
-        (final String rname, final String strSocketName, final int port, final String cookie)
+        (final String rname, final String strSocketName, final int port, final String cookie,
+         final SOCRobotBrainScheduler sched)
         throws ClassNotFoundException, LinkageError
     {
         SOCRobotClient rcli;
@@ -91,6 +96,7 @@ class SOCLocalRobotClient implements Runnable
             rcli = new SOCRobotClient(strSocketName, rname, "pw", cookie);
         else
             rcli = new SOCRobotClient("localhost", port, rname, "pw", cookie);
+        rcli.setBrainScheduler(sched);
         Thread rth = new Thread(new SOCLocalRobotClient(rcli));
         rth.setDaemon(true);
         rth.start();  // run() will add to robotClients
@@ -27,16 +27,19 @@ import soc.debug.D;  // JM
 import soc.game.*;
 import soc.message.*;
 
+import soc.robot.SOCRobotBrainScheduler;
 import soc.robot.SOCRobotClient;
+import soc.robot.SOCRobotDM;
 import soc.server.database.SOCDBHelper;
 
+import soc.server.genericServer.EncodedMessage;
 import soc.server.genericServer.LocalStringConnection;
 import soc.server.genericServer.Server;
 import soc.server.genericServer.StringConnection;
 
 import soc.util.I18n;
 import soc.util.SOCGameBoardReset;
-import soc.util.SOCGameList;  // used in javadoc
+import soc.util.SOCGameList;
 import soc.util.SOCRobotParameters;
 import soc.util.SOCStringManager;
 import soc.util.Version;
@@ -61,6 +64,7 @@ import java.util.MissingResourceException;
 import java.util.Properties;
 import java.util.Random;
 import java.util.Vector;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * A server for Settlers of Catan
@@ -167,6 +171,37 @@ public class SOCServer extends Server
      */
     public static final String PROP_JSETTLERS_BOTS_SHOWCOOKIE = "jsettlers.bots.showcookie";
 
+    /**
+     * Integer property <tt>jsettlers.bots.threads</tt> to run the robot brains of the
+     * {@link #PROP_JSETTLERS_STARTROBOTS bots started in the server's JVM} on a shared pool
+     * of this many threads, instead of a thread and a pinger thread for each bot in each game.
+     * Each brain still handles its game's messages in order.
+     * (The default is 0, don't use a pool.)
+     * @see soc.robot.SOCRobotBrainScheduler
+     * @since 2.0.00
+     */
+    public static final String PROP_JSETTLERS_BOTS_THREADS = "jsettlers.bots.threads";
+
+    /**
+     * Integer property <tt>jsettlers.bots.dm.threads</tt> for robots in the server's JVM to score
+     * their possible pieces in parallel on a shared pool of this many threads when planning
+     * with the smart strategy. The plans are the same; useful when there are more CPUs than busy robots.
+     * (The default is 0, score pieces on each robot's own thread.)
+     * @see soc.robot.SOCRobotDM#setParallelEvaluation(int)
+     * @since 2.0.00
+     */
+    public static final String PROP_JSETTLERS_BOTS_DM_THREADS = "jsettlers.bots.dm.threads";
+
+    /**
+     * Boolean property <tt>jsettlers.bots.dm.journal</tt> for robots in the server's JVM to try each possible piece
+     * in place in their player trackers when planning with the smart strategy, undoing the changes afterwards,
+     * instead of trying it in copies of all the trackers. The plans are the same.
+     * (The default is Y, try pieces in place.)
+     * @see soc.robot.SOCRobotDM#setTrialJournal(boolean)
+     * @since 2.0.00
+     */
+    public static final String PROP_JSETTLERS_BOTS_DM_JOURNAL = "jsettlers.bots.dm.journal";
+
     /**
      * Property <tt>jsettlers.startrobots</tt> to start some robots when the server starts.
      * (The default is {@link #SOC_STARTROBOTS_DEFAULT}.)
@@ -202,6 +237,130 @@ public class SOCServer extends Server
      */
     public static final String PROP_JSETTLERS_CLI_MAXCREATECHANNELS = "jsettlers.client.maxcreatechannels";
 
+    /**
+     * Boolean property <tt>jsettlers.server.nio</tt> to use non-blocking network I/O:
+     * All client connections share a selector thread and a dispatch thread,
+     * instead of each having its own reader and writer threads.
+     * (The default is N.)  Clients can't tell the difference.
+     * @see soc.server.genericServer.NIOStringServerSocket
+     * @since 2.0.00
+     */
+    public static final String PROP_JSETTLERS_SERVER_NIO = "jsettlers.server.nio";
+
+    /**
+     * Boolean property <tt>jsettlers.server.virtualthreads</tt> to run each client connection's
+     * reader and writer on virtual threads instead of platform threads, if the JVM supports them (Java 21+).
+     * (The default is N.)  Ignored if {@link #PROP_JSETTLERS_SERVER_NIO} is set.
+     * @see soc.server.genericServer.Server#setUseVirtualThreads(boolean)
+     * @since 2.0.00
+     */
+    public static final String PROP_JSETTLERS_SERVER_VIRTUALTHREADS = "jsettlers.server.virtualthreads";
+
+    /**
+     * Integer property <tt>jsettlers.server.gamethreads</tt> to process game messages on a pool of
+     * this many threads, instead of the single thread which processes all messages from all clients.
+     * Each game's messages are still processed in order, on the same thread, but different games
+     * can be processed in parallel.  (The default is 0, don't use a pool.)
+     * @see #processCommand(String, StringConnection)
+     * @since 2.0.00
+     */
+    public static final String PROP_JSETTLERS_SERVER_GAMETHREADS = "jsettlers.server.gamethreads";
+
+    /**
+     * Integer property <tt>jsettlers.server.forceendturn.threads</tt> for the number of threads
+     * which force-end inactive robots' turns. Each game has at most one forced end in progress.
+     * (The default is {@link SOCForceEndTurnExecutor#THREADS_DEFAULT}.)
+     * @see #checkForExpiredTurn(SOCGame, long)
+     * @since 2.0.00
+     */
+    public static final String PROP_JSETTLERS_SERVER_FORCEENDTURN_THREADS = "jsettlers.server.forceendturn.threads";
+
+    /**
+     * Integer property <tt>jsettlers.server.auth.threads</tt> for the number of threads
+     * which check passwords and create accounts, when the server has a database.
+     * (The default is {@link SOCAuthExecutor#THREADS_DEFAULT}.)
+     * @see #PROP_JSETTLERS_SERVER_AUTH_RATELIMIT
+     * @since 2.0.00
+     */
+    public static final String PROP_JSETTLERS_SERVER_AUTH_THREADS = "jsettlers.server.auth.threads";
+
+    /**
+     * Integer property <tt>jsettlers.server.auth.ratelimit</tt> for the most password checks and account creations
+     * per minute from each client host, when the server has a database; 0 for no limit.
+     * (The default is {@link SOCAuthExecutor#RATELIMIT_DEFAULT}.)
+     * @see #PROP_JSETTLERS_SERVER_AUTH_THREADS
+     * @since 2.0.00
+     */
+    public static final String PROP_JSETTLERS_SERVER_AUTH_RATELIMIT = "jsettlers.server.auth.ratelimit";
+
+    /**
+     * Boolean property <tt>jsettlers.server.compactframes</tt> to send messages as compact frames
+     * to clients which ask for them in their {@link SOCVersion} message's features.
+     * (The default is Y.)  Clients which don't ask are always sent text frames.
+     * Compact frames reduce network bandwidth, but use slightly more CPU than text frames to encode.
+     * @see soc.server.genericServer.MessageFrameCodec
+     * @since 2.0.00
+     */
+    public static final String PROP_JSETTLERS_SERVER_COMPACTFRAMES = "jsettlers.server.compactframes";
+
+    /**
+     * Integer property <tt>jsettlers.server.writebatch</tt> for the most queued messages each client
+     * connection writes before flushing to the network; 1 flushes after every message.
+     * (The default is {@link soc.server.genericServer.Server#WRITE_BATCH_MAX_DEFAULT}.)
+     * @see #PROP_JSETTLERS_SERVER_WRITELATENCY
+     * @see soc.server.genericServer.Server#setWriteBatching(int, int)
+     * @since 2.0.00
+     */
+    public static final String PROP_JSETTLERS_SERVER_WRITEBATCH = "jsettlers.server.writebatch";
+
+    /**
+     * Integer property <tt>jsettlers.server.writelatency</tt> for how many milliseconds a client connection
+     * can wait for more messages before flushing a partial write batch.
+     * (The default is 0, flush as soon as no more messages are queued.)
+     * @see #PROP_JSETTLERS_SERVER_WRITEBATCH
+     * @since 2.0.00
+     */
+    public static final String PROP_JSETTLERS_SERVER_WRITELATENCY = "jsettlers.server.writelatency";
+
+    /**
+     * Integer property <tt>jsettlers.server.outqueue.maxmsgs</tt> to limit the number of messages queued
+     * to be sent to each client, or 0 for no limit (the default).
+     * @see #PROP_JSETTLERS_SERVER_OUTQUEUE_POLICY
+     * @see soc.server.genericServer.Server#setOutQueueLimits(int, int, int, int)
+     * @since 2.0.00
+     */
+    public static final String PROP_JSETTLERS_SERVER_OUTQUEUE_MAXMSGS = "jsettlers.server.outqueue.maxmsgs";
+
+    /**
+     * Integer property <tt>jsettlers.server.outqueue.maxbytes</tt> to limit the total size of messages queued
+     * to be sent to each client, or 0 for no limit.
+     * (The default is {@link soc.server.genericServer.Server#OUTQUEUE_MAX_BYTES_DEFAULT}.)
+     * @see #PROP_JSETTLERS_SERVER_OUTQUEUE_POLICY
+     * @since 2.0.00
+     */
+    public static final String PROP_JSETTLERS_SERVER_OUTQUEUE_MAXBYTES = "jsettlers.server.outqueue.maxbytes";
+
+    /**
+     * Property <tt>jsettlers.server.outqueue.policy</tt> for what to do when a slow client's outbound queue
+     * is over its limit: {@code drop} the connection, {@code coalesce} game-state messages (the default),
+     * or {@code grace}: coalesce, then give the client a grace period to catch up while its queue grows
+     * to at most twice the limit.  Unless it gets back within the limit, the client is dropped.
+     * Games aren't paused, and threads sending to the client never wait for it.
+     * @see soc.server.genericServer.Server#OUTQUEUE_POLICY_COALESCE
+     * @see #PROP_JSETTLERS_SERVER_OUTQUEUE_GRACEMS
+     * @since 2.0.00
+     */
+    public static final String PROP_JSETTLERS_SERVER_OUTQUEUE_POLICY = "jsettlers.server.outqueue.policy";
+
+    /**
+     * Integer property <tt>jsettlers.server.outqueue.gracems</tt> for the grace period in milliseconds
+     * that the {@code grace} outbound queue policy gives a slow client to catch up before dropping it.
+     * (The default is {@link soc.server.genericServer.Server#OUTQUEUE_GRACE_MS_DEFAULT}.)
+     * @see #PROP_JSETTLERS_SERVER_OUTQUEUE_POLICY
+     * @since 2.0.00
+     */
+    public static final String PROP_JSETTLERS_SERVER_OUTQUEUE_GRACEMS = "jsettlers.server.outqueue.gracems";
+
     /**
      * List and descriptions of all available JSettlers {@link Properties properties},
      * such as {@link #PROP_JSETTLERS_PORT} and {@link SOCDBHelper#PROP_JSETTLERS_DB_URL}.
@@ -222,13 +381,36 @@ public class SOCServer extends Server
         I18n.PROP_JSETTLERS_LOCALE,             "Locale override from the default, such as es or en_US",
         PROP_JSETTLERS_BOTS_COOKIE,             "Robot cookie value (default is random generated each startup)",
         PROP_JSETTLERS_BOTS_SHOWCOOKIE,         "Flag to show the robot cookie value at startup",
+        PROP_JSETTLERS_BOTS_THREADS,            "Number of threads to run started robots' brains (default 0, a thread per brain)",
+        PROP_JSETTLERS_BOTS_DM_THREADS,         "Number of threads for robots to score building plans in parallel (default 0)",
+        PROP_JSETTLERS_BOTS_DM_JOURNAL,         "Flag for robots to try building plans in place with an undo journal (default Y)",
+        PROP_JSETTLERS_SERVER_NIO,              "Flag to use non-blocking I/O for client connections (if Y)",
+        PROP_JSETTLERS_SERVER_VIRTUALTHREADS,   "Flag to use virtual threads for client connections (if Y and java 21+)",
+        PROP_JSETTLERS_SERVER_GAMETHREADS,      "Number of threads to process game messages in parallel (default 0, all in 1 thread)",
+        PROP_JSETTLERS_SERVER_FORCEENDTURN_THREADS, "Number of threads to force-end inactive robots' turns (default "
+            + SOCForceEndTurnExecutor.THREADS_DEFAULT + ")",
+        PROP_JSETTLERS_SERVER_AUTH_THREADS,     "Number of threads to check DB passwords (default "
+            + SOCAuthExecutor.THREADS_DEFAULT + ")",
+        PROP_JSETTLERS_SERVER_AUTH_RATELIMIT,   "Most DB password checks per client host per minute (default "
+            + SOCAuthExecutor.RATELIMIT_DEFAULT + "; 0 for no limit)",
+        PROP_JSETTLERS_SERVER_COMPACTFRAMES,    "Flag to send compact frames to clients which ask for them (default Y)",
+        PROP_JSETTLERS_SERVER_WRITEBATCH,       "Most messages to write to a client before flushing (default "
+            + WRITE_BATCH_MAX_DEFAULT + ")",
+        PROP_JSETTLERS_SERVER_WRITELATENCY,     "Milliseconds to wait for more messages before flushing (default 0)",
+        PROP_JSETTLERS_SERVER_OUTQUEUE_MAXMSGS, "Most messages queued to send to a client (default 0, no limit)",
+        PROP_JSETTLERS_SERVER_OUTQUEUE_MAXBYTES, "Most bytes queued to send to a client (default "
+            + OUTQUEUE_MAX_BYTES_DEFAULT + "; 0 for no limit)",
+        PROP_JSETTLERS_SERVER_OUTQUEUE_POLICY,  "When over limit: drop, coalesce, or grace (default coalesce)",
+        PROP_JSETTLERS_SERVER_OUTQUEUE_GRACEMS, "Grace period in ms for a client to catch up, for grace policy (default "
+            + OUTQUEUE_GRACE_MS_DEFAULT + ")",
         SOCDBHelper.PROP_JSETTLERS_DB_USER,     "DB username",
         SOCDBHelper.PROP_JSETTLERS_DB_PASS,     "DB password",
         SOCDBHelper.PROP_JSETTLERS_DB_URL,      "DB connection URL",
         SOCDBHelper.PROP_JSETTLERS_DB_JAR,      "DB driver jar filename",
         SOCDBHelper.PROP_JSETTLERS_DB_DRIVER,   "DB driver class name",
         SOCDBHelper.PROP_JSETTLERS_DB_SCRIPT_SETUP, "If set, full path or relative path to db setup sql script; will run and exit",
-        SOCDBHelper.PROP_JSETTLERS_DB_SAVE_GAMES,  "Flag to save all games in DB (if 1 or Y)"
+        SOCDBHelper.PROP_JSETTLERS_DB_SAVE_GAMES,  "Flag to save all games in DB (if 1 or Y)",
+        SOCDBHelper.PROP_JSETTLERS_DB_POOL_SIZE,  "Max number of DB connections (default 4; sqlite 1)"
     };
 
     /**
@@ -269,11 +451,11 @@ public class SOCServer extends Server
 
     /**
      * If game will expire in this or fewer minutes, warn the players. Default 10.
-     * Must be at least twice the sleep-time in {@link SOCGameTimeoutChecker#run()}.
+     * They're warned again when half this time remains.
      * The game expiry time is set at game creation in
      * {@link SOCGameListAtServer#createGame(String, String, String, Map, GameHandler)}.
      *
-     * @see #checkForExpiredGames(long)
+     * @see #checkForExpiredGame(SOCGame, long)
      * @see SOCGameTimeoutChecker#run()
      * @see SOCGameListAtServer#GAME_EXPIRE_MINUTES
      */
@@ -282,7 +464,7 @@ public class SOCServer extends Server
     /**
      * Force robot to end their turn after this many seconds
      * of inactivity.
-     * @see #checkForExpiredTurns(long)
+     * @see #checkForExpiredTurn(SOCGame, long)
      * @since 1.1.11
      */
     public static int ROBOT_FORCE_ENDTURN_SECONDS = 8;
@@ -515,12 +697,15 @@ public class SOCServer extends Server
     protected SOCGameListAtServer gameList = new SOCGameListAtServer();
 
     /**
-     * table of requests for robots to join games
+     * table of requests for robots to join games.
+     * Updated from game threads; add to it with {@link #addRobotJoinRequest(String, StringConnection)},
+     * and synchronize on it for other compound updates.
      */
     protected Hashtable<String, Vector<StringConnection>> robotJoinRequests = new Hashtable<String, Vector<StringConnection>>();
 
     /**
-     * table of requestst for robots to leave games
+     * table of requestst for robots to leave games.
+     * Updated from game threads; add to it with {@link #addRobotDismissRequest(String, SOCReplaceRequest)}.
      */
     protected Hashtable<String, Vector<SOCReplaceRequest>> robotDismissRequests = new Hashtable<String, Vector<SOCReplaceRequest>>();
 
@@ -540,19 +725,22 @@ public class SOCServer extends Server
     protected long startTime;
 
     /**
-     * the total number of games that have been started
+     * the total number of games that have been started.
+     * Updated from game threads and connection threads, so it's atomic.
      */
-    protected int numberOfGamesStarted;
+    protected final AtomicInteger numberOfGamesStarted = new AtomicInteger();
 
     /**
-     * the total number of games finished
+     * the total number of games finished.
+     * Updated from game threads and connection threads, so it's atomic.
      */
-    protected int numberOfGamesFinished;
+    protected final AtomicInteger numberOfGamesFinished = new AtomicInteger();
 
     /**
-     * total number of users
+     * total number of users.
+     * Updated from game threads and connection threads, so it's atomic.
      */
-    protected int numberOfUsers;
+    protected final AtomicInteger numberOfUsers = new AtomicInteger();
 
     /**
      * Client version count stats since startup (includes bots).
@@ -592,6 +780,50 @@ public class SOCServer extends Server
      */
     SOCGameTimeoutChecker gameTimeoutChecker;
 
+    /**
+     * Force-ends inactive robots' turns for {@link SOCGameHandler#endTurnIfInactive(SOCGame, long)}.
+     * @see #PROP_JSETTLERS_SERVER_FORCEENDTURN_THREADS
+     * @since 2.0.00
+     */
+    SOCForceEndTurnExecutor forceEndTurnExecutor;
+
+    /**
+     * If the server has a database, checks passwords and creates accounts off the treater thread; otherwise null.
+     * @see #authenticateUser(StringConnection, String, String)
+     * @see #PROP_JSETTLERS_SERVER_AUTH_THREADS
+     * @since 2.0.00
+     */
+    private SOCAuthExecutor authExecutor;
+
+    /**
+     * If {@link #PROP_JSETTLERS_SERVER_GAMETHREADS} is set, runs game messages on a pool of threads
+     * instead of the single treater thread; otherwise null.
+     * @see #processCommand(String, StringConnection)
+     * @since 2.0.00
+     */
+    private SOCGameCommandDispatcher gameCommandDispatcher;
+
+    /**
+     * If {@link #PROP_JSETTLERS_BOTS_THREADS} is set, runs the brains of robots started by
+     * {@link #setupLocalRobots(int, int)} on a pool of threads; otherwise null.
+     * @since 2.0.00
+     */
+    private SOCRobotBrainScheduler robotBrainScheduler;
+
+    /**
+     * True if {@link #PROP_JSETTLERS_BOTS_DM_THREADS} is set and this server
+     * started robots' {@link SOCRobotDM#setParallelEvaluation(int) parallel evaluation} pool.
+     * @since 2.0.00
+     */
+    private boolean robotDMParallel;
+
+    /**
+     * Send compact frames to clients which ask for them? From {@link #PROP_JSETTLERS_SERVER_COMPACTFRAMES}.
+     * @see #handleVERSION(StringConnection, SOCVersion)
+     * @since 2.0.00
+     */
+    private boolean allowCompactFrames = true;
+
     String databaseUserName;
     String databasePassword;
 
@@ -660,7 +892,7 @@ public class SOCServer extends Server
     public SOCServer(final int p, Properties props)
         throws SocketException, EOFException, SQLException
     {
-        super(p);
+        super(p, init_getBoolProperty(props, PROP_JSETTLERS_SERVER_NIO, false));
         maxConnections = init_getIntProperty(props, PROP_JSETTLERS_CONNECTIONS, SOC_MAXCONN_DEFAULT);
         allowDebugUser = init_getBoolProperty(props, PROP_JSETTLERS_ALLOW_DEBUG, false);
         CLIENT_MAX_CREATE_GAMES = init_getIntProperty(props, PROP_JSETTLERS_CLI_MAXCREATEGAMES, CLIENT_MAX_CREATE_GAMES);
@@ -759,6 +991,47 @@ public class SOCServer extends Server
 
         this.props = props;
 
+        if (init_getBoolProperty(props, PROP_JSETTLERS_SERVER_VIRTUALTHREADS, false))
+        {
+            if (setUseVirtualThreads(true))
+                System.err.println("Client connections will use virtual threads.");
+            else
+                System.err.println("Warning: Virtual threads not supported by this JVM, ignoring property "
+                    + PROP_JSETTLERS_SERVER_VIRTUALTHREADS);
+        }
+
+        final int writeBatch = init_getIntProperty(props, PROP_JSETTLERS_SERVER_WRITEBATCH, WRITE_BATCH_MAX_DEFAULT),
+                  writeLatency = init_getIntProperty(props, PROP_JSETTLERS_SERVER_WRITELATENCY, 0);
+        try
+        {
+            setWriteBatching(writeBatch, writeLatency);
+        }
+        catch (IllegalArgumentException e)
+        {
+            System.err.println("Warning: Ignoring bad values for properties " + PROP_JSETTLERS_SERVER_WRITEBATCH
+                + " and " + PROP_JSETTLERS_SERVER_WRITELATENCY + ": " + writeBatch + ", " + writeLatency);
+        }
+
+        final String oqPolicyName = (props != null)
+            ? props.getProperty(PROP_JSETTLERS_SERVER_OUTQUEUE_POLICY, OUTQUEUE_POLICY_NAMES[OUTQUEUE_POLICY_COALESCE]).trim()
+            : OUTQUEUE_POLICY_NAMES[OUTQUEUE_POLICY_COALESCE];
+        final int oqMaxMsgs = init_getIntProperty(props, PROP_JSETTLERS_SERVER_OUTQUEUE_MAXMSGS, 0),
+                  oqMaxBytes = init_getIntProperty
+                      (props, PROP_JSETTLERS_SERVER_OUTQUEUE_MAXBYTES, OUTQUEUE_MAX_BYTES_DEFAULT),
+                  oqGraceMS = init_getIntProperty(props, PROP_JSETTLERS_SERVER_OUTQUEUE_GRACEMS, OUTQUEUE_GRACE_MS_DEFAULT),
+                  oqPolicy = parseOutQueuePolicy(oqPolicyName);
+        try
+        {
+            setOutQueueLimits(oqMaxMsgs, oqMaxBytes, oqPolicy, oqGraceMS);
+        }
+        catch (IllegalArgumentException e)
+        {
+            System.err.println("Warning: Ignoring bad values for outbound queue properties "
+                + PROP_JSETTLERS_SERVER_OUTQUEUE_MAXMSGS + ", " + PROP_JSETTLERS_SERVER_OUTQUEUE_MAXBYTES + ", "
+                + PROP_JSETTLERS_SERVER_OUTQUEUE_POLICY + ", " + PROP_JSETTLERS_SERVER_OUTQUEUE_GRACEMS + ": "
+                + oqMaxMsgs + ", " + oqMaxBytes + ", " + oqPolicyName + ", " + oqGraceMS);
+        }
+
         if (allowDebugUser)
         {
             System.err.println("Warning: Remote debug commands are allowed.");
@@ -885,9 +1158,6 @@ public class SOCServer extends Server
         }
 
         startTime = System.currentTimeMillis();
-        numberOfGamesStarted = 0;
-        numberOfGamesFinished = 0;
-        numberOfUsers = 0;
         clientPastVersionStats = new HashMap<Integer, Integer>();
 
         /**
@@ -895,8 +1165,47 @@ public class SOCServer extends Server
          */
         serverRobotPinger = new SOCServerRobotPinger(this, robots);
         serverRobotPinger.start();
+        int nForceEndThreads = init_getIntProperty
+            (props, PROP_JSETTLERS_SERVER_FORCEENDTURN_THREADS, SOCForceEndTurnExecutor.THREADS_DEFAULT);
+        if (nForceEndThreads < 1)
+            nForceEndThreads = 1;
+        forceEndTurnExecutor = new SOCForceEndTurnExecutor(this, nForceEndThreads);
+        if (SOCDBHelper.isInitialized())
+        {
+            int nAuthThreads = init_getIntProperty
+                (props, PROP_JSETTLERS_SERVER_AUTH_THREADS, SOCAuthExecutor.THREADS_DEFAULT);
+            if (nAuthThreads < 1)
+                nAuthThreads = 1;
+            int authRateLimit = init_getIntProperty
+                (props, PROP_JSETTLERS_SERVER_AUTH_RATELIMIT, SOCAuthExecutor.RATELIMIT_DEFAULT);
+            if (authRateLimit < 0)
+                authRateLimit = 0;
+            authExecutor = new SOCAuthExecutor(this, nAuthThreads, authRateLimit);
+        }
         gameTimeoutChecker = new SOCGameTimeoutChecker(this);
         gameTimeoutChecker.start();
+        final int nGameThreads = init_getIntProperty(props, PROP_JSETTLERS_SERVER_GAMETHREADS, 0);
+        if (nGameThreads > 0)
+        {
+            gameCommandDispatcher = new SOCGameCommandDispatcher(this, nGameThreads);
+            System.err.println("Game messages will be processed by " + nGameThreads + " threads.");
+        }
+        final int nBotThreads = init_getIntProperty(props, PROP_JSETTLERS_BOTS_THREADS, 0);
+        if (nBotThreads > 0)
+        {
+            robotBrainScheduler = new SOCRobotBrainScheduler(nBotThreads);
+            System.err.println("Robot brains will be run by " + nBotThreads + " threads.");
+        }
+        final int nDMThreads = init_getIntProperty(props, PROP_JSETTLERS_BOTS_DM_THREADS, 0);
+        if (nDMThreads > 1)
+        {
+            SOCRobotDM.setParallelEvaluation(nDMThreads);
+            robotDMParallel = true;
+            System.err.println("Robots will score building plans on " + nDMThreads + " threads.");
+        }
+        if (! init_getBoolProperty(props, PROP_JSETTLERS_BOTS_DM_JOURNAL, true))
+            SOCRobotDM.setTrialJournal(false);
+        allowCompactFrames = init_getBoolProperty(props, PROP_JSETTLERS_SERVER_COMPACTFRAMES, true);
         this.databaseUserName = databaseUserName;
         this.databasePassword = databasePassword;
 
@@ -1271,6 +1580,7 @@ public class SOCServer extends Server
                 {
                     newGame.isPractice = true;  // flag if practice game (set since 1.1.09)
                 }
+                gameTimeoutChecker.addGame(newGame);
 
                 // Add this (creating) player to the game
                 gameList.addMember(c, gaName);
@@ -1557,7 +1867,8 @@ public class SOCServer extends Server
             for (int i = 0; i < numFast; ++i)
             {
                 String rname = "droid " + (i+1);
-                SOCLocalRobotClient.createAndStartRobotClientThread(rname, strSocketName, port, robotCookie);
+                SOCLocalRobotClient.createAndStartRobotClientThread
+                    (rname, strSocketName, port, robotCookie, robotBrainScheduler);
                     // includes yield() and sleep(75 ms) this thread.
             }
 
@@ -1578,7 +1889,8 @@ public class SOCServer extends Server
             for (int i = 0; i < numSmart; ++i)
             {
                 String rname = "robot " + (i+1+numFast);
-                SOCLocalRobotClient.createAndStartRobotClientThread(rname, strSocketName, port, robotCookie);
+                SOCLocalRobotClient.createAndStartRobotClientThread
+                    (rname, strSocketName, port, robotCookie, robotBrainScheduler);
                     // includes yield() and sleep(75 ms) this thread.
             }
 
@@ -1616,7 +1928,7 @@ public class SOCServer extends Server
 
         if (cg.getGameState() == SOCGame.OVER)
         {
-            numberOfGamesFinished++;
+            numberOfGamesFinished.incrementAndGet();
         }
 
         ///
@@ -1905,7 +2217,7 @@ public class SOCServer extends Server
      */
     public void messageToChannel(String ch, SOCMessage mes)
     {
-        final String mesCmd = mes.toCmd();
+        final EncodedMessage mesEnc = new EncodedMessage(mes.toCmd(), this);
 
         channelList.takeMonitorForChannel(ch);
 
@@ -1923,7 +2235,7 @@ public class SOCServer extends Server
 
                     if (c != null)
                     {
-                        c.put(mesCmd);
+                        c.put(mesEnc);
                     }
                 }
             }
@@ -1951,7 +2263,7 @@ public class SOCServer extends Server
 
         if (v != null)
         {
-            final String mesCmd = mes.toCmd();
+            final EncodedMessage mesEnc = new EncodedMessage(mes.toCmd(), this);
 
             Enumeration<StringConnection> menum = v.elements();
 
@@ -1961,7 +2273,7 @@ public class SOCServer extends Server
 
                 if (c != null)
                 {
-                    c.put(mesCmd);
+                    c.put(mesEnc);
                 }
             }
         }
@@ -1979,7 +2291,11 @@ public class SOCServer extends Server
             return;
 
         //currentGameEventRecord.addMessageOut(new SOCMessageRecord(mes, "SERVER", c.getData()));
-        c.put(mes.toCmd());
+        final String coalesceKey = mes.getCoalesceKey();
+        if (coalesceKey != null)
+            c.put(new EncodedMessage(mes.toCmd(), null, coalesceKey));
+        else
+            c.put(mes.toCmd());
     }
 
     /**
@@ -2093,6 +2409,7 @@ public class SOCServer extends Server
 
     /**
      * Send a message to the given game.
+     * The message is encoded only once for all members; see {@link EncodedMessage}.
      *<P>
      * <b>Locks:</b> Takes, releases {@link SOCGameList#takeMonitorForGame(String)}.
      *
@@ -2107,7 +2424,7 @@ public class SOCServer extends Server
      */
     public void messageToGame(String ga, SOCMessage mes)
     {
-        final String mesCmd = mes.toCmd();
+        final EncodedMessage mesEnc = new EncodedMessage(mes.toCmd(), this, mes.getCoalesceKey());
 
         gameList.takeMonitorForGame(ga);
 
@@ -2127,7 +2444,7 @@ public class SOCServer extends Server
                     if (c != null)
                     {
                         //currentGameEventRecord.addMessageOut(new SOCMessageRecord(mes, "SERVER", c.getData()));
-                        c.put(mesCmd);
+                        c.put(mesEnc);
                     }
                 }
             }
@@ -2166,7 +2483,8 @@ public class SOCServer extends Server
      */
     public void messageToGame(final String ga, final String txt)
     {
-        final String gameServTxtMsg = SOCGameServerText.toCmd(ga, txt);
+        final EncodedMessage gameServTxtMsg = new EncodedMessage(SOCGameServerText.toCmd(ga, txt), this);
+        EncodedMessage gameTxtMsg = null;  // for older clients; will be SOCGameTextMsg.toCmd
 
         gameList.takeMonitorForGame(ga);
 
@@ -2184,9 +2502,13 @@ public class SOCServer extends Server
                     if (c != null)
                     {
                         if (c.getVersion() >= SOCGameServerText.VERSION_FOR_GAMESERVERTEXT)
+                        {
                             c.put(gameServTxtMsg);
-                        else
-                            c.put(SOCGameTextMsg.toCmd(ga, SERVERNAME, txt));
+                        } else {
+                            if (gameTxtMsg == null)
+                                gameTxtMsg = new EncodedMessage(SOCGameTextMsg.toCmd(ga, SERVERNAME, txt), this);
+                            c.put(gameTxtMsg);
+                        }
                     }
                 }
             }
@@ -2592,7 +2914,7 @@ public class SOCServer extends Server
             return;
 
         //D.ebugPrintln("M2G - "+mes);
-        final String mesCmd = mes.toCmd();
+        final EncodedMessage mesEnc = new EncodedMessage(mes.toCmd(), this, mes.getCoalesceKey());
         Enumeration<StringConnection> menum = v.elements();
 
         while (menum.hasMoreElements())
@@ -2602,7 +2924,7 @@ public class SOCServer extends Server
             if (c != null)
             {
                 //currentGameEventRecord.addMessageOut(new SOCMessageRecord(mes, "SERVER", c.getData()));
-                c.put(mesCmd);
+                c.put(mesEnc);
             }
         }
     }
@@ -2658,7 +2980,7 @@ public class SOCServer extends Server
             if (v != null)
             {
                 //D.ebugPrintln("M2GE - "+mes);
-                final String mesCmd = mes.toCmd();
+                final EncodedMessage mesEnc = new EncodedMessage(mes.toCmd(), this, mes.getCoalesceKey());
                 Enumeration<StringConnection> menum = v.elements();
 
                 while (menum.hasMoreElements())
@@ -2668,7 +2990,7 @@ public class SOCServer extends Server
                     if ((con != null) && (!ex.contains(con)))
                     {
                         //currentGameEventRecord.addMessageOut(new SOCMessageRecord(mes, "SERVER", con.getData()));
-                        con.put(mesCmd);
+                        con.put(mesEnc);
                     }
                 }
             }
@@ -2707,7 +3029,7 @@ public class SOCServer extends Server
             if (v != null)
             {
                 //D.ebugPrintln("M2GE - "+mes);
-                final String mesCmd = mes.toCmd();
+                final EncodedMessage mesEnc = new EncodedMessage(mes.toCmd(), this, mes.getCoalesceKey());
                 Enumeration<StringConnection> menum = v.elements();
 
                 while (menum.hasMoreElements())
@@ -2717,7 +3039,7 @@ public class SOCServer extends Server
                         continue;
 
                     //currentGameEventRecord.addMessageOut(new SOCMessageRecord(mes, "SERVER", con.getData()));
-                    con.put(mesCmd);
+                    con.put(mesEnc);
                 }
             }
         }
@@ -2784,7 +3106,7 @@ public class SOCServer extends Server
             Vector<StringConnection> v = gameList.getMembers(gn);
             if (v != null)
             {
-                String mesCmd = null;  // will be mes.toCmd()
+                EncodedMessage mesEnc = null;  // will be mes.toCmd()
                 Enumeration<StringConnection> menum = v.elements();
 
                 while (menum.hasMoreElements())
@@ -2797,9 +3119,9 @@ public class SOCServer extends Server
                     if ((cv >= vmin) && (cv <= vmax))
                     {
                         //currentGameEventRecord.addMessageOut(new SOCMessageRecord(mes, "SERVER", con.getData()));
-                        if (mesCmd == null)
-                            mesCmd = mes.toCmd();
-                        con.put(mesCmd);
+                        if (mesEnc == null)
+                            mesEnc = new EncodedMessage(mes.toCmd(), this, mes.getCoalesceKey());
+                        con.put(mesEnc);
                     }
                 }
             }
@@ -2842,13 +3164,38 @@ public class SOCServer extends Server
      * @param c  the connection
      */
     @Override
-    public void leaveConnection(StringConnection c)
+    public void leaveConnection(final StringConnection c)
     {
         if ((c == null) || (c.getData() == null))
             return;
 
         leaveAllChannels(c);
-        leaveAllGames(c);
+
+        final SOCGameCommandDispatcher gcd = gameCommandDispatcher;
+        if (gcd == null)
+        {
+            leaveAllGames(c);
+        } else {
+            // Leave each game on its own thread, after any of the client's messages already queued there
+            for (SOCGame ga : gameList.memberGames(c, null))
+            {
+                final String gaName = ga.getName();
+                gcd.dispatch(gaName, new Runnable()
+                {
+                    public void run()
+                    {
+                        try
+                        {
+                            leaveConnectionGame(c, gaName);
+                        }
+                        catch (Throwable e)
+                        {
+                            D.ebugPrintStackTrace(e, "Exception in leaveConnection");
+                        }
+                    }
+                });
+            }
+        }
 
         /**
          * if it is a robot, remove it from the list
@@ -3451,6 +3798,11 @@ public class SOCServer extends Server
      * Called from the single 'treater' thread.
      * <em>Do not block or sleep</em> because this is single-threaded.
      *<P>
+     * If {@link #PROP_JSETTLERS_SERVER_GAMETHREADS} is set, messages about a game are instead queued
+     * to that game's thread in {@link #gameCommandDispatcher}, which will call
+     * {@link #processCommandMessage(SOCMessage, StringConnection)}: See
+     * {@link SOCGameCommandDispatcher#dispatch(SOCMessage, StringConnection)} for which messages.
+     *<P>
      * The first message from a client is treated by
      * {@link #processFirstCommand(String, StringConnection)} instead.
      *<P>
@@ -3468,10 +3820,37 @@ public class SOCServer extends Server
     @Override
     public void processCommand(String s, StringConnection c)
     {
+        SOCMessage mes = null;
         try
         {
-            SOCMessage mes = SOCMessage.toMsg(s);
+            mes = SOCMessage.toMsg(s);
+        }
+        catch (Throwable e)
+        {
+            D.ebugPrintStackTrace(e, "ERROR -> processCommand");
+        }
 
+        final SOCGameCommandDispatcher gcd = gameCommandDispatcher;
+        if ((mes != null) && (gcd != null) && (c != null) && gcd.dispatch(mes, c))
+            return;  // <--- Early return: will be processed on game's thread ---
+
+        processCommandMessage(mes, c);
+    }
+
+    /**
+     * Treat an incoming message, after {@link #processCommand(String, StringConnection)} has parsed it.
+     * Called from the single 'treater' thread, or if {@link #PROP_JSETTLERS_SERVER_GAMETHREADS} is set
+     * and {@code mes} is about a game, from that game's thread in {@link #gameCommandDispatcher}.
+     * See {@code processCommand} for details.
+     *
+     * @param mes  Message from the client, or null to ignore
+     * @param c    Connection (client) sending this message
+     * @since 2.0.00
+     */
+    void processCommandMessage(final SOCMessage mes, final StringConnection c)
+    {
+        try
+        {
             // D.ebugPrintln(c.getData()+" - "+mes);
             if (mes != null)
             {
@@ -3702,7 +4081,7 @@ public class SOCServer extends Server
             D.ebugPrintStackTrace(e, "ERROR -> processCommand");
         }
 
-    }  // processCommand
+    }  // processCommandMessage
 
     /**
      * Used by {@link #processDebugCommand(StringConnection, String, String, String)}}
@@ -3952,6 +4331,16 @@ public class SOCServer extends Server
         
         super.stopServer();
 
+        if (gameCommandDispatcher != null)
+            gameCommandDispatcher.shutdown();
+        forceEndTurnExecutor.shutdown();
+        if (authExecutor != null)
+            authExecutor.shutdown();
+        if (robotBrainScheduler != null)
+            robotBrainScheduler.shutdown();
+        if (robotDMParallel)
+            SOCRobotDM.setParallelEvaluation(0);
+
         System.out.println("Server shutdown completed.");
     }
 
@@ -3961,13 +4350,17 @@ public class SOCServer extends Server
      * if they're not in the db, but they supplied a password,
      * then send a message (not OK).
      * if they're not in the db, and no password, then ok.
+     *<P>
+     * Doesn't change any server state, so it's safe to call from any thread.
+     * If the server has a database, it's called from an {@link SOCAuthExecutor} thread
+     * so the treater thread doesn't wait for the lookup.
      *
      * @param c         the user's connection
      * @param userName  the user's nickname
      * @param password  the user's password; trim before calling
      * @return true if the user has been authenticated
      */
-    private boolean authenticateUser(StringConnection c, String userName, String password)
+    boolean authenticateUser(StringConnection c, String userName, String password)
     {
         String userPassword = null;
 
@@ -4044,6 +4437,10 @@ public class SOCServer extends Server
      *<P>
      * Along with the game list, the client will need to know the game option info.
      * This is sent when the client asks (after VERSION) for {@link SOCGameOptionGetInfos GAMEOPTIONGETINFOS}.
+     *<P>
+     * If the client's features include {@link SOCVersion#FEAT_COMPACT_FRAMES}, and
+     * {@link #PROP_JSETTLERS_SERVER_COMPACTFRAMES} isn't N, messages from now on are sent to it as compact frames
+     * when shorter than text.
      *
      * @param c  the connection that sent the message
      * @param mes  the messsage
@@ -4053,6 +4450,9 @@ public class SOCServer extends Server
         if (c == null)
             return;
 
+        if (allowCompactFrames && mes.hasFeature(SOCVersion.FEAT_COMPACT_FRAMES))
+            c.setCompactFrames(true);
+
         setClientVersSendGamesOrReject(c, mes.getVersionNumber(), mes.locale, true);
     }
 
@@ -4192,6 +4592,22 @@ public class SOCServer extends Server
      * @param mes  the messsage
      */
     private void handleJOIN(StringConnection c, SOCJoin mes)
+    {
+        handleJOIN(c, mes, false);
+    }
+
+    /**
+     * Handle the "join a channel" message, after checking the user's password if needed.
+     * If the server has a database and the connection isn't yet named, the password is checked
+     * on an {@link #authExecutor} thread, which calls this method again with {@code isAuthed} true
+     * on the treater thread if it's correct.
+     *
+     * @param c  the connection that sent the message
+     * @param mes  the messsage
+     * @param isAuthed  True if the user's password has already been checked
+     * @since 2.0.00
+     */
+    private void handleJOIN(final StringConnection c, final SOCJoin mes, final boolean isAuthed)
     {
         if (c == null)
             return;
@@ -4255,9 +4671,24 @@ public class SOCServer extends Server
             }
         }
 
-        if ((c.getData() == null) && (!authenticateUser(c, msgUser, msgPass)))
+        if ((c.getData() == null) && ! isAuthed)
         {
-            return;
+            if (authExecutor != null)
+            {
+                // Check the password on an auth thread; if OK, continue on the treater thread
+                authExecutor.authenticate(c, msgUser, msgPass, new Runnable()
+                {
+                    public void run()
+                    {
+                        handleJOIN(c, mes, true);
+                    }
+                });
+
+                return;  // <---- Early return: Will continue after auth ----
+            }
+
+            if (! authenticateUser(c, msgUser, msgPass))
+                return;
         }
 
         /**
@@ -4288,7 +4719,7 @@ public class SOCServer extends Server
         {
             c.setData(msgUser);
             nameConnection(c, isTakingOver);
-            numberOfUsers++;
+            numberOfUsers.incrementAndGet();
         }
 
         /**
@@ -4563,7 +4994,7 @@ public class SOCServer extends Server
         ///
         /// command to add time to a game
         /// If the command text changes from '*ADDTIME*' to something else,
-        /// please update the warning text sent in checkForExpiredGames().
+        /// please update the warning text sent in checkForExpiredGame(SOCGame, long).
         ///
         final String cmdText = gameTextMsgMes.getText();
         final String cmdTxtUC = cmdText.toUpperCase();
@@ -4571,7 +5002,7 @@ public class SOCServer extends Server
         {
             // add 30 minutes to the expiration time.  If this
             // changes to another timespan, please update the
-            // warning text sent in checkForExpiredGames().
+            // warning text sent in checkForExpiredGame(SOCGame, long).
             // Use ">>>" in messageToGame to mark as urgent.
             if (ga.isPractice)
             {
@@ -4612,11 +5043,21 @@ public class SOCServer extends Server
             messageToPlayer(c, gaName, "> Connections since startup: " + numberOfConnections);
             messageToPlayer(c, gaName, "> Current named connections: " + getNamedConnectionCount());
             messageToPlayer(c, gaName, "> Current connections including unnamed: " + getCurrentConnectionCount());
-            messageToPlayer(c, gaName, "> Total Users: " + numberOfUsers);
-            messageToPlayer(c, gaName, "> Games started: " + numberOfGamesStarted);
-            messageToPlayer(c, gaName, "> Games finished: " + numberOfGamesFinished);
+            messageToPlayer(c, gaName, "> Total Users: " + numberOfUsers.get());
+            messageToPlayer(c, gaName, "> Games started: " + numberOfGamesStarted.get());
+            messageToPlayer(c, gaName, "> Games finished: " + numberOfGamesFinished.get());
             messageToPlayer(c, gaName, "> Total Memory: " + rt.totalMemory());
             messageToPlayer(c, gaName, "> Free Memory: " + rt.freeMemory());
+            messageToPlayer(c, gaName, "> Platform threads: " + Thread.activeCount()
+                + (isUsingVirtualThreads() ? " (connections use virtual threads)" : ""));
+            messageToPlayer(c, gaName, "> Compact frames sent: " + getCompactFramesTotal()
+                + ", bytes saved: " + getCompactBytesSavedTotal());
+            messageToPlayer(c, gaName, "> Broadcast encodes avoided: " + getEncodesAvoided());
+            messageToPlayer(c, gaName, "> Write batching: " + getWriteBatchStatsText());
+            messageToPlayer(c, gaName, "> Outbound queues: " + getOutQueueStatsText());
+            messageToPlayer(c, gaName, "> Forced end turns: " + forceEndTurnExecutor.getStatsText());
+            if (authExecutor != null)
+                messageToPlayer(c, gaName, "> Logins: " + authExecutor.getStatsText());
             messageToPlayer(c, gaName, "> Version: "
                 + Version.versionNumber() + " (" + Version.version() + ") build " + Version.buildnum());
 
@@ -4634,6 +5075,19 @@ public class SOCServer extends Server
                 }
             }
 
+            messageToPlayer(c, gaName, "> Game list monitor: " + gameList.getMonitorStats().getStatsText());
+            int nContended = 0;
+            for (SOCGameList.GameMonitorStats gm : gameList.getGameMonitorStats())
+            {
+                if (gm.waitCount == 0)
+                    break;  // sorted by wait time, so no more contended games
+                if (nContended == 0)
+                    messageToPlayer(c, gaName, "> Most contended game monitors:");
+                messageToPlayer(c, gaName, ">   " + gm.name + ": " + gm.statsText);
+                if (++nContended >= 5)
+                    break;
+            }
+
             processDebugCommand_checktime(c, gaName, ga);
         }
         else if (cmdTxtUC.startsWith("*WHO*"))
@@ -4815,6 +5269,28 @@ public class SOCServer extends Server
     private void createOrJoinGameIfUserOK
         (StringConnection c, final String msgUser, String msgPass,
          final String gameName, Map<String, SOCGameOption> gameOpts)
+    {
+        createOrJoinGameIfUserOK(c, msgUser, msgPass, gameName, gameOpts, false);
+    }
+
+    /**
+     * Check username/password and create new game, or join game, after checking the user's password if needed.
+     * If the server has a database and the connection isn't yet named, the password is checked
+     * on an {@link #authExecutor} thread, which calls this method again with {@code isAuthed} true
+     * on the treater thread if it's correct.
+     * See {@link #createOrJoinGameIfUserOK(StringConnection, String, String, String, Map)} for details.
+     *
+     * @param c connection requesting the game, must not be null
+     * @param msgUser username of client in message
+     * @param msgPass password of client in message
+     * @param gameName  name of game to create/join
+     * @param gameOpts  if game has options, contains {@link SOCGameOption} to create new game; otherwise null
+     * @param isAuthed  True if the user's password has already been checked
+     * @since 2.0.00
+     */
+    private void createOrJoinGameIfUserOK
+        (final StringConnection c, final String msgUser, String msgPass,
+         final String gameName, final Map<String, SOCGameOption> gameOpts, final boolean isAuthed)
     {
         System.err.println("L4885 createOrJoinGameIfUserOK at " + System.currentTimeMillis());
         if (msgPass != null)
@@ -4869,9 +5345,25 @@ public class SOCServer extends Server
         /**
          * password check new connection from database, if possible
          */
-        if ((c.getData() == null) && (!authenticateUser(c, msgUser, msgPass)))
+        if ((c.getData() == null) && ! isAuthed)
         {
-            return;  // <---- Early return: Password auth failed ----
+            if (authExecutor != null)
+            {
+                // Check the password on an auth thread; if OK, continue on the treater thread
+                final String pw = msgPass;
+                authExecutor.authenticate(c, msgUser, pw, new Runnable()
+                {
+                    public void run()
+                    {
+                        createOrJoinGameIfUserOK(c, msgUser, pw, gameName, gameOpts, true);
+                    }
+                });
+
+                return;  // <---- Early return: Will continue after auth ----
+            }
+
+            if (! authenticateUser(c, msgUser, msgPass))
+                return;  // <---- Early return: Password auth failed ----
         }
 
         /**
@@ -4905,7 +5397,36 @@ public class SOCServer extends Server
         {
             c.setData(msgUser);
             nameConnection(c, isTakingOver);
-            numberOfUsers++;
+            numberOfUsers.incrementAndGet();
+
+            /**
+             * If game messages are processed on game threads, continue on this game's thread
+             * so that its membership changes only there, in order.  Taking over a connection
+             * rejoins all of the client's games, so that continues here instead.
+             */
+            final SOCGameCommandDispatcher gcd = gameCommandDispatcher;
+            if ((gcd != null) && ! isTakingOver)
+            {
+                gcd.dispatch(gameName, new Runnable()
+                {
+                    public void run()
+                    {
+                        if (! c.isConnected())
+                            return;  // client left while this was queued
+
+                        try
+                        {
+                            createOrJoinGameIfUserOK(c, msgUser, null, gameName, gameOpts, true);
+                        }
+                        catch (Throwable e)
+                        {
+                            D.ebugPrintStackTrace(e, "Exception in createOrJoinGameIfUserOK");
+                        }
+                    }
+                });
+
+                return;  // <---- Early return: Will continue on game's thread ----
+            }
         }
 
         /**
@@ -5080,6 +5601,37 @@ public class SOCServer extends Server
         }
     }
 
+    /**
+     * When a client leaves the server, remove it from one of its games if it's still a member.
+     * Called from {@link #leaveConnection(StringConnection)} on the game's thread in {@link #gameCommandDispatcher};
+     * without that dispatcher, {@link #leaveAllGames(StringConnection)} is called instead.
+     * @param c  Connection leaving the server
+     * @param gaName  Game name
+     * @since 2.0.00
+     */
+    private void leaveConnectionGame(final StringConnection c, final String gaName)
+    {
+        boolean isMember = false;
+        if (! gameList.takeMonitorForGame(gaName))
+        {
+            return;  // <--- Early return: game not in gamelist ---
+        }
+
+        try
+        {
+            isMember = gameList.isMember(c, gaName);
+        }
+        catch (Exception e)
+        {
+            D.ebugPrintStackTrace(e, "Exception in leaveConnectionGame (isMember)");
+        }
+
+        gameList.releaseMonitorForGame(gaName);
+
+        if (isMember)
+            handleLEAVEGAME_member(c, gaName);
+    }
+
     /**
      * Handle a member leaving the game, from {@link #handleLEAVEGAME(StringConnection, SOCLeaveGame)}.
      * @since 1.1.07
@@ -5266,19 +5818,7 @@ public class SOCServer extends Server
                      * this connection has to wait for the robot to leave
                      * and then it can sit down
                      */
-                    Vector<SOCReplaceRequest> disRequests = robotDismissRequests.get(gaName);
-                    SOCReplaceRequest req = new SOCReplaceRequest(c, robotCon, mes);
-
-                    if (disRequests == null)
-                    {
-                        disRequests = new Vector<SOCReplaceRequest>();
-                        disRequests.addElement(req);
-                        robotDismissRequests.put(gaName, disRequests);
-                    }
-                    else
-                    {
-                        disRequests.addElement(req);
-                    }
+                    addRobotDismissRequest(gaName, new SOCReplaceRequest(c, robotCon, mes));
                 }
 
                 canSit = false;
@@ -5579,6 +6119,48 @@ public class SOCServer extends Server
         }
     }
 
+    /**
+     * Record a request for a robot to join a game, in {@link #robotJoinRequests}.
+     * Several game threads can update the table, so the lookup and add are synchronized on it.
+     * @param gaName  Game name
+     * @param robotConn  Robot asked to join
+     * @since 2.0.00
+     */
+    void addRobotJoinRequest(final String gaName, final StringConnection robotConn)
+    {
+        synchronized (robotJoinRequests)
+        {
+            Vector<StringConnection> requests = robotJoinRequests.get(gaName);
+            if (requests == null)
+            {
+                requests = new Vector<StringConnection>();
+                robotJoinRequests.put(gaName, requests);
+            }
+            requests.addElement(robotConn);
+        }
+    }
+
+    /**
+     * Record a request for a robot to leave a game so someone can take its seat,
+     * in {@link #robotDismissRequests}. The lookup and add are synchronized on the table.
+     * @param gaName  Game name
+     * @param req  Request to replace the robot
+     * @since 2.0.00
+     */
+    void addRobotDismissRequest(final String gaName, final SOCReplaceRequest req)
+    {
+        synchronized (robotDismissRequests)
+        {
+            Vector<SOCReplaceRequest> requests = robotDismissRequests.get(gaName);
+            if (requests == null)
+            {
+                requests = new Vector<SOCReplaceRequest>();
+                robotDismissRequests.put(gaName, requests);
+            }
+            requests.addElement(req);
+        }
+    }
+
     /**
      * Temporary debugging; call when "no player gets anything" will be printed after a roll.
      * @param ga  Game data
@@ -6114,12 +6696,29 @@ public class SOCServer extends Server
     }
 
     /**
-     * handle "create account" message
+     * handle "create account" message.
+     * If the server has a database, the account is created on an {@link #authExecutor} thread.
      *
      * @param c  the connection
      * @param mes  the message
      */
     private void handleCREATEACCOUNT(StringConnection c, SOCCreateAccount mes)
+    {
+        if (authExecutor != null)
+            authExecutor.createAccount(c, mes);
+        else
+            createAccount(c, mes);
+    }
+
+    /**
+     * Create an account in the database, if the nickname isn't already in use, and tell the client the result.
+     * Doesn't change any server state, so it's safe to call from any thread.
+     *
+     * @param c  the connection
+     * @param mes  the message
+     * @since 2.0.00
+     */
+    void createAccount(StringConnection c, SOCCreateAccount mes)
     {
         final int cliVers = c.getVersion();
 
@@ -6293,9 +6892,10 @@ public class SOCServer extends Server
                 /**
                  * if the request list is empty, remove the empty list
                  */
-                if (requests.isEmpty())
+                synchronized (robotJoinRequests)
                 {
-                    robotJoinRequests.remove(gaName);
+                    if (requests.isEmpty() && (robotJoinRequests.get(gaName) == requests))
+                        robotJoinRequests.remove(gaName);
                 }
             }
 
@@ -6368,6 +6968,7 @@ public class SOCServer extends Server
             return;  // <---- Early return: reset failed ----
         }
         SOCGame reGame = reBoard.newGame;
+        gameTimeoutChecker.addGame(reGame);
 
         // Announce who asked for this reset
         {
@@ -6550,6 +7151,9 @@ public class SOCServer extends Server
      *<P>
      * Does nothing unless property {@code jsettlers.db.save.games}
      * is true. ({@link SOCDBHelper#PROP_JSETTLERS_DB_SAVE_GAMES})
+     *<P>
+     * The scores are queued and written soon by the database's write-behind thread;
+     * this method doesn't wait for the database.
      *
      * @param ga  the game; state should be {@link SOCGame#OVER}
      */
@@ -6601,136 +7205,126 @@ public class SOCServer extends Server
     }
 
     /**
-     * check for games that have expired and destroy them.
-     * If games are about to expire, send a warning.
+     * Check a game for expiry when it's due: Destroy it if it has expired;
+     * if it's about to expire, send a warning.
      * As of version 1.1.09, practice games ({@link SOCGame#isPractice} flag set) don't expire.
      * Callback method from {@link SOCGameTimeoutChecker#run()}.
+     *<P>
+     * Before v2.0.00 this was {@code checkForExpiredGames(long)}, which checked every game every 5 minutes.
+     * Now each game is checked when due: Warnings are sent {@link #GAME_EXPIRE_WARN_MINUTES} and half that
+     * many minutes before the game expires.
      *
+     * @param ga  Game to check
      * @param currentTimeMillis  The time when called, from {@link System#currentTimeMillis()}
-     * @see #GAME_EXPIRE_WARN_MINUTES
-     * @see #checkForExpiredTurns(long)
+     * @return  When to check {@code ga} again, same epoch as {@code currentTimeMillis},
+     *     or 0 if it's been destroyed or doesn't expire
+     * @see #checkForExpiredTurn(SOCGame, long)
+     * @since 2.0.00
      */
-    public void checkForExpiredGames(final long currentTimeMillis)
+    public long checkForExpiredGame(final SOCGame ga, final long currentTimeMillis)
     {
-        Vector<String> expired = new Vector<String>();
-
-        gameList.takeMonitor();
-        
-        // Add 2 minutes because of coarse 5-minute granularity in SOCGameTimeoutChecker.run()
-        long warn_ms = (2 + GAME_EXPIRE_WARN_MINUTES) * 60L * 1000L;
+        if (ga.isPractice)
+            return 0L;  // <--- Skip practice games, they don't expire ---
 
-        try
-        {
-            for (SOCGame gameData : gameList.getGamesData())
-            {
-                if (gameData.isPractice)
-                    continue;  // <--- Skip practice games, they don't expire ---
+        final String gaName = ga.getName();
+        if (gameList.getGameData(gaName) != ga)
+            return 0L;  // game was destroyed or reset
 
-                long gameExpir = gameData.getExpiration();
+        final long gameExpir = ga.getExpiration();
+        final long warn_ms = GAME_EXPIRE_WARN_MINUTES * 60L * 1000L;
 
-                // Start our text messages with ">>>" to mark as urgent to the client.
+        // Start our text messages with ">>>" to mark as urgent to the client.
 
-                if (gameExpir <= currentTimeMillis)
-                {
-                    final String gameName = gameData.getName();
-                    expired.addElement(gameName);
-                    messageToGameUrgent(gameName, ">>> The time limit on this game has expired and will now be destroyed.");
-                }
-                else if ((gameExpir - warn_ms) <= currentTimeMillis)
-                {
-                    //
-                    //  Give people a few minutes' warning (they may have a few warnings)
-                    //
-                    long minutes = ((gameExpir - currentTimeMillis) / 60000);
-                    if (minutes < 1L)
-                        minutes = 1;  // in case of rounding down
-
-                    messageToGameUrgent(gameData.getName(), ">>> Less than "
-                            + minutes + " minutes remaining.  Type *ADDTIME* to extend this game another 30 minutes.");
-                }
-            }
-        }
-        catch (Exception e)
+        if (gameExpir <= currentTimeMillis)
         {
-            D.ebugPrintln("Exception in checkForExpiredGames - " + e);
-        }
+            messageToGameUrgent(gaName, ">>> The time limit on this game has expired and will now be destroyed.");
 
-        gameList.releaseMonitor();
-
-        //
-        // destroy the expired games
-        //
-        for (Enumeration<String> ex = expired.elements(); ex.hasMoreElements();)
-        {
-            String ga = ex.nextElement();
+            //
+            // destroy the expired game
+            //
             gameList.takeMonitor();
-
             try
             {
-                destroyGame(ga);
+                destroyGame(gaName);
             }
             catch (Exception e)
             {
-                D.ebugPrintln("Exception in checkForExpired - " + e);
+                D.ebugPrintln("Exception in checkForExpiredGame - " + e);
             }
-
             gameList.releaseMonitor();
-            broadcast(SOCDeleteGame.toCmd(ga));
+            broadcast(SOCDeleteGame.toCmd(gaName));
+
+            return 0L;
         }
+
+        if ((gameExpir - warn_ms) > currentTimeMillis)
+            return gameExpir - warn_ms;  // not warning yet, or *ADDTIME* has extended the game
+
+        //
+        //  Give people a few minutes' warning (they get 2 warnings)
+        //
+        long minutes = ((gameExpir - currentTimeMillis + 59999L) / 60000L);
+        if (minutes < 1L)
+            minutes = 1;
+
+        messageToGameUrgent(gaName, ">>> Less than "
+                + minutes + " minutes remaining.  Type *ADDTIME* to extend this game another 30 minutes.");
+
+        final long secondWarning = gameExpir - (warn_ms / 2);
+        return (secondWarning > currentTimeMillis) ? secondWarning : gameExpir;
     }
 
     /**
-     * Check for robot turns that have expired, and end them.
-     * They may end from inactivity or from an illegal placement.
+     * Check a game for a robot turn that has expired, and end it.
+     * Turns may end from inactivity or from an illegal placement.
      * Checks the {@link SOCGame#lastActionTime} field.
      * Callback method from {@link SOCGameTimeoutChecker#run()}.
+     *<P>
+     * Before v2.0.00 this was {@code checkForExpiredTurns(long)}, which checked every game every few seconds.
+     * Now each game is checked when its {@code lastActionTime} is due,
+     * or every {@link #ROBOT_FORCE_ENDTURN_SECONDS} while its turn is inactive.
      *
+     * @param ga  Game to check
      * @param currentTimeMillis  The time when called, from {@link System#currentTimeMillis()}
-     * @see #ROBOT_FORCE_ENDTURN_SECONDS
-     * @see #checkForExpiredGames(long)
-     * @since 1.1.11
+     * @return  When to check {@code ga} again, same epoch as {@code currentTimeMillis},
+     *     or 0 if it's over or has been destroyed
+     * @see #checkForExpiredGame(SOCGame, long)
+     * @since 2.0.00
      */
-    public void checkForExpiredTurns(final long currentTimeMillis)
+    public long checkForExpiredTurn(final SOCGame ga, final long currentTimeMillis)
     {
         // Because nothing's currently happening in such a turn,
         // and we force the end in another thread,
         // we shouldn't need to worry about locking.
         // So, we don't need gameList.takeMonitor().
 
-        final long inactiveTime = currentTimeMillis - (1000L * ROBOT_FORCE_ENDTURN_SECONDS);
-
-        try
-        {
-            for (SOCGame ga : gameList.getGamesData())
-            {
-                // lastActionTime is a recent time, or might be 0 to force end
-                long lastActionTime = ga.lastActionTime;
-                if (lastActionTime > inactiveTime)
-                    continue;
-                if (ga.getGameState() >= SOCGame.OVER)
-                {
-                    // bump out that time, so we don't see
-                    // it again every few seconds
-                    ga.lastActionTime
-                        += (1000L * 60L * SOCGameListAtServer.GAME_EXPIRE_MINUTES);
-                    continue;
-                }
+        if (gameList.getGameData(ga.getName()) != ga)
+            return 0L;  // game was destroyed or reset
+        if (ga.getGameState() >= SOCGame.OVER)
+            return 0L;  // no more turns
 
-                final int cpn = ga.getCurrentPlayerNumber();
-                if (cpn == -1)
-                    continue;  // not started yet
+        // lastActionTime is a recent time, or might be 0 to force end
+        final long endTurnTime = ga.lastActionTime + (1000L * ROBOT_FORCE_ENDTURN_SECONDS);
+        if (endTurnTime > currentTimeMillis)
+            return endTurnTime;
 
-                GameHandler hand = gameList.getGameTypeHandler(ga.getName());
-                if (hand != null)
-                    hand.endTurnIfInactive(ga, currentTimeMillis);
+        final long recheckTime = currentTimeMillis + (1000L * ROBOT_FORCE_ENDTURN_SECONDS);
+        final int cpn = ga.getCurrentPlayerNumber();
+        if (cpn == -1)
+            return recheckTime;  // not started yet
 
-                // TODO consider keeping stats on forced end turns (return false or true from endTurnIfInactive, etc)
-            }
+        try
+        {
+            GameHandler hand = gameList.getGameTypeHandler(ga.getName());
+            if (hand != null)
+                hand.endTurnIfInactive(ga, currentTimeMillis);
         }
         catch (Exception e)
         {
-            D.ebugPrintln("Exception in checkForExpiredTurns - " + e);
+            D.ebugPrintln("Exception in checkForExpiredTurn - " + e);
         }
+
+        return recheckTime;
     }
 
     /**
@@ -0,0 +1,322 @@
+/**
+ * Java Settlers - An online multiplayer version of the game Settlers of Catan
+ * This file Copyright (C) 2026 agent <agent@local>
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * The maintainer of this program can be reached at jsettlers@nand.net
+ **/
+package soc.server.database;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Small pool of JDBC connections for {@link SOCDBHelper}, so that threads using the database
+ * at the same time (authentication, account creation, the {@link SOCDBWriteBehind} thread)
+ * don't wait for each other's queries. Each pooled connection caches its own prepared statements,
+ * since a {@link PreparedStatement} can't be shared between threads.
+ *<P>
+ * Connections are opened when needed, up to the pool's size, and then reused.
+ * {@link #borrow()} waits up to {@link #BORROW_TIMEOUT_MS} for a connection if all are in use.
+ * Callers must {@link Conn#release()} each borrowed connection in a {@code finally} block.
+ * If a query fails, the caller calls {@link Conn#setBroken()} before releasing it;
+ * the pool then closes that connection, and opens a new one the next time it's needed.
+ *<P>
+ * Embedded databases like SQLite allow only one writer at a time, and an in-memory database
+ * is private to the connection which opened it: See {@link #getDefaultSize(String)}.
+ *
+ * @author agent &lt;agent@local&gt;
+ * @since 2.0.00
+ */
+class SOCDBConnectionPool
+{
+    /**
+     * Default pool size for server databases such as mysql or postgresql.
+     * @see #getDefaultSize(String)
+     */
+    public static final int SIZE_DEFAULT = 4;
+
+    /** How long {@link #borrow()} waits for a connection when all are in use */
+    public static final int BORROW_TIMEOUT_MS = 30000;
+
+    /** Opens new connections for the pool */
+    private final Opener opener;
+
+    /** Most connections open at once */
+    private final int size;
+
+    /** Connections not currently borrowed */
+    private final LinkedBlockingQueue<Conn> idle = new LinkedBlockingQueue<Conn>();
+
+    /** Number of connections open, idle or borrowed; guarded by {@code this} */
+    private int openCount;
+
+    /** Set by {@link #close()}; guarded by {@code this} */
+    private boolean closed;
+
+    /**
+     * Default pool size for a database URL: 1 for SQLite, whose writers lock the whole database
+     * file and whose in-memory databases are private to one connection;
+     * otherwise {@link #SIZE_DEFAULT}.
+     * @param dbURL  JDBC URL of the database
+     * @return  Default number of connections
+     */
+    public static int getDefaultSize(final String dbURL)
+    {
+        return (dbURL.startsWith("jdbc:sqlite:")) ? 1 : SIZE_DEFAULT;
+    }
+
+    /**
+     * Is this database URL for an in-memory database private to each connection,
+     * which requires a pool size of 1?
+     * @param dbURL  JDBC URL of the database
+     * @return  true if {@code dbURL} is an SQLite in-memory database
+     */
+    public static boolean isPrivateInMemory(final String dbURL)
+    {
+        return dbURL.startsWith("jdbc:sqlite:")
+            && ((dbURL.length() == 12) || dbURL.startsWith("jdbc:sqlite::memory:"));
+    }
+
+    /**
+     * Create a pool. Connections aren't opened until needed.
+     * @param opener  Opens each new connection
+     * @param size  Most connections to have open at once; at least 1
+     * @throws IllegalArgumentException if {@code size} &lt; 1
+     */
+    SOCDBConnectionPool(final Opener opener, final int size)
+        throws IllegalArgumentException
+    {
+        if (size < 1)
+            throw new IllegalArgumentException("size");
+
+        this.opener = opener;
+        this.size = size;
+    }
+
+    /**
+     * Most connections this pool will have open at once.
+     * @return  Pool size
+     */
+    public int getSize()
+    {
+        return size;
+    }
+
+    /**
+     * Borrow a connection: An idle one if available, otherwise a newly opened one if the pool isn't full,
+     * otherwise wait for another thread to release one.
+     * @return  A connection for this thread's use until {@link Conn#release()}
+     * @throws SQLException if the pool is closed, if a new connection can't be opened,
+     *     or if none was released within {@link #BORROW_TIMEOUT_MS}
+     */
+    public Conn borrow()
+        throws SQLException
+    {
+        final long timeoutAt = System.currentTimeMillis() + BORROW_TIMEOUT_MS;
+
+        while (true)
+        {
+            Conn c = idle.poll();
+            if (c != null)
+                return c;
+
+            boolean canOpen;
+            synchronized (this)
+            {
+                if (closed)
+                    throw new SQLException("DB connection pool is closed");
+
+                canOpen = (openCount < size);
+                if (canOpen)
+                    ++openCount;
+            }
+
+            if (canOpen)
+            {
+                try
+                {
+                    return new Conn(this, opener.open());
+                }
+                catch (SQLException e)
+                {
+                    synchronized (this)
+                    {
+                        --openCount;
+                    }
+                    throw e;
+                }
+            }
+
+            // Wait for a release; check again at least once a second,
+            // in case a broken connection was closed and we can open a new one
+            final long wait = timeoutAt - System.currentTimeMillis();
+            if (wait <= 0)
+                throw new SQLException("Timed out waiting for a DB connection");
+
+            try
+            {
+                c = idle.poll(Math.min(wait, 1000), TimeUnit.MILLISECONDS);
+            }
+            catch (InterruptedException e) {}
+
+            if (c != null)
+                return c;
+        }
+    }
+
+    /**
+     * Return a borrowed connection to the pool; called from {@link Conn#release()}.
+     * If it's {@link Conn#setBroken() broken} or the pool's been closed, close it instead.
+     * @param c  Connection from {@link #borrow()}
+     */
+    private void release(final Conn c)
+    {
+        synchronized (this)
+        {
+            if (! (c.broken || closed))
+            {
+                idle.offer(c);
+                return;
+            }
+
+            --openCount;
+        }
+
+        c.close();
+    }
+
+    /**
+     * Close the pool and its idle connections. Borrowed connections are closed when released.
+     * Afterwards, {@link #borrow()} throws {@link SQLException}.
+     */
+    public void close()
+    {
+        synchronized (this)
+        {
+            closed = true;
+        }
+
+        Conn c;
+        while (null != (c = idle.poll()))
+        {
+            synchronized (this)
+            {
+                --openCount;
+            }
+            c.close();
+        }
+    }
+
+    /**
+     * Opens a new JDBC connection for the pool.
+     */
+    interface Opener
+    {
+        /**
+         * Open a new connection.
+         * @return  the new connection
+         * @throws SQLException if any connect error occurs
+         */
+        Connection open() throws SQLException;
+    }
+
+    /**
+     * One pooled connection and its prepared statements.
+     * Used by one thread at a time, between {@link SOCDBConnectionPool#borrow()} and {@link #release()}.
+     */
+    static final class Conn
+    {
+        /** Pool which opened this connection */
+        private final SOCDBConnectionPool pool;
+
+        /** The JDBC connection */
+        final Connection conn;
+
+        /** Statements prepared on {@link #conn}, keyed by their SQL */
+        private final HashMap<String, PreparedStatement> stmts = new HashMap<String, PreparedStatement>();
+
+        /** If true, a query has failed and the pool should close this connection when released */
+        private boolean broken;
+
+        Conn(final SOCDBConnectionPool pool, final Connection conn)
+        {
+            this.pool = pool;
+            this.conn = conn;
+        }
+
+        /**
+         * Get a statement for this SQL, preparing it the first time it's used on this connection.
+         * @param sql  SQL to prepare; should be a constant, because each different string is cached
+         * @return  The prepared statement, which stays open until the connection is closed
+         * @throws SQLException if the SQL can't be prepared, for example if a table is missing
+         */
+        PreparedStatement prepare(final String sql)
+            throws SQLException
+        {
+            PreparedStatement ps = stmts.get(sql);
+            if (ps == null)
+            {
+                ps = conn.prepareStatement(sql);
+                stmts.put(sql, ps);
+            }
+
+            return ps;
+        }
+
+        /**
+         * Mark this connection as broken after a failed query, so the pool will close it when released.
+         */
+        void setBroken()
+        {
+            broken = true;
+        }
+
+        /**
+         * Return this borrowed connection to its pool, or close it if {@link #setBroken()} was called
+         * or the pool's been closed. Don't use it afterwards.
+         */
+        void release()
+        {
+            pool.release(this);
+        }
+
+        /** Close the statements and the connection, ignoring any errors. */
+        private void close()
+        {
+            for (Iterator<PreparedStatement> it = stmts.values().iterator(); it.hasNext(); )
+            {
+                try
+                {
+                    it.next().close();
+                }
+                catch (SQLException e) {}
+            }
+            stmts.clear();
+
+            try
+            {
+                conn.close();
+            }
+            catch (SQLException e) {}
+        }
+    }
+
+}
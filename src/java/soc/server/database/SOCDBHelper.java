@@ -39,7 +39,6 @@ import java.sql.ResultSet;
 import java.sql.ResultSetMetaData;
 import java.sql.SQLException;
 import java.sql.Statement;
-import java.sql.Timestamp;
 
 import java.util.ArrayList;
 import java.util.Calendar;
@@ -126,6 +125,15 @@ public class SOCDBHelper
      */
     public static final String PROP_JSETTLERS_DB_SAVE_GAMES = "jsettlers.db.save.games";
 
+    /** Property <tt>jsettlers.db.pool.size</tt> to set the most connections the server will
+     * have open to the database at once, so that logins and other queries from different threads
+     * don't wait for each other.
+     * Default is 4, or 1 for sqlite (see {@link SOCDBConnectionPool#getDefaultSize(String)}).
+     * An sqlite in-memory database always uses 1, since each connection would have its own database.
+     * @since 2.0.00
+     */
+    public static final String PROP_JSETTLERS_DB_POOL_SIZE = "jsettlers.db.pool.size";
+
     /**
      * The db driver used, or null if none.
      * If {@link #driverinstance} != null, use that to connect instead of driverclass;
@@ -143,42 +151,40 @@ public class SOCDBHelper
      * if the classloader is different, which it will be for dynamic loading.
      *<P>
      * Set in {@link #initialize(String, String, Properties)}.
-     * Used in {@link #connect(String, String, String)}.
+     * Used in {@link #openConnection(String, String)}.
      * @since 1.1.15
      */
     private static Driver driverinstance = null;
 
     /**
-     * db connection, or <tt>null</tt> if never initialized or if cleaned up for shutdown.
-     * If this is non-null but closed, most queries will try to recreate it via {@link #checkConnection()}.
-     * Set in {@link #connect(String, String, String)}, based on the {@link #dbURL}
+     * Pool of db connections, or <tt>null</tt> if never initialized or if cleaned up for shutdown.
+     * Each query borrows a connection from the pool and uses that connection's prepared statements,
+     * so queries from different threads don't wait for each other.
+     * If a query fails, its connection is closed; the pool will open a new one when needed.
+     * Set in {@link #connect(String, String, int, String)}, based on the {@link #dbURL}
      * from {@link #initialize(String, String, Properties)}.
      * Cleared in {@link #cleanup(boolean) cleanup(true)}.
+     *<P>
+     * Before v2.0.00 there was one connection, with a set of prepared statements used by all threads.
+     * @since 2.0.00
      */
-    private static Connection connection = null;
+    private static volatile SOCDBConnectionPool pool = null;
 
     /**
      * Retain the URL (default, or passed via props to {@link #initialize(String, String, Properties)}).
-     * Used in {@link #connect(String, String, String)}.
+     * Used in {@link #openConnection(String, String)}.
      *<P>
      * If {@link #driverinstance} != null, go through it to connect to dbURL.
      * @since 1.1.09
      */
     private static String dbURL = null;
 
-    /**
-     * This flag indicates that the connection should be valid, yet the last
-     * operation failed. Methods will attempt to reconnect prior to their
-     * operation if this is set.
-     */
-    private static boolean errorCondition = false;
-
     /**
      * True if we successfully completed {@link #initialize(String, String, Properties)}
      * without throwing an exception.
      * Set false in {@link #cleanup(boolean)}.
      */
-    private static boolean initialized = false;
+    private static volatile boolean initialized = false;
 
     /** Cached username used when reconnecting on error */
     private static String userName;
@@ -186,29 +192,32 @@ public class SOCDBHelper
     /** Cached password used when reconnecting on error */
     private static String password;
 
-    private static String CREATE_ACCOUNT_COMMAND = "INSERT INTO users VALUES (?,?,?,?,?);";
-    private static String RECORD_LOGIN_COMMAND = "INSERT INTO logins VALUES (?,?,?);";
-    private static String USER_PASSWORD_QUERY = "SELECT password FROM users WHERE ( users.nickname = ? );";
-    private static String HOST_QUERY = "SELECT nickname FROM users WHERE ( users.host = ? );";
-    private static String LASTLOGIN_UPDATE = "UPDATE users SET lastlogin = ?  WHERE nickname = ? ;";
-    private static String SAVE_GAME_COMMAND = "INSERT INTO games VALUES (?,?,?,?,?,?,?,?,?,?);";
-    private static String ROBOT_PARAMS_QUERY = "SELECT * FROM robotparams WHERE robotname = ?;";
-
-    private static PreparedStatement createAccountCommand = null;
-    private static PreparedStatement recordLoginCommand = null;
-    private static PreparedStatement userPasswordQuery = null;
-    private static PreparedStatement hostQuery = null;
-    private static PreparedStatement lastloginUpdate = null;
-    private static PreparedStatement saveGameCommand = null;
-
-    /** Query all robot parameters for a bot name; {@link #ROBOT_PARAMS_QUERY}.
-     *  Used in {@link #retrieveRobotParams(String)}.
+    // Queries and commands. Each pooled connection prepares its own statements for these;
+    // see SOCDBConnectionPool.Conn.prepare.
+
+    private static final String CREATE_ACCOUNT_COMMAND = "INSERT INTO users VALUES (?,?,?,?,?);";
+    static final String RECORD_LOGIN_COMMAND = "INSERT INTO logins VALUES (?,?,?);";
+    private static final String USER_PASSWORD_QUERY = "SELECT password FROM users WHERE ( users.nickname = ? );";
+    private static final String HOST_QUERY = "SELECT nickname FROM users WHERE ( users.host = ? );";
+    static final String LASTLOGIN_UPDATE = "UPDATE users SET lastlogin = ?  WHERE nickname = ? ;";
+    static final String SAVE_GAME_COMMAND = "INSERT INTO games VALUES (?,?,?,?,?,?,?,?,?,?);";
+
+    /** Query all robot parameters for a bot name. Used in {@link #retrieveRobotParams(String)}. */
+    private static final String ROBOT_PARAMS_QUERY = "SELECT * FROM robotparams WHERE robotname = ?;";
+
+    /**
+     * Thread which writes {@link #recordLogin(String, String, long)} and {@link #updateLastlogin(String, long)}
+     * in batches, or null.  Also ready for {@link #saveGameScores(SOCGame, long)}'s writes, if that's enabled.
+     * Started in {@link #initialize(String, String, Properties)}; flushed and stopped in
+     * {@link #cleanup(boolean) cleanup(true)}.
+     * Before v2.0.00 these were written while the caller waited.
+     * @since 2.0.00
      */
-    private static PreparedStatement robotParamsQuery = null;
+    private static SOCDBWriteBehind writeBehind = null;
 
     /**
-     * This makes a connection to the database
-     * and initializes the prepared statements.
+     * This makes a connection to the database, sets up the connection pool,
+     * and checks that the tables used by the queries exist.
      * Sets {@link #isInitialized()}.
      *<P>
      * The default URL is "jdbc:mysql://localhost/socdata".
@@ -323,8 +332,26 @@ public class SOCDBHelper
     	    if ((prop_dbSetupScript != null) && (prop_dbSetupScript.length() == 0))
     	        prop_dbSetupScript = null;
 
+            // How many connections?
+            int poolSize = SOCDBConnectionPool.getDefaultSize(dbURL);
+            String prop_poolSize = props.getProperty(PROP_JSETTLERS_DB_POOL_SIZE);
+            if ((prop_poolSize != null) && (prop_poolSize.trim().length() > 0))
+            {
+                try
+                {
+                    poolSize = Integer.parseInt(prop_poolSize.trim());
+                    if (poolSize < 1)
+                        throw new NumberFormatException();
+                } catch (NumberFormatException e) {
+                    throw new SQLException("JDBC: Pool size property must be at least 1: "
+                        + PROP_JSETTLERS_DB_POOL_SIZE + "=" + prop_poolSize);
+                }
+            }
+            if ((poolSize > 1) && SOCDBConnectionPool.isPrivateInMemory(dbURL))
+                poolSize = 1;
+
             // Connect and prepare table queries; run the setup script, if any, first
-            connect(user, pswd, prop_dbSetupScript);
+            connect(user, pswd, poolSize, prop_dbSetupScript);
         }
     	catch (IOException iox)
     	{
@@ -343,6 +370,12 @@ public class SOCDBHelper
             throw sx;
         }
 
+        if (writeBehind == null)
+        {
+            writeBehind = new SOCDBWriteBehind(pool);
+            writeBehind.start();
+        }
+
         initialized = true;
     }
 
@@ -357,35 +390,32 @@ public class SOCDBHelper
      */
     public static boolean isInitialized()
     {
-        return initialized && (connection != null);
+        return initialized && (pool != null);
     }
 
     /**
-     * Checks if connection is supposed to be present and attempts to reconnect
-     * if there was previously an error.  Reconnecting closes the current
-     * {@link #connection}, opens a new one, and re-initializes the prepared statements.
+     * Borrow a connection from the {@link #pool}, if connected.
+     * The caller must call {@link SOCDBConnectionPool.Conn#release()} in a {@code finally} block,
+     * and call {@link SOCDBConnectionPool.Conn#setBroken()} before that if a query fails.
      *
-     * @return true if the connection is established upon return
+     * @return  a pooled connection, or null if not connected or if {@link #cleanup(boolean)} has been called
+     * @throws SQLException if the pool couldn't open a new connection,
+     *     or none was available within {@link SOCDBConnectionPool#BORROW_TIMEOUT_MS}
+     * @since 2.0.00
      */
-    private static boolean checkConnection() throws SQLException
+    private static SOCDBConnectionPool.Conn borrowConnection() throws SQLException
     {
-        if (connection != null)
-        {
-            try
-            {
-                return (! errorCondition) || connect(userName, password, null);
-            } catch (IOException ioe) {
-                // will not occur, connect script is null
-                return false;
-            }
-        }
+        final SOCDBConnectionPool p = pool;
+        if (p == null)
+            return null;
 
-        return false;
+        return p.borrow();
     }
 
     /**
-     * Opens a new connection and initializes the prepared statements.
-     * {@link #initialize(String, String, Properties)} and {@link #checkConnection()} use this to get ready.
+     * Sets up the connection pool, opens its first connection, and prepares statements on it
+     * to check that the tables used by the queries exist.
+     * {@link #initialize(String, String, Properties)} uses this to get ready.
      * Uses {@link #dbURL} and {@link #driverinstance}.
      *<P>
      * If <tt>setupScriptPath</tt> != null, it will be ran before preparing statements.
@@ -393,57 +423,92 @@ public class SOCDBHelper
      *
      * @param user  DB username
      * @param pswd  DB user password
+     * @param poolSize  Most connections to have open at once
      * @param setupScriptPath  Full path or relative path to SQL script to run at connect, or null
      * @throws IOException  if <tt>setupScriptPath</tt> wasn't found, or if any other IO error occurs reading the script
      * @throws SQLException if any connect error, missing table, or SQL error occurs
      * @return  true on success; will never return false, instead will throw a sqlexception
      */
-    private static boolean connect(final String user, final String pswd, final String setupScriptPath)
+    private static boolean connect
+        (final String user, final String pswd, final int poolSize, final String setupScriptPath)
         throws SQLException, IOException
     {
-        if (driverinstance == null) {
-            connection = DriverManager.getConnection(dbURL, user, pswd);
-        } else {
-            Properties props = new Properties();
-            props.put("user", user);
-            props.put("password", pswd);
-            connection = driverinstance.connect(dbURL, props);
-        }
-
-        errorCondition = false;
         userName = user;
         password = pswd;
 
-        if (setupScriptPath != null)
-            runSetupScript(setupScriptPath);  // may throw IOException, SQLException
+        final SOCDBConnectionPool p = new SOCDBConnectionPool(new SOCDBConnectionPool.Opener()
+        {
+            public Connection open() throws SQLException
+            {
+                return openConnection(userName, password);
+            }
+        }, poolSize);
 
-        // prepare PreparedStatements for queries
-        createAccountCommand = connection.prepareStatement(CREATE_ACCOUNT_COMMAND);
-        recordLoginCommand = connection.prepareStatement(RECORD_LOGIN_COMMAND);
-        userPasswordQuery = connection.prepareStatement(USER_PASSWORD_QUERY);
-        hostQuery = connection.prepareStatement(HOST_QUERY);
-        lastloginUpdate = connection.prepareStatement(LASTLOGIN_UPDATE);
-        saveGameCommand = connection.prepareStatement(SAVE_GAME_COMMAND);
-        robotParamsQuery = connection.prepareStatement(ROBOT_PARAMS_QUERY);
+        final SOCDBConnectionPool.Conn c = p.borrow();
+        boolean ok = false;
+        try
+        {
+            if (setupScriptPath != null)
+                runSetupScript(c.conn, setupScriptPath);  // may throw IOException, SQLException
+
+            // prepare PreparedStatements for queries
+            c.prepare(CREATE_ACCOUNT_COMMAND);
+            c.prepare(RECORD_LOGIN_COMMAND);
+            c.prepare(USER_PASSWORD_QUERY);
+            c.prepare(HOST_QUERY);
+            c.prepare(LASTLOGIN_UPDATE);
+            c.prepare(SAVE_GAME_COMMAND);
+            c.prepare(ROBOT_PARAMS_QUERY);
+            ok = true;
+        }
+        finally
+        {
+            if (! ok)
+                c.setBroken();
+            c.release();
+            if (! ok)
+                p.close();
+        }
 
+        pool = p;
         return true;
     }
 
+    /**
+     * Open a new connection to {@link #dbURL}, through {@link #driverinstance} if set.
+     * Used by the {@link #pool}.
+     * @param user  DB username
+     * @param pswd  DB user password
+     * @return  the new connection
+     * @throws SQLException if any connect error occurs
+     * @since 2.0.00
+     */
+    private static Connection openConnection(final String user, final String pswd)
+        throws SQLException
+    {
+        if (driverinstance == null) {
+            return DriverManager.getConnection(dbURL, user, pswd);
+        } else {
+            Properties props = new Properties();
+            props.put("user", user);
+            props.put("password", pswd);
+            return driverinstance.connect(dbURL, props);
+        }
+    }
+
     /**
      * Load and run a SQL script.
      * Typically DDL commands to create or alter tables, indexes, etc.
+     * @param conn  Connection to run the script on
      * @param setupScriptPath  Full path or relative path to the SQL script filename
      * @throws FileNotFoundException  if file not found
      * @throws IOException  if any other IO error occurs
      * @throws SQLException if any unexpected database problem
      * @since 1.1.15
      */
-    private static void runSetupScript(final String setupScriptPath)
+    private static void runSetupScript(final Connection conn, final String setupScriptPath)
         throws FileNotFoundException, IOException, SQLException
     {
-        if (! checkConnection())
-            return;  // also may throw SQLException
-
         final boolean isSqlite = (dbURL.startsWith("jdbc:sqlite:"));
 
         FileReader fr = new FileReader(setupScriptPath);
@@ -506,7 +571,7 @@ public class SOCDBHelper
         {
             if (sql.trim().length() == 0)
                 continue;
-            Statement cmd = connection.createStatement();
+            Statement cmd = conn.createStatement();
             cmd.executeUpdate(sql);
             cmd.close();
         }
@@ -525,11 +590,14 @@ public class SOCDBHelper
     {
         String password = null;
 
-        // ensure that the JDBC connection is still valid
-        if (checkConnection())
+        // get a connection, if connected
+        final SOCDBConnectionPool.Conn c = borrowConnection();
+        if (c != null)
         {
             try
             {
+                final PreparedStatement userPasswordQuery = c.prepare(USER_PASSWORD_QUERY);
+
                 // fill in the data values to the Prepared statement
                 userPasswordQuery.setString(1, sUserName);
 
@@ -546,10 +614,14 @@ public class SOCDBHelper
             }
             catch (SQLException sqlE)
             {
-                errorCondition = true;
+                c.setBroken();
                 sqlE.printStackTrace();
                 throw sqlE;
             }
+            finally
+            {
+                c.release();
+            }
         }
 
         return password;
@@ -568,11 +640,14 @@ public class SOCDBHelper
     {
         String nickname = null;
 
-        // ensure that the JDBC connection is still valid
-        if (checkConnection())
+        // get a connection, if connected
+        final SOCDBConnectionPool.Conn c = borrowConnection();
+        if (c != null)
         {
             try
             {
+                final PreparedStatement hostQuery = c.prepare(HOST_QUERY);
+
                 // fill in the data values to the Prepared statement
                 hostQuery.setString(1, host);
 
@@ -589,10 +664,14 @@ public class SOCDBHelper
             }
             catch (SQLException sqlE)
             {
-                errorCondition = true;
+                c.setBroken();
                 sqlE.printStackTrace();
                 throw sqlE;
             }
+            finally
+            {
+                c.release();
+            }
         }
 
         return nickname;
@@ -613,13 +692,15 @@ public class SOCDBHelper
      */
     public static boolean createAccount(String userName, String host, String password, String email, long time) throws SQLException
     {
-        // ensure that the JDBC connection is still valid
-        if (checkConnection())
+        // get a connection, if connected
+        final SOCDBConnectionPool.Conn c = borrowConnection();
+        if (c != null)
         {
             try
             {
                 java.sql.Date sqlDate = new java.sql.Date(time);
                 Calendar cal = Calendar.getInstance();
+                final PreparedStatement createAccountCommand = c.prepare(CREATE_ACCOUNT_COMMAND);
 
                 // fill in the data values to the Prepared statement
                 createAccountCommand.setString(1, userName);
@@ -635,106 +716,77 @@ public class SOCDBHelper
             }
             catch (SQLException sqlE)
             {
-                errorCondition = true;
+                c.setBroken();
                 sqlE.printStackTrace();
                 throw sqlE;
             }
+            finally
+            {
+                c.release();
+            }
         }
 
         return false;
     }
 
     /**
-     * DOCUMENT ME!
+     * Record this user's login in the logins table.
+     * Queued to be written soon by another thread; doesn't wait for the database.
      *
-     * @param userName DOCUMENT ME!
-     * @param host DOCUMENT ME!
-     * @param time DOCUMENT ME!
+     * @param userName  the user's nickname
+     * @param host  the user's host
+     * @param time  login time, same epoch as {@link System#currentTimeMillis()}
      *
-     * @return true if the login was recorded
+     * @return true if the login was queued to be recorded,
+     *     false if no database is connected or the write queue is full
      *
-     * @throws SQLException DOCUMENT ME!
+     * @throws SQLException never; declared for compatibility with earlier versions,
+     *     which wrote the login before returning
      */
     public static boolean recordLogin(String userName, String host, long time) throws SQLException
     {
-        // ensure that the JDBC connection is still valid
-        if (checkConnection())
-        {
-            try
-            {
-                java.sql.Date sqlDate = new java.sql.Date(time);
-                Calendar cal = Calendar.getInstance();
-
-                // fill in the data values to the Prepared statement
-                recordLoginCommand.setString(1, userName);
-                recordLoginCommand.setString(2, host);
-                recordLoginCommand.setDate(3, sqlDate, cal);
-
-                // execute the Command
-                recordLoginCommand.executeUpdate();
-
-                return true;
-            }
-            catch (SQLException sqlE)
-            {
-                errorCondition = true;
-                sqlE.printStackTrace();
-                throw sqlE;
-            }
-        }
+        if ((writeBehind == null) || ! isInitialized())
+            return false;
 
-        return false;
+        return writeBehind.add(new SOCDBWriteBehind.Write(SOCDBWriteBehind.Write.LOGIN, userName, host, time));
     }
 
     /**
-     * DOCUMENT ME!
+     * Update this user's last login time in the users table.
+     * Queued to be written soon by another thread; doesn't wait for the database.
      *
-     * @param userName DOCUMENT ME!
-     * @param time DOCUMENT ME!
+     * @param userName  the user's nickname
+     * @param time  login time, same epoch as {@link System#currentTimeMillis()}
      *
-     * @return true if the save succeeded
+     * @return true if the update was queued,
+     *     false if no database is connected or the write queue is full
      *
-     * @throws SQLException DOCUMENT ME!
+     * @throws SQLException never; declared for compatibility with earlier versions,
+     *     which wrote the update before returning
      */
     public static boolean updateLastlogin(String userName, long time) throws SQLException
     {
-        // ensure that the JDBC connection is still valid
-        if (checkConnection())
-        {
-            try
-            {
-                java.sql.Date sqlDate = new java.sql.Date(time);
-                Calendar cal = Calendar.getInstance();
-
-                // fill in the data values to the Prepared statement
-                lastloginUpdate.setDate(1, sqlDate, cal);
-                lastloginUpdate.setString(2, userName);
-
-                // execute the Command
-                lastloginUpdate.executeUpdate();
-
-                return true;
-            }
-            catch (SQLException sqlE)
-            {
-                errorCondition = true;
-                sqlE.printStackTrace();
-                throw sqlE;
-            }
-        }
+        if ((writeBehind == null) || ! isInitialized())
+            return false;
 
-        return false;
+        return writeBehind.add(new SOCDBWriteBehind.Write(SOCDBWriteBehind.Write.LASTLOGIN, userName, null, time));
     }
 
     /**
      * Record this game's time, players, and scores in the database.
+     *<P>
+     * Currently disabled, as in earlier versions: Doesn't insert into the games table, and returns false.
+     * When enabled, the save will be queued to be written soon by another thread, without waiting for the database;
+     * the players' names and scores are copied from {@code ga} before returning.
      *
-     * @param game  Game that's just completed
+     * @param ga  Game that's just completed
      * @param gameLengthSeconds  Duration of game
      *
-     * @return true if the save succeeded
+     * @return true if the save was queued; false while disabled,
+     *     or if no database is connected or the write queue is full
      *
-     * @throws SQLException DOCUMENT ME!
+     * @throws SQLException never; declared for compatibility with earlier versions,
+     *     which wrote the scores before returning
      */
     public static boolean saveGameScores
         (SOCGame ga, final long gameLengthSeconds)
@@ -744,9 +796,10 @@ public class SOCDBHelper
         // those fields are in the database.
         // Check ga.maxPlayers.
 
-        // ensure that the JDBC connection is still valid
-    	
-        /*if (checkConnection())
+        // Inserting into the games table is disabled.
+        // To enable it, uncomment this block, which queues the insert for writeBehind.
+
+        /*if ((writeBehind != null) && isInitialized())
         {
             String[] names = new String[ga.maxPlayers];
             short[] scores = new short[ga.maxPlayers];
@@ -765,31 +818,8 @@ public class SOCDBHelper
                 saveGameScores_fit6pInto4(ga, names, scores);
             }
 
-            try
-            {
-                // fill in the data values to the Prepared statement
-                saveGameCommand.setString(1, ga.getName());
-                saveGameCommand.setString(2, names[0]);
-                saveGameCommand.setString(3, names[1]);
-                saveGameCommand.setString(4, names[2]);
-                saveGameCommand.setString(5, names[3]);
-                saveGameCommand.setShort(6, scores[0]);
-                saveGameCommand.setShort(7, scores[1]);
-                saveGameCommand.setShort(8, scores[2]);
-                saveGameCommand.setShort(9, scores[3]);
-                saveGameCommand.setTimestamp(10, new Timestamp(ga.getStartTime().getTime()));
-
-                // execute the Command
-                saveGameCommand.executeUpdate();
-
-                return true;
-            }
-            catch (SQLException sqlE)
-            {
-                errorCondition = true;
-                sqlE.printStackTrace();
-                throw sqlE;
-            }
+            return writeBehind.add(new SOCDBWriteBehind.Write
+                (ga.getName(), names, scores, ga.getStartTime().getTime()));
         }*/
 
         return false;
@@ -885,14 +915,14 @@ public class SOCDBHelper
     {
         SOCRobotParameters robotParams = null;
 
-        // ensure that the JDBC connection is still valid
-        if (checkConnection())
+        // get a connection, if connected
+        final SOCDBConnectionPool.Conn c = borrowConnection();
+        if (c != null)
         {
-            if (robotParamsQuery == null)
-                return null;  // <--- Early return: Table not found in db, is probably empty ---
-
             try
             {
+                final PreparedStatement robotParamsQuery = c.prepare(ROBOT_PARAMS_QUERY);
+
                 // fill in the data values to the Prepared statement
                 robotParamsQuery.setString(1, robotName);
 
@@ -919,10 +949,14 @@ public class SOCDBHelper
             }
             catch (SQLException sqlE)
             {
-                errorCondition = true;
+                c.setBroken();
                 sqlE.printStackTrace();
                 throw sqlE;
             }
+            finally
+            {
+                c.release();
+            }
         }
 
         return robotParams;
@@ -935,34 +969,36 @@ public class SOCDBHelper
      * @param colname  Column name to check; case-sensitive in some db types.
      *    The jsettlers standard is to always use lowercase names when creating tables and columns.
      * @return  true if column exists in the current connection's database
-     * @throws IllegalStateException  If not connected and if {@link #checkConnection()} fails
+     * @throws IllegalStateException  If not connected, or if {@link #borrowConnection()} fails
      * @since 1.1.14
      */
     public static boolean doesTableColumnExist
         (final String tabname, final String colname)
         throws IllegalStateException
     {
+        final SOCDBConnectionPool.Conn c;
         try
         {
-            if (! checkConnection())
+            c = borrowConnection();
+            if (c == null)
                 throw new IllegalStateException();
         } catch (SQLException e) {
             throw new IllegalStateException();
         }
 
+        PreparedStatement ps = null;
         ResultSet rs = null;
         try
         {
             final boolean checkResultNum;  // Do we need to check query result contents?
 
-            PreparedStatement ps;
             if (! driverclass.toLowerCase().contains("oracle"))
             {
-                ps = connection.prepareStatement
+                ps = c.conn.prepareStatement
                     ("select " + colname + " from " + tabname + " LIMIT 1;");
                 checkResultNum = false;
             } else {
-                ps = connection.prepareStatement
+                ps = c.conn.prepareStatement
                     ("select count(*) FROM user_tab_columns WHERE table_name='"
                      + tabname + "' AND column_name='"
                      + colname + "';");
@@ -999,49 +1035,45 @@ public class SOCDBHelper
 
             return false;
         }
+        finally
+        {
+            if (ps != null)
+            {
+                try
+                {
+                    ps.close();
+                }
+                catch (SQLException e) {}
+            }
+            c.release();
+        }
 
         return true;
     }
 
     /**
-     * Close out and shut down the database connection.
-     * @param isForShutdown  If true, set <tt>connection = null</tt>
+     * Close out and shut down the database connections.
+     * Connections in use by other threads are closed when those threads release them.
+     * @param isForShutdown  If true, set <tt>pool = null</tt>
      *          so we won't try to reconnect later.
+     *          Also writes any queued logins and game scores before returning,
+     *          waiting up to 10 seconds.
      */
     public static void cleanup(final boolean isForShutdown) throws SQLException
     {
-        if (checkConnection())
+        if (isForShutdown && (writeBehind != null))
         {
-            try
-            {
-                createAccountCommand.close();
-                userPasswordQuery.close();
-                hostQuery.close();
-                lastloginUpdate.close();
-                saveGameCommand.close();
-                robotParamsQuery.close();
-            }
-            catch (Throwable thr)
-            {
-                ; /* ignore failures in query closes */
-            }
+            writeBehind.shutdown(10000);
+            writeBehind = null;
+        }
 
-            try
-            {
-                connection.close();
-                initialized = false;
-                if (isForShutdown)
-                    connection = null;
-            }
-            catch (SQLException sqlE)
-            {
-                errorCondition = true;
-                initialized = false;
-                if (isForShutdown)
-                    connection = null;
-                sqlE.printStackTrace();
-                throw sqlE;
-            }
+        initialized = false;
+        final SOCDBConnectionPool p = pool;
+        if (p != null)
+        {
+            p.close();
+            if (isForShutdown)
+                pool = null;
         }
     }
 
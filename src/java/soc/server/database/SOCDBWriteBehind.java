@@ -0,0 +1,461 @@
+/**
+ * Java Settlers - An online multiplayer version of the game Settlers of Catan
+ * This file Copyright (C) 2026 agent <agent@local>
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * The maintainer of this program can be reached at jsettlers@nand.net
+ **/
+package soc.server.database;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.SQLRecoverableException;
+import java.sql.SQLTransientConnectionException;
+import java.sql.SQLTransientException;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Write-behind queue for {@link SOCDBHelper}'s inserts and updates which callers don't wait on:
+ * {@link SOCDBHelper#recordLogin(String, String, long)} and {@link SOCDBHelper#updateLastlogin(String, long)}.
+ * Also has a {@link Write#GAME} write type for {@link SOCDBHelper#saveGameScores(soc.game.SOCGame, long)},
+ * whose games table insert is currently disabled.
+ * Callers queue a write and return; a dedicated thread takes all waiting writes, borrows a connection
+ * from {@link SOCDBHelper}'s {@link SOCDBConnectionPool}, runs each type as one JDBC batch, and commits them together.
+ * So a slow database doesn't stall game processing or authentication, and a busy server's writes
+ * are grouped into a few transactions.
+ *<P>
+ * The queue holds at most {@link #QUEUE_CAPACITY} writes. {@link #add(Write)} never waits:
+ * If the queue's full, it drops the write, counts it, and prints an error.
+ *<P>
+ * If a batch fails, it's rolled back and its connection is closed. If the failure is transient, such as a
+ * lost connection or no connection available from the pool (see {@link #isTransient(SQLException)}),
+ * the batch is retried after a delay, up to {@link #MAX_RETRIES} times before being dropped.
+ * Otherwise a write in the batch is probably bad, for example a duplicate key or a value too long for its column:
+ * The batch's writes are tried one at a time, each in its own transaction, and only the ones which fail are dropped.
+ *<P>
+ * {@link #shutdown(long)}, called from {@link SOCDBHelper#cleanup(boolean) SOCDBHelper.cleanup(true)},
+ * writes everything still queued before returning.
+ *
+ * @author agent &lt;agent@local&gt;
+ * @since 2.0.00
+ */
+class SOCDBWriteBehind extends Thread
+{
+    /** Most writes which can be waiting in the queue */
+    public static final int QUEUE_CAPACITY = 2000;
+
+    /** Most writes to take from the queue for one transaction */
+    public static final int BATCH_MAX = 200;
+
+    /** Number of times to retry a failed batch before dropping it */
+    public static final int MAX_RETRIES = 5;
+
+    /** Delay before the first retry; doubles each time, up to {@link #RETRY_DELAY_MAX_MS} */
+    private static final int RETRY_DELAY_MS = 1000;
+
+    private static final int RETRY_DELAY_MAX_MS = 30000;
+
+    /** Writes waiting for the thread */
+    private final ArrayBlockingQueue<Write> queue = new ArrayBlockingQueue<Write>(QUEUE_CAPACITY);
+
+    /** Pool to borrow a connection from for each batch */
+    private final SOCDBConnectionPool pool;
+
+    /** Set by {@link #shutdown(long)}: write everything queued, then end the thread */
+    private volatile boolean stopping;
+
+    /** Number of writes committed, retried batches, and writes dropped */
+    private final AtomicInteger writtenCount = new AtomicInteger(),
+        retryCount = new AtomicInteger(), droppedCount = new AtomicInteger();
+
+    /**
+     * Create the write-behind queue; call {@link #start()} to start its thread.
+     * @param pool  Pool to borrow a connection from for each batch
+     */
+    SOCDBWriteBehind(final SOCDBConnectionPool pool)
+    {
+        super("dbWriteBehind");  // Thread name for debug
+        this.pool = pool;
+        setDaemon(true);  // cleanup(true) waits for the queue to be written
+    }
+
+    /**
+     * Queue a write for the thread. Never waits: If the queue is full,
+     * drops the write, counts it in {@link #getStatsText()}, and prints an error.
+     * @param w  Write to queue
+     * @return  true if queued, false if dropped because the queue is full or shutting down
+     */
+    boolean add(final Write w)
+    {
+        if (stopping)
+        {
+            droppedCount.incrementAndGet();
+            return false;
+        }
+
+        if (! queue.offer(w))
+        {
+            final int n = droppedCount.incrementAndGet();
+            System.err.println("SOCDBWriteBehind: Queue full, dropped write: " + w + " (" + n + " dropped so far)");
+            return false;
+        }
+
+        return true;
+    }
+
+    /**
+     * Stop accepting writes, write everything queued, and end the thread.
+     * @param waitMillis  How long to wait for the thread to finish; 0 to wait forever
+     */
+    void shutdown(final long waitMillis)
+    {
+        stopping = true;
+        interrupt();  // wake from queue.take or a retry delay
+        try
+        {
+            join(waitMillis);
+        }
+        catch (InterruptedException e) {}
+
+        if (isAlive())
+            System.err.println("SOCDBWriteBehind: Timed out flushing writes at shutdown, "
+                + queue.size() + " not written");
+    }
+
+    /**
+     * Stats for debugging and the shutdown message.
+     * @return  Text with the number of writes committed, queued, retried batches, and dropped writes
+     */
+    String getStatsText()
+    {
+        return "written " + writtenCount.get() + ", queued " + queue.size()
+            + ", batch retries " + retryCount.get() + ", dropped " + droppedCount.get();
+    }
+
+    /**
+     * Take writes from the queue and commit them in batches,
+     * until {@link #shutdown(long)} and the queue is empty.
+     */
+    @Override
+    public void run()
+    {
+        final ArrayList<Write> batch = new ArrayList<Write>();
+
+        while (! (stopping && queue.isEmpty()))
+        {
+            if (batch.isEmpty())
+            {
+                try
+                {
+                    final Write w = (stopping) ? queue.poll() : queue.take();
+                    if (w == null)
+                        continue;
+                    batch.add(w);
+                }
+                catch (InterruptedException e)
+                {
+                    continue;  // probably from shutdown; check stopping
+                }
+                queue.drainTo(batch, BATCH_MAX - 1);
+            }
+
+            boolean oneAtATime = false;
+            int retries = 0;
+            while (! batch.isEmpty())
+            {
+                try
+                {
+                    if (oneAtATime)
+                    {
+                        writeEach(batch);
+                    } else {
+                        writeBatch(batch);
+                        writtenCount.addAndGet(batch.size());
+                        batch.clear();
+                    }
+                }
+                catch (SQLException e)
+                {
+                    if (! (oneAtATime || isTransient(e)))
+                    {
+                        // probably a bad write: try each one, so only the bad ones are dropped
+                        oneAtATime = true;
+                        System.err.println("SOCDBWriteBehind: Batch of " + batch.size()
+                            + " writes failed, writing them one at a time: " + e);
+                        continue;
+                    }
+
+                    if ((retries >= MAX_RETRIES) || (stopping && (retries > 0)))
+                    {
+                        droppedCount.addAndGet(batch.size());
+                        System.err.println("SOCDBWriteBehind: Dropped " + batch.size()
+                            + " writes after " + (retries + 1) + " tries: " + e);
+                        break;
+                    }
+
+                    retryCount.incrementAndGet();
+                    final int delay = (stopping) ? 0 : Math.min(RETRY_DELAY_MS << retries, RETRY_DELAY_MAX_MS);
+                    ++retries;
+                    System.err.println("SOCDBWriteBehind: Write failed, retry " + retries
+                        + " in " + delay + " ms: " + e);
+                    if (delay > 0)
+                    {
+                        try
+                        {
+                            Thread.sleep(delay);
+                        }
+                        catch (InterruptedException ie) {}  // probably from shutdown: retry now, once
+                    }
+                }
+            }
+
+            batch.clear();
+        }
+
+        System.err.println("SOCDBWriteBehind: Finished; " + getStatsText());
+    }
+
+    /**
+     * Write each of a batch's writes in its own transaction, removing them from the batch as they're done.
+     * A write which fails with a non-{@link #isTransient(SQLException) transient} exception is dropped and logged.
+     * If a write fails with a transient exception, it and the rest of the writes are left in the batch to retry.
+     * @param batch  Writes to commit; empty afterwards unless an exception is thrown
+     * @throws SQLException if a write fails with a transient exception
+     */
+    private void writeEach(final ArrayList<Write> batch)
+        throws SQLException
+    {
+        final ArrayList<Write> one = new ArrayList<Write>(1);
+        while (! batch.isEmpty())
+        {
+            final Write w = batch.get(0);
+            one.clear();
+            one.add(w);
+            try
+            {
+                writeBatch(one);
+                writtenCount.incrementAndGet();
+            }
+            catch (SQLException e)
+            {
+                if (isTransient(e))
+                    throw e;
+
+                droppedCount.incrementAndGet();
+                System.err.println("SOCDBWriteBehind: Dropped " + w + ": " + e);
+            }
+
+            batch.remove(0);
+        }
+    }
+
+    /**
+     * Is this exception from a problem which may go away if the write is retried later,
+     * such as a lost connection, instead of from a bad write?
+     * @param e  Exception from {@link #writeBatch(ArrayList)}, or its cause
+     * @return  true if {@code e} or a cause is a {@link SQLTransientException} or {@link SQLRecoverableException},
+     *     or has a connection exception SQLState ({@code "08xxx"})
+     */
+    private static boolean isTransient(SQLException e)
+    {
+        for (Throwable t = e; t != null; t = t.getCause())
+        {
+            if ((t instanceof SQLTransientException) || (t instanceof SQLRecoverableException))
+                return true;
+            if (t instanceof SQLException)
+            {
+                final String state = ((SQLException) t).getSQLState();
+                if ((state != null) && state.startsWith("08"))
+                    return true;
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * Write a batch as one transaction on a pooled connection.
+     * On failure, the transaction is rolled back and the connection is closed.
+     * @param batch  Writes to commit
+     * @throws SQLException if any write or the commit fails; {@link SQLTransientConnectionException}
+     *     if can't get a connection from the pool
+     */
+    private void writeBatch(final ArrayList<Write> batch)
+        throws SQLException
+    {
+        final SOCDBConnectionPool.Conn c;
+        try
+        {
+            c = pool.borrow();
+        }
+        catch (SQLException e)
+        {
+            throw new SQLTransientConnectionException("Can't get a DB connection: " + e.getMessage(), e);
+        }
+
+        try
+        {
+            c.conn.setAutoCommit(false);
+
+            final boolean[] used = new boolean[Write.SQL.length];
+            for (final Write w : batch)
+            {
+                final PreparedStatement ps = c.prepare(Write.SQL[w.type]);
+                w.bind(ps);
+                ps.addBatch();
+                used[w.type] = true;
+            }
+
+            for (int i = 0; i < used.length; ++i)
+                if (used[i])
+                    c.prepare(Write.SQL[i]).executeBatch();
+
+            c.conn.commit();
+            c.conn.setAutoCommit(true);
+        }
+        catch (SQLException e)
+        {
+            c.setBroken();
+            try
+            {
+                c.conn.rollback();
+            }
+            catch (SQLException re) {}
+
+            throw e;
+        }
+        finally
+        {
+            c.release();
+        }
+    }
+
+    /**
+     * One queued insert or update. Holds copies of its values, so the caller's objects can change afterwards.
+     */
+    static final class Write
+    {
+        /** {@link #type} for {@link SOCDBHelper#recordLogin(String, String, long)}: Insert into logins */
+        static final int LOGIN = 0;
+
+        /** {@link #type} for {@link SOCDBHelper#updateLastlogin(String, long)}: Update users.lastlogin */
+        static final int LASTLOGIN = 1;
+
+        /** {@link #type} for {@link SOCDBHelper#saveGameScores(soc.game.SOCGame, long)}: Insert into games */
+        static final int GAME = 2;
+
+        /** SQL for each {@link #type} */
+        static final String[] SQL =
+        {
+            SOCDBHelper.RECORD_LOGIN_COMMAND, SOCDBHelper.LASTLOGIN_UPDATE, SOCDBHelper.SAVE_GAME_COMMAND
+        };
+
+        /** Type of write: {@link #LOGIN}, {@link #LASTLOGIN} or {@link #GAME} */
+        final int type;
+
+        /** User or game name */
+        final String name;
+
+        /** Login host, or null */
+        private final String host;
+
+        /** Login time, or game start time */
+        private final long time;
+
+        /** Game's 4 player names and scores, or null */
+        private final String[] plNames;
+        private final short[] plScores;
+
+        /**
+         * Login or last-login write.
+         * @param type  {@link #LOGIN} or {@link #LASTLOGIN}
+         * @param userName  User's nickname
+         * @param host  Host for {@link #LOGIN}, or null
+         * @param time  Login time, same epoch as {@link System#currentTimeMillis()}
+         */
+        Write(final int type, final String userName, final String host, final long time)
+        {
+            this.type = type;
+            name = userName;
+            this.host = host;
+            this.time = time;
+            plNames = null;
+            plScores = null;
+        }
+
+        /**
+         * Game scores write, type {@link #GAME}.
+         * @param gaName  Game name
+         * @param names  Player names for player numbers 0-3
+         * @param scores  Player scores for player numbers 0-3
+         * @param startTime  Game start time, same epoch as {@link System#currentTimeMillis()}
+         */
+        Write(final String gaName, final String[] names, final short[] scores, final long startTime)
+        {
+            type = GAME;
+            name = gaName;
+            host = null;
+            time = startTime;
+            plNames = new String[4];
+            plScores = new short[4];
+            System.arraycopy(names, 0, plNames, 0, 4);
+            System.arraycopy(scores, 0, plScores, 0, 4);
+        }
+
+        /**
+         * Set this write's values into its type's prepared statement.
+         * @param ps  Prepared statement for {@link #SQL}[{@link #type}]
+         * @throws SQLException if a value can't be set
+         */
+        void bind(final PreparedStatement ps)
+            throws SQLException
+        {
+            switch (type)
+            {
+            case LOGIN:
+                ps.setString(1, name);
+                ps.setString(2, host);
+                ps.setDate(3, new java.sql.Date(time), Calendar.getInstance());
+                break;
+
+            case LASTLOGIN:
+                ps.setDate(1, new java.sql.Date(time), Calendar.getInstance());
+                ps.setString(2, name);
+                break;
+
+            case GAME:
+                ps.setString(1, name);
+                for (int i = 0; i < 4; ++i)
+                {
+                    ps.setString(2 + i, plNames[i]);
+                    ps.setShort(6 + i, plScores[i]);
+                }
+                ps.setTimestamp(10, new Timestamp(time));
+                break;
+            }
+        }
+
+        @Override
+        public String toString()
+        {
+            return "Write[type=" + type + ", name=" + name + "]";
+        }
+    }
+
+}
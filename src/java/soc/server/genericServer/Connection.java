@@ -23,6 +23,7 @@ package soc.server.genericServer;
 
 import soc.disableDebug.D;
 
+import java.io.BufferedOutputStream;
 import java.io.DataInputStream;
 import java.io.DataOutputStream;
 import java.io.IOException;
@@ -31,7 +32,7 @@ import java.io.Serializable;
 import java.net.Socket;
 
 import java.util.Date;
-import java.util.Vector;
+import java.util.concurrent.TimeUnit;
 
 
 /** A client's connection at a server.
@@ -66,7 +67,14 @@ public final class Connection
     protected boolean connected = false;
     /** @see #disconnectSoft() */
     protected boolean inputConnected = false;
-    private Vector<String> outQueue = new Vector<String>();
+
+    /**
+     * Messages waiting for the {@link Putter} to send.  Before v2.0.00 this was an unbounded Vector;
+     * its size is now limited by {@link Server#setOutQueueLimits(int, int, int, int)}.
+     * Guarded by its {@link OutboundQueue#lock}, not its monitor, so a Putter waiting on a virtual thread
+     * doesn't pin that thread's carrier.
+     */
+    private final OutboundQueue outQueue = new OutboundQueue();
 
     /** initialize the connection data */
     Connection(Socket so, Server sve)
@@ -98,6 +106,7 @@ public final class Connection
     }
 
     /** Set up to reading from the net, start a new Putter thread to send to the net; called only by the server.
+     * The Putter runs on a virtual thread if {@link Server#isUsingVirtualThreads()}.
      * If successful, also sets connectTime to now.
      * Before calling {@code connect()}, be sure to call {@link #run()} to start the inbound reading thread.
      *
@@ -109,13 +118,13 @@ public final class Connection
         {
             s.setSoTimeout(TIMEOUT_VALUE);
             in = new DataInputStream(s.getInputStream());
-            out = new DataOutputStream(s.getOutputStream());
+            out = new DataOutputStream(new BufferedOutputStream(s.getOutputStream()));
             connected = true;
             inputConnected = true;
             connectTime = new Date();
 
             Putter putter = new Putter();
-            putter.start();
+            ourServer.startConnectionThread(putter, putter.name);
 
             //(reader=new Thread(this)).start();
         }
@@ -199,11 +208,73 @@ public final class Connection
      */
     public final void put(String str)
     {
-        synchronized (outQueue)
+        put(new EncodedMessage(str));
+    }
+
+    /**
+     * Send this message over the connection.  Adds it to the {@link #outQueue}
+     * to be sent by the Putter thread, which will send its shared encoded frame.
+     *<P>
+     * If the queue goes over the server's limits, applies its policy: See
+     * {@link Server#setOutQueueLimits(int, int, int, int)}.  If the connection is to be dropped,
+     * the Putter thread will remove it from the server; messages put after that are ignored.
+     *
+     * @param msg Message to send
+     * @since 2.0.00
+     */
+    public final void put(final EncodedMessage msg)
+    {
+        outQueue.lock.lock();
+        try
+        {
+            if (outQueue.overLimit)
+                return;
+
+            // D.ebugPrintln("Adding " + msg.str + " to outQueue for " + data);
+            outQueue.addLast(msg);
+            if (! ourServer.outQueueAdded(outQueue))
+                D.ebugPrintln("Outbound queue over limit for " + data + "; dropping connection");
+            outQueue.added.signalAll();  // wake Putter
+        }
+        finally
         {
-            // D.ebugPrintln("Adding " + str + " to outQueue for " + data);
-            outQueue.addElement(str);
-            outQueue.notify();
+            outQueue.lock.unlock();
+        }
+    }
+
+    /**
+     * Number of messages waiting for the Putter thread to send.
+     * @since 2.0.00
+     */
+    @Override
+    public int getOutQueueSize()
+    {
+        outQueue.lock.lock();
+        try
+        {
+            return outQueue.size();
+        }
+        finally
+        {
+            outQueue.lock.unlock();
+        }
+    }
+
+    /**
+     * Total size of the messages waiting for the Putter thread to send.
+     * @since 2.0.00
+     */
+    @Override
+    public int getOutQueueBytes()
+    {
+        outQueue.lock.lock();
+        try
+        {
+            return outQueue.getBytes();
+        }
+        finally
+        {
+            outQueue.lock.unlock();
         }
     }
 
@@ -212,14 +283,14 @@ public final class Connection
      * This method is called when it's dequeued and sent over
      * the connection to the remote end.
      *
-     * @param str Data to send
+     * @param msg Message to send
      *
      * @return True if sent, false if error
      *         (and sets {@link #error})
      */
-    private boolean putForReal(final String str)
+    private boolean putForReal(final EncodedMessage msg)
     {
-        boolean rv = putAux(str);
+        boolean rv = putAux(msg);
 
         if (! rv)
         {
@@ -240,11 +311,47 @@ public final class Connection
         }
     }
 
-    /** put a message on the net
+    /**
+     * Flush the messages written by {@link #putForReal(EncodedMessage)} to the net,
+     * and update the server's write-batching statistics.
+     * If the flush fails, sets {@link #error} and removes this connection from the server.
+     *
+     * @param nMessages  Number of messages written since the last flush
+     * @since 2.0.00
+     */
+    private void flushForReal(final int nMessages)
+    {
+        if ((error != null) || ! connected)
+            return;
+
+        try
+        {
+            out.flush();
+            ourServer.writeBatchFlushed(nMessages);
+        }
+        catch (Exception e)
+        {
+            D.ebugPrintln("Exception in Connection.flushForReal (" + hst + ") - " + e);
+
+            if (D.ebugOn)
+            {
+                e.printStackTrace(System.out);
+            }
+
+            if (! connected)
+                return;
+
+            if (e instanceof IOException)
+                error = e;
+            ourServer.removeConnection(this);
+        }
+    }
+
+    /** put a message into the output buffer; {@link #flushForReal(int)} will send it on the net
      * @return true for success, false and disconnects on failure
      *         (and sets {@link #error})
      */
-    private final boolean putAux(final String str)
+    private final boolean putAux(final EncodedMessage msg)
     {
         if ((error != null) || ! connected)
         {
@@ -253,8 +360,17 @@ public final class Connection
 
         try
         {
-            //D.ebugPrintln("trying to put "+str+" to "+data);
-            out.writeUTF(str);
+            //D.ebugPrintln("trying to put "+msg.str+" to "+data);
+            final boolean useCompact = compactFrames;
+            final byte[] frame = msg.getFrame(useCompact);
+            if (useCompact)
+            {
+                final int textLen = msg.getTextFrameLength();
+                if (frame.length < textLen)
+                    compactFrameSent(textLen - frame.length);
+            }
+
+            out.write(frame);
         }
         catch (IOException e)
         {
@@ -316,6 +432,17 @@ public final class Connection
         s = null;
         in = null;
         out = null;
+
+        outQueue.lock.lock();
+        try
+        {
+            outQueue.clear();
+            outQueue.added.signalAll();  // wake Putter to exit
+        }
+        finally
+        {
+            outQueue.lock.unlock();
+        }
     }
 
     /**
@@ -340,6 +467,19 @@ public final class Connection
         return connected && inputConnected;
     }
 
+    /**
+     * Send messages as compact frames when shorter than text frames.
+     * Affects messages not yet sent, including those already in the output queue.
+     * @param useCompact  True to send compact frames when shorter, false to send only text frames
+     * @return  true; this connection type supports compact frames
+     * @since 2.0.00
+     */
+    public boolean setCompactFrames(final boolean useCompact)
+    {
+        compactFrames = useCompact;
+        return true;
+    }
+
     /**
      * toString includes data.toString for debugging, and {@link #getName()}.
      * @since 1.0.5.2
@@ -357,9 +497,23 @@ public final class Connection
         return sb.toString();
     }
 
-    /** Connection inner class thread to send {@link Connection#outQueue} messages to the net. */
-    class Putter extends Thread
+    /**
+     * Connection inner class to send {@link Connection#outQueue} messages to the net.
+     * Before v2.0.00 this class extended Thread; it's now run by
+     * {@link Server#startConnectionThread(Runnable, String)} on a platform or virtual thread.
+     *<P>
+     * Since v2.0.00, writes all queued messages, up to {@link Server#getWriteBatchMax()}, before flushing once.
+     * If {@link Server#getWriteBatchLatency()} &gt; 0, waits up to that long for more messages
+     * to add to the batch before flushing.
+     *<P>
+     * If {@link #outQueue} has gone over the server's limit and been cleared
+     * ({@link OutboundQueue#overLimit}), removes the connection from the server.
+     */
+    class Putter implements Runnable
     {
+        /** Thread name for debug */
+        public final String name;
+
         //public boolean putting = true;
         public Putter()
         {
@@ -368,43 +522,82 @@ public final class Connection
             /* thread name for debug */
             String cn = host();
             if (cn != null)
-                setName("putter-" + cn + "-" + Integer.toString(s.getPort()));
+                name = "putter-" + cn + "-" + Integer.toString(s.getPort());
             else
-                setName("putter-(null)-" + Integer.toString(hashCode()));
+                name = "putter-(null)-" + Integer.toString(hashCode());
         }
 
         public void run()
         {
             while (connected)
             {
-                String c = null;
-
                 D.ebugPrintln("** " + data + " is at the top of the putter loop");
 
-                synchronized (outQueue)
+                final int batchMax = ourServer.getWriteBatchMax(),
+                          latency = ourServer.getWriteBatchLatency();
+                long flushBy = 0;  // if latency > 0, time to flush a partial batch
+                int n = 0;  // messages written in this batch
+                boolean ok = true, overLimit = false;
+                while (ok && (n < batchMax))
                 {
-                    if (outQueue.size() > 0)
+                    EncodedMessage c = null;
+
+                    outQueue.lock.lock();
+                    try
+                    {
+                        overLimit = outQueue.overLimit;
+                        if (overLimit)
+                            break;
+
+                        if (outQueue.isEmpty() && (flushBy != 0))
+                        {
+                            final long waitMS = flushBy - System.currentTimeMillis();
+                            if (waitMS > 0)
+                            {
+                                try
+                                {
+                                    outQueue.added.await(waitMS, TimeUnit.MILLISECONDS);
+                                }
+                                catch (InterruptedException ex) {}
+                            }
+                        }
+
+                        c = outQueue.removeFirst();
+                    }
+                    finally
                     {
-                        c = outQueue.elementAt(0);
-                        outQueue.removeElementAt(0);
+                        outQueue.lock.unlock();
                     }
+
+                    if (c == null)
+                        break;
+
+                    ok = putForReal(c);  // if false, handled by putForReal
+                    ++n;
+                    if ((n == 1) && (latency > 0))
+                        flushBy = System.currentTimeMillis() + latency;
                 }
 
-                if (c != null)
+                if (overLimit)
                 {
-                    /* boolean rv = */ putForReal(c);
-
-                    // rv ignored because handled by putForReal
+                    if (error == null)
+                        error = new IOException("Outbound queue over limit");
+                    ourServer.removeConnection(Connection.this);
+                    break;
                 }
 
-                synchronized (outQueue)
+                if ((n > 0) && ok)
+                    flushForReal(n);
+
+                outQueue.lock.lock();
+                try
                 {
                     if (outQueue.size() == 0)
                     {
                         try
                         {
                             //D.ebugPrintln("** "+data+" is WAITING for outQueue");
-                            outQueue.wait(1000);
+                            outQueue.added.await(1000, TimeUnit.MILLISECONDS);
                         }
                         catch (Exception ex)
                         {
@@ -412,6 +605,10 @@ public final class Connection
                         }
                     }
                 }
+                finally
+                {
+                    outQueue.lock.unlock();
+                }
             }
 
             D.ebugPrintln("putter not putting connected==false : " + data);
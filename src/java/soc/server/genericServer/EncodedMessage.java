@@ -0,0 +1,150 @@
+/**
+ * Java Settlers - An online multiplayer version of the game Settlers of Catan
+ * This file Copyright (C) 2026 agent <agent@local>
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * The maintainer of this program can be reached at jsettlers@nand.net
+ **/
+package soc.server.genericServer;
+
+import java.io.UTFDataFormatException;
+
+/**
+ * A message to be sent over the net, and its encoded frames, which are created
+ * when first needed and then kept.  When the same message is sent to many connections,
+ * such as all members of a game, use one {@code EncodedMessage} for all of them
+ * with {@link StringConnection#put(EncodedMessage)}: Each frame format
+ * (text, or compact; see {@link MessageFrameCodec}) is then encoded only once,
+ * not once per connection.
+ *<P>
+ * The frames are never changed once created, so the connections' writer threads
+ * can all send the same byte arrays.
+ *
+ * @author agent &lt;agent@local&gt;
+ * @since 2.0.00
+ */
+public final class EncodedMessage
+{
+    /** The message, as from {@link soc.message.SOCMessage#toCmd()} */
+    public final String str;
+
+    /**
+     * Server whose {@link Server#getEncodesAvoided()} count is updated when a frame is reused, or null.
+     * Messages sent to only one connection don't need this.
+     */
+    private final Server srv;
+
+    /**
+     * Key for coalescing this message with later ones while queued, or null.
+     * Messages with the same key carry the same piece of state, such as a player's resource count,
+     * so when a connection's outbound queue is over its limit, only the latest of them
+     * needs to be sent; see {@link Server#OUTQUEUE_POLICY_COALESCE}.
+     */
+    public final String coalesceKey;
+
+    /** Length of the text frame, including its 2-byte length prefix; 0 until calculated */
+    private int textLen;
+
+    /** Text frame, or null if not yet encoded */
+    private byte[] textFrame;
+
+    /** Compact frame, or null if not yet encoded or not shorter than {@link #textFrame} */
+    private byte[] compactFrame;
+
+    /** Has {@link #compactFrame} been encoded, even if null because it wasn't shorter? */
+    private boolean compactEncoded;
+
+    /**
+     * Wrap a message to send to one connection.
+     * @param str  Message to send, as from {@link soc.message.SOCMessage#toCmd()}
+     */
+    public EncodedMessage(final String str)
+    {
+        this(str, null);
+    }
+
+    /**
+     * Wrap a message to send to many connections.
+     * @param str  Message to send, as from {@link soc.message.SOCMessage#toCmd()}
+     * @param srv  Server whose {@link Server#getEncodesAvoided()} count is updated
+     *     each time an encoded frame is reused, or null
+     */
+    public EncodedMessage(final String str, final Server srv)
+    {
+        this(str, srv, null);
+    }
+
+    /**
+     * Wrap a message to send to many connections, which may be coalesced with later messages having the same key.
+     * @param str  Message to send, as from {@link soc.message.SOCMessage#toCmd()}
+     * @param srv  Server whose {@link Server#getEncodesAvoided()} count is updated
+     *     each time an encoded frame is reused, or null
+     * @param coalesceKey  Key for coalescing with later messages, or null; see {@link #coalesceKey}
+     */
+    public EncodedMessage(final String str, final Server srv, final String coalesceKey)
+    {
+        this.str = str;
+        this.srv = srv;
+        this.coalesceKey = coalesceKey;
+    }
+
+    /**
+     * Length of the text frame, including its 2-byte length prefix.
+     * Calculated once without encoding the frame.
+     * @return  the text frame's length
+     */
+    public synchronized int getTextFrameLength()
+    {
+        if (textLen == 0)
+            textLen = 2 + MessageFrameCodec.utfLength(str, 0, str.length());
+
+        return textLen;
+    }
+
+    /**
+     * Get the frame to send to a connection, encoding it if this is the first use of that format.
+     * @param compact  True if the connection accepts compact frames; see {@link StringConnection#isCompactFrames()}
+     * @return  The compact frame if {@code compact} and that's shorter than text; otherwise the text frame.
+     *     Caller must not change the contents of the returned array.
+     * @throws UTFDataFormatException  if the message is longer than {@link MessageFrameCodec#MAX_PAYLOAD} bytes
+     */
+    public synchronized byte[] getFrame(final boolean compact)
+        throws UTFDataFormatException
+    {
+        if (compact)
+        {
+            if (! compactEncoded)
+            {
+                compactFrame = MessageFrameCodec.encodeCompactFrame(str, getTextFrameLength());
+                compactEncoded = true;
+            }
+            else if ((compactFrame != null) && (srv != null))
+            {
+                srv.encodeAvoided();
+            }
+
+            if (compactFrame != null)
+                return compactFrame;
+        }
+
+        if (textFrame == null)
+            textFrame = MessageFrameCodec.encodeUTF(str).array();
+        else if (srv != null)
+            srv.encodeAvoided();
+
+        return textFrame;
+    }
+
+}
@@ -0,0 +1,428 @@
+/**
+ * Java Settlers - An online multiplayer version of the game Settlers of Catan
+ * This file Copyright (C) 2026 agent <agent@local>
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * The maintainer of this program can be reached at jsettlers@nand.net
+ **/
+package soc.server.genericServer;
+
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.UTFDataFormatException;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Encode and decode the frames sent over network {@link StringConnection}s.
+ *<P>
+ * Every frame has a 2-byte big-endian length, then that many bytes of payload,
+ * like {@link java.io.DataOutputStream#writeUTF(String)}.  There are two payload formats:
+ *<UL>
+ * <LI> <B>Text:</B> The message string in modified UTF-8, exactly as written by {@code writeUTF}.
+ *      All clients can read this format.
+ * <LI> <B>Compact:</B> A marker byte {@link #COMPACT_MARKER} (0), then the message's fields.
+ *      Only sent to clients which asked for it; see {@link StringConnection#setCompactFrames(boolean)}.
+ *</UL>
+ * Modified UTF-8 never contains a 0 byte, so a reader can tell the formats apart
+ * by the first byte of the payload: See {@link #readFrame(DataInputStream)}.
+ *<P>
+ * The compact format splits the message string into fields at each {@link #SEP_CHAR} or {@link #SEP2_CHAR},
+ * the same separators as {@link soc.message.SOCMessage#sep_char} and {@link soc.message.SOCMessage#sep2_char}.
+ * Each field is a varint header followed by the field's data, if any:
+ *<UL>
+ * <LI> Bit 0 of the header is 0 for an int field, 1 for a string field.
+ * <LI> Bit 1 is the separator before this field: 0 for {@code SEP_CHAR}, 1 for {@code SEP2_CHAR}.
+ *      Always 0 for the first field, which has no separator before it.
+ * <LI> The rest of the header's bits are the int field's zigzag-encoded value,
+ *      or the string field's length in bytes.  A string field's header is followed by its modified UTF-8 bytes.
+ *</UL>
+ * A field is sent as an int only if its text is the canonical decimal form of an int,
+ * such as "0", "-17" or "1009" but not "007", "+3" or "-0", so decoding gives back the exact message string.
+ * Varints are unsigned little-endian base-128, 7 bits per byte, high bit set on all bytes but the last.
+ *<P>
+ * Most messages are mostly small ints, which take 1 or 2 bytes each instead of several digits plus separator.
+ * If a message's compact frame wouldn't be smaller than its text frame,
+ * {@link #encodeCompactFrame(String, int)} returns null and the text frame should be sent.
+ *<P>
+ * The compact format saves network bandwidth only, not CPU: It's encoded from the message's
+ * {@code toCmd()} text, and decoded back to that text for {@link soc.message.SOCMessage#toMsg(String)}.
+ * Each side does somewhat more work than for a text frame: In {@code src/bench},
+ * {@code soc.server.genericServer.FrameBenchmark} measured about 50 nanoseconds more per message
+ * to encode or to decode, for frames averaging 80% of their text size.
+ * The server encodes each message only once for all the game members it's sent to; see {@link EncodedMessage}.
+ *
+ * @author agent &lt;agent@local&gt;
+ * @since 2.0.00
+ */
+public class MessageFrameCodec
+{
+    /** First payload byte of a compact frame.  Never the first byte of a text frame's modified UTF-8. */
+    public static final byte COMPACT_MARKER = 0;
+
+    /** Primary field separator in message strings; same as {@link soc.message.SOCMessage#sep_char}. */
+    public static final char SEP_CHAR = '|';
+
+    /** Secondary field separator in message strings; same as {@link soc.message.SOCMessage#sep2_char}. */
+    public static final char SEP2_CHAR = ',';
+
+    /** Largest possible frame payload, in bytes, to fit the 2-byte length prefix. */
+    public static final int MAX_PAYLOAD = 0xFFFF;
+
+    /** Utility class; not instantiated. */
+    private MessageFrameCodec() {}
+
+    /**
+     * Length of a string, or part of one, when encoded as modified UTF-8.
+     * @param str  String to measure
+     * @param from  Starting index within {@code str}
+     * @param to  Ending index within {@code str}, exclusive
+     * @return the number of bytes needed to encode {@code str} from {@code from} to {@code to}
+     */
+    public static int utfLength(final String str, final int from, final int to)
+    {
+        int utflen = 0;
+        for (int i = from; i < to; ++i)
+        {
+            final char c = str.charAt(i);
+            if ((c >= 0x0001) && (c <= 0x007F))
+                ++utflen;
+            else if (c > 0x07FF)
+                utflen += 3;
+            else
+                utflen += 2;
+        }
+
+        return utflen;
+    }
+
+    /**
+     * Encode part of a string as modified UTF-8 into a byte array, which must have room for
+     * {@link #utfLength(String, int, int)} bytes.
+     * @param str  String to encode
+     * @param from  Starting index within {@code str}
+     * @param to  Ending index within {@code str}, exclusive
+     * @param b  Array to encode into
+     * @param j  Starting index within {@code b}
+     * @return the index in {@code b} just past the encoded bytes
+     */
+    private static int putUTF(final String str, final int from, final int to, final byte[] b, int j)
+    {
+        for (int i = from; i < to; ++i)
+        {
+            final char c = str.charAt(i);
+            if ((c >= 0x0001) && (c <= 0x007F))
+            {
+                b[j++] = (byte) c;
+            }
+            else if (c > 0x07FF)
+            {
+                b[j++] = (byte) (0xE0 | ((c >> 12) & 0x0F));
+                b[j++] = (byte) (0x80 | ((c >> 6) & 0x3F));
+                b[j++] = (byte) (0x80 | (c & 0x3F));
+            }
+            else
+            {
+                b[j++] = (byte) (0xC0 | ((c >> 6) & 0x1F));
+                b[j++] = (byte) (0x80 | (c & 0x3F));
+            }
+        }
+
+        return j;
+    }
+
+    /**
+     * Encode a string as a text frame, in the same format as {@link java.io.DataOutputStream#writeUTF(String)}:
+     * 2-byte big-endian length, then modified UTF-8 bytes.
+     * @param str  String to encode
+     * @return a buffer ready to be written (position 0, limit at end of data)
+     * @throws UTFDataFormatException if the encoded string is longer than {@link #MAX_PAYLOAD} bytes
+     */
+    public static ByteBuffer encodeUTF(final String str)
+        throws UTFDataFormatException
+    {
+        final int slen = str.length();
+        final int utflen = utfLength(str, 0, slen);
+        if (utflen > MAX_PAYLOAD)
+            throw new UTFDataFormatException("encoded string too long: " + utflen + " bytes");
+
+        final byte[] b = new byte[2 + utflen];
+        b[0] = (byte) ((utflen >>> 8) & 0xFF);
+        b[1] = (byte) (utflen & 0xFF);
+        putUTF(str, 0, slen, b, 2);
+
+        return ByteBuffer.wrap(b);
+    }
+
+    /**
+     * Decode {@code len} bytes of modified UTF-8, the same format read by {@link java.io.DataInputStream#readUTF()}.
+     * @param buf  Buffer positioned at the start of the string data; position is advanced by {@code len}
+     * @param len  Length of the encoded data in bytes
+     * @return the decoded string
+     * @throws UTFDataFormatException if the bytes aren't valid modified UTF-8
+     */
+    public static String decodeUTF(final ByteBuffer buf, final int len)
+        throws UTFDataFormatException
+    {
+        final char[] ca = new char[len];
+        final int end = buf.position() + len;
+        int nc = 0;
+        while (buf.position() < end)
+        {
+            final int c = buf.get() & 0xFF;
+            switch (c >> 4)
+            {
+            case 0: case 1: case 2: case 3: case 4: case 5: case 6: case 7:
+                // 0xxxxxxx
+                ca[nc++] = (char) c;
+                break;
+
+            case 12: case 13:
+                {
+                    // 110x xxxx   10xx xxxx
+                    if (buf.position() >= end)
+                        throw new UTFDataFormatException("malformed input: partial character at end");
+                    final int c2 = buf.get();
+                    if ((c2 & 0xC0) != 0x80)
+                        throw new UTFDataFormatException("malformed input around byte " + buf.position());
+                    ca[nc++] = (char) (((c & 0x1F) << 6) | (c2 & 0x3F));
+                }
+                break;
+
+            case 14:
+                {
+                    // 1110 xxxx  10xx xxxx  10xx xxxx
+                    if (buf.position() + 2 > end)
+                        throw new UTFDataFormatException("malformed input: partial character at end");
+                    final int c2 = buf.get();
+                    final int c3 = buf.get();
+                    if (((c2 & 0xC0) != 0x80) || ((c3 & 0xC0) != 0x80))
+                        throw new UTFDataFormatException("malformed input around byte " + (buf.position() - 1));
+                    ca[nc++] = (char) (((c & 0x0F) << 12) | ((c2 & 0x3F) << 6) | (c3 & 0x3F));
+                }
+                break;
+
+            default:
+                // 10xx xxxx,  1111 xxxx
+                throw new UTFDataFormatException("malformed input around byte " + buf.position());
+            }
+        }
+
+        return new String(ca, 0, nc);
+    }
+
+    /**
+     * Encode a string as a compact frame, if that would be shorter than {@code maxFrameLen}.
+     * @param str  String to encode
+     * @param maxFrameLen  Length of this string's text frame including the 2-byte length prefix,
+     *     or any other limit; the compact frame must be shorter than this
+     * @return the complete frame including its 2-byte length prefix,
+     *     or null if it wouldn't be shorter than {@code maxFrameLen}
+     */
+    public static byte[] encodeCompactFrame(final String str, final int maxFrameLen)
+    {
+        final int limit = Math.min(maxFrameLen - 1, 2 + MAX_PAYLOAD);  // longest allowed frame
+        if (limit < 4)
+            return null;
+
+        final byte[] b = new byte[limit];
+        b[2] = COMPACT_MARKER;
+        int j = 3;
+
+        final int slen = str.length();
+        int sepBit = 0;  // separator before current field: 0 for SEP_CHAR or none, 2 for SEP2_CHAR
+        int fStart = 0;
+        for (;;)
+        {
+            int fEnd = fStart;
+            while (fEnd < slen)
+            {
+                final char c = str.charAt(fEnd);
+                if ((c == SEP_CHAR) || (c == SEP2_CHAR))
+                    break;
+                ++fEnd;
+            }
+
+            final long ival = parseCanonicalInt(str, fStart, fEnd);
+            if (ival != Long.MIN_VALUE)
+            {
+                final int iv = (int) ival;
+                final long zz = ((iv << 1) ^ (iv >> 31)) & 0xFFFFFFFFL;
+                j = putVarint((zz << 2) | sepBit, b, j);
+            } else {
+                final int flen = utfLength(str, fStart, fEnd);
+                j = putVarint((((long) flen) << 2) | sepBit | 1, b, j);
+                if ((j == -1) || (j + flen > limit))
+                    return null;
+                j = putUTF(str, fStart, fEnd, b, j);
+            }
+            if (j == -1)
+                return null;
+
+            if (fEnd >= slen)
+                break;
+            sepBit = (str.charAt(fEnd) == SEP2_CHAR) ? 2 : 0;
+            fStart = fEnd + 1;
+        }
+
+        final int plen = j - 2;
+        b[0] = (byte) ((plen >>> 8) & 0xFF);
+        b[1] = (byte) (plen & 0xFF);
+        final byte[] frame = new byte[j];
+        System.arraycopy(b, 0, frame, 0, j);
+
+        return frame;
+    }
+
+    /**
+     * If a field is the canonical decimal text of an int, parse it.
+     * @param str  String containing the field
+     * @param from  Starting index of the field
+     * @param to  Ending index of the field, exclusive
+     * @return the int value, or {@link Long#MIN_VALUE} if the field isn't an int in canonical form
+     */
+    private static long parseCanonicalInt(final String str, int from, final int to)
+    {
+        final boolean neg = (from < to) && (str.charAt(from) == '-');
+        if (neg)
+            ++from;
+        final int ndig = to - from;
+        if ((ndig < 1) || (ndig > 10))
+            return Long.MIN_VALUE;
+        if ((str.charAt(from) == '0') && (neg || (ndig > 1)))
+            return Long.MIN_VALUE;  // "-0" or leading 0
+
+        long v = 0;
+        for (int i = from; i < to; ++i)
+        {
+            final char c = str.charAt(i);
+            if ((c < '0') || (c > '9'))
+                return Long.MIN_VALUE;
+            v = (v * 10) + (c - '0');
+        }
+        if (neg)
+            v = -v;
+        if ((v > Integer.MAX_VALUE) || (v < Integer.MIN_VALUE))
+            return Long.MIN_VALUE;
+
+        return v;
+    }
+
+    /**
+     * Write a varint into a byte array.
+     * @param v  Value to write; not negative
+     * @param b  Array to write into
+     * @param j  Starting index within {@code b}
+     * @return the index in {@code b} just past the varint, or -1 if it doesn't fit
+     */
+    private static int putVarint(long v, final byte[] b, int j)
+    {
+        while (v >= 0x80)
+        {
+            if (j >= b.length)
+                return -1;
+            b[j++] = (byte) ((v & 0x7F) | 0x80);
+            v >>>= 7;
+        }
+        if (j >= b.length)
+            return -1;
+        b[j++] = (byte) v;
+
+        return j;
+    }
+
+    /**
+     * Decode a compact frame's payload, after its {@link #COMPACT_MARKER} byte.
+     * @param buf  Buffer positioned just after the marker; position is advanced by {@code len}
+     * @param len  Length of the payload not including the marker byte
+     * @return the message string
+     * @throws IOException if the payload is malformed
+     */
+    public static String decodeCompact(final ByteBuffer buf, final int len)
+        throws IOException
+    {
+        final StringBuilder sb = new StringBuilder(len * 2);
+        final int end = buf.position() + len;
+        boolean first = true;
+        while (buf.position() < end)
+        {
+            long h = 0;
+            for (int shift = 0; ; shift += 7)
+            {
+                if ((buf.position() >= end) || (shift > 35))
+                    throw new IOException("malformed compact frame: bad varint");
+                final int vb = buf.get();
+                h |= ((long) (vb & 0x7F)) << shift;
+                if ((vb & 0x80) == 0)
+                    break;
+            }
+
+            if (! first)
+                sb.append(((h & 2) != 0) ? SEP2_CHAR : SEP_CHAR);
+            first = false;
+
+            if ((h & 1) == 0)
+            {
+                final int zz = (int) (h >>> 2);
+                sb.append((zz >>> 1) ^ -(zz & 1));
+            } else {
+                final long flen = h >>> 2;
+                if (flen > (end - buf.position()))
+                    throw new IOException("malformed compact frame: field too long");
+                sb.append(decodeUTF(buf, (int) flen));
+            }
+        }
+
+        return sb.toString();
+    }
+
+    /**
+     * Decode a frame's payload, either text or compact.
+     * @param buf  Buffer positioned at the start of the payload, just after the length prefix;
+     *     position is advanced by {@code len}
+     * @param len  Length of the payload, from the frame's length prefix
+     * @return the message string
+     * @throws IOException if the payload is malformed
+     */
+    public static String decodeFrame(final ByteBuffer buf, final int len)
+        throws IOException
+    {
+        if ((len > 0) && (buf.get(buf.position()) == COMPACT_MARKER))
+        {
+            buf.get();
+            return decodeCompact(buf, len - 1);
+        }
+
+        return decodeUTF(buf, len);
+    }
+
+    /**
+     * Read the next frame, text or compact, from a client's network input stream.
+     * Can be used instead of {@link DataInputStream#readUTF()}, which reads only text frames.
+     * @param in  Stream to read from
+     * @return the message string
+     * @throws IOException if the read fails, or the frame is malformed
+     */
+    public static String readFrame(final DataInputStream in)
+        throws IOException
+    {
+        final int len = in.readUnsignedShort();
+        final byte[] b = new byte[len];
+        in.readFully(b);
+
+        return decodeFrame(ByteBuffer.wrap(b), len);
+    }
+
+}
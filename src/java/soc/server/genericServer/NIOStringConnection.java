@@ -0,0 +1,574 @@
+/**
+ * Java Settlers - An online multiplayer version of the game Settlers of Catan
+ * This file Copyright (C) 2026 agent <agent@local>
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * The maintainer of this program can be reached at jsettlers@nand.net
+ **/
+package soc.server.genericServer;
+
+import soc.disableDebug.D;
+
+import java.io.EOFException;
+import java.io.IOException;
+
+import java.net.Socket;
+
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.SocketChannel;
+
+import java.util.Date;
+
+/**
+ * A client's non-blocking connection at a server, for {@link NIOStringServerSocket}.
+ * Reads and writes the same length-prefixed modified UTF-8 frames as
+ * {@link java.io.DataOutputStream#writeUTF(String)}, so clients can't tell it apart from {@link Connection};
+ * like {@code Connection}, can also send compact frames if {@link #setCompactFrames(boolean)} is called.
+ *<P>
+ * Unlike {@link Connection}, this class has no reader or putter thread of its own:
+ * All network reads and writes are done by the {@link NIOStringServerSocket}'s selector thread,
+ * which hands decoded messages to its dispatch thread to call {@link Server#treat(String, StringConnection)}.
+ * {@link #run()} returns as soon as the connection has been added to the server and registered.
+ *<P>
+ * As used within JSettlers, the structure of this class has much in common
+ * with {@link Connection}, as they both subclass {@link StringConnection}.
+ * If you add something to one class, you should probably add it to the other, or to the superclass instead.
+ *
+ * @author agent &lt;agent@local&gt;
+ * @since 2.0.00
+ */
+public final class NIOStringConnection
+    extends StringConnection
+{
+    /** Initial size of {@link #inBuf}; grows as needed up to {@link #MAX_FRAME_SIZE}. */
+    private static final int INBUF_INITIAL_SIZE = 2048;
+
+    /** Largest possible frame: 2-byte length prefix + 65535 bytes of modified UTF-8. */
+    private static final int MAX_FRAME_SIZE = 2 + 0xFFFF;
+
+    /** Our server socket, which owns the selector and dispatch threads */
+    private final NIOStringServerSocket sock;
+
+    private SocketChannel ch;
+
+    /**
+     * IP address of the remote end of the connection, for {@link #host()}.
+     * Unlike {@link Connection}, this is never a hostname: Looking it up would block the selector thread.
+     */
+    protected String hst;
+
+    /** Remote port number, for {@link #getName()} */
+    private final int rport;
+
+    protected volatile boolean connected = false;
+
+    /** @see #disconnectSoft() */
+    protected volatile boolean inputConnected = false;
+
+    /**
+     * True if the server accepted this connection in {@link Server#addConnection(StringConnection)}.
+     * If false, the server never added us to its connection lists, so don't call
+     * {@link Server#removeConnection(StringConnection)} at EOF.
+     * Set in {@link #run()}.
+     */
+    boolean wasAccepted;
+
+    /** Has the first message been read yet? For {@link Server#processFirstCommand(String, StringConnection)}. Selector thread only. */
+    boolean firstMsgRead;
+
+    /** Selector key, once registered by {@link NIOStringServerSocket}'s selector thread */
+    SelectionKey key;
+
+    /** Has the selector thread already reported this connection as lost? Selector thread only. */
+    boolean lostReported;
+
+    /** Partial inbound data, in "write" mode between reads. Selector thread only. */
+    private ByteBuffer inBuf = ByteBuffer.allocate(INBUF_INITIAL_SIZE);
+
+    /**
+     * Batch of outbound message frames being written by one gathering write;
+     * see {@link Server#setWriteBatching(int, int)}.  Selector thread only.
+     * Elements {@link #outBufsStart} up to but not including {@link #outBufsCount} are still being written.
+     */
+    private ByteBuffer[] outBufs;
+
+    /** Messages taken from {@link #outQueue} to encode into {@link #outBufs}; same length. Selector thread only. */
+    private EncodedMessage[] outMsgs;
+
+    /** First element of {@link #outBufs} not yet completely written. Selector thread only. */
+    private int outBufsStart;
+
+    /** Number of frames in the current {@link #outBufs} batch, or 0 if none. Selector thread only. */
+    private int outBufsCount;
+
+    /**
+     * Messages waiting to be encoded and written by the selector thread.
+     * Guarded by its {@link OutboundQueue#lock}, like {@link Connection}'s outQueue.
+     * Size is limited by {@link Server#setOutQueueLimits(int, int, int, int)}.
+     */
+    private final OutboundQueue outQueue = new OutboundQueue();
+
+    /**
+     * Has this connection been queued at the selector for writing, and not yet emptied {@link #outQueue}?
+     * Guarded by {@link #outQueue}'s lock.
+     */
+    private boolean writeRequested;
+
+    /** Time of the most recent read, from {@link System#currentTimeMillis()}, for idle timeout */
+    volatile long lastReadTime;
+
+    /** initialize the connection data */
+    NIOStringConnection(final SocketChannel sc, final NIOStringServerSocket ssock, final Server sve)
+    {
+        final Socket so = sc.socket();
+        hst = so.getInetAddress().getHostAddress();  // not getHostName: reverse DNS would block the selector thread
+        rport = so.getPort();
+        ch = sc;
+        sock = ssock;
+        ourServer = sve;
+    }
+
+    /**
+     * @return our socket channel, for {@link NIOStringServerSocket}
+     */
+    SocketChannel ch()
+    {
+        return ch;
+    }
+
+    /**
+     * Get our connection name for debugging.  Also used by {@link #toString()}.
+     * @return "connection-"remotehostname-portnumber, or "connection-(null)-"hashCode
+     */
+    public String getName()
+    {
+        if (hst != null)
+            return "connection-" + hst + "-" + Integer.toString(rport);
+        else
+            return "connection-(null)-" + Integer.toString(hashCode());
+    }
+
+    /**
+     * @return IP address of the remote end of the connection
+     */
+    public String host()
+    {
+        return hst;
+    }
+
+    /**
+     * Set up for reading from the net; called only by the server.
+     * No thread is started: Reads and writes are done by the selector thread once {@link #run()} registers us.
+     * Also sets connectTime to now.
+     *
+     * @return true
+     */
+    public boolean connect()
+    {
+        connected = true;
+        inputConnected = true;
+        connectTime = new Date();
+        lastReadTime = System.currentTimeMillis();
+
+        return true;
+    }
+
+    /**
+     * Is input available now, without blocking?
+     * True if any unprocessed data has been read from the net.
+     */
+    public boolean isInputAvailable()
+    {
+        return inputConnected && (inBuf.position() > 0);
+    }
+
+    /**
+     * Add this connection to the server, then register it with the selector to start reading.
+     * Called from {@link Server#run()}'s accept loop; unlike {@link Connection#run()}, returns right away
+     * instead of continuously reading from the net.
+     */
+    public void run()
+    {
+        ourServer.addConnection(this);
+        wasAccepted = inputConnected;
+        if (connected)
+            sock.register(this);
+    }
+
+    /**
+     * Send this data over the connection.  Adds it to the {@link #outQueue}
+     * to be sent by the selector thread.
+     *
+     * @param str Data to send
+     */
+    public final void put(String str)
+    {
+        put(new EncodedMessage(str));
+    }
+
+    /**
+     * Send this message over the connection.  Adds it to the {@link #outQueue}
+     * to be sent by the selector thread, which will send its shared encoded frame.
+     *<P>
+     * If the queue goes over the server's limits, applies its policy: See
+     * {@link Server#setOutQueueLimits(int, int, int, int)}.  If the connection is to be dropped,
+     * the selector thread's next {@link #writeAvailable()} will fail and remove it from the server;
+     * messages put after that are ignored.
+     *
+     * @param msg Message to send
+     */
+    public final void put(final EncodedMessage msg)
+    {
+        if (! connected)
+            return;
+
+        outQueue.lock.lock();
+        try
+        {
+            if (outQueue.overLimit)
+                return;
+
+            outQueue.addLast(msg);
+            if (! ourServer.outQueueAdded(outQueue))
+            {
+                D.ebugPrintln("Outbound queue over limit for " + data + "; dropping connection");
+                writeRequested = true;  // request even if already requested: previous write may be stalled
+            }
+            else
+            {
+                if (writeRequested)
+                    return;
+                writeRequested = true;
+            }
+        }
+        finally
+        {
+            outQueue.lock.unlock();
+        }
+
+        sock.requestWrite(this);
+    }
+
+    /**
+     * Number of messages waiting for the selector thread to send.
+     * @since 2.0.00
+     */
+    @Override
+    public int getOutQueueSize()
+    {
+        outQueue.lock.lock();
+        try
+        {
+            return outQueue.size();
+        }
+        finally
+        {
+            outQueue.lock.unlock();
+        }
+    }
+
+    /**
+     * Total size of the messages waiting for the selector thread to send.
+     * @since 2.0.00
+     */
+    @Override
+    public int getOutQueueBytes()
+    {
+        outQueue.lock.lock();
+        try
+        {
+            return outQueue.getBytes();
+        }
+        finally
+        {
+            outQueue.lock.unlock();
+        }
+    }
+
+    /**
+     * Is any output waiting to be sent?  Called from selector thread after registering.
+     * @return true if {@link #put(String)} has queued data not yet written
+     */
+    boolean isWriteRequested()
+    {
+        outQueue.lock.lock();
+        try
+        {
+            return writeRequested;
+        }
+        finally
+        {
+            outQueue.lock.unlock();
+        }
+    }
+
+    /**
+     * Read whatever's available from the channel, and return any complete messages
+     * to the server socket for dispatch.  Called only from the selector thread.
+     *
+     * @throws IOException if the read fails, a message isn't valid modified UTF-8, or at EOF
+     */
+    void readAvailable()
+        throws IOException
+    {
+        final int n = ch.read(inBuf);
+        if (n < 0)
+            throw new EOFException();
+        if (n == 0)
+            return;
+
+        lastReadTime = System.currentTimeMillis();
+
+        inBuf.flip();
+        while (inBuf.remaining() >= 2)
+        {
+            final int pos = inBuf.position();
+            final int len = ((inBuf.get(pos) & 0xFF) << 8) | (inBuf.get(pos + 1) & 0xFF);
+            if (inBuf.remaining() < (2 + len))
+            {
+                if (inBuf.capacity() < (2 + len))
+                {
+                    // grow to fit this frame
+                    ByteBuffer bigger = ByteBuffer.allocate(Math.min(MAX_FRAME_SIZE, Math.max(2 + len, 2 * inBuf.capacity())));
+                    bigger.put(inBuf);
+                    inBuf = bigger;
+                    return;  // <--- Early return: inBuf is already in write mode ---
+                }
+                break;
+            }
+
+            inBuf.position(pos + 2);
+            final String str = MessageFrameCodec.decodeUTF(inBuf, len);
+            if (inputConnected)
+            {
+                // readUTF max message size is 65535 chars, modified utf-8 format
+                sock.dispatchMessage(this, str, ! firstMsgRead);
+                firstMsgRead = true;
+            }
+            // else: like Connection, ignore input after disconnectSoft
+        }
+        inBuf.compact();
+    }
+
+    /**
+     * Write as much queued output as the channel will accept without blocking.
+     * Queued messages are taken in batches of up to {@link Server#getWriteBatchMax()},
+     * and each batch is sent with one gathering write.
+     * Called only from the selector thread.
+     *
+     * @return true if all queued output was written, false if the channel's send buffer is full
+     * @throws IOException if the write fails, a message is too long for modified UTF-8 framing,
+     *     or {@link #outQueue} went over the server's limit and the connection is being dropped
+     */
+    boolean writeAvailable()
+        throws IOException
+    {
+        outQueue.lock.lock();
+        try
+        {
+            if (outQueue.overLimit)
+                throw new IOException("Outbound queue over limit");
+        }
+        finally
+        {
+            outQueue.lock.unlock();
+        }
+
+        for (;;)
+        {
+            if (outBufsCount == 0)
+            {
+                final int batchMax = ourServer.getWriteBatchMax();
+                if ((outBufs == null) || (outBufs.length != batchMax))
+                {
+                    outBufs = new ByteBuffer[batchMax];
+                    outMsgs = new EncodedMessage[batchMax];
+                }
+
+                final EncodedMessage[] msgs = outMsgs;
+                int n = 0;
+                outQueue.lock.lock();
+                try
+                {
+                    if (outQueue.isEmpty())
+                    {
+                        writeRequested = false;
+                        return true;
+                    }
+                    while ((n < batchMax) && ! outQueue.isEmpty())
+                        msgs[n++] = outQueue.removeFirst();
+                }
+                finally
+                {
+                    outQueue.lock.unlock();
+                }
+
+                final boolean useCompact = compactFrames;
+                for (int i = 0; i < n; ++i)
+                {
+                    final EncodedMessage msg = msgs[i];
+                    final byte[] frame = msg.getFrame(useCompact);
+                    if (useCompact)
+                    {
+                        final int textLen = msg.getTextFrameLength();
+                        if (frame.length < textLen)
+                            compactFrameSent(textLen - frame.length);
+                    }
+                    outBufs[i] = ByteBuffer.wrap(frame);
+                    msgs[i] = null;
+                }
+                outBufsStart = 0;
+                outBufsCount = n;
+            }
+
+            ch.write(outBufs, outBufsStart, outBufsCount - outBufsStart);
+            while ((outBufsStart < outBufsCount) && ! outBufs[outBufsStart].hasRemaining())
+            {
+                outBufs[outBufsStart] = null;
+                ++outBufsStart;
+            }
+            if (outBufsStart < outBufsCount)
+                return false;
+
+            ourServer.writeBatchFlushed(outBufsCount);
+            outBufsCount = 0;
+        }
+    }
+
+    /**
+     * Record an I/O error found by the selector thread.
+     * If we're still connected, the server socket will call {@link Server#removeConnection(StringConnection)}.
+     * @param e  Exception thrown by read or write
+     * @return true if {@link Server#removeConnection(StringConnection)} should be called,
+     *     false if already disconnected or the server never accepted us
+     */
+    boolean setIOError(final Exception e)
+    {
+        D.ebugPrintln("IOException in NIOStringConnection (" + hst + ") - " + e);
+
+        if (D.ebugOn)
+        {
+            e.printStackTrace(System.out);
+        }
+
+        if (! connected)
+        {
+            return false;  // Don't set error twice
+        }
+
+        error = e;
+
+        return wasAccepted;
+    }
+
+    /** close the socket, stop reading; called after conn is removed from server structures */
+    public void disconnect()
+    {
+        if (! connected)
+            return;  // <--- Early return: Already disconnected ---
+
+        D.ebugPrintln("DISCONNECTING " + data);
+        connected = false;
+        inputConnected = false;
+
+        try
+        {
+            ch.close();  // also cancels key at next select
+        }
+        catch (IOException e)
+        {
+            D.ebugPrintln("IOException in NIOStringConnection.disconnect (" + hst + ") - " + e);
+
+            if (D.ebugOn)
+            {
+                e.printStackTrace(System.out);
+            }
+
+            error = e;
+        }
+
+        outQueue.lock.lock();
+        try
+        {
+            outQueue.clear();
+        }
+        finally
+        {
+            outQueue.lock.unlock();
+        }
+    }
+
+    /**
+     * Accept no further input, allow output to drain, don't immediately close the socket.
+     * Once called, {@link #isConnected()} will return false, even if output is still being
+     * sent to the other side.
+     */
+    public void disconnectSoft()
+    {
+        if (! inputConnected)
+            return;
+
+        D.ebugPrintln("DISCONNECTING(SOFT) " + data);
+        inputConnected = false;
+    }
+
+    /**
+     * Are we currently connected and active?
+     */
+    public boolean isConnected()
+    {
+        return connected && inputConnected;
+    }
+
+    /**
+     * Send messages as compact frames when shorter than text frames.
+     * Affects messages not yet sent, including those already in the output queue.
+     * @param useCompact  True to send compact frames when shorter, false to send only text frames
+     * @return  true; this connection type supports compact frames
+     * @since 2.0.00
+     */
+    public boolean setCompactFrames(final boolean useCompact)
+    {
+        compactFrames = useCompact;
+        return true;
+    }
+
+    /**
+     * Is the socket still open, even if {@link #disconnectSoft()} was called?
+     * @return true unless {@link #disconnect()} has been called
+     */
+    boolean isOpen()
+    {
+        return connected;
+    }
+
+    /**
+     * toString includes data.toString for debugging, and {@link #getName()}.
+     */
+    public String toString()
+    {
+        StringBuffer sb = new StringBuffer("NIOStringConnection[");
+        if (data != null)
+            sb.append(data.toString());
+        else
+            sb.append(super.hashCode());
+        sb.append('-');
+        sb.append(getName());  // connection-hostname-portnumber
+        sb.append(']');
+        return sb.toString();
+    }
+
+}
@@ -0,0 +1,501 @@
+/**
+ * Java Settlers - An online multiplayer version of the game Settlers of Catan
+ * This file Copyright (C) 2026 agent <agent@local>
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * The maintainer of this program can be reached at jsettlers@nand.net
+ **/
+package soc.server.genericServer;
+
+import soc.disableDebug.D;
+
+import java.io.IOException;
+
+import java.net.InetSocketAddress;
+import java.net.SocketException;
+import java.net.SocketTimeoutException;
+
+import java.nio.channels.CancelledKeyException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+
+import java.util.Iterator;
+import java.util.Vector;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+
+/**
+ * Non-blocking {@link java.nio} implementation of StringServerSocket over a network,
+ * as an alternative to {@link Server}'s thread-per-connection {@code NetStringServerSocket}.
+ *<P>
+ * All connections share two threads, instead of each having a reader and a putter thread:
+ *<UL>
+ * <LI> A selector thread accepts new sockets, and reads and writes
+ *      the length-prefixed frames of every {@link NIOStringConnection}
+ * <LI> A dispatch thread passes decoded messages, in arrival order, to
+ *      {@link Server#processFirstCommand(String, StringConnection)} or {@link Server#treat(String, StringConnection)},
+ *      and calls {@link Server#removeConnection(StringConnection)} for lost connections,
+ *      so that slow server callbacks never block network I/O
+ *</UL>
+ * The wire format is identical to {@link Connection}'s, so clients need no changes.
+ *<P>
+ * {@link #accept()} returns each new connection to {@link Server#run()}, which calls
+ * {@link NIOStringConnection#run()} to add it to the server and then register it with the selector.
+ *
+ * @author agent &lt;agent@local&gt;
+ * @since 2.0.00
+ */
+public class NIOStringServerSocket implements StringServerSocket
+{
+    /**
+     * How often the selector thread checks for idle connections, in milliseconds.
+     * Idle timeout is the same as {@link Connection}'s socket read timeout.
+     */
+    private static final int IDLE_CHECK_INTERVAL_MS = 60 * 1000;
+
+    private final Server server;
+
+    private final ServerSocketChannel servChannel;
+
+    private final Selector selector;
+
+    /** New connections from the selector thread, waiting for {@link #accept()}; wait/notify on this Vector */
+    private final Vector<NIOStringConnection> acceptQueue = new Vector<NIOStringConnection>();
+
+    /** Connections which have been added to the server and are waiting to be registered by the selector thread */
+    private final ConcurrentLinkedQueue<NIOStringConnection> pendingRegister = new ConcurrentLinkedQueue<NIOStringConnection>();
+
+    /** Connections with new output, waiting for the selector thread to write */
+    private final ConcurrentLinkedQueue<NIOStringConnection> pendingWrite = new ConcurrentLinkedQueue<NIOStringConnection>();
+
+    /** Inbound messages and lost connections, for the dispatch thread */
+    private final LinkedBlockingQueue<Dispatch> dispatchQueue = new LinkedBlockingQueue<Dispatch>();
+
+    private volatile boolean closed;
+
+    private final Thread selectorThread, dispatchThread;
+
+    /**
+     * Bind to a TCP port and start the selector and dispatch threads.
+     * @param port  TCP port to listen on
+     * @param serv  Server to accept connections and treat messages
+     * @throws IOException  if the port can't be bound
+     */
+    public NIOStringServerSocket(final int port, final Server serv)
+        throws IOException
+    {
+        server = serv;
+        selector = Selector.open();
+        servChannel = ServerSocketChannel.open();
+        try
+        {
+            servChannel.socket().bind(new InetSocketAddress(port));
+            servChannel.configureBlocking(false);
+            servChannel.register(selector, SelectionKey.OP_ACCEPT);
+        }
+        catch (IOException e)
+        {
+            servChannel.close();
+            selector.close();
+            throw e;
+        }
+
+        selectorThread = new Thread("nio-selector-" + port)
+        {
+            @Override
+            public void run() { selectLoop(); }
+        };
+        selectorThread.setDaemon(true);
+
+        dispatchThread = new Thread("nio-dispatch-" + port)
+        {
+            @Override
+            public void run() { dispatchLoop(); }
+        };
+        dispatchThread.setDaemon(true);
+
+        selectorThread.start();
+        dispatchThread.start();
+    }
+
+    /**
+     * For server to call.  Blocks waiting for next inbound connection.
+     * The server should call the connection's {@link NIOStringConnection#run() run()} method
+     * directly, not start a new thread for it.
+     *
+     * @return The server-side peer to the inbound client connection
+     * @throws SocketException if our {@link #close()} has been called
+     */
+    public StringConnection accept()
+        throws SocketException, IOException
+    {
+        synchronized (acceptQueue)
+        {
+            while (acceptQueue.isEmpty())
+            {
+                if (closed)
+                    throw new SocketException("Server socket closed");
+
+                try
+                {
+                    acceptQueue.wait(1000);
+                }
+                catch (InterruptedException e) {}
+            }
+
+            return acceptQueue.remove(0);
+        }
+    }
+
+    /**
+     * Close down server socket immediately: Stop the selector and dispatch threads,
+     * close all current connections.
+     * Any thread currently blocked in {@link #accept()} will throw a SocketException.
+     */
+    public void close()
+        throws IOException
+    {
+        if (closed)
+            return;
+
+        closed = true;
+        synchronized (acceptQueue)
+        {
+            acceptQueue.notifyAll();
+        }
+        dispatchThread.interrupt();
+        selector.wakeup();
+    }
+
+    /**
+     * Register a newly added connection with the selector, to begin reading and writing.
+     * Called from {@link NIOStringConnection#run()}.
+     */
+    void register(final NIOStringConnection c)
+    {
+        pendingRegister.add(c);
+        selector.wakeup();
+    }
+
+    /**
+     * Ask the selector thread to write this connection's queued output.
+     * Called from {@link NIOStringConnection#put(String)}.
+     */
+    void requestWrite(final NIOStringConnection c)
+    {
+        pendingWrite.add(c);
+        selector.wakeup();
+    }
+
+    /**
+     * Queue an inbound message for the dispatch thread.  Called from selector thread.
+     * @param c  Connection that sent the message
+     * @param str  Message contents
+     * @param isFirst  True if this is the connection's first message
+     */
+    void dispatchMessage(final NIOStringConnection c, final String str, final boolean isFirst)
+    {
+        dispatchQueue.add(new Dispatch(c, str, isFirst));
+    }
+
+    /**
+     * Selector thread's main loop: Accept, read, write, and check for idle connections,
+     * until {@link #close()} is called.
+     */
+    private void selectLoop()
+    {
+        long nextIdleCheck = System.currentTimeMillis() + IDLE_CHECK_INTERVAL_MS;
+
+        while (! closed)
+        {
+            try
+            {
+                selector.select(IDLE_CHECK_INTERVAL_MS);
+            }
+            catch (IOException e)
+            {
+                D.ebugPrintln("IOException in NIOStringServerSocket select - " + e);
+                break;
+            }
+
+            if (closed)
+                break;
+
+            // new registrations; they may already have output from newConnection1, newConnection2
+            NIOStringConnection c;
+            while (null != (c = pendingRegister.poll()))
+            {
+                if (! c.isOpen())
+                    continue;
+                try
+                {
+                    c.key = c.ch().register(selector, SelectionKey.OP_READ, c);
+                    if (c.isWriteRequested())
+                        doWrite(c);
+                }
+                catch (IOException e)
+                {
+                    lostConnection(c, e);
+                }
+            }
+
+            // newly queued output
+            while (null != (c = pendingWrite.poll()))
+            {
+                if (c.key != null)  // if null, will write when registered
+                    doWrite(c);
+            }
+
+            // network events
+            final Iterator<SelectionKey> ki = selector.selectedKeys().iterator();
+            while (ki.hasNext())
+            {
+                final SelectionKey k = ki.next();
+                ki.remove();
+
+                try
+                {
+                    if (! k.isValid())
+                        continue;
+
+                    if (k.isAcceptable())
+                    {
+                        doAccept();
+                        continue;
+                    }
+
+                    c = (NIOStringConnection) k.attachment();
+                    if (k.isReadable())
+                    {
+                        try
+                        {
+                            c.readAvailable();
+                        }
+                        catch (IOException e)
+                        {
+                            lostConnection(c, e);
+                            continue;
+                        }
+                    }
+                    if (k.isValid() && k.isWritable())
+                        doWrite(c);
+                }
+                catch (CancelledKeyException e)
+                {
+                    // closed by another thread during processing; ignore
+                }
+            }
+
+            final long now = System.currentTimeMillis();
+            if (now >= nextIdleCheck)
+            {
+                checkIdleConnections(now);
+                nextIdleCheck = now + IDLE_CHECK_INTERVAL_MS;
+            }
+        }
+
+        // closed: clean up
+        for (SelectionKey k : selector.keys())
+        {
+            try
+            {
+                k.channel().close();
+            }
+            catch (IOException e) {}
+        }
+        try
+        {
+            selector.close();
+        }
+        catch (IOException e) {}
+    }
+
+    /**
+     * Accept all waiting sockets, and queue them for {@link #accept()}.  Called from selector thread.
+     */
+    private void doAccept()
+    {
+        SocketChannel sc;
+        for (;;)
+        {
+            try
+            {
+                sc = servChannel.accept();
+                if (sc == null)
+                    return;
+                sc.configureBlocking(false);
+            }
+            catch (IOException e)
+            {
+                D.ebugPrintln("IOException in NIOStringServerSocket accept - " + e);
+                return;
+            }
+
+            final NIOStringConnection c = new NIOStringConnection(sc, this, server);
+            synchronized (acceptQueue)
+            {
+                acceptQueue.addElement(c);
+                acceptQueue.notify();
+            }
+        }
+    }
+
+    /**
+     * Write a connection's queued output, and update its interest in {@link SelectionKey#OP_WRITE}.
+     * Called from selector thread.
+     */
+    private void doWrite(final NIOStringConnection c)
+    {
+        final SelectionKey k = c.key;
+        if ((k == null) || ! k.isValid())
+            return;
+
+        try
+        {
+            final boolean allSent = c.writeAvailable();
+            final int ops = k.interestOps();
+            if (allSent)
+            {
+                if (0 != (ops & SelectionKey.OP_WRITE))
+                    k.interestOps(ops & ~SelectionKey.OP_WRITE);
+            } else {
+                if (0 == (ops & SelectionKey.OP_WRITE))
+                    k.interestOps(ops | SelectionKey.OP_WRITE);
+            }
+        }
+        catch (CancelledKeyException e) {}
+        catch (IOException e)
+        {
+            lostConnection(c, e);
+        }
+    }
+
+    /**
+     * Time out any connection which hasn't sent anything for {@link Connection#TIMEOUT_VALUE} ms,
+     * like {@link Connection}'s socket read timeout.  Called from selector thread.
+     * @param now  Current time, from {@link System#currentTimeMillis()}
+     */
+    private void checkIdleConnections(final long now)
+    {
+        for (SelectionKey k : selector.keys())
+        {
+            final Object att = k.attachment();
+            if (! (att instanceof NIOStringConnection))
+                continue;
+
+            final NIOStringConnection c = (NIOStringConnection) att;
+            if ((now - c.lastReadTime) >= Connection.TIMEOUT_VALUE)
+                lostConnection(c, new SocketTimeoutException("Read timed out"));
+        }
+    }
+
+    /**
+     * A connection's read or write has failed: Stop selecting it,
+     * and have the dispatch thread remove it from the server.
+     * Called from selector thread.
+     */
+    private void lostConnection(final NIOStringConnection c, final Exception e)
+    {
+        if (c.lostReported)
+            return;
+        c.lostReported = true;
+
+        if (c.key != null)
+            c.key.cancel();
+
+        final boolean needsRemove = c.setIOError(e);
+        dispatchQueue.add(new Dispatch(c, needsRemove));
+    }
+
+    /**
+     * Dispatch thread's main loop: Hand messages to the server in arrival order,
+     * and remove lost connections, until {@link #close()} is called.
+     */
+    private void dispatchLoop()
+    {
+        while (! closed)
+        {
+            final Dispatch d;
+            try
+            {
+                d = dispatchQueue.take();
+            }
+            catch (InterruptedException e)
+            {
+                continue;  // check closed
+            }
+
+            try
+            {
+                final NIOStringConnection c = d.conn;
+                if (d.str != null)
+                {
+                    if (! (d.isFirst && server.processFirstCommand(d.str, c)))
+                        server.treat(d.str, c);
+                }
+                else if (d.needsRemove)
+                {
+                    server.removeConnection(c);
+                }
+                else
+                {
+                    c.disconnect();
+                }
+            }
+            catch (Throwable th)
+            {
+                System.out.println("Exception in NIOStringServerSocket dispatch - " + th);
+            }
+        }
+    }
+
+    /**
+     * One inbound message or lost connection, for {@link NIOStringServerSocket#dispatchQueue}.
+     */
+    private static final class Dispatch
+    {
+        public final NIOStringConnection conn;
+
+        /** Message contents, or null if {@link #conn} was lost */
+        public final String str;
+
+        /** Message is the connection's first */
+        public final boolean isFirst;
+
+        /** For lost connection, should {@link Server#removeConnection(StringConnection)} be called? */
+        public final boolean needsRemove;
+
+        /** Inbound message */
+        public Dispatch(final NIOStringConnection c, final String s, final boolean first)
+        {
+            conn = c;
+            str = s;
+            isFirst = first;
+            needsRemove = false;
+        }
+
+        /** Lost connection */
+        public Dispatch(final NIOStringConnection c, final boolean remove)
+        {
+            conn = c;
+            str = null;
+            isFirst = false;
+            needsRemove = remove;
+        }
+    }
+
+}
@@ -0,0 +1,147 @@
+/**
+ * Java Settlers - An online multiplayer version of the game Settlers of Catan
+ * This file Copyright (C) 2026 agent <agent@local>
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * The maintainer of this program can be reached at jsettlers@nand.net
+ **/
+package soc.server.genericServer;
+
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * A network connection's queue of outbound messages waiting for its writer,
+ * which also tracks the queue's total size in bytes so the server can limit it.
+ * See {@link Server#setOutQueueLimits(int, int, int, int)}.
+ *<P>
+ * Not thread-safe: Callers hold the queue's {@link #lock}, and the connection's writer
+ * waits on its {@link #added} condition.  This uses a lock instead of the queue's monitor
+ * because a virtual thread waiting inside {@code synchronized} would pin its carrier thread.
+ *
+ * @author agent &lt;agent@local&gt;
+ * @since 2.0.00
+ */
+final class OutboundQueue
+{
+    /** Lock which callers hold while using the queue */
+    final ReentrantLock lock = new ReentrantLock();
+
+    /** Signalled when a message is added, or the queue is cleared because the connection's being dropped */
+    final Condition added = lock.newCondition();
+
+    private final LinkedList<EncodedMessage> q = new LinkedList<EncodedMessage>();
+
+    /** Total {@link EncodedMessage#getTextFrameLength()} of the messages in {@link #q} */
+    private int bytes;
+
+    /**
+     * Has the server's queue limit been exceeded, with the connection to be dropped?
+     * Once set, isn't cleared; the connection's writer should remove the connection.
+     * @see Server#outQueueAdded(OutboundQueue)
+     */
+    boolean overLimit;
+
+    /**
+     * If the queue is over the server's limit but is being given time to drain
+     * ({@link Server#OUTQUEUE_POLICY_GRACE}), the time it went over, from {@link System#currentTimeMillis()};
+     * otherwise 0.
+     * @see Server#outQueueAdded(OutboundQueue)
+     */
+    long overLimitSince;
+
+    /** Is the queue empty? */
+    boolean isEmpty()
+    {
+        return q.isEmpty();
+    }
+
+    /** Number of messages in the queue */
+    int size()
+    {
+        return q.size();
+    }
+
+    /**
+     * Total size of the queued messages, counting each one's text frame length
+     * even if it'll be sent as a shorter compact frame.
+     * @return  Size in bytes
+     */
+    int getBytes()
+    {
+        return bytes;
+    }
+
+    /**
+     * Add a message to the end of the queue.
+     * @param msg  Message to add
+     */
+    void addLast(final EncodedMessage msg)
+    {
+        q.addLast(msg);
+        bytes += msg.getTextFrameLength();
+    }
+
+    /**
+     * Remove the message at the start of the queue.
+     * @return  The first message, or null if empty
+     */
+    EncodedMessage removeFirst()
+    {
+        if (q.isEmpty())
+            return null;
+
+        final EncodedMessage msg = q.removeFirst();
+        bytes -= msg.getTextFrameLength();
+        return msg;
+    }
+
+    /** Remove all messages from the queue. */
+    void clear()
+    {
+        q.clear();
+        bytes = 0;
+    }
+
+    /**
+     * Remove each queued message which has a {@link EncodedMessage#coalesceKey}
+     * that's also the key of any later message in the queue, since the latest one will replace its state.
+     * Keeps only the newest message for each key, where it is in the queue.
+     * Messages without a key are kept, in their original order.
+     * @return  Number of messages removed
+     */
+    int coalesce()
+    {
+        final HashSet<String> laterKeys = new HashSet<String>();  // keys of messages after msg
+        int n = 0;
+        for (Iterator<EncodedMessage> it = q.descendingIterator(); it.hasNext(); )
+        {
+            final EncodedMessage msg = it.next();
+            final String key = msg.coalesceKey;
+            if ((key == null) || laterKeys.add(key))
+                continue;
+
+            it.remove();
+            bytes -= msg.getTextFrameLength();
+            ++n;
+        }
+
+        return n;
+    }
+
+}
@@ -27,6 +27,8 @@ import soc.server.SOCServer;
 import java.io.IOException;
 import java.io.Serializable;
 
+import java.lang.reflect.Method;
+
 import java.net.ServerSocket;
 import java.net.Socket;
 import java.net.SocketException;
@@ -41,6 +43,8 @@ import java.util.Timer;
 import java.util.TimerTask;
 import java.util.TreeMap;
 import java.util.Vector;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
 
 /** a general purpose server.
@@ -95,6 +99,137 @@ public abstract class Server extends Thread implements Serializable, Cloneable
     /** {@link LocalStringServerSocket} name, or {@code null} for network mode. */
     protected String strSocketName;
 
+    /**
+     * In network mode, use a non-blocking {@link NIOStringServerSocket} instead of
+     * a thread-per-connection {@link NetStringServerSocket}?
+     * @see #Server(int, boolean)
+     * @since 2.0.00
+     */
+    protected final boolean useNIO;
+
+    /**
+     * Run each {@link Connection}'s reader and {@code Putter}, and each {@link LocalStringConnection}'s
+     * reader, on a virtual thread instead of a platform thread?  False unless the JVM supports virtual threads.
+     * @see #setUseVirtualThreads(boolean)
+     * @since 2.0.00
+     */
+    private boolean useVirtualThreads;
+
+    /**
+     * Default maximum number of queued messages a connection writes together before flushing,
+     * for {@link #setWriteBatching(int, int)}.
+     * @since 2.0.00
+     */
+    public static final int WRITE_BATCH_MAX_DEFAULT = 64;
+
+    /**
+     * Maximum number of queued messages each connection writes together before flushing to the network.
+     * 1 flushes after each message, as in versions before 2.0.00.
+     * @see #setWriteBatching(int, int)
+     * @since 2.0.00
+     */
+    private volatile int writeBatchMax = WRITE_BATCH_MAX_DEFAULT;
+
+    /**
+     * After writing a message, how many milliseconds a {@link Connection} waits for more messages
+     * to add to the batch before flushing; 0 flushes as soon as its queue is empty.
+     * @see #setWriteBatching(int, int)
+     * @since 2.0.00
+     */
+    private volatile int writeBatchLatencyMS;
+
+    /**
+     * Write-batching statistics: Number of flushes, total number of messages
+     * in those flushes, and the most messages in one flush.
+     * @see #writeBatchFlushed(int)
+     * @since 2.0.00
+     */
+    private final AtomicLong writeFlushCount = new AtomicLong(), writeFlushedMessages = new AtomicLong();
+    private final AtomicInteger writeBatchLargest = new AtomicInteger();
+
+    /**
+     * Outbound queue policy: When a connection's outbound queue is over its limit, drop the connection.
+     * @see #setOutQueueLimits(int, int, int, int)
+     * @since 2.0.00
+     */
+    public static final int OUTQUEUE_POLICY_DROP = 0;
+
+    /**
+     * Outbound queue policy: When a connection's outbound queue is over its limit, remove each queued message
+     * that's followed anywhere later in the queue by one with the same {@link EncodedMessage#coalesceKey},
+     * keeping only the newest message for each key.  Messages without a key are all kept, in their original order.
+     * If the queue is still over its limit, drop the connection.  This is the default.
+     * @see #setOutQueueLimits(int, int, int, int)
+     * @since 2.0.00
+     */
+    public static final int OUTQUEUE_POLICY_COALESCE = 1;
+
+    /**
+     * Outbound queue policy: When a connection's outbound queue is over its limit, coalesce it
+     * like {@link #OUTQUEUE_POLICY_COALESCE}; if still over, give the client a grace period
+     * to catch up before dropping it.  During the grace period the queue can grow to twice its limit,
+     * and the server and the client's games carry on as usual; nothing is paused.
+     * If the queue's still over its limit when the grace period ends, or reaches twice its limit,
+     * drop the connection.
+     *<P>
+     * The thread sending the message never waits: It's usually the thread processing a game,
+     * which may be holding game locks or be partway through sending to all the game's members.
+     * @see #setOutQueueLimits(int, int, int, int)
+     * @since 2.0.00
+     */
+    public static final int OUTQUEUE_POLICY_GRACE = 2;
+
+    /**
+     * Names of the outbound queue policies, indexed by policy number, for properties and *STATS*.
+     * @see #parseOutQueuePolicy(String)
+     * @since 2.0.00
+     */
+    public static final String[] OUTQUEUE_POLICY_NAMES = { "drop", "coalesce", "grace" };
+
+    /**
+     * Default maximum total size in bytes of each connection's outbound queue,
+     * for {@link #setOutQueueLimits(int, int, int, int)}: 2 MB.
+     * @since 2.0.00
+     */
+    public static final int OUTQUEUE_MAX_BYTES_DEFAULT = 2 * 1024 * 1024;
+
+    /**
+     * Default grace period in milliseconds for {@link #OUTQUEUE_POLICY_GRACE}.
+     * @since 2.0.00
+     */
+    public static final int OUTQUEUE_GRACE_MS_DEFAULT = 3000;
+
+    /**
+     * Limits on each network connection's outbound queue: Maximum number of messages and total bytes,
+     * or 0 for no limit.  {@link LocalStringConnection}s to robots in the same JVM aren't limited.
+     * @see #setOutQueueLimits(int, int, int, int)
+     * @since 2.0.00
+     */
+    private volatile int outQueueMaxMessages, outQueueMaxBytes = OUTQUEUE_MAX_BYTES_DEFAULT;
+
+    /**
+     * Policy when a connection's outbound queue is over its limit, such as {@link #OUTQUEUE_POLICY_COALESCE},
+     * and grace period for {@link #OUTQUEUE_POLICY_GRACE}.
+     * @see #setOutQueueLimits(int, int, int, int)
+     * @since 2.0.00
+     */
+    private volatile int outQueuePolicy = OUTQUEUE_POLICY_COALESCE, outQueueGraceMS = OUTQUEUE_GRACE_MS_DEFAULT;
+
+    /**
+     * Outbound queue statistics since startup: Number of times a queue went over its limit,
+     * messages removed by coalescing, grace periods started, and connections dropped.
+     * @see #outQueueAdded(OutboundQueue)
+     * @since 2.0.00
+     */
+    private final AtomicLong outQueueOverflows = new AtomicLong(), outQueueCoalesced = new AtomicLong(),
+        outQueueGraces = new AtomicLong(), outQueueDrops = new AtomicLong();
+
+    /**
+     * Largest outbound queue seen since startup, in messages and in bytes.
+     * @since 2.0.00
+     */
+    private volatile int outQueueDepthMax, outQueueBytesMax;
+
     /**
      * Consistency-check the {@link #cliVersionsConnected} set every so often (33 minutes).
      * @since 1.1.06
@@ -119,6 +254,21 @@ public abstract class Server extends Thread implements Serializable, Cloneable
      */
     protected int numberCurrentConnections = 0;
 
+    /**
+     * Total number of messages sent as compact frames since startup, and total bytes saved by them.
+     * @see StringConnection#setCompactFrames(boolean)
+     * @since 2.0.00
+     */
+    private final AtomicLong compactFramesTotal = new AtomicLong(), compactBytesSavedTotal = new AtomicLong();
+
+    /**
+     * Total number of times since startup that a message's frame was encoded once
+     * and then reused for another connection, instead of being encoded again.
+     * @see EncodedMessage
+     * @since 2.0.00
+     */
+    private final AtomicLong encodesAvoided = new AtomicLong();
+
     /** the named connections */
     protected Hashtable<Object, StringConnection> conns = new Hashtable<Object, StringConnection>();
 
@@ -207,13 +357,26 @@ public abstract class Server extends Thread implements Serializable, Cloneable
 
     /** start listening to the given port */
     public Server(int port)
+    {
+        this(port, false);
+    }
+
+    /**
+     * Start listening to the given port, optionally with a non-blocking {@link NIOStringServerSocket}.
+     * @param port  TCP port number to listen on
+     * @param useNIO  If true, all connections share a selector thread and a dispatch thread
+     *     ({@link NIOStringServerSocket}) instead of each having a reader and a putter thread ({@link Connection})
+     * @since 2.0.00
+     */
+    public Server(final int port, final boolean useNIO)
     {
         this.port = port;
         this.strSocketName = null;
+        this.useNIO = useNIO;
 
         try
         {
-            ss = new NetStringServerSocket(port, this);
+            ss = newNetStringServerSocket();
         }
         catch (IOException e)
         {
@@ -236,6 +399,7 @@ public abstract class Server extends Thread implements Serializable, Cloneable
 
         this.port = -1;
         this.strSocketName = stringSocketName;
+        this.useNIO = false;
 
         ss = new LocalStringServerSocket(stringSocketName);
         setName("server-localstring-" + stringSocketName);  // Thread name for debugging
@@ -245,6 +409,21 @@ public abstract class Server extends Thread implements Serializable, Cloneable
         // Most other fields are set by initializers in their declaration.
     }
 
+    /**
+     * Create the server socket for network mode: {@link NIOStringServerSocket} if {@link #useNIO},
+     * otherwise {@link NetStringServerSocket}.
+     * @throws IOException  if the port can't be bound
+     * @since 2.0.00
+     */
+    private StringServerSocket newNetStringServerSocket()
+        throws IOException
+    {
+        if (useNIO)
+            return new NIOStringServerSocket(port, this);
+        else
+            return new NetStringServerSocket(port, this);
+    }
+
     /**
      * Minor init tasks from both constructors.
      * Set up the recurring schedule of {@link #cliVersionsConnected} here.
@@ -322,6 +501,347 @@ public abstract class Server extends Thread implements Serializable, Cloneable
         return numberCurrentConnections;
     }
 
+    /**
+     * Should connection reader and putter threads be virtual threads?
+     * Their blocking read and write code is unchanged; only the kind of thread differs.
+     * Virtual threads need a JVM with {@code Thread.ofVirtual()} (Java 21 or newer);
+     * otherwise platform threads are still used.
+     * Call before starting the server thread.
+     *
+     * @param wantVirtual  True to use virtual threads, false for platform threads (the default)
+     * @return  True if virtual threads will be used
+     * @see #isUsingVirtualThreads()
+     * @since 2.0.00
+     */
+    public boolean setUseVirtualThreads(final boolean wantVirtual)
+    {
+        useVirtualThreads = wantVirtual && VirtualThreadStarter.isAvailable();
+        return useVirtualThreads;
+    }
+
+    /**
+     * Are connection reader and putter threads virtual threads?
+     * @return  True if {@link #setUseVirtualThreads(boolean)} was called and the JVM supports them
+     * @since 2.0.00
+     */
+    public boolean isUsingVirtualThreads()
+    {
+        return useVirtualThreads;
+    }
+
+    /**
+     * Set how connections batch their outbound messages.  Each connection's writer takes as many
+     * queued messages as are available, up to {@code maxMessages}, writes them all, then flushes once,
+     * instead of flushing after each message.  Bursts such as the many messages sent when joining a game
+     * are then sent in fewer system calls and TCP segments.
+     *<P>
+     * {@link NIOStringConnection}s send each batch with one gathering write,
+     * and don't wait for {@code maxLatencyMS}: The selector thread never waits for more messages.
+     *
+     * @param maxMessages  Maximum messages per flush, at least 1; 1 flushes after every message.
+     *     Default is {@link #WRITE_BATCH_MAX_DEFAULT}.
+     * @param maxLatencyMS  After writing a batch's first message, the longest time in milliseconds
+     *     to wait for more messages before flushing; 0 to flush as soon as the queue is empty (the default).
+     * @throws IllegalArgumentException if {@code maxMessages} &lt; 1 or {@code maxLatencyMS} &lt; 0
+     * @see #getWriteBatchStatsText()
+     * @since 2.0.00
+     */
+    public void setWriteBatching(final int maxMessages, final int maxLatencyMS)
+        throws IllegalArgumentException
+    {
+        if ((maxMessages < 1) || (maxLatencyMS < 0))
+            throw new IllegalArgumentException("maxMessages: " + maxMessages + ", maxLatencyMS: " + maxLatencyMS);
+
+        writeBatchMax = maxMessages;
+        writeBatchLatencyMS = maxLatencyMS;
+    }
+
+    /**
+     * Maximum number of messages a connection writes before flushing.
+     * @return  Max batch size, from {@link #setWriteBatching(int, int)}
+     * @since 2.0.00
+     */
+    public int getWriteBatchMax()
+    {
+        return writeBatchMax;
+    }
+
+    /**
+     * Longest time a connection waits for more messages before flushing a partial batch.
+     * @return  Max latency in milliseconds, from {@link #setWriteBatching(int, int)}
+     * @since 2.0.00
+     */
+    public int getWriteBatchLatency()
+    {
+        return writeBatchLatencyMS;
+    }
+
+    /**
+     * Update write-batching statistics; called by a connection's writer after each flush.
+     * @param nMessages  Number of messages written in this flush
+     * @since 2.0.00
+     */
+    void writeBatchFlushed(final int nMessages)
+    {
+        writeFlushCount.incrementAndGet();
+        writeFlushedMessages.addAndGet(nMessages);
+        int max;
+        while ((nMessages > (max = writeBatchLargest.get())) && ! writeBatchLargest.compareAndSet(max, nMessages))
+            ;
+    }
+
+    /**
+     * Summary of write-batching statistics since startup. Example:<BR>
+     * {@code 1210 messages in 402 flushes, avg 3.0 per flush, max 41}
+     * @return  Write-batching statistics
+     * @see #setWriteBatching(int, int)
+     * @since 2.0.00
+     */
+    public String getWriteBatchStatsText()
+    {
+        final long nFlush = writeFlushCount.get(), nMsg = writeFlushedMessages.get();
+        final long avg10 = (nFlush > 0) ? ((10 * nMsg) / nFlush) : 0;
+
+        return nMsg + " messages in " + nFlush + " flushes, avg " + (avg10 / 10) + "." + (avg10 % 10)
+            + " per flush, max " + writeBatchLargest.get();
+    }
+
+    /**
+     * Set limits on each network connection's queue of outbound messages, and what to do when a
+     * client stops reading and its queue goes over those limits.  Without limits, a stalled client
+     * would keep growing its queue as the server sends it game updates, until the server runs out of memory.
+     *
+     * @param maxMessages  Maximum number of queued messages, or 0 for no limit (the default)
+     * @param maxBytes  Maximum total size of queued messages, or 0 for no limit.
+     *     Default is {@link #OUTQUEUE_MAX_BYTES_DEFAULT}.
+     * @param policy  {@link #OUTQUEUE_POLICY_DROP}, {@link #OUTQUEUE_POLICY_COALESCE} (the default),
+     *     or {@link #OUTQUEUE_POLICY_GRACE}
+     * @param graceMS  Grace period in milliseconds for {@link #OUTQUEUE_POLICY_GRACE} to let a client catch up,
+     *     at least 1.  Default is {@link #OUTQUEUE_GRACE_MS_DEFAULT}.
+     * @throws IllegalArgumentException if any parameter is out of range
+     * @see #getOutQueueStatsText()
+     * @since 2.0.00
+     */
+    public void setOutQueueLimits(final int maxMessages, final int maxBytes, final int policy, final int graceMS)
+        throws IllegalArgumentException
+    {
+        if ((maxMessages < 0) || (maxBytes < 0) || (policy < OUTQUEUE_POLICY_DROP) || (policy > OUTQUEUE_POLICY_GRACE)
+            || (graceMS < 1))
+            throw new IllegalArgumentException
+                ("maxMessages: " + maxMessages + ", maxBytes: " + maxBytes + ", policy: " + policy
+                 + ", graceMS: " + graceMS);
+
+        outQueueMaxMessages = maxMessages;
+        outQueueMaxBytes = maxBytes;
+        outQueuePolicy = policy;
+        outQueueGraceMS = graceMS;
+    }
+
+    /**
+     * Parse an outbound queue policy name, such as {@code "coalesce"}, from {@link #OUTQUEUE_POLICY_NAMES}.
+     * @param name  Policy name; case-insensitive
+     * @return  The policy number, such as {@link #OUTQUEUE_POLICY_COALESCE}, or -1 if not recognized
+     * @since 2.0.00
+     */
+    public static int parseOutQueuePolicy(final String name)
+    {
+        for (int i = 0; i < OUTQUEUE_POLICY_NAMES.length; ++i)
+            if (OUTQUEUE_POLICY_NAMES[i].equalsIgnoreCase(name))
+                return i;
+
+        return -1;
+    }
+
+    /**
+     * Is this queue over the limits from {@link #setOutQueueLimits(int, int, int, int)}, or a multiple of them?
+     * Caller must hold {@code q}'s {@link OutboundQueue#lock}.
+     * @param q  Queue to check
+     * @param mult  Multiple of the limits to check against: 1 for the limits themselves
+     * @since 2.0.00
+     */
+    private boolean isOutQueueOverLimit(final OutboundQueue q, final int mult)
+    {
+        final int maxN = outQueueMaxMessages, maxB = outQueueMaxBytes;
+        return ((maxN > 0) && (q.size() > maxN * mult)) || ((maxB > 0) && (q.getBytes() > maxB * mult));
+    }
+
+    /**
+     * Check a connection's outbound queue against the limits after adding a message to it,
+     * and apply the policy if over: See {@link #setOutQueueLimits(int, int, int, int)}.
+     * Called by a network connection's {@code put} method, which must hold {@code q}'s {@link OutboundQueue#lock}.
+     * Never waits for the connection's writer, whatever the policy.
+     *
+     * @param q  The connection's queue, which was just added to
+     * @return  True if the queue is within its limits, false if the connection should be dropped.
+     *     If false, {@code q} has been cleared and its {@link OutboundQueue#overLimit} flag set;
+     *     the caller should wake its writer thread, which will remove the connection.
+     * @since 2.0.00
+     */
+    boolean outQueueAdded(final OutboundQueue q)
+    {
+        if (q.overLimit)
+            return false;
+
+        final int n = q.size(), b = q.getBytes();
+        if (n > outQueueDepthMax)
+            outQueueDepthMax = n;  // not atomic, but close enough for stats
+        if (b > outQueueBytesMax)
+            outQueueBytesMax = b;
+        if (! isOutQueueOverLimit(q, 1))
+        {
+            q.overLimitSince = 0;
+            return true;
+        }
+
+        final int policy = outQueuePolicy;
+        if (q.overLimitSince == 0)
+            outQueueOverflows.incrementAndGet();
+        if (policy != OUTQUEUE_POLICY_DROP)
+        {
+            final int nc = q.coalesce();
+            if (nc > 0)
+                outQueueCoalesced.addAndGet(nc);
+
+            if (! isOutQueueOverLimit(q, 1))
+            {
+                q.overLimitSince = 0;
+                return true;
+            }
+
+            if ((policy == OUTQUEUE_POLICY_GRACE) && ! isOutQueueOverLimit(q, 2))
+            {
+                // Grace period: Keep queueing, up to twice the limit, while the client catches up.
+                // Nothing waits or pauses; if the client hasn't caught up by the end, drop it.
+                final long now = System.currentTimeMillis();
+                if (q.overLimitSince == 0)
+                {
+                    q.overLimitSince = now;
+                    outQueueGraces.incrementAndGet();
+                }
+                if (now - q.overLimitSince < outQueueGraceMS)
+                    return true;
+            }
+        }
+
+        q.overLimit = true;
+        q.clear();
+        outQueueDrops.incrementAndGet();
+
+        return false;
+    }
+
+    /**
+     * Summary of outbound queue depths now and since startup, and the limit policy's statistics. Example:<BR>
+     * {@code queued now 3 msgs 410 bytes, largest 2 msgs 260 bytes; max seen 212 msgs 30412 bytes;
+     * overflows 1, coalesced 14, grace periods 0, dropped 0}
+     * @return  Outbound queue statistics
+     * @see #setOutQueueLimits(int, int, int, int)
+     * @since 2.0.00
+     */
+    public String getOutQueueStatsText()
+    {
+        int nTotal = 0, bTotal = 0, nLargest = 0, bLargest = 0;
+        synchronized (unnamedConns)
+        {
+            for (int pass = 0; pass < 2; ++pass)
+            {
+                final Enumeration<StringConnection> e = (pass == 0) ? conns.elements() : unnamedConns.elements();
+                while (e.hasMoreElements())
+                {
+                    final StringConnection c = e.nextElement();
+                    final int n = c.getOutQueueSize(), b = c.getOutQueueBytes();
+                    nTotal += n;
+                    bTotal += b;
+                    if (b > bLargest)
+                    {
+                        nLargest = n;
+                        bLargest = b;
+                    }
+                }
+            }
+        }
+
+        return "queued now " + nTotal + " msgs " + bTotal + " bytes, largest " + nLargest + " msgs "
+            + bLargest + " bytes; max seen " + outQueueDepthMax + " msgs " + outQueueBytesMax + " bytes; overflows "
+            + outQueueOverflows.get() + ", coalesced " + outQueueCoalesced.get() + ", grace periods "
+            + outQueueGraces.get() + ", dropped " + outQueueDrops.get();
+    }
+
+    /**
+     * Update the server's compact-frame totals; called from
+     * {@link StringConnection#compactFrameSent(int)} by the connection's writer thread.
+     * @param bytesSaved  Text frame length minus compact frame length
+     * @since 2.0.00
+     */
+    void compactFrameSent(final int bytesSaved)
+    {
+        compactFramesTotal.incrementAndGet();
+        compactBytesSavedTotal.addAndGet(bytesSaved);
+    }
+
+    /**
+     * Total number of messages sent to clients as compact frames since startup.
+     * @return  Number of compact frames sent
+     * @see #getCompactBytesSavedTotal()
+     * @see StringConnection#getCompactFrameCount()
+     * @since 2.0.00
+     */
+    public long getCompactFramesTotal()
+    {
+        return compactFramesTotal.get();
+    }
+
+    /**
+     * Total bytes saved since startup by sending compact frames instead of text.
+     * @return  Bytes saved
+     * @see #getCompactFramesTotal()
+     * @see StringConnection#getCompactBytesSaved()
+     * @since 2.0.00
+     */
+    public long getCompactBytesSavedTotal()
+    {
+        return compactBytesSavedTotal.get();
+    }
+
+    /**
+     * Count one reuse of an {@link EncodedMessage}'s frame; called by connections' writer threads.
+     * @since 2.0.00
+     */
+    void encodeAvoided()
+    {
+        encodesAvoided.incrementAndGet();
+    }
+
+    /**
+     * Total number of times since startup that a broadcast message's frame was reused
+     * for another connection, instead of being encoded again for each one.
+     * @return  Number of encodes avoided
+     * @see EncodedMessage#EncodedMessage(String, Server)
+     * @since 2.0.00
+     */
+    public long getEncodesAvoided()
+    {
+        return encodesAvoided.get();
+    }
+
+    /**
+     * Start a thread for a connection's reader or putter:
+     * A virtual thread if {@link #isUsingVirtualThreads()}, otherwise a platform thread.
+     * @param r  Runnable to run in the thread
+     * @param name  Thread name for debugging, or null for a default name
+     * @since 2.0.00
+     */
+    void startConnectionThread(final Runnable r, final String name)
+    {
+        Thread t = null;
+        if (useVirtualThreads)
+            t = VirtualThreadStarter.newThread(r, name);
+        if (t == null)
+            t = (name != null) ? new Thread(r, name) : new Thread(r);
+
+        t.start();
+    }
+
     public synchronized boolean isUp()
     {
         return up;
@@ -331,6 +851,7 @@ public abstract class Server extends Thread implements Serializable, Cloneable
      * Run method for Server:
      * Start a single "treater" thread for processing inbound messages,
      * wait for new connections, and set them up in their own threads.
+     * ({@link NIOStringConnection}s don't need their own threads; their {@code run()} is called here.)
      */
     @Override
     public void run()
@@ -360,12 +881,15 @@ public abstract class Server extends Thread implements Serializable, Cloneable
                     StringConnection con = ss.accept();
                     if (port != -1)
                     {
-                        new Thread((Connection) con).start();
+                        if (con instanceof NIOStringConnection)
+                            con.run();  // adds to server, registers with selector, returns
+                        else
+                            startConnectionThread((Connection) con, null);
                     }
                     else
                     {
                         ((LocalStringConnection) con).setServer(this);
-                        new Thread((LocalStringConnection) con).start();
+                        startConnectionThread((LocalStringConnection) con, null);
                     }
 
                     //addConnection(new StringConnection());
@@ -384,7 +908,7 @@ public abstract class Server extends Thread implements Serializable, Cloneable
             {
                 ss.close();
                 if (strSocketName == null)
-                    ss = new NetStringServerSocket(port, this);
+                    ss = newNetStringServerSocket();
                 else
                     ss = new LocalStringServerSocket(strSocketName);
             }
@@ -408,6 +932,24 @@ public abstract class Server extends Thread implements Serializable, Cloneable
         }
     }
 
+    /**
+     * Run a task soon on the single 'treater' thread, in order with clients' messages
+     * which are already in {@link #inQueue}. Used by server work done on other threads,
+     * such as checking passwords, to continue with the result where it's safe to change server state.
+     * Can be called from any thread. Like {@link #processCommand(String, StringConnection)},
+     * the task should not block or sleep.
+     * @param task  Task to run
+     * @since 2.0.00
+     */
+    public void treatTask(Runnable task)
+    {
+        synchronized (inQueue)
+        {
+            inQueue.addElement(new Command(task));
+            inQueue.notify();
+        }
+    }
+
     /**
      * Remove a queued incoming message from a client, and treat it.
      * Called from the single 'treater' thread.
@@ -563,6 +1105,10 @@ public abstract class Server extends Thread implements Serializable, Cloneable
         leaveConnection(c);
         if (D.ebugIsEnabled())
         {
+            if (c.getCompactFrameCount() > 0)
+                D.ebugPrintln(c.host() + " compact frames: " + c.getCompactFrameCount() + " messages, "
+                    + c.getCompactBytesSaved() + " bytes saved");
+
             Exception cerr = c.getError();
             if ((cerr == null) || (! (cerr instanceof SocketTimeoutException)) || ! c.wantsHideTimeoutMessage())
             {
@@ -992,19 +1538,21 @@ public abstract class Server extends Thread implements Serializable, Cloneable
 
     /**
      * Broadcast a SOCmessage to all connected clients, named and unnamed.
+     * The message is encoded only once for all network connections; see {@link EncodedMessage}.
      *
      * @param m SOCmessage string, generated by {@link soc.message.SOCMessage#toCmd()}
      * @see #broadcastToVers(String, int, int)
      */
     protected synchronized void broadcast(String m)
     {
+        final EncodedMessage em = new EncodedMessage(m, this);
         for (Enumeration<StringConnection> e = getConnections(); e.hasMoreElements();)
         {
-            e.nextElement().put(m);
+            e.nextElement().put(em);
         }
         for (Enumeration<StringConnection> e = unnamedConns.elements(); e.hasMoreElements();)
         {
-            e.nextElement().put(m);
+            e.nextElement().put(em);
         }
     }
 
@@ -1015,6 +1563,8 @@ public abstract class Server extends Thread implements Serializable, Cloneable
      * The range is inclusive: Clients of version <tt>vmin</tt> and newer,
      * up to and including <tt>vmax</tt>, receive the broadcast.
      * If vmin > vmax, do nothing.
+     *<P>
+     * The message is encoded only once for all network connections; see {@link EncodedMessage}.
      *
      * @param m SOCmessage string, generated by {@link soc.message.SOCMessage#toCmd()}
      * @param vmin Minimum version, as returned by {@link StringConnection#getVersion()},
@@ -1027,19 +1577,20 @@ public abstract class Server extends Thread implements Serializable, Cloneable
     {
         if (vmin > vmax)
             return;
+        final EncodedMessage em = new EncodedMessage(m, this);
         for (Enumeration<StringConnection> e = getConnections(); e.hasMoreElements();)
         {
             StringConnection c = e.nextElement();
             int cvers = c.getVersion();
             if ((cvers >= vmin) && (cvers <= vmax))
-                c.put(m);
+                c.put(em);
         }
         for (Enumeration<StringConnection> e = unnamedConns.elements(); e.hasMoreElements();)
         {
             StringConnection c = e.nextElement();
             int cvers = c.getVersion();
             if ((cvers >= vmin) && (cvers <= vmax))
-                c.put(m);
+                c.put(em);
         }
     }
 
@@ -1049,18 +1600,34 @@ public abstract class Server extends Thread implements Serializable, Cloneable
      */
 
     /**
-     * Holds one message from client, for {@link Server#inQueue}.
+     * Holds one message from client, or a task from {@link Server#treatTask(Runnable)}, for {@link Server#inQueue}.
      */
     static class Command
     {
         public String str;
         public StringConnection con;
 
+        /**
+         * Task to run instead of a message, or null
+         * @since 2.0.00
+         */
+        public Runnable task;
+
         public Command(String s, StringConnection c)
         {
             str = s;
             con = c;
         }
+
+        /**
+         * Create a command to run a task.
+         * @param task  Task to run
+         * @since 2.0.00
+         */
+        public Command(Runnable task)
+        {
+            this.task = task;
+        }
     }  // Command
 
     /**
@@ -1094,7 +1661,10 @@ public abstract class Server extends Thread implements Serializable, Cloneable
                 {
                     if (c != null)
                     {
-                        processCommand(c.str, c.con);
+                        if (c.task != null)
+                            c.task.run();
+                        else
+                            processCommand(c.str, c.con);
                     }
                 }
                 catch (Exception e)
@@ -1126,6 +1696,74 @@ public abstract class Server extends Thread implements Serializable, Cloneable
 
     }  // Treater
 
+    /**
+     * Creates virtual threads through reflection, so that the server can still be
+     * compiled for and run on older JVMs which don't have {@code Thread.ofVirtual()}.
+     * @see Server#setUseVirtualThreads(boolean)
+     * @since 2.0.00
+     */
+    private static class VirtualThreadStarter
+    {
+        /** {@code Thread.ofVirtual()}, or null if not available */
+        private static final Method ofVirtual;
+
+        /** {@code Thread.Builder.name(String)} and {@code unstarted(Runnable)}, or null if not available */
+        private static final Method builderName, builderUnstarted;
+
+        static
+        {
+            Method ov = null, bn = null, bu = null;
+            try
+            {
+                ov = Thread.class.getMethod("ofVirtual");
+                final Class<?> bc = Class.forName("java.lang.Thread$Builder");
+                bn = bc.getMethod("name", String.class);
+                bu = bc.getMethod("unstarted", Runnable.class);
+            }
+            catch (Throwable th)
+            {
+                ov = null;  // older JVM
+            }
+
+            ofVirtual = ov;
+            builderName = bn;
+            builderUnstarted = bu;
+        }
+
+        /** Does this JVM support virtual threads? */
+        static boolean isAvailable()
+        {
+            return (ofVirtual != null);
+        }
+
+        /**
+         * Create an unstarted virtual thread.
+         * @param r  Runnable to run in the thread
+         * @param name  Thread name, or null
+         * @return  The new thread, or null if virtual threads aren't available or there was an error
+         */
+        static Thread newThread(final Runnable r, final String name)
+        {
+            if (ofVirtual == null)
+                return null;
+
+            try
+            {
+                Object builder = ofVirtual.invoke(null);
+                if (name != null)
+                    builder = builderName.invoke(builder, name);
+
+                return (Thread) builderUnstarted.invoke(builder, r);
+            }
+            catch (Exception e)
+            {
+                D.ebugPrintln("Could not create virtual thread: " + e);
+                return null;
+            }
+        }
+
+    }  // VirtualThreadStarter
+
     /**
      * Uses ServerSocket to implement StringServerSocket over a network.
      */
@@ -80,6 +80,20 @@ public abstract class StringConnection
     protected boolean remoteVersionTrack;
     protected boolean hideTimeoutMessage;
 
+    /**
+     * Should messages be sent as compact frames when shorter than text?
+     * Set by {@link #setCompactFrames(boolean)} in subclasses which support it.
+     * @since 2.0.00
+     */
+    protected volatile boolean compactFrames;
+
+    /**
+     * Number of messages sent as compact frames, and total bytes saved by them.
+     * Updated only by the connection's writer thread, in {@link #compactFrameSent(int)}.
+     * @since 2.0.00
+     */
+    private volatile long compactFrameCount, compactBytesSaved;
+
     /** Is set if server-side. Notifies at EOF (calls removeConnection). */
     protected Server ourServer;
 
@@ -104,6 +118,22 @@ public abstract class StringConnection
     public abstract void put(String str)
         throws IllegalStateException;
 
+    /**
+     * Send a message over the connection, which may also be sent to other connections.
+     * Network connections will send {@code msg}'s shared encoded frame, instead of encoding it again.
+     * This default implementation calls {@link #put(String) put(msg.str)}.
+     *
+     * @param msg Message to send
+     *
+     * @throws IllegalStateException if not yet accepted by server
+     * @since 2.0.00
+     */
+    public void put(final EncodedMessage msg)
+        throws IllegalStateException
+    {
+        put(msg.str);
+    }
+
     /** For server-side thread which reads and treats incoming messages */
     public abstract void run();
 
@@ -401,4 +431,93 @@ public abstract class StringConnection
         hideTimeoutMessage = wantsHide;
     }
 
+    /**
+     * Should this connection send messages to the remote end as compact frames,
+     * when they'd be shorter than text frames?  The remote end must be able to read them,
+     * as with {@link MessageFrameCodec#readFrame(java.io.DataInputStream)}.
+     *<P>
+     * Only network connections support compact frames.
+     * This default implementation ignores the call and returns false.
+     *
+     * @param useCompact  True to send compact frames when shorter, false to send only text frames
+     * @return  True if this type of connection supports compact frames, false if the call was ignored
+     * @see #isCompactFrames()
+     * @since 2.0.00
+     */
+    public boolean setCompactFrames(final boolean useCompact)
+    {
+        return false;
+    }
+
+    /**
+     * Is this connection sending compact frames when shorter?
+     * @return  True if {@link #setCompactFrames(boolean)} was called to use them, and this connection supports them
+     * @since 2.0.00
+     */
+    public boolean isCompactFrames()
+    {
+        return compactFrames;
+    }
+
+    /**
+     * Number of messages sent to the remote end as compact frames.
+     * @return  Number of compact frames sent
+     * @see #getCompactBytesSaved()
+     * @since 2.0.00
+     */
+    public long getCompactFrameCount()
+    {
+        return compactFrameCount;
+    }
+
+    /**
+     * Total bytes saved by sending compact frames instead of text frames.
+     * @return  Bytes saved
+     * @see #getCompactFrameCount()
+     * @since 2.0.00
+     */
+    public long getCompactBytesSaved()
+    {
+        return compactBytesSaved;
+    }
+
+    /**
+     * Number of messages queued to be sent to the net by this connection's writer.
+     * This default implementation returns 0, for connection types without a limited outbound queue.
+     * @return  Number of queued outbound messages
+     * @see Server#setOutQueueLimits(int, int, int, int)
+     * @since 2.0.00
+     */
+    public int getOutQueueSize()
+    {
+        return 0;
+    }
+
+    /**
+     * Total size in bytes of the messages queued to be sent by this connection's writer.
+     * This default implementation returns 0, for connection types without a limited outbound queue.
+     * @return  Size of queued outbound messages
+     * @see Server#setOutQueueLimits(int, int, int, int)
+     * @since 2.0.00
+     */
+    public int getOutQueueBytes()
+    {
+        return 0;
+    }
+
+    /**
+     * Update compact-frame statistics after sending a message as a compact frame.
+     * Called only by the connection's writer thread.
+     * If server-side, also updates the server's totals.
+     * @param bytesSaved  Text frame length minus compact frame length
+     * @since 2.0.00
+     */
+    protected void compactFrameSent(final int bytesSaved)
+    {
+        compactFrameCount = compactFrameCount + 1;
+        compactBytesSaved = compactBytesSaved + bytesSaved;
+        if (ourServer != null)
+            ourServer.compactFrameSent(bytesSaved);
+    }
+
 }
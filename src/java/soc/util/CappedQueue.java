@@ -20,19 +20,18 @@
  **/
 package soc.util;
 
-import java.util.Vector;
-
 
 /**
- * This queue has a size limit
+ * This queue has a size limit: {@link #put(Object)} throws {@link CutoffExceededException}
+ * when the queue reaches it.
+ *<P>
+ * Before 2.0.00 this was a synchronized {@code Vector}; now it's a {@link LockFreeQueue}
+ * for many producer threads and one consumer thread, with the same methods.
  */
-public class CappedQueue<T>
+public class CappedQueue<T> extends LockFreeQueue<T>
 {
-    // Internal storage for the queue'd objects
-    private Vector<T> vec = new Vector<T>();
-
     // The max size for this queue
-    private int sizeLimit;
+    private final int sizeLimit;
 
     /**
      * constructor
@@ -53,71 +52,19 @@ public class CappedQueue<T>
     }
 
     /**
-     * DOCUMENT ME!
+     * Add an object to the end of the queue.  Can be called from any thread.
+     * If a consumer is waiting in {@link #get()}, it gets the object.
      *
-     * @param o DOCUMENT ME!
+     * @param o  Object to add; can be null
      *
-     * @throws CutoffExceededException DOCUMENT ME!
+     * @throws CutoffExceededException if adding {@code o} brings the queue to its size limit;
+     *     {@code o} is still added
      */
-    synchronized public void put(T o) throws CutoffExceededException
+    public void put(T o) throws CutoffExceededException
     {
-        //D.ebugPrintln(">put-> "+o);
-        // Add the element
-        vec.addElement(o);
-
-        // There might be threads waiting for the new object --
-        // give them a chance to get it
-        notifyAll();
-
-        if (vec.size() == sizeLimit)
+        if (enqueue(o) == sizeLimit)
         {
             throw new CutoffExceededException("CappedQueue sizeLimit exceeded");
         }
     }
-
-    /**
-     * DOCUMENT ME!
-     *
-     * @return DOCUMENT ME!
-     */
-    synchronized public T get()
-    {
-        while (true)
-        {
-            if (vec.size() > 0)
-            {
-                // There's an available object!
-                T o = vec.elementAt(0);
-
-                //D.ebugPrintln("<-get< "+o);
-                // Remove it from our internal list, so someone else
-                // doesn't get it.
-                vec.removeElementAt(0);
-
-                // Return the object
-                return o;
-            }
-            else
-            {
-                // There aren't any objects available.  Do a wait(),
-                // and when we wake up, check again to see if there
-                // are any.
-                try
-                {
-                    wait();
-                }
-                catch (InterruptedException ie) {}
-            }
-        }
-    }
-
-    /**
-     * DOCUMENT ME!
-     *
-     * @return DOCUMENT ME!
-     */
-    synchronized public boolean empty()
-    {
-        return vec.isEmpty();
-    }
 }
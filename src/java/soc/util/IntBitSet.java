@@ -0,0 +1,362 @@
+/**
+ * Java Settlers - An online multiplayer version of the game Settlers of Catan
+ * This file Copyright (C) 2026 agent <agent@local>
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * The maintainer of this program can be reached at jsettlers@nand.net
+ **/
+package soc.util;
+
+import java.io.Serializable;
+import java.util.AbstractSet;
+import java.util.Collection;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * A set of small non-negative ints, such as a player's legal or potential
+ * board node or edge coordinates, stored as a dense bitset.
+ *<P>
+ * Use the {@code int} methods {@link #contains(int)}, {@link #add(int)} and {@link #remove(int)}
+ * to avoid boxing; the {@link java.util.Set} methods are also supported, so that
+ * this set can be returned to callers which expect a {@code Set<Integer>}.
+ * Copying a set with {@link #IntBitSet(IntBitSet)} or {@link #setTo(IntBitSet)}
+ * copies its words, with no per-element work.
+ *<P>
+ * The set grows if needed when an int larger than its initial capacity is added.
+ * Negative ints can't be added, and are never contained.
+ * Iteration is in increasing order.
+ *<P>
+ * Not thread-safe.
+ *
+ * @author agent &lt;agent@local&gt;
+ * @since 2.0.00
+ */
+public class IntBitSet
+    extends AbstractSet<Integer>
+    implements Serializable
+{
+    private static final long serialVersionUID = 2000L;
+
+    /** Bits of the set; bit {@code (i & 63)} of {@code words[i >> 6]} is set if {@code i} is in the set */
+    private long[] words;
+
+    /** Number of ints in the set */
+    private int size;
+
+    /** Incremented at each change, to detect changes during iteration */
+    private transient int modCount;
+
+    /**
+     * Create an empty set.
+     * @param capacity  Initial capacity: Ints from 0 to {@code capacity} - 1 can be added without growing
+     */
+    public IntBitSet(final int capacity)
+    {
+        words = new long[(Math.max(capacity, 1) + 63) >> 6];
+    }
+
+    /**
+     * Create a set with the contents of another collection.
+     * @param capacity  Initial capacity, as in {@link #IntBitSet(int)}
+     * @param c  Collection to copy; not null. If an {@link IntBitSet}, its words are copied.
+     * @throws IllegalArgumentException if {@code c} contains a negative int
+     * @throws NullPointerException if {@code c} contains null
+     */
+    public IntBitSet(final int capacity, final Collection<Integer> c)
+        throws IllegalArgumentException, NullPointerException
+    {
+        this(capacity);
+        addAll(c);
+    }
+
+    /**
+     * Copy constructor, which copies the other set's words.
+     * @param other  Set to copy; not null
+     */
+    public IntBitSet(final IntBitSet other)
+    {
+        words = other.words.clone();
+        size = other.size;
+    }
+
+    /**
+     * Replace this set's contents with a copy of another's.
+     * @param other  Set to copy; not null
+     */
+    public void setTo(final IntBitSet other)
+    {
+        if (other == this)
+            return;
+
+        if (words.length >= other.words.length)
+        {
+            System.arraycopy(other.words, 0, words, 0, other.words.length);
+            for (int i = other.words.length; i < words.length; ++i)
+                words[i] = 0L;
+        } else {
+            words = other.words.clone();
+        }
+        size = other.size;
+        ++modCount;
+    }
+
+    /** @return Number of ints in the set */
+    public int size()
+    {
+        return size;
+    }
+
+    /** @return true if the set is empty */
+    public boolean isEmpty()
+    {
+        return (size == 0);
+    }
+
+    /**
+     * Is this int in the set?
+     * @param i  Int to check
+     * @return true if {@code i} is in the set
+     */
+    public boolean contains(final int i)
+    {
+        if (i < 0)
+            return false;
+
+        final int w = i >> 6;
+        return (w < words.length) && (0L != (words[w] & (1L << i)));
+    }
+
+    /**
+     * Add an int to the set.
+     * @param i  Int to add
+     * @return true if {@code i} wasn't already in the set
+     * @throws IllegalArgumentException if {@code i} &lt; 0
+     */
+    public boolean add(final int i)
+        throws IllegalArgumentException
+    {
+        if (i < 0)
+            throw new IllegalArgumentException("negative: " + i);
+
+        final int w = i >> 6;
+        if (w >= words.length)
+        {
+            final long[] grown = new long[Math.max(w + 1, words.length * 2)];
+            System.arraycopy(words, 0, grown, 0, words.length);
+            words = grown;
+        }
+
+        final long bit = 1L << i;
+        if (0L != (words[w] & bit))
+            return false;
+
+        words[w] |= bit;
+        ++size;
+        ++modCount;
+        return true;
+    }
+
+    /**
+     * Remove an int from the set.
+     * @param i  Int to remove
+     * @return true if {@code i} was in the set
+     */
+    public boolean remove(final int i)
+    {
+        if (! contains(i))
+            return false;
+
+        words[i >> 6] &= ~(1L << i);
+        --size;
+        ++modCount;
+        return true;
+    }
+
+    /** Remove all ints from the set. */
+    public void clear()
+    {
+        if (size == 0)
+            return;
+
+        for (int i = 0; i < words.length; ++i)
+            words[i] = 0L;
+        size = 0;
+        ++modCount;
+    }
+
+    public boolean contains(final Object o)
+    {
+        return (o instanceof Integer) && contains(((Integer) o).intValue());
+    }
+
+    /**
+     * {@inheritDoc}
+     * @throws IllegalArgumentException if {@code i} &lt; 0
+     * @throws NullPointerException if {@code i} is null
+     */
+    public boolean add(final Integer i)
+        throws IllegalArgumentException, NullPointerException
+    {
+        return add(i.intValue());
+    }
+
+    public boolean remove(final Object o)
+    {
+        return (o instanceof Integer) && remove(((Integer) o).intValue());
+    }
+
+    /**
+     * {@inheritDoc}
+     * If {@code c} is an {@link IntBitSet}, its words are combined with ours.
+     */
+    public boolean addAll(final Collection<? extends Integer> c)
+    {
+        if (! (c instanceof IntBitSet))
+            return super.addAll(c);
+
+        final IntBitSet other = (IntBitSet) c;
+        if (other.words.length > words.length)
+        {
+            final long[] grown = new long[other.words.length];
+            System.arraycopy(words, 0, grown, 0, words.length);
+            words = grown;
+        }
+
+        final int prevSize = size;
+        size = 0;
+        for (int i = 0; i < words.length; ++i)
+        {
+            if (i < other.words.length)
+                words[i] |= other.words[i];
+            size += Long.bitCount(words[i]);
+        }
+        if (size == prevSize)
+            return false;
+
+        ++modCount;
+        return true;
+    }
+
+    /**
+     * Does this set have any ints in common with another set?
+     * @param other  Set to check; not null
+     * @return true if any int is in both sets
+     */
+    public boolean intersects(final IntBitSet other)
+    {
+        final int n = Math.min(words.length, other.words.length);
+        for (int i = 0; i < n; ++i)
+            if (0L != (words[i] & other.words[i]))
+                return true;
+
+        return false;
+    }
+
+    /**
+     * Get the contents of this set as an array.
+     * @return  The set's ints in increasing order, or an empty array if none
+     */
+    public int[] toIntArray()
+    {
+        final int[] arr = new int[size];
+        int n = 0;
+        for (int w = 0; w < words.length; ++w)
+        {
+            long bits = words[w];
+            while (bits != 0L)
+            {
+                arr[n] = (w << 6) + Long.numberOfTrailingZeros(bits);
+                ++n;
+                bits &= (bits - 1);
+            }
+        }
+
+        return arr;
+    }
+
+    /**
+     * Iterator over the set's ints in increasing order.
+     * Supports {@link Iterator#remove()}.
+     */
+    public Iterator<Integer> iterator()
+    {
+        return new Iterator<Integer>()
+        {
+            /** Next int to return, or -1 if none */
+            private int next = nextFrom(0);
+
+            /** Most recently returned int, or -1 */
+            private int last = -1;
+
+            private int expectedModCount = modCount;
+
+            public boolean hasNext()
+            {
+                return (next != -1);
+            }
+
+            public Integer next()
+            {
+                if (modCount != expectedModCount)
+                    throw new ConcurrentModificationException();
+                if (next == -1)
+                    throw new NoSuchElementException();
+
+                last = next;
+                next = nextFrom(next + 1);
+                return Integer.valueOf(last);
+            }
+
+            public void remove()
+            {
+                if (last == -1)
+                    throw new IllegalStateException();
+                if (modCount != expectedModCount)
+                    throw new ConcurrentModificationException();
+
+                IntBitSet.this.remove(last);
+                last = -1;
+                expectedModCount = modCount;
+            }
+        };
+    }
+
+    /**
+     * Find the smallest int in the set which is at least {@code from}.
+     * @param from  Int to start searching at; not negative
+     * @return  The smallest int &gt;= {@code from} in the set, or -1 if none
+     */
+    private int nextFrom(final int from)
+    {
+        int w = from >> 6;
+        if (w >= words.length)
+            return -1;
+
+        long bits = words[w] & (-1L << from);
+        for (;;)
+        {
+            if (bits != 0L)
+                return (w << 6) + Long.numberOfTrailingZeros(bits);
+
+            ++w;
+            if (w >= words.length)
+                return -1;
+            bits = words[w];
+        }
+    }
+
+}
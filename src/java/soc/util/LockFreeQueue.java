@@ -0,0 +1,219 @@
+/**
+ * Java Settlers - An online multiplayer version of the game Settlers of Catan
+ * This file Copyright (C) 2026 agent <agent@local>
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * The maintainer of this program can be reached at jsettlers@nand.net
+ **/
+package soc.util;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Lock-free FIFO queue for many producer threads and one consumer, such as a robot brain's
+ * inbound game messages: {@link CappedQueue} and {@link Queue} are built on this class.
+ * Putting an object is an atomic swap and a link, with no lock and no waiting for other producers;
+ * the consumer blocks in {@link #get()} only when the queue is empty.
+ *<P>
+ * Objects are kept in a linked list (Vyukov's multi-producer single-consumer design):
+ * Each producer swaps its new node into {@link #tail}, then links the previous tail to it.
+ * The consumer takes nodes from {@link #head}. Null objects can be queued.
+ *<P>
+ * Only one thread at a time may call {@link #get()}. The consumer may change from thread to thread,
+ * if there's a happens-before between them (for example, handing off through an executor);
+ * see {@link soc.robot.SOCRobotBrainScheduler}. Any thread may call the other methods.
+ *<P>
+ * For monitoring, the queue tracks its current size and its high-water mark:
+ * The most objects it's held at once.
+ *<P>
+ * Subclasses provide {@code put} methods, which call {@link #enqueue(Object)}.
+ *
+ * @param <T>  Type of object in the queue
+ * @author agent &lt;agent@local&gt;
+ * @since 2.0.00
+ */
+public abstract class LockFreeQueue<T>
+{
+    /**
+     * Consumer's end: The most recently taken node, or the initial empty node.
+     * The next object to take is in {@code head.next}. Changed only by the consumer;
+     * volatile so that {@link #empty()} can check it from any thread.
+     */
+    private volatile Node<T> head;
+
+    /** Producers' end: The most recently put node */
+    private final AtomicReference<Node<T>> tail;
+
+    /**
+     * Number of objects put and not yet taken. Incremented after linking a node, and decremented
+     * after taking one, so it can briefly lag the linked list or even be -1: See {@link #size()}.
+     */
+    private final AtomicInteger size = new AtomicInteger();
+
+    /** Largest {@link #size} so far */
+    private final AtomicInteger highWater = new AtomicInteger();
+
+    /** Consumer thread parked in {@link #get()}, or null */
+    private volatile Thread waiter;
+
+    /**
+     * Optional listener to call after each put, or null.
+     * @see #setPutListener(Runnable)
+     */
+    private volatile Runnable putListener;
+
+    /**
+     * Create an empty queue.
+     */
+    protected LockFreeQueue()
+    {
+        head = new Node<T>(null);
+        tail = new AtomicReference<Node<T>>(head);
+    }
+
+    /**
+     * Add an object to the end of the queue, wake the consumer if it's waiting, and call the put listener if any.
+     * Can be called from any thread.
+     * @param o  Object to add; can be null
+     * @return  The queue's size after adding {@code o}, for checking against a limit
+     */
+    protected final int enqueue(final T o)
+    {
+        final Node<T> node = new Node<T>(o);
+        final Node<T> prev = tail.getAndSet(node);
+        prev.next = node;  // now the consumer can reach node
+
+        // Count it only once it's linked, so size never counts an object that get() can't reach
+        final int n = size.incrementAndGet();
+        int hw;
+        while ((n > (hw = highWater.get())) && ! highWater.compareAndSet(hw, n))
+            ;
+
+        final Thread w = waiter;
+        if (w != null)
+            LockSupport.unpark(w);
+
+        // Call listener outside of any lock, so it can call our other methods from any thread
+        final Runnable pl = putListener;
+        if (pl != null)
+            pl.run();
+
+        return n;
+    }
+
+    /**
+     * Take the object at the front of the queue, waiting until one is put if the queue is empty.
+     * Only one thread at a time may call this method.
+     *<P>
+     * Like the earlier {@code wait()}-based queues, an interrupt doesn't stop the wait.
+     * The thread's interrupt status is kept, and is set again when this method returns.
+     * @return  The oldest object in the queue; can be null if null was put
+     */
+    public T get()
+    {
+        boolean interrupted = false;
+        while (true)
+        {
+            Node<T> next = head.next;
+            if (next != null)
+            {
+                // There's an available object!
+                final T o = next.value;
+                next.value = null;  // next is the new empty head node
+                head = next;
+                size.decrementAndGet();
+
+                if (interrupted)
+                    Thread.currentThread().interrupt();
+
+                return o;
+            }
+
+            // There aren't any objects available. Announce that we're waiting, then check
+            // again before parking, so a producer which has just linked one will unpark us.
+            waiter = Thread.currentThread();
+            if (head.next == null)
+                LockSupport.park(this);
+            waiter = null;
+
+            // park returns at once while the interrupt status is set: clear it until we return
+            if (Thread.interrupted())
+                interrupted = true;
+        }
+    }
+
+    /**
+     * Is the queue empty?  Checks the linked list, not {@link #size()},
+     * so if this returns false the consumer's next {@link #get()} won't wait.
+     * @return  true if no objects are waiting to be taken
+     */
+    public boolean empty()
+    {
+        return (head.next == null);
+    }
+
+    /**
+     * Number of objects waiting in the queue.  Since producers count each object after linking it,
+     * this can briefly be less than the number that {@link #get()} could take without waiting.
+     * @return  Current size, at least 0
+     */
+    public int size()
+    {
+        final int n = size.get();
+        return (n > 0) ? n : 0;  // get() may have taken an object before its producer counted it
+    }
+
+    /**
+     * Largest number of objects which have been waiting in the queue at once.
+     * @return  The queue's high-water mark
+     */
+    public int getHighWaterMark()
+    {
+        return highWater.get();
+    }
+
+    /**
+     * Set or clear a listener to be called after each object is put into the queue,
+     * for consumers which are scheduled when there's work instead of waiting in {@link #get()}.
+     * The listener is called on the putting thread, after the object's been added and without holding
+     * any lock; it should be quick.
+     * @param pl  Listener to call, or null for none
+     */
+    public void setPutListener(Runnable pl)
+    {
+        putListener = pl;
+    }
+
+    /**
+     * One linked node of the queue.
+     * @param <T>  Type of object in the queue
+     */
+    private static final class Node<T>
+    {
+        /** Object in this node; set to null when taken */
+        T value;
+
+        /** Next node, or null if this is the tail or a producer hasn't linked the next one yet */
+        volatile Node<T> next;
+
+        Node(final T value)
+        {
+            this.value = value;
+        }
+    }
+
+}
@@ -0,0 +1,312 @@
+/**
+ * Java Settlers - An online multiplayer version of the game Settlers of Catan
+ * This file Copyright (C) 2026 agent <agent@local>
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * The maintainer of this program can be reached at jsettlers@nand.net
+ **/
+package soc.util;
+
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A monitor for {@link SOCGameList}'s game list and per-game locks, which also
+ * keeps statistics about how long threads waited to take it.
+ * Replaces the {@link MutexFlag} + {@code wait(1000)} polling loops used before v2.0.00.
+ *<P>
+ * Like the {@code MutexFlag} monitors it replaces, this monitor is not reentrant,
+ * and can be released by a thread other than the one which took it;
+ * releasing it when not taken does nothing. So it's built on a fair {@link Semaphore}
+ * with 1 permit, not on {@code ReentrantLock} which must be released by its owner.
+ *<P>
+ * The monitor is fair: Waiting threads take it in the order they started waiting.
+ * Otherwise a game thread which repeatedly takes and releases the game list's monitor
+ * could keep the treater, or another game's thread, waiting indefinitely.
+ *<P>
+ * Wait statistics are kept only for contended takes, when the monitor wasn't immediately available.
+ * Waits are counted in a histogram with buckets under 1 ms, 10 ms, 100 ms, 1 second, and 1 second or more.
+ *
+ * @author agent &lt;agent@local&gt;
+ * @since 2.0.00
+ */
+public class MonitorLock
+{
+    /**
+     * Upper limits (exclusive) of the wait histogram buckets, in milliseconds.
+     * The last bucket, at index {@code WAIT_BUCKET_LIMITS_MS.length}, holds waits of 1 second or longer.
+     * @see #getWaitHistogram()
+     */
+    public static final int[] WAIT_BUCKET_LIMITS_MS = { 1, 10, 100, 1000 };
+
+    /**
+     * While waiting to take the monitor, wake this often (milliseconds) to
+     * check whether the caller still wants to wait.
+     * @see #take(Condition)
+     */
+    private static final int WAIT_CHECK_MS = 1000;
+
+    /**
+     * If a thread waits longer than this many seconds to take the monitor, print a warning to {@link System#err}.
+     */
+    public static final int WAIT_WARN_SECONDS = 10;
+
+    /** Name for statistics and warning messages, such as the game name */
+    private final String name;
+
+    /** Fair semaphore with 1 permit: The monitor is taken when its permit is */
+    private final Semaphore sem = new Semaphore(1, true);
+
+    /** Is the monitor taken? Lets {@link #release()} do nothing if not. */
+    private final AtomicBoolean held = new AtomicBoolean();
+
+    /** Total number of takes, including uncontended */
+    private final AtomicLong takeCount = new AtomicLong();
+
+    /** Number of contended takes, which had to wait */
+    private final AtomicLong waitCount = new AtomicLong();
+
+    /** Total and maximum wait time of contended takes, in nanoseconds */
+    private final AtomicLong waitTotalNanos = new AtomicLong(), waitMaxNanos = new AtomicLong();
+
+    /** Wait histogram; see {@link #WAIT_BUCKET_LIMITS_MS} */
+    private final AtomicLong[] waitHistogram;
+
+    /**
+     * Create a new monitor lock.
+     * @param name  Name for statistics and warning messages, such as the game name
+     */
+    public MonitorLock(final String name)
+    {
+        this.name = name;
+        waitHistogram = new AtomicLong[WAIT_BUCKET_LIMITS_MS.length + 1];
+        for (int i = 0; i < waitHistogram.length; ++i)
+            waitHistogram[i] = new AtomicLong();
+    }
+
+    /**
+     * @return this monitor's name, from the constructor
+     */
+    public String getName()
+    {
+        return name;
+    }
+
+    /**
+     * Take the monitor, waiting as long as needed.
+     * When done with it, you must call {@link #release()}.
+     */
+    public void take()
+    {
+        take(null);
+    }
+
+    /**
+     * Take the monitor, waiting as long as needed, unless {@code stopWaiting} says to give up.
+     * When done with it (if returns true), you must call {@link #release()}.
+     *<P>
+     * If the thread is interrupted while waiting, keeps waiting, and sets the thread's interrupt
+     * status again before returning.
+     *
+     * @param stopWaiting  Checked about once a second while waiting, or null.
+     *     If {@link Condition#isMet()}, stop waiting and return false.
+     * @return true if the monitor was taken, false if {@code stopWaiting} was met
+     */
+    public boolean take(final Condition stopWaiting)
+    {
+        takeCount.incrementAndGet();
+        boolean taken = false, interrupted = false;
+        try
+        {
+            taken = sem.tryAcquire(0, TimeUnit.MILLISECONDS);  // unlike tryAcquire(), doesn't barge ahead of waiters
+        }
+        catch (InterruptedException e)
+        {
+            interrupted = true;
+        }
+
+        if (taken)
+        {
+            held.set(true);
+            return true;  // <--- Early return: not contended ---
+        }
+
+        final long t0 = System.nanoTime();
+        boolean warned = false;
+        while (! taken)
+        {
+            try
+            {
+                taken = sem.tryAcquire(WAIT_CHECK_MS, TimeUnit.MILLISECONDS);
+            }
+            catch (InterruptedException e)
+            {
+                if (! interrupted)
+                    System.err.println
+                        ("Warning: Thread " + Thread.currentThread().getName()
+                         + " interrupted while waiting for monitor: " + name + "; still waiting");
+                interrupted = true;
+            }
+
+            if (! taken)
+            {
+                if ((stopWaiting != null) && stopWaiting.isMet())
+                    break;
+
+                if (! warned)
+                {
+                    final long waitedSec = (System.nanoTime() - t0) / 1000000000L;
+                    if (waitedSec >= WAIT_WARN_SECONDS)
+                    {
+                        System.err.println
+                            ("Warning: Thread " + Thread.currentThread().getName() + " has waited "
+                             + waitedSec + " seconds for monitor: " + name);
+                        warned = true;
+                    }
+                }
+            }
+        }
+
+        if (taken)
+            held.set(true);
+        recordWait(System.nanoTime() - t0);
+        if (interrupted)
+            Thread.currentThread().interrupt();  // restore the status cleared by the exception
+
+        return taken;
+    }
+
+    /**
+     * Release the monitor, recently taken by {@link #take()}.
+     * Can be called by any thread, not only the one which took it.
+     * If the monitor isn't currently taken, does nothing.
+     */
+    public void release()
+    {
+        if (held.compareAndSet(true, false))
+            sem.release();
+    }
+
+    /**
+     * Is the monitor currently taken by any thread?
+     * @return true if taken
+     */
+    public boolean isTaken()
+    {
+        return held.get();
+    }
+
+    /**
+     * Update statistics after a contended take.
+     * @param nanos  Time waited
+     */
+    private void recordWait(final long nanos)
+    {
+        waitCount.incrementAndGet();
+        waitTotalNanos.addAndGet(nanos);
+
+        long prevMax = waitMaxNanos.get();
+        while ((nanos > prevMax) && ! waitMaxNanos.compareAndSet(prevMax, nanos))
+            prevMax = waitMaxNanos.get();
+
+        final long ms = nanos / 1000000L;
+        int i = 0;
+        while ((i < WAIT_BUCKET_LIMITS_MS.length) && (ms >= WAIT_BUCKET_LIMITS_MS[i]))
+            ++i;
+        waitHistogram[i].incrementAndGet();
+    }
+
+    /**
+     * @return Total number of times the monitor was taken or waited for, including uncontended takes
+     */
+    public long getTakeCount()
+    {
+        return takeCount.get();
+    }
+
+    /**
+     * @return Number of contended takes, which had to wait
+     */
+    public long getWaitCount()
+    {
+        return waitCount.get();
+    }
+
+    /**
+     * @return Total time spent waiting by contended takes, in milliseconds
+     */
+    public long getWaitTotalMillis()
+    {
+        return waitTotalNanos.get() / 1000000L;
+    }
+
+    /**
+     * @return Longest time spent waiting by a contended take, in milliseconds
+     */
+    public long getWaitMaxMillis()
+    {
+        return waitMaxNanos.get() / 1000000L;
+    }
+
+    /**
+     * Get the wait-time histogram of contended takes.
+     * @return  Count of waits in each bucket; element {@code i} counts waits shorter than
+     *     {@link #WAIT_BUCKET_LIMITS_MS}[i] ms and not in an earlier bucket.  The last element
+     *     counts waits of at least the last limit.
+     */
+    public long[] getWaitHistogram()
+    {
+        final long[] h = new long[waitHistogram.length];
+        for (int i = 0; i < h.length; ++i)
+            h[i] = waitHistogram[i].get();
+
+        return h;
+    }
+
+    /**
+     * One-line summary of this monitor's statistics, for debug and stats output. Example:<BR>
+     * {@code takes 230, waits 12, wait total 340 ms, max 120 ms; <1ms:5 <10ms:4 <100ms:2 <1000ms:1 >=1000ms:0}
+     * @return  A summary of the statistics
+     */
+    public String getStatsText()
+    {
+        StringBuffer sb = new StringBuffer();
+        sb.append("takes ").append(getTakeCount());
+        sb.append(", waits ").append(getWaitCount());
+        sb.append(", wait total ").append(getWaitTotalMillis());
+        sb.append(" ms, max ").append(getWaitMaxMillis()).append(" ms;");
+        final long[] h = getWaitHistogram();
+        for (int i = 0; i < WAIT_BUCKET_LIMITS_MS.length; ++i)
+            sb.append(" <").append(WAIT_BUCKET_LIMITS_MS[i]).append("ms:").append(h[i]);
+        sb.append(" >=").append(WAIT_BUCKET_LIMITS_MS[WAIT_BUCKET_LIMITS_MS.length - 1])
+          .append("ms:").append(h[WAIT_BUCKET_LIMITS_MS.length]);
+
+        return sb.toString();
+    }
+
+    /**
+     * A condition to check while waiting in {@link MonitorLock#take(Condition)}.
+     */
+    public interface Condition
+    {
+        /**
+         * @return true if the caller should stop waiting
+         */
+        boolean isMet();
+    }
+
+}
@@ -20,96 +20,33 @@
  **/
 package soc.util;
 
-import java.util.Vector;
-
 
 /**
- * DOCUMENT ME!
+ * FIFO queue with a blocking {@link #get()}.
+ *<P>
+ * Before 2.0.00 this was a synchronized {@code Vector}; now it's a {@link LockFreeQueue}
+ * for many producer threads and one consumer thread, with the same methods.
  *
  * @author $author$
  */
-public class Queue<T>
+public class Queue<T> extends LockFreeQueue<T>
 {
-    // Internal storage for the queue'd objects
-    private Vector<T> vec = new Vector<T>();
-
-    /**
-     * DOCUMENT ME!
-     *
-     * @param o DOCUMENT ME!
-     */
-    synchronized public void put(T o)
-    {
-        //D.ebugPrintln(">put-> "+o);
-        // Add the element
-        vec.addElement(o);
-
-        // There might be threads waiting for the new object --
-        // give them a chance to get it
-        notifyAll();
-    }
-
     /**
-     * DOCUMENT ME!
+     * Add an object to the end of the queue.  Can be called from any thread.
      *
-     * @return DOCUMENT ME!
+     * @param o  Object to add; can be null
      */
-    synchronized public T get()
+    public void put(T o)
     {
-        while (true)
-        {
-            if (vec.size() > 0)
-            {
-                // There's an available object!
-                T o = vec.elementAt(0);
-
-                //D.ebugPrintln("<-get< "+o);
-                // Remove it from our internal list, so someone else
-                // doesn't get it.
-                vec.removeElementAt(0);
-
-                // Return the object
-                return o;
-            }
-            else
-            {
-                // There aren't any objects available.  Do a wait(),
-                // and when we wake up, check again to see if there
-                // are any.
-                try
-                {
-                    wait();
-                }
-                catch (InterruptedException ie) {}
-            }
-        }
+        enqueue(o);
     }
 
     /**
-     * DOCUMENT ME!
-     *
-     * @return DOCUMENT ME!
-     */
-    synchronized public boolean empty()
-    {
-        return vec.isEmpty();
-    }
-
-    /**
-     * DOCUMENT ME!
-     */
-    synchronized public void clear()
-    {
-        vec.removeAllElements();
-    }
-
-    /**
-     * DOCUMENT ME!
-     *
-     * @return DOCUMENT ME!
+     * Remove all objects from the queue.  Like {@link #get()}, only the consumer thread may call this method.
      */
-    synchronized public int size()
+    public void clear()
     {
-        return vec.size();
+        while (! empty())
+            get();
     }
 }
@@ -26,8 +26,12 @@ import soc.game.SOCGame;
 import soc.game.SOCGameOption;
 import soc.message.SOCGames;
 
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.Hashtable;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
@@ -61,8 +65,13 @@ public class SOCGameList
     /** synchronized map of game names to {@link SOCGame} objects */
     protected Hashtable<String, SOCGame> gameData;
 
-    /** used with gamelist's monitor */
-    protected boolean inUse;
+    /**
+     * The gamelist's monitor.
+     * Before v2.0.00 this was a boolean {@code inUse} flag.
+     * @see #takeMonitor()
+     * @since 2.0.00
+     */
+    protected final MonitorLock monitor = new MonitorLock("gameList");
 
     /**
      * constructor
@@ -71,44 +80,76 @@ public class SOCGameList
     {
         gameInfo = new Hashtable<String, GameInfo>();
         gameData = new Hashtable<String, SOCGame>();
-        inUse = false;
     }
 
     /**
-     * take the monitor for this game list; if we must wait, sleep up to 1000 ms between attempts.
+     * take the monitor for this game list; wait as long as needed.
+     * Time spent waiting is tracked in {@link #getMonitorStats()}.
      */
-    public synchronized void takeMonitor()
+    public void takeMonitor()
     {
         // D.ebugPrintln("SOCGameList : TAKE MONITOR");
 
-        while (inUse)
-        {
-            try
-            {
-                wait(1000);
-            }
-            catch (InterruptedException e)
-            {
-                System.out.println("EXCEPTION IN takeMonitor() -- " + e);
-            }
-        }
-
-        inUse = true;
+        monitor.take();
     }
 
     /**
      * release the monitor for this game list
      */
-    public synchronized void releaseMonitor()
+    public void releaseMonitor()
     {
         // D.ebugPrintln("SOCGameList : RELEASE MONITOR");
-        inUse = false;
-        this.notify();
+        monitor.release();
+    }
+
+    /**
+     * Get the game list monitor's lock-wait statistics.
+     * @return  the monitor used by {@link #takeMonitor()}
+     * @see #getGameMonitorStats()
+     * @since 2.0.00
+     */
+    public MonitorLock getMonitorStats()
+    {
+        return monitor;
+    }
+
+    /**
+     * Get the per-game monitors' lock-wait statistics, for all current games.
+     * Each monitor's statistics are copied before sorting, since other threads keep changing them.
+     * @return  A snapshot of each game's monitor statistics, as used by {@link #takeMonitorForGame(String)}.
+     *     Sorted by most total wait time first, then by most waits.
+     * @since 2.0.00
+     */
+    public List<GameMonitorStats> getGameMonitorStats()
+    {
+        ArrayList<GameMonitorStats> ret = new ArrayList<GameMonitorStats>();
+        synchronized (gameInfo)
+        {
+            for (GameInfo info : gameInfo.values())
+                ret.add(new GameMonitorStats(info.mutex));
+        }
+
+        Collections.sort(ret, new Comparator<GameMonitorStats>()
+        {
+            public int compare(GameMonitorStats a, GameMonitorStats b)
+            {
+                long wa = a.waitTotalMillis, wb = b.waitTotalMillis;
+                if (wa == wb)
+                {
+                    wa = a.waitCount;
+                    wb = b.waitCount;
+                }
+                return (wa > wb) ? -1 : ((wa < wb) ? 1 : 0);
+            }
+        });
+
+        return ret;
     }
 
     /**
      * take the monitor for this game.
      * When done with it, you must call {@link #releaseMonitorForGame(String)}.
+     * Time spent waiting is tracked in {@link #getGameMonitorStats()}.
      *
      * @param game  the name of the game
      * @return false if the game has no mutex, or game not found in the list,
@@ -118,54 +159,35 @@ public class SOCGameList
     {
         // D.ebugPrintln("SOCGameList : TAKE MONITOR FOR " + game);
 
-        GameInfo info = gameInfo.get(game);
+        final GameInfo info = gameInfo.get(game);
         if ((info == null) || info.gameDestroyed)
         {
             return false;
         }
-        MutexFlag mutex = info.mutex;
+        MonitorLock mutex = info.mutex;
 
         if (mutex == null)
         {
             return false;
         }
 
-        boolean done = false;
-
-        while (!done)
+        boolean taken = mutex.take(new MonitorLock.Condition()
         {
-            if (mutex == null)
-            {
-                return false;
-            }
-            if (info.gameDestroyed)
-            {
-                // Debug print is JM temp add: (TODO)
-                soc.debug.D.ebugPrintStackTrace(null, "Game " + game + " was destroyed while waiting");
-                return false;
-            }
+            public boolean isMet() { return info.gameDestroyed; }
+        });
 
-            synchronized (mutex)
-            {
-                if (mutex.getState() == true)
-                {
-                    try
-                    {
-                        mutex.wait(1000);
-                    }
-                    catch (InterruptedException e)
-                    {
-                        System.out.println("EXCEPTION IN takeMonitor() -- " + e);
-                    }
-                }
-                else
-                {
-                    done = true;
-                }
-            }
+        if (taken && info.gameDestroyed)
+        {
+            mutex.release();
+            taken = false;
         }
 
-        mutex.setState(true);
+        if (! taken)
+        {
+            // Debug print is JM temp add: (TODO)
+            soc.debug.D.ebugPrintStackTrace(null, "Game " + game + " was destroyed while waiting");
+            return false;
+        }
 
         return true;
     }
@@ -186,18 +208,14 @@ public class SOCGameList
         GameInfo info = gameInfo.get(game);
         if (info == null)
             return false;
-        MutexFlag mutex = info.mutex;
+        MonitorLock mutex = info.mutex;
 
         if (mutex == null)
         {
             return false;
         }
 
-        synchronized (mutex)
-        {
-            mutex.setState(false);
-            mutex.notify();
-        }
+        mutex.release();
 
         return true;
     }
@@ -396,9 +414,9 @@ public class SOCGameList
         }
 
         if (gaOpts != null)
-            gameInfo.put(gaName, new GameInfo(! cannotJoin, gaOpts));
+            gameInfo.put(gaName, new GameInfo(gaName, ! cannotJoin, gaOpts));
         else
-            gameInfo.put(gaName, new GameInfo(! cannotJoin, gaOptsStr));
+            gameInfo.put(gaName, new GameInfo(gaName, ! cannotJoin, gaOptsStr));
     }
 
     /**
@@ -502,13 +520,36 @@ public class SOCGameList
         }
 
         GameInfo info = gameInfo.get(gaName);
-        info.gameDestroyed = true;
+        info.gameDestroyed = true;  // any threads waiting for info.mutex will see this and stop waiting
         gameInfo.remove(gaName);
-        synchronized (info.mutex)
+        info.dispose();
+    }
+
+    /**
+     * A snapshot of one game monitor's lock-wait statistics, from {@link SOCGameList#getGameMonitorStats()}.
+     * @since 2.0.00
+     */
+    public static final class GameMonitorStats
+    {
+        /** Game name, from {@link MonitorLock#getName()} */
+        public final String name;
+
+        /** {@link MonitorLock#getWaitTotalMillis()} when copied */
+        public final long waitTotalMillis;
+
+        /** {@link MonitorLock#getWaitCount()} when copied */
+        public final long waitCount;
+
+        /** {@link MonitorLock#getStatsText()} when copied */
+        public final String statsText;
+
+        GameMonitorStats(final MonitorLock mon)
         {
-            info.mutex.notifyAll();
+            name = mon.getName();
+            waitTotalMillis = mon.getWaitTotalMillis();
+            waitCount = mon.getWaitCount();
+            statsText = mon.getStatsText();
         }
-        info.dispose();
     }
 
     /**
@@ -520,34 +561,37 @@ public class SOCGameList
      */
     protected static class GameInfo
     {
-        public MutexFlag mutex;
+        /** Game's monitor; before v2.0.00 this was a {@link MutexFlag} */
+        public MonitorLock mutex;
         public Map<String,SOCGameOption> opts;  // or null
         public String optsStr;  // or null
         public boolean canJoin;
         /** Flag for when game has been destroyed, in case anything's waiting on its mutex. @since 1.1.15 */
-        public boolean gameDestroyed;
+        public volatile boolean gameDestroyed;
 
         /**
          * Constructor: gameOpts is null or contains game option objects
+         * @param gaName  Game name, for {@link #mutex}'s statistics; parameter added in v2.0.00
          * @param canJoinGame can we join this game?
          * @param gameOpts The game's {@link SOCGameOption}s, or null
          */
-        public GameInfo(boolean canJoinGame, Map<String,SOCGameOption> gameOpts)
+        public GameInfo(final String gaName, boolean canJoinGame, Map<String,SOCGameOption> gameOpts)
         {
-            mutex = new MutexFlag();
+            mutex = new MonitorLock(gaName);
             opts = gameOpts;
             canJoin = canJoinGame;
         }
 
         /**
          * Constructor: gameOptsStr is null or unparsed game options
+         * @param gaName  Game name, for {@link #mutex}'s statistics; parameter added in v2.0.00
          * @param canJoinGame can we join this game?
          * @param gameOptsStr set of {@link SOCGameOption}s as packed by
          *            {@link SOCGameOption#packOptionsToString(Map, boolean)}, or null
          */
-        public GameInfo(boolean canJoinGame, String gameOptsStr)
+        public GameInfo(final String gaName, boolean canJoinGame, String gameOptsStr)
         {
-            mutex = new MutexFlag();
+            mutex = new MonitorLock(gaName);
             optsStr = gameOptsStr;
             canJoin = canJoinGame;
         }
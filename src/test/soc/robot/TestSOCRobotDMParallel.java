@@ -0,0 +1,322 @@
+/**
+ * Java Settlers - An online multiplayer version of the game Settlers of Catan
+ * This file Copyright (C) 2026 agent <agent@local>
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * The maintainer of this program can be reached at jsettlers@nand.net
+ **/
+package soc.robot;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.HashMap;
+import java.util.Random;
+import java.util.Stack;
+
+import junit.framework.TestCase;
+
+import soc.game.SOCCity;
+import soc.game.SOCGame;
+import soc.game.SOCPlayer;
+import soc.game.SOCPlayingPiece;
+import soc.game.SOCResourceConstants;
+import soc.game.SOCRoad;
+import soc.game.SOCSettlement;
+import soc.server.SOCServer;
+
+/**
+ * Checks that {@link SOCRobotDM}'s smart strategy makes the same building plans whether it scores
+ * possible pieces one at a time or in parallel ({@link SOCRobotDM#setParallelEvaluation(int)}),
+ * and whether it tries them in place or in copies of the player trackers ({@link SOCRobotDM#setTrialJournal(boolean)}).
+ *<P>
+ * Plays a game whose placements and resources come from a seeded {@link Random}, without dice.
+ * Each turn, the current player plans in copies of the game and trackers with each combination
+ * of those settings; the plans must all match the one made one at a time in copies of the trackers.
+ *
+ * @author agent &lt;agent@local&gt;
+ * @since 2.0.00
+ */
+public class TestSOCRobotDMParallel extends TestCase
+{
+    /** Number of turns to play after the initial placement */
+    private static final int TURNS = 60;
+
+    private SOCGame ga;
+    private HashMap<Integer, SOCPlayerTracker> trackers;
+    private Random rand;
+
+    protected void setUp()
+    {
+        rand = new Random(2000L);
+        ga = new SOCGame("test");
+        for (int pn = 0; pn < ga.maxPlayers; ++pn)
+            ga.addPlayer("robot " + pn, pn);
+        ga.startGame();
+
+        trackers = new HashMap<Integer, SOCPlayerTracker>();
+        for (int pn = 0; pn < ga.maxPlayers; ++pn)
+            trackers.put(Integer.valueOf(pn), new SOCPlayerTracker(ga.getPlayer(pn), null));
+    }
+
+    protected void tearDown()
+    {
+        SOCRobotDM.setParallelEvaluation(0);
+        SOCRobotDM.setTrialJournal(true);
+    }
+
+    /**
+     * Play the game, comparing each turn's plans.
+     * @throws Exception if the game or trackers can't be copied
+     */
+    public void testSamePlanParallelOrNot()
+        throws Exception
+    {
+        placeInitialPieces();
+        assertEquals(SOCGame.PLAY, ga.getGameState());
+
+        int nPieces = 0;
+        for (int turn = 0; turn < TURNS; ++turn)
+        {
+            final int cpn = ga.getCurrentPlayerNumber();
+            final SOCPlayer pl = ga.getPlayer(cpn);
+            ga.setGameState(SOCGame.PLAY1);
+            for (int rtype = SOCResourceConstants.CLAY; rtype <= SOCResourceConstants.WOOD; ++rtype)
+                pl.getResources().add(rand.nextInt(3), rtype);
+
+            final byte[] data = serialize();
+            final String plan = plan(data, cpn, 0, false);
+            assertEquals("turn " + turn + " in place", plan, plan(data, cpn, 0, true));
+            assertEquals("turn " + turn + " parallel", plan, plan(data, cpn, 4, false));
+            assertEquals("turn " + turn + " parallel in place", plan, plan(data, cpn, 4, true));
+
+            if (buildPlanTop(pl, plan))
+                ++nPieces;
+
+            ga.endTurn();
+        }
+
+        assertTrue("pieces built: " + nPieces, nPieces > 10);
+    }
+
+    /**
+     * Place each player's initial settlements and roads at random.
+     */
+    private void placeInitialPieces()
+    {
+        while (ga.getGameState() < SOCGame.PLAY)
+        {
+            final SOCPlayer pl = ga.getPlayer(ga.getCurrentPlayerNumber());
+            switch (ga.getGameState())
+            {
+            case SOCGame.START1A:
+            case SOCGame.START2A:
+                {
+                    final int[] nodes = pl.getPotentialSettlements_arr();
+                    int node;
+                    do
+                    {
+                        node = nodes[rand.nextInt(nodes.length)];
+                    } while (! pl.canPlaceSettlement(node));
+                    putPiece(new SOCSettlement(pl, node, null));
+                }
+                break;
+
+            case SOCGame.START1B:
+            case SOCGame.START2B:
+                {
+                    final int[] edges = ga.getBoard().getAdjacentEdgesToNode_arr(pl.getLastSettlementCoord());
+                    int edge;
+                    do
+                    {
+                        edge = edges[rand.nextInt(edges.length)];
+                    } while ((edge == -9) || ! pl.isPotentialRoad(edge));
+                    putPiece(new SOCRoad(pl, edge, null));
+                }
+                break;
+
+            default:
+                fail("unexpected game state " + ga.getGameState());
+            }
+        }
+    }
+
+    /**
+     * Serialize the game and player trackers together, so that copies of the trackers track the copied game's players.
+     * @return  the serialized game and trackers
+     * @throws Exception if they can't be serialized
+     */
+    private byte[] serialize()
+        throws Exception
+    {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        ObjectOutputStream oos = new ObjectOutputStream(bytes);
+        oos.writeObject(ga);
+        oos.writeObject(trackers);
+        oos.close();
+
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Make a building plan with the smart strategy in a copy of the game and trackers.
+     * @param data  the game and trackers from {@link #serialize()}
+     * @param pn  the player number to plan for
+     * @param threads  {@link SOCRobotDM#setParallelEvaluation(int)} setting
+     * @param inPlace  {@link SOCRobotDM#setTrialJournal(boolean)} setting
+     * @return  the plan's piece types and coordinates, top first
+     * @throws Exception if the game and trackers can't be copied
+     */
+    private String plan(final byte[] data, final int pn, final int threads, final boolean inPlace)
+        throws Exception
+    {
+        ObjectInputStream ois = new ObjectInputStream(new ByteArrayInputStream(data));
+        final SOCGame gaCopy = (SOCGame) ois.readObject();
+        @SuppressWarnings("unchecked")
+        final HashMap<Integer, SOCPlayerTracker> trackersCopy = (HashMap<Integer, SOCPlayerTracker>) ois.readObject();
+
+        SOCRobotDM.setParallelEvaluation(threads);
+        SOCRobotDM.setTrialJournal(inPlace);
+        final Stack<SOCPossiblePiece> buildingPlan = new Stack<SOCPossiblePiece>();
+        final SOCRobotDM dm = new SOCRobotDM
+            (SOCServer.ROBOT_PARAMS_SMARTER, trackersCopy, trackersCopy.get(Integer.valueOf(pn)),
+             gaCopy.getPlayer(pn), buildingPlan);
+        dm.planStuff(SOCRobotDM.SMART_STRATEGY);
+
+        StringBuilder sb = new StringBuilder();
+        for (int i = buildingPlan.size() - 1; i >= 0; --i)
+        {
+            final SOCPossiblePiece pp = buildingPlan.get(i);
+            sb.append(pp.getType()).append('@').append(Integer.toHexString(pp.getCoordinates())).append(' ');
+        }
+
+        return sb.toString();
+    }
+
+    /**
+     * Build the top piece of a plan, if it's a road, settlement, or city we can afford and place,
+     * or buy a dev card if that's the top.
+     * @param pl  the player
+     * @param plan  the plan from {@link #plan(byte[], int, int, boolean)}
+     * @return  true if a piece was built; false if not, or if a card was bought
+     */
+    private boolean buildPlanTop(final SOCPlayer pl, final String plan)
+    {
+        if (plan.length() == 0)
+            return false;
+
+        final String top = plan.substring(0, plan.indexOf(' '));
+        final int at = top.indexOf('@');
+        final int ptype = Integer.parseInt(top.substring(0, at));
+        final int coord = Integer.parseInt(top.substring(at + 1), 16);
+        final int pn = pl.getPlayerNumber();
+        switch (ptype)
+        {
+        case SOCPossiblePiece.CARD:
+            if (ga.couldBuyDevCard(pn))
+                ga.buyDevCard();
+            break;
+
+        case SOCPossiblePiece.ROAD:
+            if (ga.couldBuildRoad(pn) && pl.isPotentialRoad(coord))
+            {
+                ga.buyRoad(pn);
+                putPiece(new SOCRoad(pl, coord, null));
+                return true;
+            }
+            break;
+
+        case SOCPossiblePiece.SETTLEMENT:
+            if (ga.couldBuildSettlement(pn) && pl.canPlaceSettlement(coord))
+            {
+                ga.buySettlement(pn);
+                putPiece(new SOCSettlement(pl, coord, null));
+                return true;
+            }
+            break;
+
+        case SOCPossiblePiece.CITY:
+            if (ga.couldBuildCity(pn) && pl.isPotentialCity(coord))
+            {
+                ga.buyCity(pn);
+                putPiece(new SOCCity(pl, coord, null));
+                return true;
+            }
+            break;
+        }
+
+        return false;
+    }
+
+    /**
+     * Put a piece into the game and update the player trackers, like {@link SOCRobotBrain} does.
+     * @param pp  the piece
+     */
+    private void putPiece(final SOCPlayingPiece pp)
+    {
+        ga.putPiece(pp);
+
+        switch (pp.getType())
+        {
+        case SOCPlayingPiece.ROAD:
+            for (SOCPlayerTracker tr : trackers.values())
+                tr.addNewRoadOrShip((SOCRoad) pp, trackers);
+            updateThreats();
+            break;
+
+        case SOCPlayingPiece.SETTLEMENT:
+            for (SOCPlayerTracker tr : trackers.values())
+                tr.addNewSettlement((SOCSettlement) pp, trackers);
+            updateThreats();
+            updateSpeedups(pp.getPlayerNumber());
+            break;
+
+        case SOCPlayingPiece.CITY:
+            trackers.get(Integer.valueOf(pp.getPlayerNumber())).addOurNewCity((SOCCity) pp);
+            updateSpeedups(pp.getPlayerNumber());
+            break;
+        }
+    }
+
+    /** After a new road or settlement, clear and recalculate all trackers' threats. */
+    private void updateThreats()
+    {
+        for (SOCPlayerTracker tr : trackers.values())
+        {
+            for (SOCPossibleRoad pr : tr.getPossibleRoads().values())
+                pr.clearThreats();
+            for (SOCPossibleSettlement ps : tr.getPossibleSettlements().values())
+                ps.clearThreats();
+        }
+
+        for (SOCPlayerTracker tr : trackers.values())
+            tr.updateThreats(trackers);
+    }
+
+    /**
+     * After a player's new settlement or city, update its possible pieces' speedups.
+     * @param pn  the player number
+     */
+    private void updateSpeedups(final int pn)
+    {
+        final SOCPlayerTracker tr = trackers.get(Integer.valueOf(pn));
+        for (SOCPossibleSettlement ps : tr.getPossibleSettlements().values())
+            ps.updateSpeedup();
+        for (SOCPossibleCity pc : tr.getPossibleCities().values())
+            pc.updateSpeedup();
+    }
+
+}
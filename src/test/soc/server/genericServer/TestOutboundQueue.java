@@ -0,0 +1,106 @@
+/**
+ * Java Settlers - An online multiplayer version of the game Settlers of Catan
+ * This file Copyright (C) 2026 agent <agent@local>
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * The maintainer of this program can be reached at jsettlers@nand.net
+ **/
+package soc.server.genericServer;
+
+import junit.framework.TestCase;
+
+/**
+ * Tests for {@link OutboundQueue#coalesce()}.
+ *
+ * @author agent &lt;agent@local&gt;
+ * @since 2.0.00
+ */
+public class TestOutboundQueue extends TestCase
+{
+    /**
+     * Queue messages, each given as {@code "text"} or {@code "text=key"}.
+     * @param msgs  Messages to queue, in order
+     * @return  The queue
+     */
+    private static OutboundQueue queue(final String... msgs)
+    {
+        OutboundQueue q = new OutboundQueue();
+        for (String m : msgs)
+        {
+            final int i = m.indexOf('=');
+            q.addLast((i == -1)
+                ? new EncodedMessage(m, null, null)
+                : new EncodedMessage(m.substring(0, i), null, m.substring(i + 1)));
+        }
+
+        return q;
+    }
+
+    /**
+     * Empty the queue.
+     * @param q  Queue to empty
+     * @return  The text of its messages, in order, separated by spaces
+     */
+    private static String drain(final OutboundQueue q)
+    {
+        StringBuilder sb = new StringBuilder();
+        for (EncodedMessage msg = q.removeFirst(); msg != null; msg = q.removeFirst())
+        {
+            if (sb.length() > 0)
+                sb.append(' ');
+            sb.append(msg.str);
+        }
+
+        return sb.toString();
+    }
+
+    /**
+     * Keys interleaved with each other and with keyless messages:
+     * Only the newest message for each key is kept, and keyless messages keep their order.
+     */
+    public void testCoalesceInterleaved()
+    {
+        final OutboundQueue q = queue
+            ("a1=A", "x1", "b1=B", "a2=A", "x2", "c1=C", "b2=B", "x3", "a3=A", "x4", "b3=B");
+        final int bytesBefore = q.getBytes();
+
+        assertEquals(4, q.coalesce());
+        assertEquals(7, q.size());
+        assertTrue(q.getBytes() < bytesBefore);
+        assertEquals("x1 x2 c1 x3 a3 x4 b3", drain(q));
+        assertEquals(0, q.getBytes());
+    }
+
+    /** Nothing to coalesce: Every key is different, or messages have no key. */
+    public void testCoalesceNothing()
+    {
+        final OutboundQueue q = queue("a1=A", "x1", "b1=B", "x2", "c1=C");
+        final int bytesBefore = q.getBytes();
+
+        assertEquals(0, q.coalesce());
+        assertEquals(bytesBefore, q.getBytes());
+        assertEquals("a1 x1 b1 x2 c1", drain(q));
+    }
+
+    /** A contiguous run of the same key keeps only its last message. */
+    public void testCoalesceRun()
+    {
+        final OutboundQueue q = queue("x1", "a1=A", "a2=A", "a3=A", "x2");
+
+        assertEquals(2, q.coalesce());
+        assertEquals("x1 a3 x2", drain(q));
+    }
+
+}